@@ -0,0 +1,60 @@
+package org.lexor.bench.jmh;
+
+import org.lexor.engine.CompiledScript;
+import org.lexor.engine.LexorEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Runs per second of the workload's scripts through the embedding API: compiled once and shared by every
+// benchmark thread (compiled), against a full LexorEngine.compile on every run (reparse). One operation runs
+// every script of the workload once. Run with -t N to have N threads share the compiled scripts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledScriptBenchmark {
+    @Param({"corpus", "synthetic-10", "synthetic-100"})
+    public String workload;
+
+    private List<String> sources;
+    private final List<CompiledScript> compiled = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        sources = Workloads.sources(workload);
+        for (String source : sources) {
+            compiled.add(LexorEngine.compile(source));
+        }
+    }
+
+    @Benchmark
+    public void compiled() {
+        for (CompiledScript script : compiled) {
+            script.run(new ByteArrayInputStream(Workloads.INPUT), OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public void reparse() {
+        for (String source : sources) {
+            LexorEngine.compile(source).run(new ByteArrayInputStream(Workloads.INPUT), OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.lexor.bench.jmh;
+
+import org.lexor.runtime.OutputSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Source text to program output, the way Main runs a script on the Interpreter: lex, parse, analyze,
+// optionally optimize, then execute with the canned input and a null output sink.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndToEndBenchmark {
+    @Param({"corpus", "synthetic-10", "synthetic-100", "synthetic-1000"})
+    public String workload;
+
+    @Param({"true", "false"})
+    public boolean optimize;
+
+    private List<String> sources;
+    private final OutputSink output = Workloads.nullSink();
+    private PrintStream realOut;
+
+    @Setup
+    public void setUp() {
+        realOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        sources = Workloads.sources(workload);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(realOut);
+    }
+
+    @Benchmark
+    public void run() {
+        for (String source : sources) {
+            Workloads.run(Workloads.compile(source, optimize), output);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.lexor.bench.jmh;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.Lexer;
+import org.lexor.lexer.Token;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.OutputSink;
+import org.lexor.semantic.SemanticAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One benchmark per pipeline phase, each timing only its own phase over the whole workload: every input it
+// needs (tokens, parsed or analyzed ASTs) is produced once in setup. The SemanticAnalyzer only fills in
+// annotations and the Optimizer builds a new tree, so re-running them on the same AST is repeatable.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhaseBenchmark {
+    @Param({"corpus", "synthetic-10", "synthetic-100", "synthetic-1000"})
+    public String workload;
+
+    private List<String> sources;
+    private final List<List<Token>> tokens = new ArrayList<>();
+    private final List<ProgramNode> parsed = new ArrayList<>();
+    private final List<ProgramNode> analyzed = new ArrayList<>();
+    private final List<ProgramNode> optimized = new ArrayList<>();
+    private final OutputSink output = Workloads.nullSink();
+    private PrintStream realOut;
+
+    @Setup
+    public void setUp() {
+        // Anything that still writes to System.out goes nowhere
+        realOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        sources = Workloads.sources(workload);
+        for (String source : sources) {
+            List<Token> scanned = new Lexer(source).scanTokens();
+            tokens.add(scanned);
+            parsed.add(new Parser(scanned).parse());
+
+            ProgramNode program = Workloads.compile(source, false);
+            analyzed.add(program);
+            optimized.add(new Optimizer().optimize(program));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(realOut);
+    }
+
+    @Benchmark
+    public void lex(Blackhole blackhole) {
+        for (String source : sources) {
+            blackhole.consume(new Lexer(source).scanTokens());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (List<Token> scanned : tokens) {
+            blackhole.consume(new Parser(scanned).parse());
+        }
+    }
+
+    @Benchmark
+    public void analyze(Blackhole blackhole) {
+        for (ProgramNode program : parsed) {
+            SemanticAnalyzer analyzer = new SemanticAnalyzer();
+            analyzer.analyze(program);
+            blackhole.consume(analyzer);
+        }
+    }
+
+    @Benchmark
+    public void optimize(Blackhole blackhole) {
+        for (ProgramNode program : analyzed) {
+            blackhole.consume(new Optimizer().optimize(program));
+        }
+    }
+
+    @Benchmark
+    public void interpret() {
+        for (ProgramNode program : optimized) {
+            Workloads.run(program, output);
+        }
+    }
+}
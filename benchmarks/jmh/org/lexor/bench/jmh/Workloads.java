@@ -0,0 +1,125 @@
+package org.lexor.bench.jmh;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.error.LexorException;
+import org.lexor.lexer.Lexer;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// The scripts a benchmark runs, selected by its workload parameter:
+//   corpus         the passing scripts of test_cases/ (pass, doc_pass, doc_edge) and sample_scripts/ that
+//                  compile and run with INPUT; the fail directories hold deliberately broken or endless scripts
+//   synthetic-N    one generated program of N blocks, each a short FOR loop with INT/FLOAT arithmetic,
+//                  an IF/ELSE chain, '&' concatenation and a PRINT, so source size and run time grow with N
+// Directories are resolved against the working directory, which must be the repository root.
+final class Workloads {
+    static final String[] CORPUS_DIRS = {
+            "test_cases/pass", "test_cases/doc_pass", "test_cases/doc_edge", "sample_scripts"};
+
+    // Canned SCAN input, enough lines for every corpus script that reads
+    static final byte[] INPUT = "5\n3, 4.5, TRUE, c\n7\n2\n1\n".repeat(4).getBytes(StandardCharsets.UTF_8);
+
+    private Workloads() {
+    }
+
+    static List<String> sources(String workload) {
+        if (workload.equals("corpus")) {
+            return corpus();
+        }
+        if (workload.startsWith("synthetic-")) {
+            return List.of(synthetic(Integer.parseInt(workload.substring("synthetic-".length()))));
+        }
+        throw new IllegalArgumentException("Unknown workload '" + workload + "'. Expected corpus or synthetic-N");
+    }
+
+    // Lexes, parses and analyzes a source; optimize chooses whether the Optimizer runs as well
+    static ProgramNode compile(String source, boolean optimize) {
+        ProgramNode program = new Parser(new Lexer(source).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        return optimize ? new Optimizer().optimize(program) : program;
+    }
+
+    static void run(ProgramNode program, OutputSink output) {
+        new Interpreter(new InputReader(new ByteArrayInputStream(INPUT)), output).interpret(program);
+    }
+
+    static OutputSink nullSink() {
+        return new OutputSink(OutputStream.nullOutputStream());
+    }
+
+    private static List<String> corpus() {
+        List<String> sources = new ArrayList<>();
+        for (String dir : CORPUS_DIRS) {
+            try (Stream<Path> files = Files.list(Paths.get(dir))) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".lxr")).sorted().toList()) {
+                    String source = Files.readString(file);
+                    if (runs(source)) sources.add(source);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + dir + "; run the benchmarks from the repository root", e);
+            }
+        }
+        return sources;
+    }
+
+    // Scripts that fail to compile or to run are left out, so every phase sees the same scripts
+    private static boolean runs(String source) {
+        try {
+            run(compile(source, true), nullSink());
+            return true;
+        } catch (LexorException e) {
+            return false;
+        }
+    }
+
+    static String synthetic(int blocks) {
+        StringBuilder builder = new StringBuilder("""
+                SCRIPT AREA
+                START SCRIPT
+                DECLARE INT i, total = 0
+                DECLARE FLOAT rate = 1.5, sum = 0.0
+                DECLARE STRING line = ""
+                DECLARE BOOL flag = "FALSE"
+                """);
+        for (int b = 0; b < blocks; b++) {
+            builder.append("""
+                    %%%% block %1$d
+                    FOR (i = 0, i < 10, i = i + 1)
+                    START FOR
+                        total = total + i * %1$d %% 7 - (i / 3)
+                        sum = sum + rate * i
+                        IF (total %% 2 == 0 AND NOT flag)
+                        START IF
+                            line = "even " & total
+                        END IF
+                        ELSE IF (total > %1$d)
+                        START IF
+                            line = "big " & sum
+                        END IF
+                        ELSE
+                        START IF
+                            flag = total < 0
+                        END IF
+                    END FOR
+                    PRINT: "block %1$d: " & line & $
+                    """.formatted(b));
+        }
+        return builder.append("END SCRIPT\n").toString();
+    }
+}
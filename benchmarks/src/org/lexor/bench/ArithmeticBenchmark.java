@@ -0,0 +1,79 @@
+package org.lexor.bench;
+
+import org.lexor.error.RuntimeError;
+import org.lexor.lexer.Token;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.Arithmetic;
+import org.lexor.runtime.values.*;
+
+// Per-operator cost of the Interpreter's binary arithmetic: the original String round-trip
+// (asString() + Float.parseFloat on every operand) against the typed Arithmetic engine.
+//
+// Run from the repository root:
+//   javac -d out $(find src benchmarks/src -name '*.java')
+//   java -cp out org.lexor.bench.ArithmeticBenchmark
+public class ArithmeticBenchmark {
+    private static final int OPERANDS = 1024;
+    private static final int WARMUP = 2_000;
+    private static final int ROUNDS = 2_000;
+
+    public static void main(String[] args) {
+        RuntimeValue[] ints = new RuntimeValue[OPERANDS];
+        RuntimeValue[] floats = new RuntimeValue[OPERANDS];
+        for (int i = 0; i < OPERANDS; i++) {
+            ints[i] = new IntValue(i * 7 + 1);
+            floats[i] = new FloatValue(i * 0.25f + 0.5f);
+        }
+
+        Bench.header("Binary operator cost (string round-trip vs typed)");
+        for (TokenType op : new TokenType[]{TokenType.PLUS, TokenType.STAR, TokenType.SLASH, TokenType.LESS}) {
+            Token token = new Token(op, op.name(), 1);
+            run(op + " INT x INT", token, ints, ints);
+            run(op + " FLOAT x FLOAT", token, floats, floats);
+            run(op + " INT x FLOAT", token, ints, floats);
+        }
+
+        System.out.println();
+        System.out.println("Precision check: 16777217 + 0 (INT x INT)");
+        Token plus = new Token(TokenType.PLUS, "+", 1);
+        System.out.println("  string round-trip : " + legacyBinary(plus, new IntValue(16_777_217), new IntValue(0)).asString());
+        System.out.println("  typed             : " + Arithmetic.binary(plus, new IntValue(16_777_217), new IntValue(0)).asString());
+    }
+
+    private static void run(String label, Token op, RuntimeValue[] left, RuntimeValue[] right) {
+        double legacy = Bench.nanosPerOp(WARMUP, ROUNDS, OPERANDS, () -> {
+            RuntimeValue last = null;
+            for (int i = 0; i < OPERANDS; i++) {
+                last = legacyBinary(op, left[i], right[i]);
+            }
+            return last;
+        });
+        double typed = Bench.nanosPerOp(WARMUP, ROUNDS, OPERANDS, () -> {
+            RuntimeValue last = null;
+            for (int i = 0; i < OPERANDS; i++) {
+                last = Arithmetic.binary(op, left[i], right[i]);
+            }
+            return last;
+        });
+        Bench.report(label + " (before)", legacy);
+        Bench.report(label + " (after)", typed);
+    }
+
+    // The arithmetic path Interpreter.visitBinaryExprNode used before the typed engine, kept as the baseline
+    private static RuntimeValue legacyBinary(Token operator, RuntimeValue left, RuntimeValue right) {
+        boolean isFloat = (left instanceof FloatValue || right instanceof FloatValue);
+        float leftF = Float.parseFloat(left.asString());
+        float rightF = Float.parseFloat(right.asString());
+
+        return switch (operator.type) {
+            case PLUS  -> isFloat ? new FloatValue(leftF + rightF) : new IntValue((int)(leftF + rightF));
+            case STAR  -> isFloat ? new FloatValue(leftF * rightF) : new IntValue((int)(leftF * rightF));
+            case SLASH -> {
+                if (rightF == 0) throw new RuntimeError("Division by zero.");
+                yield isFloat ? new FloatValue(leftF / rightF) : new IntValue((int)(leftF / rightF));
+            }
+            case LESS  -> new BoolValue(leftF < rightF);
+            default -> throw new RuntimeError("Unknown binary operator: " + operator.lexeme());
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package org.lexor.bench;
+
+import java.util.function.Supplier;
+
+// Minimal timing harness shared by the stand-alone benchmark mains in this package.
+// Each round is run warmupRounds times untimed so the JIT settles, then timed rounds are averaged.
+final class Bench {
+    // Results are published here so the JIT cannot eliminate the measured work
+    static volatile Object sink;
+
+    private Bench() {
+    }
+
+    // Returns the average cost of one operation, where each call of round performs opsPerRound operations
+    static double nanosPerOp(int warmupRounds, int rounds, long opsPerRound, Supplier<Object> round) {
+        for (int i = 0; i < warmupRounds; i++) {
+            sink = round.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            sink = round.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        return (double) elapsed / ((double) rounds * opsPerRound);
+    }
+
+    static void header(String title) {
+        System.out.println("=== " + title + " ===");
+        System.out.printf("  %-40s %12s%n", "case", "ns/op");
+    }
+
+    static void report(String label, double nanosPerOp) {
+        System.out.printf("  %-40s %12.2f%n", label, nanosPerOp);
+    }
+}
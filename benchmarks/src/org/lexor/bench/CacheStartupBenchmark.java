@@ -0,0 +1,106 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.cache.AstCodec;
+import org.lexor.cache.ScriptCache;
+import org.lexor.lexer.Lexer;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.parser.Parser;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// How much startup the on-disk ScriptCache saves on large generated scripts, measured two ways:
+//   in process   compiling (lex, parse, analyze, optimize) against loading the cached AST, with a warm JIT
+//   per process  the wall time of a whole `Main` run in a fresh JVM without --cache and with a cache hit,
+//                which is what a user sees: the JIT is cold and the compile phases' classes are never loaded
+// Scripts are WorkloadGenerator programs of growing block count; each process time is the median of RUNS.
+//
+//   java -cp benchmarks/target/benchmarks.jar org.lexor.bench.CacheStartupBenchmark [blocks ...]
+public class CacheStartupBenchmark {
+    private static final int RUNS = 7;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length == 0
+                ? new int[]{100, 400, 1600, 6400}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        Path work = Files.createTempDirectory("lexor-cache-bench");
+        try {
+            ScriptCache cache = new ScriptCache(work.resolve("cache"));
+            for (int blocks : sizes) {
+                measure(work, cache, blocks);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(work)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static void measure(Path work, ScriptCache cache, int blocks) throws IOException, InterruptedException {
+        String source = WorkloadGenerator.generate(WorkloadGenerator.Shape.defaults().with("blocks", blocks));
+        Path script = work.resolve("blocks" + blocks + ".lxr");
+        Files.writeString(script, source);
+        ProgramNode program = compile(source);
+        cache.store(source, true, program);
+
+        Bench.header("ScriptCache, " + blocks + " blocks (" + source.length() / 1024 + " KB source)");
+        int rounds = Math.max(3, 400 / blocks);
+        Bench.report("compile", Bench.nanosPerOp(rounds, rounds, 1, () -> compile(source)));
+        Bench.report("load from cache", Bench.nanosPerOp(rounds, rounds, 1, () -> cache.load(source, true)));
+        System.out.printf("  %-40s %12d%n", "encoded AST bytes", AstCodec.encode(program).length);
+
+        long[] coldRuns = new long[RUNS];
+        long[] cachedRuns = new long[RUNS];
+        // Alternating the two keeps drift in machine load from favouring either
+        for (int i = 0; i < RUNS; i++) {
+            coldRuns[i] = process(script, null);
+            cachedRuns[i] = process(script, cache.directory());
+        }
+        double cold = median(coldRuns);
+        double cached = median(cachedRuns);
+        System.out.printf("  %-40s %12.1f%n", "process ms, no cache", cold / 1e6);
+        System.out.printf("  %-40s %12.1f%n", "process ms, cache hit", cached / 1e6);
+        System.out.printf("  %-40s %12.1f%n", "startup saved ms", (cold - cached) / 1e6);
+        System.out.println();
+    }
+
+    private static ProgramNode compile(String source) {
+        ProgramNode program = new Parser(new Lexer(source).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        return new Optimizer().optimize(program);
+    }
+
+    // Wall time of one `Main` run in a new JVM on this classpath, output discarded
+    private static long process(Path script, Path cacheDirectory) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = cacheDirectory == null
+                ? List.of(java, "-cp", System.getProperty("java.class.path"), "org.lexor.Main", script.toString())
+                : List.of(java, "-cp", System.getProperty("java.class.path"), "org.lexor.Main",
+                        "--cache=" + cacheDirectory, script.toString());
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+        long start = System.nanoTime();
+        int status = builder.start().waitFor();
+        long elapsed = System.nanoTime() - start;
+        if (status != 0) {
+            throw new IllegalStateException("Main exited with status " + status + " on " + script);
+        }
+        return elapsed;
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,150 @@
+package org.lexor.bench;
+
+import org.lexor.engine.CompiledScript;
+import org.lexor.engine.CompiledScriptCache;
+import org.lexor.engine.LexorEngine;
+import org.lexor.error.LexorException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// A server workload for CompiledScriptCache: THREADS workers each serve REQUESTS requests, a request being
+// one corpus script compiled and then run on INPUT. Scripts are drawn from a Zipf distribution, so a few are
+// requested most of the time and the rest now and then, as a service sees repeated submissions. The same
+// request sequence runs without a cache, with a cache that holds every script, and with one that holds about
+// a quarter of their total weight and must evict. A burst of threads compiling one new source at once then
+// shows the compiles collapsing into one.
+//
+// Run from the repository root:
+//   java -cp benchmarks/target/benchmarks.jar org.lexor.bench.CompiledScriptCacheBenchmark
+public class CompiledScriptCacheBenchmark {
+    private static final String[] CORPUS_DIRS = {
+            "test_cases/pass", "test_cases/doc_pass", "test_cases/doc_edge", "sample_scripts"};
+    private static final int THREADS = 4;
+    private static final int REQUESTS = 5_000;
+    private static final int ROUNDS = 3;
+    private static final int BURST = 32;
+
+    public static void main(String[] args) throws Exception {
+        List<String> sources = corpus();
+        int[][] requests = requests(sources.size());
+
+        CompiledScriptCache sizing = new CompiledScriptCache(Long.MAX_VALUE);
+        for (String source : sources) sizing.compile(source);
+        long total = sizing.stats().weightBytes();
+        System.out.printf("%d scripts, %d KB estimated AST weight in all%n%n", sources.size(), total / 1024);
+
+        System.out.printf("  %-28s %12s %8s %10s %10s %10s%n", "cache", "requests/s", "hit %", "misses", "evictions", "KB held");
+        measure("none", sources, requests, LexorEngine::compile, null);
+        CompiledScriptCache ample = new CompiledScriptCache(2 * total);
+        measure("holds all", sources, requests, ample::compile, ample);
+        CompiledScriptCache tight = new CompiledScriptCache(total / 4);
+        measure("holds a quarter", sources, requests, tight::compile, tight);
+
+        collapse(WorkloadGenerator.generate(WorkloadGenerator.Shape.defaults().with("blocks", 400)));
+    }
+
+    private static void measure(String label, List<String> sources, int[][] requests,
+                                Function<String, CompiledScript> compile, CompiledScriptCache cache) throws Exception {
+        double best = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            try (ExecutorService workers = Executors.newFixedThreadPool(THREADS)) {
+                List<Future<?>> done = new ArrayList<>();
+                for (int[] sequence : requests) {
+                    done.add(workers.submit(() -> {
+                        for (int index : sequence) {
+                            compile.apply(sources.get(index)).run(new ByteArrayInputStream(CorpusRunner.INPUT),
+                                    OutputStream.nullOutputStream());
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : done) future.get();
+            }
+            best = Math.max(best, (double) THREADS * REQUESTS * 1e9 / (System.nanoTime() - start));
+        }
+        if (cache == null) {
+            System.out.printf("  %-28s %12.0f %8s %10s %10s %10s%n", label, best, "-", "-", "-", "-");
+        } else {
+            CompiledScriptCache.Stats stats = cache.stats();
+            System.out.printf("  %-28s %12.0f %8.1f %10d %10d %10d%n", label, best, 100 * stats.hitRate(),
+                    stats.misses(), stats.evictions(), stats.weightBytes() / 1024);
+        }
+    }
+
+    // Many threads ask for the same uncached (and large, so slow to compile) source at once; only one of them
+    // compiles it. Platform threads, so the others are scheduled while it compiles even on one CPU.
+    private static void collapse(String source) throws Exception {
+        CompiledScriptCache cache = new CompiledScriptCache(Long.MAX_VALUE);
+        CountDownLatch ready = new CountDownLatch(1);
+        try (ExecutorService threads = Executors.newFixedThreadPool(BURST)) {
+            for (int i = 0; i < BURST; i++) {
+                threads.submit(() -> {
+                    ready.await();
+                    return cache.compile(source);
+                });
+            }
+            ready.countDown();
+        }
+        CompiledScriptCache.Stats stats = cache.stats();
+        System.out.printf("%n%d concurrent compiles of one source: %d compiled, %d waited for it, %d found it compiled%n",
+                BURST, stats.misses(), stats.collapsed(), stats.hits());
+    }
+
+    // Per worker, REQUESTS script indexes drawn from a Zipf(1) distribution over the scripts
+    private static int[][] requests(int scripts) {
+        double[] cumulative = new double[scripts];
+        double sum = 0;
+        for (int i = 0; i < scripts; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(7);
+        int[][] requests = new int[THREADS][REQUESTS];
+        for (int[] sequence : requests) {
+            for (int r = 0; r < REQUESTS; r++) {
+                double draw = random.nextDouble() * sum;
+                int index = 0;
+                while (cumulative[index] < draw) index++;
+                sequence[r] = index;
+            }
+        }
+        return requests;
+    }
+
+    // The corpus scripts that compile and run on INPUT, in a fixed shuffled order so the popular ones are not
+    // all from one directory
+    private static List<String> corpus() throws IOException {
+        List<String> sources = new ArrayList<>();
+        for (String dir : CORPUS_DIRS) {
+            try (Stream<Path> files = Files.list(Path.of(dir))) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".lxr")).sorted().toList()) {
+                    String source = Files.readString(file);
+                    try {
+                        LexorEngine.compile(source).run(new ByteArrayInputStream(CorpusRunner.INPUT),
+                                OutputStream.nullOutputStream());
+                        sources.add(source);
+                    } catch (LexorException e) {
+                        // Scripts that fail to compile or run are left out
+                    }
+                }
+            }
+        }
+        Collections.shuffle(sources, new Random(11));
+        return sources;
+    }
+}
@@ -0,0 +1,111 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.Interpreter;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// Interpreter cost of loops that leave their body through CONTINUE and BREAK, reported per loop iteration.
+// The plain loop is the baseline; the other cases take a CONTINUE on every iteration, a CONTINUE
+// from inside nested IF blocks, and a BREAK out of a short inner loop on each outer iteration.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.ControlFlowBenchmark
+public class ControlFlowBenchmark {
+    private static final int N = 200_000;
+
+    private static final String PLAIN = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i, s=0
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                s = s + 1
+            END FOR
+            END SCRIPT
+            """.formatted(N);
+
+    private static final String CONTINUE_EVERY = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i, s=0
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                s = s + 1
+                CONTINUE
+            END FOR
+            END SCRIPT
+            """.formatted(N);
+
+    private static final String CONTINUE_NESTED = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i=0, s=0
+            REPEAT WHEN (i < %d)
+            START REPEAT
+                i = i + 1
+                IF (i > 0)
+                START IF
+                    IF (i %% 2 == 0)
+                    START IF
+                        CONTINUE
+                    END IF
+                    ELSE
+                    START IF
+                        s = s + 1
+                        CONTINUE
+                    END IF
+                END IF
+                s = s - 1
+            END REPEAT
+            END SCRIPT
+            """.formatted(N);
+
+    private static final String BREAK_INNER = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i, j, s=0
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                FOR (j = 0, j < 10, j = j + 1)
+                START FOR
+                    BREAK
+                END FOR
+                s = s + j
+            END FOR
+            END SCRIPT
+            """.formatted(N);
+
+    public static void main(String[] args) {
+        PrintStream realOut = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            double plain = time(PLAIN);
+            double continueEvery = time(CONTINUE_EVERY);
+            double continueNested = time(CONTINUE_NESTED);
+            double breakInner = time(BREAK_INNER);
+            System.setOut(realOut);
+
+            Bench.header("Interpreter loop control, " + N + " iterations (per iteration)");
+            Bench.report("plain FOR", plain);
+            Bench.report("CONTINUE every iteration", continueEvery);
+            Bench.report("CONTINUE from nested IF blocks", continueNested);
+            Bench.report("BREAK out of an inner FOR", breakInner);
+        } finally {
+            System.setOut(realOut);
+        }
+    }
+
+    private static double time(String source) {
+        ProgramNode program = new Parser(new Lexer(source).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        return Bench.nanosPerOp(10, 30, N, () -> {
+            new Interpreter().interpret(program);
+            return program;
+        });
+    }
+}
@@ -0,0 +1,362 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.error.LexorException;
+import org.lexor.lexer.Lexer;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+// Conformance and performance-regression run over test_cases/. Every script runs concurrently with the others
+// in its own Interpreter, reading its own input (the sibling <name>.in, or INPUT) and printing into its own
+// buffer, through the same pipeline as Main: lex, parse, analyze, optimize, interpret.
+//
+// Conformance: <name>.expected holds the exact output followed by a last line "%% <result>", where the result
+// is "ok", the LexorException class the script fails with (e.g. "SyntaxError"), "output limit" for a script
+// that prints more than OUTPUT_LIMIT bytes, or "timeout" for one that runs longer than TIMEOUT_MILLIS. Those
+// last two record no output.
+//
+// Performance: every script that finishes is then run `runs` more times, again all concurrently, and its best
+// wall time and fewest allocated bytes are compared against test_cases/baseline.tsv. A script regresses when
+// it is both more than the tolerance ratio and more than a fixed slack above its baseline; the corpus totals
+// are held to the ratio alone. Baselines are machine-specific, and wall times depend on how many scripts share
+// the CPUs, so record them on the machine that checks them and with the same --threads.
+//
+// Exits with status 1 on any mismatch or regression. Run from the repository root:
+//   java -cp out org.lexor.bench.CorpusRunner [--runs=N] [--threads=N] [--time-tolerance=R]
+//        [--alloc-tolerance=R] [--update-expected] [--update-baseline] [--verbose]
+public class CorpusRunner {
+    static final String[] DIRS = {
+            "test_cases/pass", "test_cases/fail", "test_cases/doc_pass", "test_cases/doc_fail", "test_cases/doc_edge"};
+    static final Path BASELINE = Paths.get("test_cases/baseline.tsv");
+
+    // Canned SCAN input for scripts without a <name>.in
+    static final byte[] INPUT = "5\n3, 4.5, TRUE, c\n7\n2\n1\n".repeat(4).getBytes(StandardCharsets.UTF_8);
+
+    static final int OUTPUT_LIMIT = 1 << 20;
+    static final long TIMEOUT_MILLIS = 10_000;
+    private static final String RESULT_MARKER = "%% ";
+    // Differences this small are noise, whatever the ratio
+    private static final long TIME_SLACK_NANOS = 500_000;
+    private static final long ALLOC_SLACK_BYTES = 16 * 1024;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // What one run of a script produced
+    record Outcome(String output, String result) {
+        String expectedText() {
+            return output + "\n" + RESULT_MARKER + result + "\n";
+        }
+
+        boolean finished() {
+            return !result.equals("timeout");
+        }
+    }
+
+    // The best of a script's timed runs
+    record Cost(long nanos, long bytes) {
+    }
+
+    private static final class OutputLimitExceeded extends RuntimeException {
+        OutputLimitExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    // The script's output; printing past OUTPUT_LIMIT aborts the run
+    private static final class LimitedOutput extends ByteArrayOutputStream {
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (count + length > OUTPUT_LIMIT) throw new OutputLimitExceeded();
+            super.write(bytes, offset, length);
+        }
+
+        @Override
+        public void write(int b) {
+            if (count + 1 > OUTPUT_LIMIT) throw new OutputLimitExceeded();
+            super.write(b);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double timeTolerance = 1.5;
+        double allocTolerance = 1.1;
+        boolean updateExpected = false;
+        boolean updateBaseline = false;
+        boolean verbose = false;
+        for (String arg : args) {
+            if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--time-tolerance=")) {
+                timeTolerance = Double.parseDouble(arg.substring("--time-tolerance=".length()));
+            } else if (arg.startsWith("--alloc-tolerance=")) {
+                allocTolerance = Double.parseDouble(arg.substring("--alloc-tolerance=".length()));
+            } else if (arg.equals("--update-expected")) {
+                updateExpected = true;
+            } else if (arg.equals("--update-baseline")) {
+                updateBaseline = true;
+            } else if (arg.equals("--verbose")) {
+                verbose = true;
+            } else {
+                System.err.println("Unknown option '" + arg + "'");
+                System.exit(2);
+            }
+        }
+
+        List<Path> scripts = scripts();
+        // Daemon threads, so a script that never finishes cannot keep the JVM alive
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Pass 1: conformance
+        long start = System.nanoTime();
+        Map<Path, Future<Outcome>> pending = new LinkedHashMap<>();
+        for (Path script : scripts) {
+            String source = Files.readString(script);
+            byte[] input = input(script);
+            pending.put(script, pool.submit(() -> execute(source, input)));
+        }
+        Map<Path, Outcome> outcomes = new LinkedHashMap<>();
+        for (Map.Entry<Path, Future<Outcome>> entry : pending.entrySet()) {
+            outcomes.put(entry.getKey(), await(entry.getValue(), start));
+        }
+
+        int mismatches = 0;
+        for (Map.Entry<Path, Outcome> entry : outcomes.entrySet()) {
+            Path script = entry.getKey();
+            Outcome outcome = entry.getValue();
+            Path expectedFile = sibling(script, ".expected");
+            if (updateExpected) {
+                Files.writeString(expectedFile, outcome.expectedText());
+                continue;
+            }
+            if (!Files.exists(expectedFile)) {
+                mismatches++;
+                System.out.println("MISSING  " + script + " (no " + expectedFile.getFileName() + "; run with --update-expected)");
+            } else if (!Files.readString(expectedFile).equals(outcome.expectedText())) {
+                mismatches++;
+                System.out.println("FAIL     " + script + ": " + describeMismatch(Files.readString(expectedFile), outcome));
+            } else if (verbose) {
+                System.out.println("ok       " + script + " (" + outcome.result() + ")");
+            }
+        }
+
+        // Pass 2: performance, over the scripts that finish
+        Map<Path, Future<Cost>> timing = new LinkedHashMap<>();
+        for (Path script : scripts) {
+            if (!outcomes.get(script).finished()) continue;
+            String source = Files.readString(script);
+            byte[] input = input(script);
+            int rounds = runs;
+            timing.put(script, pool.submit(() -> measure(source, input, rounds)));
+        }
+        Map<Path, Cost> costs = new LinkedHashMap<>();
+        for (Map.Entry<Path, Future<Cost>> entry : timing.entrySet()) {
+            costs.put(entry.getKey(), entry.getValue().get());
+        }
+
+        int regressions = 0;
+        if (updateBaseline) {
+            writeBaseline(costs, threads);
+        } else if (!Files.exists(BASELINE)) {
+            System.out.println("No baseline at " + BASELINE + "; run with --update-baseline to record one");
+        } else {
+            regressions = compare(readBaseline(threads), costs, timeTolerance, allocTolerance, verbose);
+        }
+
+        long totalNanos = costs.values().stream().mapToLong(Cost::nanos).sum();
+        long totalBytes = costs.values().stream().mapToLong(Cost::bytes).sum();
+        System.out.printf("%d scripts, %d mismatches, %d regressions; best run total %.2f ms, %.1f KB allocated (%d threads, %.1f s)%n",
+                scripts.size(), mismatches, regressions, totalNanos / 1e6, totalBytes / 1024.0, threads,
+                (System.nanoTime() - start) / 1e9);
+        if (updateExpected) System.out.println("Wrote " + outcomes.size() + " .expected files");
+        if (updateBaseline) System.out.println("Wrote " + BASELINE);
+        System.exit(mismatches + regressions == 0 ? 0 : 1);
+    }
+
+    // =========================================================================
+    // RUNNING
+    // =========================================================================
+
+    // One run through the pipeline, as Main does it; a LexorException is an outcome, not a failure of the runner
+    static Outcome execute(String source, byte[] input) {
+        LimitedOutput buffer = new LimitedOutput();
+        String result;
+        try {
+            ProgramNode program = new Parser(new Lexer(source).scanTokens()).parse();
+            new SemanticAnalyzer().analyze(program);
+            program = new Optimizer().optimize(program);
+            new Interpreter(new InputReader(new ByteArrayInputStream(input)), new OutputSink(buffer)).interpret(program);
+            result = "ok";
+        } catch (LexorException e) {
+            result = e.getClass().getSimpleName();
+        } catch (OutputLimitExceeded e) {
+            return new Outcome("", "output limit");
+        } catch (RuntimeException | StackOverflowError e) {
+            result = "internal error: " + e;
+        }
+        return new Outcome(buffer.toString(StandardCharsets.UTF_8), result);
+    }
+
+    // The best wall time and the fewest allocated bytes over rounds runs on this thread
+    static Cost measure(String source, byte[] input, int rounds) {
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long allocated = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            Bench.sink = execute(source, input);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, THREADS.getCurrentThreadAllocatedBytes() - allocated);
+        }
+        return new Cost(bestNanos, bestBytes);
+    }
+
+    // Every script must finish within TIMEOUT_MILLIS of the start of the pass; the whole corpus takes well under that
+    private static Outcome await(Future<Outcome> future, long passStart) throws InterruptedException {
+        long deadline = passStart + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return new Outcome("", "timeout");
+        } catch (ExecutionException e) {
+            return new Outcome("", "internal error: " + e.getCause());
+        }
+    }
+
+    private static List<Path> scripts() {
+        List<Path> scripts = new ArrayList<>();
+        for (String dir : DIRS) {
+            try (Stream<Path> files = Files.list(Paths.get(dir))) {
+                scripts.addAll(files.filter(f -> f.toString().endsWith(".lxr")).sorted().toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + dir + "; run the corpus from the repository root", e);
+            }
+        }
+        return scripts;
+    }
+
+    private static byte[] input(Path script) throws IOException {
+        Path in = sibling(script, ".in");
+        return Files.exists(in) ? Files.readAllBytes(in) : INPUT;
+    }
+
+    private static Path sibling(Path script, String extension) {
+        String name = script.getFileName().toString();
+        return script.resolveSibling(name.substring(0, name.length() - ".lxr".length()) + extension);
+    }
+
+    private static String describeMismatch(String expectedText, Outcome actual) {
+        int marker = expectedText.lastIndexOf("\n" + RESULT_MARKER);
+        String expectedResult = marker < 0 ? "?" : expectedText.substring(marker + 1 + RESULT_MARKER.length()).strip();
+        if (!expectedResult.equals(actual.result())) {
+            return "expected result '" + expectedResult + "' but got '" + actual.result() + "'";
+        }
+        String expectedOutput = expectedText.substring(0, marker);
+        int line = 1;
+        int i = 0;
+        while (i < expectedOutput.length() && i < actual.output().length() && expectedOutput.charAt(i) == actual.output().charAt(i)) {
+            if (expectedOutput.charAt(i) == '\n') line++;
+            i++;
+        }
+        return "output differs at line " + line;
+    }
+
+    // =========================================================================
+    // BASELINE
+    // =========================================================================
+
+    private static int compare(Map<String, Cost> baseline, Map<Path, Cost> costs, double timeTolerance,
+                               double allocTolerance, boolean verbose) {
+        int regressions = 0;
+        long baseNanos = 0, baseBytes = 0, nanos = 0, bytes = 0;
+        for (Map.Entry<Path, Cost> entry : costs.entrySet()) {
+            String script = entry.getKey().toString().replace('\\', '/');
+            Cost cost = entry.getValue();
+            Cost base = baseline.get(script);
+            if (base == null) {
+                System.out.println("NEW      " + script + " (not in " + BASELINE + ")");
+                continue;
+            }
+            baseNanos += base.nanos();
+            baseBytes += base.bytes();
+            nanos += cost.nanos();
+            bytes += cost.bytes();
+
+            boolean slower = cost.nanos() > base.nanos() * timeTolerance && cost.nanos() - base.nanos() > TIME_SLACK_NANOS;
+            boolean heavier = cost.bytes() > base.bytes() * allocTolerance && cost.bytes() - base.bytes() > ALLOC_SLACK_BYTES;
+            if (slower || heavier) {
+                regressions++;
+                System.out.printf("SLOWER   %s: %.3f ms (baseline %.3f), %.1f KB (baseline %.1f)%n", script,
+                        cost.nanos() / 1e6, base.nanos() / 1e6, cost.bytes() / 1024.0, base.bytes() / 1024.0);
+            } else if (verbose) {
+                System.out.printf("         %s: %.3f ms (baseline %.3f), %.1f KB (baseline %.1f)%n", script,
+                        cost.nanos() / 1e6, base.nanos() / 1e6, cost.bytes() / 1024.0, base.bytes() / 1024.0);
+            }
+        }
+        if (nanos > baseNanos * timeTolerance || bytes > baseBytes * allocTolerance) {
+            regressions++;
+            System.out.printf("SLOWER   corpus total: %.2f ms (baseline %.2f), %.1f KB (baseline %.1f)%n",
+                    nanos / 1e6, baseNanos / 1e6, bytes / 1024.0, baseBytes / 1024.0);
+        }
+        return regressions;
+    }
+
+    private static Map<String, Cost> readBaseline(int threads) throws IOException {
+        Map<String, Cost> baseline = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(BASELINE)) {
+            if (line.startsWith("# threads=") && Integer.parseInt(line.substring("# threads=".length())) != threads) {
+                System.out.println("Warning: " + BASELINE + " was recorded with " + line.substring(2)
+                        + ", this run uses " + threads + "; wall times may not compare");
+            }
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] fields = line.split("\t");
+            baseline.put(fields[0], new Cost(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(Map<Path, Cost> costs, int threads) throws IOException {
+        StringBuilder text = new StringBuilder(
+                "# CorpusRunner baseline: script, best wall time (ns), fewest allocated bytes. Rewrite with --update-baseline.\n");
+        text.append("# threads=").append(threads).append('\n');
+        for (Map.Entry<Path, Cost> entry : costs.entrySet()) {
+            text.append(entry.getKey().toString().replace('\\', '/')).append('\t')
+                    .append(entry.getValue().nanos()).append('\t')
+                    .append(entry.getValue().bytes()).append('\n');
+        }
+        Files.writeString(BASELINE, text);
+    }
+}
@@ -0,0 +1,170 @@
+package org.lexor.bench;
+
+import org.lexor.daemon.Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// What daemon mode saves and how it holds up under concurrent sessions. A daemon is started as its own process
+// on a temporary socket, warmed on sample_scripts, and then measured two ways:
+//   per process  the wall time of a fresh-JVM `Main` run against a thin `Client` run of the same script, each
+//                the median of RUNS, which is the startup a user sees
+//   sessions     CLIENTS virtual threads each send SESSIONS corpus scripts through Client.run, and the latency
+//                of every session is taken on the client side; the daemon's own report follows
+//
+// Run from the repository root:
+//   java -cp benchmarks/target/benchmarks.jar org.lexor.bench.DaemonBenchmark
+public class DaemonBenchmark {
+    private static final String[] CORPUS_DIRS = {
+            "test_cases/pass", "test_cases/doc_pass", "test_cases/doc_edge", "sample_scripts"};
+    private static final Path SCRIPT = Path.of("sample_scripts/test_program.lxr");
+    private static final int RUNS = 9;
+    private static final int CLIENTS = 16;
+    private static final int SESSIONS = 250;
+
+    public static void main(String[] args) throws Exception {
+        Path work = Files.createTempDirectory("lexor-daemon-bench");
+        Path socket = work.resolve("lexor.sock");
+        Process daemon = new ProcessBuilder(java(), "-cp", System.getProperty("java.class.path"), "org.lexor.Main",
+                "--daemon=" + socket, "sample_scripts")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            awaitDaemon(socket, daemon);
+            perProcess(socket);
+            sessions(socket, corpus());
+            System.out.print(Client.stats(socket));
+            Client.shutdown(socket);
+            daemon.waitFor();
+        } finally {
+            daemon.destroy();
+            Files.deleteIfExists(socket);
+            Files.deleteIfExists(work);
+        }
+    }
+
+    private static void perProcess(Path socket) throws IOException, InterruptedException {
+        String classpath = System.getProperty("java.class.path");
+        long[] mainRuns = new long[RUNS];
+        long[] clientRuns = new long[RUNS];
+        // Alternating the two keeps drift in machine load from favouring either
+        for (int i = 0; i < RUNS; i++) {
+            mainRuns[i] = process(java(), "-cp", classpath, "org.lexor.Main", SCRIPT.toString());
+            clientRuns[i] = process(java(), "-cp", classpath, "org.lexor.daemon.Client", "--socket=" + socket,
+                    SCRIPT.toString());
+        }
+        double main = median(mainRuns);
+        double client = median(clientRuns);
+        Bench.header("Daemon, one run of " + SCRIPT);
+        System.out.printf("  %-40s %12.1f%n", "process ms, fresh JVM (Main)", main / 1e6);
+        System.out.printf("  %-40s %12.1f%n", "process ms, thin client", client / 1e6);
+        System.out.printf("  %-40s %12.1f%n", "startup saved ms", (main - client) / 1e6);
+        System.out.println();
+    }
+
+    private static void sessions(Path socket, List<String> sources) throws Exception {
+        long[] latencies = new long[CLIENTS * SESSIONS];
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> done = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                done.add(clients.submit(() -> {
+                    for (int i = 0; i < SESSIONS; i++) {
+                        String source = sources.get((client * SESSIONS + i) % sources.size());
+                        long sent = System.nanoTime();
+                        Client.run(socket, source, true, new ByteArrayInputStream(CorpusRunner.INPUT),
+                                OutputStream.nullOutputStream(), OutputStream.nullOutputStream());
+                        latencies[client * SESSIONS + i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) future.get();
+        }
+        double elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        Bench.header("Daemon, " + CLIENTS + " concurrent clients x " + SESSIONS + " sessions");
+        System.out.printf("  %-40s %12.1f%n", "sessions/s", latencies.length * 1e9 / elapsed);
+        System.out.printf("  %-40s %12.3f%n", "client p50 ms", percentile(latencies, 50) / 1e6);
+        System.out.printf("  %-40s %12.3f%n", "client p90 ms", percentile(latencies, 90) / 1e6);
+        System.out.printf("  %-40s %12.3f%n", "client p99 ms", percentile(latencies, 99) / 1e6);
+        System.out.printf("  %-40s %12.3f%n", "client max ms", latencies[latencies.length - 1] / 1e6);
+        System.out.println();
+    }
+
+    // Polls until the daemon answers; it warms up before it listens
+    private static void awaitDaemon(Path socket, Process daemon) throws IOException, InterruptedException {
+        while (true) {
+            try {
+                Client.stats(socket);
+                return;
+            } catch (ConnectException e) {
+                if (!daemon.isAlive()) {
+                    throw new IllegalStateException("The daemon exited with status " + daemon.exitValue());
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    // Wall time of one process on CorpusRunner.INPUT, output discarded
+    private static long process(String... command) throws IOException, InterruptedException {
+        Path input = Files.createTempFile("lexor-daemon-bench", ".in");
+        try {
+            Files.write(input, CorpusRunner.INPUT);
+            ProcessBuilder builder = new ProcessBuilder(command)
+                    .redirectInput(input.toFile())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT);
+            long start = System.nanoTime();
+            int status = builder.start().waitFor();
+            long elapsed = System.nanoTime() - start;
+            if (status != 0) {
+                throw new IllegalStateException(command[3] + " exited with status " + status);
+            }
+            return elapsed;
+        } finally {
+            Files.deleteIfExists(input);
+        }
+    }
+
+    private static List<String> corpus() throws IOException {
+        List<String> sources = new ArrayList<>();
+        for (String dir : CORPUS_DIRS) {
+            try (Stream<Path> files = Files.list(Path.of(dir))) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".lxr")).sorted().toList()) {
+                    sources.add(Files.readString(file));
+                }
+            }
+        }
+        return sources;
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static long percentile(long[] sorted, double percent) {
+        return sorted[Math.max(0, (int) Math.ceil(percent / 100 * sorted.length) - 1)];
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,156 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.closure.ClosureCompiler;
+import org.lexor.closure.ClosureProgram;
+import org.lexor.error.LexorException;
+import org.lexor.exec.NodeBuilder;
+import org.lexor.exec.NodeProgram;
+import org.lexor.jvm.JvmProgram;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.Interpreter;
+import org.lexor.semantic.SemanticAnalyzer;
+import org.lexor.vm.BytecodeCompiler;
+import org.lexor.vm.Chunk;
+import org.lexor.vm.VirtualMachine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Execution throughput of the tree-walking Interpreter, the bytecode VM, the self-specializing node tree,
+// the JVM bytecode backend and the closure compiler over a script corpus.
+// Every script is lexed, parsed and analyzed once; only PHASE 4 is timed. Output goes to a null sink.
+//
+// Run from the repository root (directories default to the passing corpora):
+//   java -cp out org.lexor.bench.EngineBenchmark [dir...]
+public class EngineBenchmark {
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 500;
+    private static final byte[] INPUT = "5\n3, 4.5, TRUE, c\n7\n2\n1\n".repeat(4).getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws IOException {
+        String[] dirs = args.length > 0 ? args : new String[]{"test_cases/pass", "test_cases/doc_pass", "test_cases/doc_edge"};
+
+        List<ProgramNode> programs = new ArrayList<>();
+        for (String dir : dirs) {
+            try (Stream<Path> files = Files.list(Paths.get(dir))) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".lxr")).sorted().toList()) {
+                    ProgramNode program = load(file);
+                    if (program != null) programs.add(program);
+                }
+            }
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        for (ProgramNode program : programs) {
+            chunks.add(new BytecodeCompiler().compile(program));
+        }
+
+        List<NodeProgram> trees = new ArrayList<>();
+        for (ProgramNode program : programs) {
+            trees.add(new NodeBuilder().build(program));
+        }
+
+        List<JvmProgram> classes = new ArrayList<>();
+        for (ProgramNode program : programs) {
+            classes.add(JvmProgram.compile(program));
+        }
+
+        List<ClosureProgram> closures = new ArrayList<>();
+        for (ProgramNode program : programs) {
+            closures.add(new ClosureCompiler().compile(program));
+        }
+
+        PrintStream realOut = System.out;
+        InputStream realIn = System.in;
+        PrintStream nullOut = new PrintStream(OutputStream.nullOutputStream());
+        try {
+            System.setOut(nullOut);
+            double interpreter = Bench.nanosPerOp(WARMUP, ROUNDS, programs.size(), () -> {
+                for (ProgramNode program : programs) {
+                    System.setIn(new ByteArrayInputStream(INPUT));
+                    new Interpreter().interpret(program);
+                }
+                return programs;
+            });
+            double vm = Bench.nanosPerOp(WARMUP, ROUNDS, chunks.size(), () -> {
+                for (Chunk chunk : chunks) {
+                    System.setIn(new ByteArrayInputStream(INPUT));
+                    new VirtualMachine().run(chunk);
+                }
+                return chunks;
+            });
+            double nodes = Bench.nanosPerOp(WARMUP, ROUNDS, trees.size(), () -> {
+                for (NodeProgram tree : trees) {
+                    System.setIn(new ByteArrayInputStream(INPUT));
+                    tree.execute();
+                }
+                return trees;
+            });
+            double jvm = Bench.nanosPerOp(WARMUP, ROUNDS, classes.size(), () -> {
+                for (JvmProgram compiled : classes) {
+                    System.setIn(new ByteArrayInputStream(INPUT));
+                    compiled.run();
+                }
+                return classes;
+            });
+            double closure = Bench.nanosPerOp(WARMUP, ROUNDS, closures.size(), () -> {
+                for (ClosureProgram compiled : closures) {
+                    System.setIn(new ByteArrayInputStream(INPUT));
+                    compiled.run();
+                }
+                return closures;
+            });
+            System.setOut(realOut);
+
+            Bench.header("Script execution over " + programs.size() + " scripts");
+            Bench.report("interpreter", interpreter);
+            Bench.report("vm", vm);
+            Bench.report("nodes", nodes);
+            Bench.report("jvm", jvm);
+            Bench.report("closures", closure);
+            System.out.printf("  %-40s %12.0f%n", "interpreter scripts/s", 1e9 / interpreter);
+            System.out.printf("  %-40s %12.0f%n", "vm scripts/s", 1e9 / vm);
+            System.out.printf("  %-40s %12.0f%n", "nodes scripts/s", 1e9 / nodes);
+            System.out.printf("  %-40s %12.0f%n", "jvm scripts/s", 1e9 / jvm);
+            System.out.printf("  %-40s %12.0f%n", "closures scripts/s", 1e9 / closure);
+        } finally {
+            System.setOut(realOut);
+            System.setIn(realIn);
+        }
+    }
+
+    // Returns the analyzed program, or null if the script fails to compile or to run once with the canned input
+    private static ProgramNode load(Path file) throws IOException {
+        try {
+            String source = Files.readString(file);
+            ProgramNode program = new Parser(new Lexer(source).scanTokens()).parse();
+            new SemanticAnalyzer().analyze(program);
+
+            PrintStream realOut = System.out;
+            InputStream realIn = System.in;
+            try {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                System.setIn(new ByteArrayInputStream(INPUT));
+                new Interpreter().interpret(program);
+            } finally {
+                System.setOut(realOut);
+                System.setIn(realIn);
+            }
+            return program;
+        } catch (LexorException e) {
+            return null;
+        }
+    }
+}
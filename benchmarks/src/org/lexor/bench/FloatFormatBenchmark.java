@@ -0,0 +1,87 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.runtime.values.FloatFormat;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.DecimalFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Cost of turning a FLOAT into LEXOR text: the shared DecimalFormat("0.0#") FloatValue used to call versus
+// FloatFormat returning a String and writing into a reused buffer, over a mix of magnitudes. Also reports a
+// FLOAT-heavy PRINT loop on the Interpreter, per iteration.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.FloatFormatBenchmark
+public class FloatFormatBenchmark {
+    private static final int COUNT = 4096;
+    private static final int N = 200_000;
+
+    private static final String SOURCE = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i
+            DECLARE FLOAT f = 0.0, g = 1.5
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                f = f + 0.37
+                PRINT: f & " " & g * i & $
+            END FOR
+            END SCRIPT
+            """.formatted(N);
+
+    public static void main(String[] args) {
+        float[] values = new float[COUNT];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = (float) ((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(7)));
+        }
+
+        DecimalFormat decimalFormat = new DecimalFormat("0.0#");
+        double shared = Bench.nanosPerOp(200, 500, COUNT, () -> {
+            int length = 0;
+            for (float value : values) {
+                length += decimalFormat.format(value).length();
+            }
+            return length;
+        });
+        double string = Bench.nanosPerOp(200, 500, COUNT, () -> {
+            int length = 0;
+            for (float value : values) {
+                length += FloatFormat.toString(value).length();
+            }
+            return length;
+        });
+        char[] buffer = new char[FloatFormat.MAX_LENGTH];
+        double buffered = Bench.nanosPerOp(200, 500, COUNT, () -> {
+            int length = 0;
+            for (float value : values) {
+                length += FloatFormat.format(value, buffer, 0);
+            }
+            return length;
+        });
+
+        Bench.header("FLOAT to text, " + COUNT + " values (per value)");
+        Bench.report("DecimalFormat(\"0.0#\")", shared);
+        Bench.report("FloatFormat.toString", string);
+        Bench.report("FloatFormat.format into buffer", buffered);
+
+        ProgramNode program = new Parser(new Lexer(SOURCE).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        double interpreter = Bench.nanosPerOp(5, 20, N, () -> {
+            OutputSink out = new OutputSink(OutputStream.nullOutputStream());
+            new Interpreter(new InputReader(InputStream.nullInputStream()), out).interpret(program);
+            return out;
+        });
+
+        Bench.header("FLOAT PRINT loop, " + N + " iterations (per iteration)");
+        Bench.report("interpreter", interpreter);
+    }
+}
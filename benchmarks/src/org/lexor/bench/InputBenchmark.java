@@ -0,0 +1,102 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.runtime.ScanParser;
+import org.lexor.runtime.values.RuntimeValue;
+import org.lexor.semantic.SemanticAnalyzer;
+import org.lexor.semantic.symbol.Type;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+// SCAN input throughput, reported per input line of four fields (INT, FLOAT, BOOL, CHAR).
+// "legacy" is the previous reader kept here for comparison: Scanner.nextLine, a regex split and a
+// String per field; "InputReader" parses the same lines in place. The last case is an Interpreter
+// running a SCAN loop over the same piped input.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.InputBenchmark
+public class InputBenchmark {
+    private static final int LINES = 100_000;
+    private static final Type[] TYPES = {Type.INT, Type.FLOAT, Type.BOOL, Type.CHAR};
+    private static final String[] NAMES = {"a", "b", "c", "d"};
+    private static final byte[] INPUT = buildInput();
+
+    private static final String SCRIPT = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT a, n = 0
+            DECLARE FLOAT b
+            DECLARE BOOL c
+            DECLARE CHAR d
+            REPEAT WHEN (n < %d)
+            START REPEAT
+                SCAN: a, b, c, d
+                n = n + 1
+            END REPEAT
+            END SCRIPT
+            """.formatted(LINES);
+
+    public static void main(String[] args) {
+        double legacy = Bench.nanosPerOp(5, 20, LINES, InputBenchmark::legacy);
+        double reader = Bench.nanosPerOp(5, 20, LINES, InputBenchmark::reader);
+
+        ProgramNode program = new Parser(new Lexer(SCRIPT).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        double interpreter = Bench.nanosPerOp(5, 20, LINES, () -> {
+            InputReader input = new InputReader(new ByteArrayInputStream(INPUT));
+            new Interpreter(input, new OutputSink(OutputStream.nullOutputStream())).interpret(program);
+            return input;
+        });
+
+        Bench.header("SCAN of " + LINES + " lines \"INT, FLOAT, BOOL, CHAR\" (per line)");
+        Bench.report("legacy Scanner + regex split", legacy);
+        Bench.report("InputReader", reader);
+        Bench.report("Interpreter SCAN loop (InputReader)", interpreter);
+        System.out.printf("  %-40s %12.1f%n", "InputReader MB/s", INPUT.length / (reader * LINES) * 1e3);
+    }
+
+    private static Object legacy() {
+        Scanner scanner = new Scanner(new ByteArrayInputStream(INPUT));
+        RuntimeValue last = null;
+        for (int line = 0; line < LINES; line++) {
+            String[] parts = scanner.nextLine().trim().split("\\s*,\\s*");
+            for (int i = 0; i < TYPES.length; i++) {
+                String raw = (i < parts.length) ? parts[i].trim() : "";
+                last = ScanParser.parse(TYPES[i], raw, NAMES[i]);
+            }
+            ScanParser.checkCount(parts.length, TYPES.length);
+        }
+        return last;
+    }
+
+    private static Object reader() {
+        InputReader input = new InputReader(new ByteArrayInputStream(INPUT));
+        long checksum = 0;
+        for (int line = 0; line < LINES; line++) {
+            input.readLine();
+            checksum += input.parseInt(0, NAMES[0]);
+            checksum += (long) input.parseFloat(1, NAMES[1]);
+            checksum += input.parseBool(2, NAMES[2]) ? 1 : 0;
+            checksum += input.parseChar(3, NAMES[3]);
+            input.checkCount(TYPES.length);
+        }
+        return checksum;
+    }
+
+    private static byte[] buildInput() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            text.append(i * 37 % 100_000).append(", ").append(i % 1000).append('.').append(i % 97)
+                    .append(", ").append(i % 3 == 0 ? "TRUE" : "FALSE").append(", ").append((char) ('a' + i % 26)).append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
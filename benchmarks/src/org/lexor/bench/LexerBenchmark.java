@@ -0,0 +1,47 @@
+package org.lexor.bench;
+
+import org.lexor.lexer.Lexer;
+
+import java.nio.charset.StandardCharsets;
+
+// Lexer throughput on a large machine-generated script (keywords, identifiers, literals, operators,
+// indentation and %% comments), reported per source byte and in MB/s.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.LexerBenchmark [lines]
+public class LexerBenchmark {
+    private static final String BLOCK = """
+            %% generated block %d
+            IF (total%d > 100 AND NOT (flag == "TRUE"))
+            START IF
+                total%d = total%d + count * 3 - (rate / 2.5)
+                PRINT: "block %d: " & total%d & $ & [#]
+            ELSE
+            START IF
+                REPEAT WHEN (count <= 10 OR count <> 42)
+                START REPEAT
+                    count = count % 7 + 1
+                    letter = 'x'
+                END REPEAT
+            END IF
+            """;
+
+    public static void main(String[] args) {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        StringBuilder builder = new StringBuilder("SCRIPT AREA\nSTART SCRIPT\n");
+        int blockLines = (int) BLOCK.lines().count();
+        for (int i = 0; i < lines / blockLines; i++) {
+            builder.append(BLOCK.replace("%d", Integer.toString(i)));
+        }
+        builder.append("END SCRIPT\n");
+        String source = builder.toString();
+        long bytes = source.getBytes(StandardCharsets.UTF_8).length;
+
+        int tokens = new Lexer(source).scanTokens().size();
+        double perByte = Bench.nanosPerOp(10, 20, bytes, () -> new Lexer(source).scanTokens());
+
+        Bench.header(String.format("Lexing %d lines, %.1f MB, %d tokens (per byte)", lines, bytes / 1e6, tokens));
+        Bench.report("lexer", perByte);
+        System.out.printf("  %-40s %12.1f%n", "MB/s", 1e3 / perByte);
+    }
+}
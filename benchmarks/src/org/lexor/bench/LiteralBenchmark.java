@@ -0,0 +1,58 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.Interpreter;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// Interpreter cost of a loop body made of INT, FLOAT, BOOL, CHAR and STRING literals, reported per loop
+// iteration. Runs on the unoptimized AST so that every literal is evaluated on every iteration.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.LiteralBenchmark
+public class LiteralBenchmark {
+    private static final int N = 200_000;
+
+    private static final String SOURCE = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i, s=0
+            DECLARE FLOAT f=0
+            DECLARE BOOL b
+            DECLARE CHAR c
+            DECLARE STRING t
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                s = s + 12345
+                f = f + 2.75
+                b = "TRUE"
+                c = 'x'
+                t = "literal"
+            END FOR
+            END SCRIPT
+            """.formatted(N);
+
+    public static void main(String[] args) {
+        ProgramNode program = new Parser(new Lexer(SOURCE).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+
+        PrintStream realOut = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            double interpreter = Bench.nanosPerOp(10, 30, N, () -> {
+                new Interpreter().interpret(program);
+                return program;
+            });
+            System.setOut(realOut);
+
+            Bench.header("Literal-heavy loop, " + N + " iterations (per iteration)");
+            Bench.report("interpreter", interpreter);
+        } finally {
+            System.setOut(realOut);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.closure.ClosureCompiler;
+import org.lexor.closure.ClosureProgram;
+import org.lexor.exec.NodeBuilder;
+import org.lexor.exec.NodeProgram;
+import org.lexor.jvm.JvmProgram;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.Interpreter;
+import org.lexor.semantic.SemanticAnalyzer;
+import org.lexor.vm.BytecodeCompiler;
+import org.lexor.vm.Chunk;
+import org.lexor.vm.VirtualMachine;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// A long-running numeric script (a nested INT/FLOAT loop) on every engine, reported per loop iteration.
+// This is the workload the JVM backend targets: one run is long enough for HotSpot to compile the hidden class.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.NumericLoopBenchmark
+public class NumericLoopBenchmark {
+    private static final int OUTER = 1000;
+    private static final int INNER = 1000;
+    private static final String SCRIPT = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i, j, s=0
+            DECLARE FLOAT x=0
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                FOR (j = 0, j < %d, j = j + 1)
+                START FOR
+                    s = (s + i * j + 7) %% 1000003
+                    IF (j %% 3 == 0)
+                    START IF
+                        CONTINUE
+                    END IF
+                    x = x + 0.5
+                END FOR
+            END FOR
+            PRINT: s & " " & x
+            END SCRIPT
+            """.formatted(OUTER, INNER);
+
+    public static void main(String[] args) {
+        ProgramNode program = new Parser(new Lexer(SCRIPT).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        Chunk chunk = new BytecodeCompiler().compile(program);
+        NodeProgram tree = new NodeBuilder().build(program);
+        JvmProgram compiled = JvmProgram.compile(program);
+        ClosureProgram closures = new ClosureCompiler().compile(program);
+        long iterations = (long) OUTER * INNER;
+
+        PrintStream realOut = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            double interpreter = Bench.nanosPerOp(2, 5, iterations, () -> {
+                new Interpreter().interpret(program);
+                return program;
+            });
+            double vm = Bench.nanosPerOp(3, 10, iterations, () -> {
+                new VirtualMachine().run(chunk);
+                return chunk;
+            });
+            double nodes = Bench.nanosPerOp(3, 10, iterations, () -> {
+                tree.execute();
+                return tree;
+            });
+            double closure = Bench.nanosPerOp(3, 10, iterations, () -> {
+                closures.run();
+                return closures;
+            });
+            double jvm = Bench.nanosPerOp(5, 20, iterations, () -> {
+                compiled.run();
+                return compiled;
+            });
+            System.setOut(realOut);
+
+            Bench.header("Nested numeric loop, " + iterations + " iterations (per iteration)");
+            Bench.report("interpreter", interpreter);
+            Bench.report("vm", vm);
+            Bench.report("nodes", nodes);
+            Bench.report("closures", closure);
+            Bench.report("jvm", jvm);
+        } finally {
+            System.setOut(realOut);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.Interpreter;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Interpreter cost of a PRINT-heavy script writing to a real file, reported per PRINT statement.
+// System.out is replaced by a stream built the way the JDK builds the real one (128-byte buffer, autoflush),
+// so the numbers include the writes the Interpreter's output path makes.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.OutputBenchmark
+public class OutputBenchmark {
+    private static final int N = 100_000;
+    private static final String SCRIPT = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i
+            DECLARE FLOAT f = 0.25
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                PRINT: "line " & i & ": " & f * i & $
+            END FOR
+            END SCRIPT
+            """.formatted(N);
+
+    public static void main(String[] args) throws IOException {
+        ProgramNode program = new Parser(new Lexer(SCRIPT).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+
+        Path file = Files.createTempFile("lexor-output", ".txt");
+        PrintStream realOut = System.out;
+        try (PrintStream fileOut = new PrintStream(new BufferedOutputStream(new FileOutputStream(file.toFile()), 128), true)) {
+            System.setOut(fileOut);
+            double perPrint = Bench.nanosPerOp(5, 20, N, () -> {
+                new Interpreter().interpret(program);
+                return program;
+            });
+            System.setOut(realOut);
+
+            Bench.header("PRINT to a file, " + N + " statements (per PRINT)");
+            Bench.report("interpreter", perPrint);
+        } finally {
+            System.setOut(realOut);
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.lexor.bench;
+
+import org.lexor.lexer.Lexer;
+import org.lexor.lexer.Token;
+import org.lexor.parser.Parser;
+
+import java.util.List;
+
+// Parse throughput on expression-heavy scripts: many long flat expressions mixing every precedence level,
+// and deeply parenthesized ones. Sources are lexed once; only parsing is timed, reported per token.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.ParserBenchmark
+public class ParserBenchmark {
+    private static final String[] OPERATORS = {"+", "-", "*", "/", "%", "<", ">=", "==", "<>", "AND", "OR"};
+
+    public static void main(String[] args) {
+        run("long expressions (200 statements x 500 operands)", script(200, ParserBenchmark::longExpression, 500));
+        run("nested expressions (200 statements x depth 200)", script(200, ParserBenchmark::nestedExpression, 200));
+    }
+
+    private static void run(String label, String source) {
+        List<Token> tokens = new Lexer(source).scanTokens();
+        double perToken = Bench.nanosPerOp(20, 50, tokens.size(), () -> new Parser(tokens).parse());
+
+        Bench.header(label + ", " + tokens.size() + " tokens (per token)");
+        Bench.report("parser", perToken);
+        System.out.printf("  %-40s %12.1f%n", "M tokens/s", 1e3 / perToken);
+    }
+
+    private static String script(int statements, java.util.function.IntFunction<String> expression, int size) {
+        StringBuilder builder = new StringBuilder("SCRIPT AREA\nSTART SCRIPT\nDECLARE INT a, b, c\n");
+        for (int i = 0; i < statements; i++) {
+            builder.append("a = ").append(expression.apply(size)).append('\n');
+        }
+        return builder.append("END SCRIPT\n").toString();
+    }
+
+    // a + b * -c - 7 < a ... with the operators cycling through every precedence level
+    private static String longExpression(int operands) {
+        StringBuilder builder = new StringBuilder("a");
+        for (int i = 1; i < operands; i++) {
+            builder.append(' ').append(OPERATORS[i % OPERATORS.length]).append(' ');
+            builder.append(switch (i % 4) {
+                case 0 -> "b";
+                case 1 -> "-c";
+                case 2 -> Integer.toString(i);
+                default -> "NOT a";
+            });
+        }
+        return builder.toString();
+    }
+
+    // (a + (b * (a - (b ... )))) nested to the given depth
+    private static String nestedExpression(int depth) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            builder.append(i % 2 == 0 ? "(a + " : "(b * ");
+        }
+        builder.append('c');
+        builder.append(")".repeat(depth));
+        return builder.toString();
+    }
+}
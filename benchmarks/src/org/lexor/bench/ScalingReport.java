@@ -0,0 +1,293 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.lexer.Lexer;
+import org.lexor.lexer.Token;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.runtime.values.RuntimeValue;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Grows one WorkloadGenerator dimension at a time and measures every phase at each size: time and bytes
+// allocated per run, and both per unit of work. The work of lex, parse, analyze and optimize is the token
+// count; the work of interpret is the number of expression and statement nodes it evaluates. A linear phase
+// keeps a flat per-unit cost. The growth exponent is log(cost ratio) / log(work ratio), shown between each
+// pair of sizes and from the smallest to the largest; a phase whose overall exponent exceeds SUPER_LINEAR is
+// flagged. Where a dimension hardly changes the work (variables only adds declarations), the per-unit cost is
+// compared instead and flagged when it grew more than FLAT_GROWTH times. Depth and nesting grow by one (each
+// level multiplies the work already), the other dimensions double.
+//
+// Run from the repository root (no arguments scales every dimension):
+//   java -cp out org.lexor.bench.ScalingReport [dimension ...] [--steps=N]
+public class ScalingReport {
+    private static final double SUPER_LINEAR = 1.3;
+    private static final double FLAT_GROWTH = 1.5;
+    private static final long BUDGET_NANOS = 200_000_000L;
+    private static final int BATCHES = 5;
+    private static final int WARMUP_RUNS = 4;
+    // Below this the timer and the allocation counter are too coarse for an exponent to mean anything
+    private static final double MIN_NANOS = 1_000_000;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final String[] PHASES = {"lex", "parse", "analyze", "optimize", "interpret"};
+
+    // One measured size: the work units and the per-phase results, indexed like PHASES
+    private record Row(int size, int sourceBytes, long tokens, long nodes, double[] nanos, double[] bytes) {
+        long units(int phase) {
+            return phase == PHASES.length - 1 ? nodes : tokens;
+        }
+    }
+
+    public static void main(String[] args) {
+        int steps = 5;
+        List<String> dimensions = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--steps=")) {
+                steps = Integer.parseInt(arg.substring("--steps=".length()));
+            } else {
+                dimensions.add(arg);
+            }
+        }
+        if (dimensions.isEmpty()) {
+            dimensions.addAll(WorkloadGenerator.Shape.DIMENSIONS);
+        }
+
+        WorkloadGenerator.Shape base = WorkloadGenerator.Shape.defaults();
+        System.out.println("Base shape: " + base);
+        // The JIT takes a few seconds to settle; until then the smallest sizes look far slower than they are
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            measure(base.with("scan", 100), 0);
+        }
+
+        int flagged = 0;
+        for (String dimension : dimensions) {
+            flagged += scale(base, dimension, steps);
+        }
+        System.out.println();
+        System.out.println(flagged == 0
+                ? "No super-linear growth found."
+                : flagged + " super-linear phase(s) flagged with '<<'.");
+    }
+
+    private static int scale(WorkloadGenerator.Shape base, String dimension, int steps) {
+        boolean additive = dimension.equals("depth") || dimension.equals("nesting");
+        int size = switch (dimension) {
+            case "depth", "nesting" -> 1;
+            case "scan" -> 1000;
+            default -> Math.max(1, valueOf(base, dimension));
+        };
+
+        // A discarded run first, so the code paths this dimension exercises are not timed cold at the smallest size
+        measure(base.with(dimension, size), size);
+        List<Row> rows = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            rows.add(measure(base.with(dimension, size), size));
+            size = additive ? size + 1 : size * 2;
+        }
+
+        System.out.println();
+        System.out.println("=== scaling '" + dimension + "' ===");
+        System.out.printf("  %-10s %9s %10s %10s %10s %10s %10s %6s %6s%n",
+                "phase", dimension, "units", "ms/run", "KB/run", "ns/unit", "B/unit", "t-exp", "a-exp");
+        int flagged = 0;
+        Row first = rows.get(0);
+        Row last = rows.get(rows.size() - 1);
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = rows.get(i);
+                Row previous = i == 0 ? null : rows.get(i - 1);
+                long units = row.units(phase);
+                System.out.printf("  %-10s %9d %10d %10.3f %10.1f %10.1f %10.1f %6s %6s%n",
+                        i == 0 ? PHASES[phase] : "", row.size(), units,
+                        row.nanos()[phase] / 1e6, row.bytes()[phase] / 1024,
+                        row.nanos()[phase] / units, row.bytes()[phase] / units,
+                        format(exponent(previous, row, phase, true)),
+                        format(exponent(previous, row, phase, false)));
+            }
+            double timeExponent = exponent(first, last, phase, true);
+            double allocExponent = exponent(first, last, phase, false);
+            double timeGrowth = perUnitGrowth(first, last, phase, true);
+            double allocGrowth = perUnitGrowth(first, last, phase, false);
+            boolean superLinear = (superLinear(timeExponent, timeGrowth) && last.nanos()[phase] >= MIN_NANOS)
+                    || superLinear(allocExponent, allocGrowth);
+            if (superLinear) flagged++;
+            System.out.printf("  %-10s %9s %10s %10s %10s %10s %10s %6s %6s%s%n",
+                    "", "overall", "", "", "", String.format("x%.2f", timeGrowth), String.format("x%.2f", allocGrowth),
+                    format(timeExponent), format(allocExponent), superLinear ? "  <<" : "");
+        }
+        System.out.printf("  %-40s %12d%n", "largest source bytes", last.sourceBytes());
+        return flagged;
+    }
+
+    private static Row measure(WorkloadGenerator.Shape shape, int size) {
+        String source = WorkloadGenerator.generate(shape);
+        byte[] input = WorkloadGenerator.input(shape).getBytes(StandardCharsets.UTF_8);
+
+        List<Token> tokens = new Lexer(source).scanTokens();
+        ProgramNode parsed = new Parser(tokens).parse();
+        ProgramNode analyzed = new Parser(tokens).parse();
+        new SemanticAnalyzer().analyze(analyzed);
+        ProgramNode optimized = new Optimizer().optimize(analyzed);
+
+        CountingInterpreter counter = new CountingInterpreter(input);
+        counter.interpret(optimized);
+
+        List<Supplier<Object>> phases = List.of(
+                () -> new Lexer(source).scanTokens(),
+                () -> new Parser(tokens).parse(),
+                () -> {
+                    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+                    analyzer.analyze(parsed);
+                    return analyzer;
+                },
+                () -> new Optimizer().optimize(analyzed),
+                () -> {
+                    OutputSink out = new OutputSink(OutputStream.nullOutputStream());
+                    new Interpreter(new InputReader(new ByteArrayInputStream(input)), out).interpret(optimized);
+                    return out;
+                });
+
+        double[] nanos = new double[PHASES.length];
+        double[] bytes = new double[PHASES.length];
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            Supplier<Object> run = phases.get(phase);
+            long rounds = warmUp(run);
+
+            // The fastest batch is the one least disturbed by GC and other noise
+            nanos[phase] = Double.MAX_VALUE;
+            for (int batch = 0; batch < BATCHES; batch++) {
+                long allocated = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                for (long i = 0; i < rounds; i++) {
+                    Bench.sink = run.get();
+                }
+                double perRun = (double) (System.nanoTime() - start) / rounds;
+                if (perRun < nanos[phase]) {
+                    nanos[phase] = perRun;
+                    bytes[phase] = (double) (THREADS.getCurrentThreadAllocatedBytes() - allocated) / rounds;
+                }
+            }
+        }
+        return new Row(size, source.length(), tokens.size(), Math.max(1, counter.nodes), nanos, bytes);
+    }
+
+    // Runs for half the time budget and returns how many rounds make one of the BATCHES (at least 3)
+    private static long warmUp(Supplier<Object> run) {
+        long rounds = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            Bench.sink = run.get();
+            rounds++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < BUDGET_NANOS / 2);
+        return Math.max(3, rounds / BATCHES);
+    }
+
+    // The growth exponent of time (or allocation) against work from one row to another; NaN when the work
+    // grew too little for the ratio to be meaningful
+    private static double exponent(Row from, Row to, int phase, boolean time) {
+        if (from == null) return Double.NaN;
+        double[] fromCost = time ? from.nanos() : from.bytes();
+        double[] toCost = time ? to.nanos() : to.bytes();
+        double workRatio = (double) to.units(phase) / from.units(phase);
+        if (workRatio < 1.2 || fromCost[phase] <= 0 || toCost[phase] <= 0) return Double.NaN;
+        return Math.log(toCost[phase] / fromCost[phase]) / Math.log(workRatio);
+    }
+
+    // How many times the cost per unit of work grew from one row to another
+    private static double perUnitGrowth(Row from, Row to, int phase, boolean time) {
+        double fromCost = (time ? from.nanos() : from.bytes())[phase] / from.units(phase);
+        double toCost = (time ? to.nanos() : to.bytes())[phase] / to.units(phase);
+        return toCost / fromCost;
+    }
+
+    private static boolean superLinear(double exponent, double perUnitGrowth) {
+        return Double.isNaN(exponent) ? perUnitGrowth > FLAT_GROWTH : exponent > SUPER_LINEAR;
+    }
+
+    private static String format(double exponent) {
+        return Double.isNaN(exponent) ? "-" : String.format("%.2f", exponent);
+    }
+
+    private static int valueOf(WorkloadGenerator.Shape shape, String dimension) {
+        return switch (dimension) {
+            case "blocks" -> shape.blocks();
+            case "variables" -> shape.variables();
+            case "width" -> shape.expressionWidth();
+            case "trips" -> shape.tripCount();
+            case "strings" -> shape.stringAppends();
+            default -> throw new IllegalArgumentException("Unknown dimension '" + dimension + "'. Expected one of: "
+                    + WorkloadGenerator.Shape.DIMENSIONS);
+        };
+    }
+
+    // Counts the expression and statement nodes a run evaluates, as the unit of interpreter work
+    private static final class CountingInterpreter extends Interpreter {
+        long nodes;
+
+        CountingInterpreter(byte[] input) {
+            super(new InputReader(new ByteArrayInputStream(input)), new OutputSink(OutputStream.nullOutputStream()));
+        }
+
+        @Override
+        public RuntimeValue visitAssignmentNode(AssignmentNode node) {
+            nodes++;
+            return super.visitAssignmentNode(node);
+        }
+
+        @Override
+        public RuntimeValue visitPrintNode(PrintNode node) {
+            nodes++;
+            return super.visitPrintNode(node);
+        }
+
+        @Override
+        public RuntimeValue visitScanNode(ScanNode node) {
+            nodes++;
+            return super.visitScanNode(node);
+        }
+
+        @Override
+        public RuntimeValue visitLiteralNode(LiteralNode node) {
+            nodes++;
+            return super.visitLiteralNode(node);
+        }
+
+        @Override
+        public RuntimeValue visitIdentifierNode(IdentifierNode node) {
+            nodes++;
+            return super.visitIdentifierNode(node);
+        }
+
+        @Override
+        public RuntimeValue visitBinaryExprNode(BinaryExprNode node) {
+            nodes++;
+            return super.visitBinaryExprNode(node);
+        }
+
+        @Override
+        public RuntimeValue visitLogicalExprNode(LogicalExprNode node) {
+            nodes++;
+            return super.visitLogicalExprNode(node);
+        }
+
+        @Override
+        public RuntimeValue visitUnaryExprNode(UnaryExprNode node) {
+            nodes++;
+            return super.visitUnaryExprNode(node);
+        }
+    }
+}
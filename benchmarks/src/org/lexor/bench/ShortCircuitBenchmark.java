@@ -0,0 +1,60 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.closure.ClosureCompiler;
+import org.lexor.closure.ClosureProgram;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.Interpreter;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// A REPEAT WHEN guard whose cheap left operand decides the result on most iterations, so the expensive
+// right-hand condition is skipped by AND/OR short-circuiting. Interpreter versus closure compiler,
+// reported per loop iteration.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.ShortCircuitBenchmark
+public class ShortCircuitBenchmark {
+    private static final int N = 200_000;
+
+    private static final String SOURCE = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i=0, s=0
+            REPEAT WHEN (i < %d AND (i %% 64 <> 63 OR (i * i * 7 + i * 3) %% 1000 * 2 + (i / 3) * (i / 5) %% 11 >= 0))
+            START REPEAT
+                i = i + 1
+                s = s + i %% 7
+            END REPEAT
+            END SCRIPT
+            """.formatted(N);
+
+    public static void main(String[] args) {
+        ProgramNode program = new Parser(new Lexer(SOURCE).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        ClosureProgram closures = new ClosureCompiler().compile(program);
+
+        PrintStream realOut = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            double interpreter = Bench.nanosPerOp(10, 30, N, () -> {
+                new Interpreter().interpret(program);
+                return program;
+            });
+            double closure = Bench.nanosPerOp(10, 30, N, () -> {
+                closures.run();
+                return closures;
+            });
+            System.setOut(realOut);
+
+            Bench.header("Short-circuit REPEAT WHEN guard, " + N + " iterations (per iteration)");
+            Bench.report("interpreter", interpreter);
+            Bench.report("closures", closure);
+        } finally {
+            System.setOut(realOut);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.lexor.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// One-shot startup of target/lexor.jar, as bin/lexor runs it, with and without the class archive that
+// `--train` produces. Each script runs in a fresh JVM on CorpusRunner.INPUT in three setups:
+//   no CDS       -Xshare:off, every JDK and interpreter class loaded from scratch
+//   JDK CDS      plain java -jar: the JDK's default archive covers its own classes only
+//   app archive  an archive trained on test_cases/pass: an AppCDS dynamic archive, or the AOT cache on JDK 25+
+// and reports the medians of RUNS for time to first output (the first byte the script itself prints, after
+// the output header) and for the whole process. The archive is written to a temporary directory.
+//
+// Run from the repository root after `mvn package`:
+//   java -cp benchmarks/target/benchmarks.jar org.lexor.bench.StartupBenchmark [script.lxr ...]
+public class StartupBenchmark {
+    private static final Path JAR = Path.of("target/lexor.jar");
+    private static final byte[] HEADER = "--- LEXOR OUTPUT ---\n".getBytes(StandardCharsets.UTF_8);
+    private static final int RUNS = 11;
+
+    private record Timing(long firstOutput, long total) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (!Files.exists(JAR)) {
+            throw new IllegalStateException(JAR + " not found; run mvn package in the repository root first");
+        }
+        List<String> scripts = args.length == 0 ? List.of("sample_scripts/test_program.lxr") : List.of(args);
+        Path work = Files.createTempDirectory("lexor-startup-bench");
+        boolean aot = Runtime.version().feature() >= 25;
+        Path archive = work.resolve(aot ? "lexor.aot" : "lexor.jsa");
+        try {
+            long trained = System.nanoTime();
+            run(List.of(java(), aot ? "-XX:AOTCacheOutput=" + archive : "-XX:ArchiveClassesAtExit=" + archive,
+                    "-jar", JAR.toString(), "--train", "test_cases/pass"), false);
+            System.out.printf("%s trained on test_cases/pass in %.1f s, %d KB%n%n", aot ? "AOT cache" : "AppCDS archive",
+                    (System.nanoTime() - trained) / 1e9, Files.size(archive) / 1024);
+
+            List<String> useArchive = List.of(aot ? "-XX:AOTCache=" + archive : "-XX:SharedArchiveFile=" + archive,
+                    "-Xlog:cds=off", "-Xlog:cds+dynamic=off");
+            for (String script : scripts) {
+                measure(script, useArchive);
+            }
+        } finally {
+            Files.deleteIfExists(archive);
+            Files.deleteIfExists(work);
+        }
+    }
+
+    private static void measure(String script, List<String> useArchive) throws IOException, InterruptedException {
+        List<List<String>> setups = List.of(List.of("-Xshare:off"), List.of(), useArchive);
+        String[] labels = {"no CDS", "JDK CDS", "app archive"};
+        long[][] firstOutput = new long[setups.size()][RUNS];
+        long[][] total = new long[setups.size()][RUNS];
+        // Alternating the setups keeps drift in machine load from favouring any of them
+        for (int i = 0; i < RUNS; i++) {
+            for (int s = 0; s < setups.size(); s++) {
+                List<String> command = new ArrayList<>();
+                command.add(java());
+                command.addAll(setups.get(s));
+                command.addAll(List.of("-jar", JAR.toString(), script));
+                Timing timing = run(command, true);
+                firstOutput[s][i] = timing.firstOutput();
+                total[s][i] = timing.total();
+            }
+        }
+
+        System.out.println("=== Startup, " + script + " ===");
+        System.out.printf("  %-28s %18s %12s%n", "setup", "first output ms", "total ms");
+        for (int s = 0; s < setups.size(); s++) {
+            System.out.printf("  %-28s %18.1f %12.1f%n", labels[s], median(firstOutput[s]) / 1e6, median(total[s]) / 1e6);
+        }
+        System.out.println();
+    }
+
+    // Runs command with INPUT on stdin; the first output is taken when a byte follows the output header
+    private static Timing run(List<String> command, boolean timeFirstOutput) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT);
+        if (!timeFirstOutput) builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write(CorpusRunner.INPUT);
+        } catch (IOException e) {
+            // The script finished without reading all of its input
+        }
+        long firstOutput = -1;
+        if (timeFirstOutput) {
+            try (InputStream stdout = process.getInputStream()) {
+                int matched = 0;
+                int b;
+                while ((b = stdout.read()) >= 0) {
+                    if (matched == HEADER.length) {
+                        if (firstOutput < 0) firstOutput = System.nanoTime() - start;
+                    } else {
+                        matched = b == HEADER[matched] ? matched + 1 : (b == HEADER[0] ? 1 : 0);
+                    }
+                }
+            }
+        }
+        int status = process.waitFor();
+        long elapsed = System.nanoTime() - start;
+        if (status != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with status " + status);
+        }
+        if (timeFirstOutput && firstOutput < 0) {
+            throw new IllegalStateException(String.join(" ", command) + " printed nothing after the output header");
+        }
+        return new Timing(firstOutput, elapsed);
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,53 @@
+package org.lexor.bench;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.Lexer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Interpreter cost of building a large STRING with s = s & piece in a loop and printing it once.
+// Each piece is 64 characters plus the loop counter, so 144 000 iterations build about 10 MB.
+// Reported per iteration; with a linear '&' the cost stays flat as the string grows.
+//
+// Run from the repository root:
+//   java -cp out org.lexor.bench.StringBuildBenchmark
+public class StringBuildBenchmark {
+    private static final String PIECE = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ-+";
+
+    private static final String SOURCE = """
+            SCRIPT AREA
+            START SCRIPT
+            DECLARE INT i
+            DECLARE STRING s = ""
+            FOR (i = 0, i < %d, i = i + 1)
+            START FOR
+                s = s & "%s" & i & $
+            END FOR
+            PRINT: s
+            END SCRIPT
+            """;
+
+    public static void main(String[] args) {
+        for (int n : new int[]{9_000, 36_000, 144_000}) {
+            ProgramNode program = new Parser(new Lexer(SOURCE.formatted(n, PIECE)).scanTokens()).parse();
+            new SemanticAnalyzer().analyze(program);
+
+            double interpreter = Bench.nanosPerOp(3, 10, n, () -> {
+                OutputSink out = new OutputSink(OutputStream.nullOutputStream());
+                new Interpreter(new InputReader(InputStream.nullInputStream()), out).interpret(program);
+                return out;
+            });
+
+            long bytes = (long) n * (PIECE.length() + 7);
+            Bench.header(String.format("s = s & piece, %d iterations (~%.1f MB, per iteration)", n, bytes / 1e6));
+            Bench.report("interpreter", interpreter);
+            System.out.printf("  %-40s %12.1f%n", "total ms", interpreter * n / 1e6);
+        }
+    }
+}
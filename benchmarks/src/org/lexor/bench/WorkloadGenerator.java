@@ -0,0 +1,297 @@
+package org.lexor.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Generates valid LEXOR programs of a tunable shape for scaling tests. The same shape and seed always give the
+// same program. Generated programs are deterministic and cannot fail at run time: '/' and '%' only take
+// non-zero literal divisors, INT overflow wraps, FLOAT values stay finite, and every loop runs exactly
+// tripCount times.
+//
+// A program is `blocks` top-level blocks. Each block is IF/FOR/REPEAT statements nested nestingDepth deep,
+// with an innermost body that assigns expressions to the declared variables and appends to a STRING. SCAN
+// input, when there is any, is read up front by a FOR loop; input(shape) returns the matching text.
+public final class WorkloadGenerator {
+
+    // The tunable parameters. expressionDepth is the parenthesis nesting of every expression and
+    // expressionWidth the number of operands at each level, so an expression has width^(depth + 1) leaves.
+    public record Shape(int blocks, int variables, int expressionDepth, int expressionWidth, int nestingDepth,
+                        int tripCount, int stringAppends, int scanLines, long seed) {
+
+        public static final List<String> DIMENSIONS = List.of(
+                "blocks", "variables", "depth", "width", "nesting", "trips", "strings", "scan");
+
+        public Shape {
+            if (blocks < 1 || variables < 5 || expressionDepth < 0 || expressionWidth < 1 || nestingDepth < 0
+                    || tripCount < 0 || stringAppends < 0 || scanLines < 0) {
+                throw new IllegalArgumentException("Invalid workload shape: " + this);
+            }
+        }
+
+        public static Shape defaults() {
+            return new Shape(40, 10, 1, 3, 2, 5, 2, 0, 42);
+        }
+
+        // This shape with one dimension (a DIMENSIONS name) set to value
+        public Shape with(String dimension, int value) {
+            return switch (dimension) {
+                case "blocks" -> new Shape(value, variables, expressionDepth, expressionWidth, nestingDepth, tripCount, stringAppends, scanLines, seed);
+                case "variables" -> new Shape(blocks, value, expressionDepth, expressionWidth, nestingDepth, tripCount, stringAppends, scanLines, seed);
+                case "depth" -> new Shape(blocks, variables, value, expressionWidth, nestingDepth, tripCount, stringAppends, scanLines, seed);
+                case "width" -> new Shape(blocks, variables, expressionDepth, value, nestingDepth, tripCount, stringAppends, scanLines, seed);
+                case "nesting" -> new Shape(blocks, variables, expressionDepth, expressionWidth, value, tripCount, stringAppends, scanLines, seed);
+                case "trips" -> new Shape(blocks, variables, expressionDepth, expressionWidth, nestingDepth, value, stringAppends, scanLines, seed);
+                case "strings" -> new Shape(blocks, variables, expressionDepth, expressionWidth, nestingDepth, tripCount, value, scanLines, seed);
+                case "scan" -> new Shape(blocks, variables, expressionDepth, expressionWidth, nestingDepth, tripCount, stringAppends, value, seed);
+                default -> throw new IllegalArgumentException("Unknown dimension '" + dimension + "'. Expected one of: " + DIMENSIONS);
+            };
+        }
+    }
+
+    private static final String[] TYPES = {"INT", "FLOAT", "BOOL", "CHAR", "STRING"};
+    private static final String[] INT_OPERATORS = {"+", "-", "*"};
+    private static final String[] RELATIONAL = {"<", "<=", ">", ">=", "==", "<>"};
+
+    private final Shape shape;
+    private final Random random;
+    private final List<String> ints = new ArrayList<>();
+    private final List<String> floats = new ArrayList<>();
+    private final List<String> bools = new ArrayList<>();
+    private final List<String> chars = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private final StringBuilder out = new StringBuilder();
+    private int indent = 0;
+
+    private WorkloadGenerator(Shape shape) {
+        this.shape = shape;
+        this.random = new Random(shape.seed());
+    }
+
+    public static String generate(Shape shape) {
+        return new WorkloadGenerator(shape).program();
+    }
+
+    // The SCAN input a program of this shape reads: one "INT, FLOAT" line per scanLines
+    public static String input(Shape shape) {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < shape.scanLines(); i++) {
+            input.append(i % 97).append(", ").append(i % 13).append(".5\n");
+        }
+        return input.toString();
+    }
+
+    private String program() {
+        line("SCRIPT AREA");
+        line("START SCRIPT");
+        declarations();
+
+        if (shape.scanLines() > 0) {
+            line("FOR (k = 0, k < " + shape.scanLines() + ", k = k + 1)");
+            line("START FOR");
+            indent++;
+            line("SCAN: sInt, sFloat");
+            line(ints.get(0) + " = " + ints.get(0) + " + sInt");
+            line(floats.get(0) + " = " + floats.get(0) + " + sFloat");
+            indent--;
+            line("END FOR");
+        }
+
+        for (int b = 0; b < shape.blocks(); b++) {
+            line("%% block " + b);
+            nested(b, 0);
+            line("PRINT: \"block " + b + ": \" & text & $");
+            line("text = \"\"");
+        }
+
+        StringBuilder summary = new StringBuilder("PRINT: \"result\"");
+        for (String name : ints) summary.append(" & \" \" & ").append(name);
+        for (String name : floats) summary.append(" & \" \" & ").append(name);
+        for (String name : bools) summary.append(" & \" \" & ").append(name);
+        line(summary.append(" & $").toString());
+        line("END SCRIPT");
+        return out.toString();
+    }
+
+    // User variables cycle through the five types; loop counters, SCAN targets and the text buffer are extra
+    private void declarations() {
+        List<List<String>> byType = List.of(ints, floats, bools, chars, strings);
+        for (int i = 0; i < shape.variables(); i++) {
+            byType.get(i % TYPES.length).add("v" + i);
+        }
+        for (int t = 0; t < TYPES.length; t++) {
+            StringBuilder declare = new StringBuilder("DECLARE ").append(TYPES[t]).append(' ');
+            List<String> names = byType.get(t);
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) declare.append(", ");
+                declare.append(names.get(i)).append(" = ").append(initialValue(TYPES[t], i));
+            }
+            line(declare.toString());
+        }
+
+        StringBuilder counters = new StringBuilder("DECLARE INT k = 0, sInt = 0");
+        for (int level = 0; level < shape.nestingDepth(); level++) {
+            counters.append(", l").append(level).append(" = 0");
+        }
+        line(counters.toString());
+        line("DECLARE FLOAT sFloat = 0.0");
+        line("DECLARE STRING text = \"\"");
+    }
+
+    private String initialValue(String type, int i) {
+        return switch (type) {
+            case "INT" -> Integer.toString(i + 1);
+            case "FLOAT" -> (i + 1) + ".25";
+            case "BOOL" -> (i % 2 == 0) ? "\"TRUE\"" : "\"FALSE\"";
+            case "CHAR" -> "'" + (char) ('a' + i % 26) + "'";
+            default -> "\"s" + i + "\"";
+        };
+    }
+
+    // =========================================================================
+    // STATEMENTS
+    // =========================================================================
+
+    // IF, FOR and REPEAT rotate with the block and the nesting level
+    private void nested(int block, int level) {
+        if (level == shape.nestingDepth()) {
+            body();
+            return;
+        }
+        String counter = "l" + level;
+        switch ((block + level) % 3) {
+            case 0 -> {
+                line("IF (" + boolExpression(shape.expressionDepth()) + ")");
+                line("START IF");
+                indented(() -> nested(block, level + 1));
+                line("END IF");
+                line("ELSE");
+                line("START IF");
+                indented(this::body);
+                line("END IF");
+            }
+            case 1 -> {
+                line("FOR (" + counter + " = 0, " + counter + " < " + shape.tripCount() + ", " + counter + " = " + counter + " + 1)");
+                line("START FOR");
+                indented(() -> nested(block, level + 1));
+                line("END FOR");
+            }
+            default -> {
+                line(counter + " = 0");
+                line("REPEAT WHEN (" + counter + " < " + shape.tripCount() + ")");
+                line("START REPEAT");
+                indented(() -> {
+                    nested(block, level + 1);
+                    line(counter + " = " + counter + " + 1");
+                });
+                line("END REPEAT");
+            }
+        }
+    }
+
+    private void body() {
+        int depth = shape.expressionDepth();
+        line(pick(ints) + " = " + intExpression(depth));
+        // Divided by its leaf count: a sum of leaves no larger than M stays within M, so FLOATs never overflow
+        line(pick(floats) + " = (" + floatExpression(depth) + ") / " + leaves(depth) + ".0");
+        line(pick(bools) + " = " + boolExpression(depth));
+        for (int i = 0; i < shape.stringAppends(); i++) {
+            String piece = switch (i % 4) {
+                case 0 -> pick(ints);
+                case 1 -> pick(chars);
+                case 2 -> pick(strings);
+                default -> pick(floats);
+            };
+            line("text = text & " + piece + " & \",\"");
+        }
+    }
+
+    // =========================================================================
+    // EXPRESSIONS
+    // =========================================================================
+
+    private String intExpression(int depth) {
+        StringBuilder expression = new StringBuilder(intOperand(depth));
+        for (int i = 1; i < shape.expressionWidth(); i++) {
+            int choice = random.nextInt(8);
+            if (choice == 0) {
+                expression.append(" / ").append(1 + random.nextInt(9));
+            } else if (choice == 1) {
+                expression.append(" % ").append(1 + random.nextInt(9));
+            } else {
+                expression.append(' ').append(INT_OPERATORS[choice % INT_OPERATORS.length]).append(' ').append(intOperand(depth));
+            }
+        }
+        return expression.toString();
+    }
+
+    private String intOperand(int depth) {
+        if (depth > 0) return "(" + intExpression(depth - 1) + ")";
+        return random.nextBoolean() ? pick(ints) : Integer.toString(random.nextInt(100));
+    }
+
+    private String floatExpression(int depth) {
+        StringBuilder expression = new StringBuilder(floatOperand(depth));
+        for (int i = 1; i < shape.expressionWidth(); i++) {
+            int choice = random.nextInt(4);
+            if (choice == 0) {
+                expression.append(" / ").append(1 + random.nextInt(9)).append(".5");
+            } else {
+                expression.append(choice == 1 ? " - " : " + ").append(floatOperand(depth));
+            }
+        }
+        return expression.toString();
+    }
+
+    private long leaves(int depth) {
+        long leaves = 1;
+        for (int i = 0; i <= depth; i++) {
+            leaves *= shape.expressionWidth();
+        }
+        return leaves;
+    }
+
+    private String floatOperand(int depth) {
+        if (depth > 0) return "(" + floatExpression(depth - 1) + ")";
+        return switch (random.nextInt(3)) {
+            case 0 -> pick(floats);
+            case 1 -> pick(ints);
+            default -> random.nextInt(10) + ".75";
+        };
+    }
+
+    private String boolExpression(int depth) {
+        StringBuilder expression = new StringBuilder(boolOperand(depth));
+        for (int i = 1; i < shape.expressionWidth(); i++) {
+            expression.append(random.nextBoolean() ? " AND " : " OR ").append(boolOperand(depth));
+        }
+        return expression.toString();
+    }
+
+    private String boolOperand(int depth) {
+        if (depth > 0) return "(" + boolExpression(depth - 1) + ")";
+        return switch (random.nextInt(3)) {
+            case 0 -> pick(bools);
+            case 1 -> "NOT " + pick(bools);
+            default -> intOperand(0) + " " + RELATIONAL[random.nextInt(RELATIONAL.length)] + " " + intOperand(0);
+        };
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private String pick(List<String> names) {
+        return names.get(random.nextInt(names.size()));
+    }
+
+    private void indented(Runnable statements) {
+        indent++;
+        statements.run();
+        indent--;
+    }
+
+    private void line(String text) {
+        out.append("    ".repeat(indent)).append(text).append('\n');
+    }
+}
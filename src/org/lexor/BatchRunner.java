@@ -0,0 +1,205 @@
+package org.lexor;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.cache.ScriptCache;
+import org.lexor.closure.ClosureCompiler;
+import org.lexor.error.LexorException;
+import org.lexor.lexer.Lexer;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.parser.Parser;
+import org.lexor.runtime.ExecutionLimits;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.semantic.SemanticAnalyzer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// Batch mode: runs many scripts in one JVM, each on its own virtual thread with its own input, output and
+// error text, so the JVM starts once for the whole batch. A script reads its sibling <name>.in, or the file
+// given with --input=, or no input at all. Results are printed in the order the scripts were given, each as
+// soon as it and every script before it has finished, and the batch ends with a summary of times and throughput.
+// Only the engines that take their input and output as arguments (interpreter, closures) can run in batch.
+// --timeout bounds each script on the interpreter engine; a script past it fails like any other runtime error.
+final class BatchRunner {
+    // One runaway script must not exhaust the memory the rest of the batch shares
+    static final int OUTPUT_LIMIT = 16 << 20;
+
+    private record Result(Path script, int lines, String output, String error, long nanos) {
+        boolean failed() {
+            return error != null;
+        }
+    }
+
+    private static final class OutputLimitExceeded extends RuntimeException {
+        OutputLimitExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    // A script's output; printing past OUTPUT_LIMIT aborts that script
+    private static final class LimitedOutput extends ByteArrayOutputStream {
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (count + length > OUTPUT_LIMIT) throw new OutputLimitExceeded();
+            super.write(bytes, offset, length);
+        }
+
+        @Override
+        public void write(int b) {
+            if (count + 1 > OUTPUT_LIMIT) throw new OutputLimitExceeded();
+            super.write(b);
+        }
+    }
+
+    private BatchRunner() {
+    }
+
+    static boolean supports(String engine) {
+        return engine.equals("interpreter") || engine.equals("closures");
+    }
+
+    // Directories stand for every .lxr file under them, in name order
+    static List<Path> expand(List<String> paths) throws IOException {
+        List<Path> scripts = new ArrayList<>();
+        for (String path : paths) {
+            Path file = Path.of(path);
+            if (Files.isDirectory(file)) {
+                try (Stream<Path> files = Files.walk(file)) {
+                    scripts.addAll(files.filter(f -> f.toString().endsWith(".lxr")).sorted().toList());
+                }
+            } else {
+                scripts.add(file);
+            }
+        }
+        return scripts;
+    }
+
+    static void run(List<Path> scripts, String engine, boolean optimize, ExecutionLimits limits, ScriptCache cache,
+                    Path sharedInput) {
+        long start = System.nanoTime();
+        List<Result> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Result>> pending = new ArrayList<>();
+            for (Path script : scripts) {
+                pending.add(executor.submit(() -> execute(script, engine, optimize, limits, cache, sharedInput)));
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                Result result = await(scripts.get(i), pending.get(i));
+                print(result);
+                results.add(result);
+            }
+        }
+        summarize(results, System.nanoTime() - start);
+    }
+
+    // =========================================================================
+    // ONE SCRIPT
+    // =========================================================================
+
+    // The same pipeline, cache and error messages as Main, with every stream private to this script
+    private static Result execute(Path script, String engine, boolean optimize, ExecutionLimits limits,
+                                  ScriptCache cache, Path sharedInput) {
+        long start = System.nanoTime();
+        LimitedOutput buffer = new LimitedOutput();
+        int lines = 0;
+        String error = null;
+        try {
+            String sourceCode = Files.readString(script);
+            lines = (int) sourceCode.lines().count();
+            InputReader input = new InputReader(new ByteArrayInputStream(input(script, sharedInput)));
+            OutputSink output = new OutputSink(buffer);
+
+            ProgramNode astRoot = (cache != null) ? cache.load(sourceCode, optimize) : null;
+            if (astRoot == null) {
+                astRoot = new Parser(new Lexer(sourceCode).scanTokens()).parse();
+                new SemanticAnalyzer().analyze(astRoot);
+                if (optimize) {
+                    astRoot = new Optimizer().optimize(astRoot);
+                }
+                if (cache != null) cache.store(sourceCode, optimize, astRoot);
+            }
+
+            if (engine.equals("closures")) {
+                new ClosureCompiler().compile(astRoot).run(input, output);
+            } else {
+                new Interpreter(input, output, limits).interpret(astRoot);
+            }
+        } catch (IOException e) {
+            error = "Error reading file: Could not find or open '" + script + "'";
+        } catch (OutputLimitExceeded e) {
+            error = "\n[EXECUTION FAILED]\nOutput limit of " + OUTPUT_LIMIT + " bytes exceeded.";
+        } catch (org.lexor.error.RuntimeError e) {
+            error = "\n[EXECUTION FAILED]\n" + e.getMessage();
+        } catch (LexorException e) {
+            error = "\n[COMPILATION FAILED]\n" + e.getMessage();
+        } catch (Exception e) {
+            error = "An unexpected internal error occurred: " + e.getMessage();
+        }
+        return new Result(script, lines, buffer.toString(StandardCharsets.UTF_8), error, System.nanoTime() - start);
+    }
+
+    static byte[] input(Path script, Path sharedInput) throws IOException {
+        if (sharedInput != null) {
+            return Files.readAllBytes(sharedInput);
+        }
+        String name = script.getFileName().toString();
+        Path own = script.resolveSibling((name.endsWith(".lxr") ? name.substring(0, name.length() - 4) : name) + ".in");
+        return Files.exists(own) ? Files.readAllBytes(own) : new byte[0];
+    }
+
+    // Errors (e.g. a StackOverflowError) that escape execute still belong to that one script
+    private static Result await(Path script, Future<Result> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return new Result(script, 0, "", "An unexpected internal error occurred: " + e.getCause(), 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(script, 0, "", "Interrupted before the script finished.", 0);
+        }
+    }
+
+    // =========================================================================
+    // REPORTING
+    // =========================================================================
+
+    private static void print(Result result) {
+        System.out.println("\n--- LEXOR OUTPUT: " + result.script() + " ---");
+        System.out.print(result.output());
+        System.out.flush();
+        if (result.failed()) {
+            System.err.println("\n--- LEXOR ERROR: " + result.script() + " ---");
+            System.err.println(result.error().stripLeading());
+            System.err.flush();
+        }
+    }
+
+    private static void summarize(List<Result> results, long wallNanos) {
+        long failed = results.stream().filter(Result::failed).count();
+        long busyNanos = results.stream().mapToLong(Result::nanos).sum();
+        long lines = results.stream().mapToLong(Result::lines).sum();
+
+        System.out.println("\n=== BATCH SUMMARY ===");
+        System.out.printf("  %-50s %-7s %10s %12s%n", "script", "status", "ms", "lines/s");
+        for (Result result : results) {
+            System.out.printf("  %-50s %-7s %10.3f %12.0f%n", result.script(), result.failed() ? "FAILED" : "ok",
+                    result.nanos() / 1e6, result.nanos() == 0 ? 0 : result.lines() * 1e9 / result.nanos());
+        }
+        System.out.printf("  %d scripts, %d ok, %d failed in %.1f ms: %.1f scripts/s, %.0f lines/s, %.1f running at a time on average%n",
+                results.size(), results.size() - failed, failed, wallNanos / 1e6,
+                results.size() * 1e9 / wallNanos, lines * 1e9 / wallNanos, (double) busyNanos / wallNanos);
+    }
+}
@@ -1,72 +1,194 @@
 package org.lexor;
 
 import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.cache.ScriptCache;
+import org.lexor.daemon.Daemon;
 import org.lexor.lexer.Lexer;
 import org.lexor.lexer.Token;
 import org.lexor.parser.Parser;
 import org.lexor.semantic.SemanticAnalyzer;
+import org.lexor.closure.ClosureCompiler;
+import org.lexor.exec.NodeBuilder;
+import org.lexor.jvm.JvmProgram;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.runtime.InputReader;
 import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.vm.BytecodeCompiler;
+import org.lexor.vm.Chunk;
+import org.lexor.vm.VirtualMachine;
 import org.lexor.error.LexorException;
+import org.lexor.runtime.ExecutionLimits;
 
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
 
         boolean debugMode = false;
+        boolean optimize = true;
+        String engine = "interpreter";
         String filePath = "sample_scripts/test_program.lxr";
+        String inputPath = null;
+        ScriptCache cache = null;
+        Path daemonSocket = null;
+        boolean train = false;
+        List<String> trainingOptions = new java.util.ArrayList<>();
+        ExecutionLimits limits = ExecutionLimits.NONE;
+        List<String> paths = new java.util.ArrayList<>();
 
         for (String arg : args) {
-            if (arg.equals("--debug")) {
+            if (arg.startsWith("--") && !arg.equals("--train") && !arg.startsWith("--daemon")) {
+                trainingOptions.add(arg);
+            }
+            if (arg.equals("--train")) {
+                train = true;
+            } else if (arg.equals("--debug")) {
                 debugMode = true;
+            } else if (arg.equals("--no-optimize")) {
+                optimize = false;
+            } else if (arg.startsWith("--engine=")) {
+                engine = arg.substring("--engine=".length());
+            } else if (arg.equals("--cache")) {
+                cache = new ScriptCache(ScriptCache.defaultDirectory());
+            } else if (arg.startsWith("--cache=")) {
+                cache = new ScriptCache(Paths.get(arg.substring("--cache=".length())));
+            } else if (arg.equals("--daemon")) {
+                daemonSocket = Daemon.defaultSocket();
+            } else if (arg.startsWith("--daemon=")) {
+                daemonSocket = Paths.get(arg.substring("--daemon=".length()));
+            } else if (arg.startsWith("--timeout=")) {
+                String value = arg.substring("--timeout=".length());
+                long millis;
+                try {
+                    millis = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    millis = 0;
+                }
+                if (millis <= 0) {
+                    System.err.println("--timeout expects a positive number of milliseconds, not '" + value + "'");
+                    System.exit(2);
+                }
+                limits = limits.withTimeout(Duration.ofMillis(millis));
+            } else if (arg.startsWith("--input=")) {
+                inputPath = arg.substring("--input=".length());
             } else {
-                filePath = arg;
+                paths.add(arg);
             }
         }
+        if (paths.size() == 1) {
+            filePath = paths.get(0);
+        }
 
-        
-        try {
-            String sourceCode = new String(Files.readAllBytes(Paths.get(filePath)));
+        if (!engine.equals("interpreter") && !engine.equals("vm") && !engine.equals("nodes") && !engine.equals("jvm")
+                && !engine.equals("closures")) {
+            System.err.println("Unknown engine '" + engine + "'. Expected one of: interpreter, vm, nodes, jvm, closures");
+            return;
+        }
 
-            // PHASE 1: Lexical Analysis
-            Lexer lexer = new Lexer(sourceCode);
-            List<Token> tokens = lexer.scanTokens();
+        // Only the Interpreter checks a time limit; any other engine would run past it
+        if (!limits.equals(ExecutionLimits.NONE) && !engine.equals("interpreter")) {
+            System.err.println("--timeout runs on the interpreter engine, not '" + engine + "'");
+            return;
+        }
 
-            if (debugMode) {
-                System.out.println("=== PHASE 1: TOKENS ===");
-                for (Token t : tokens) {
-                    System.out.printf("  %-20s | %-15s | Line %d%n",
-                            t.type, t.lexeme, t.line);
-                }
+        // Training runs a corpus through the one-shot path below for a class archive dump (see bin/lexor)
+        if (train) {
+            try {
+                Training.run(BatchRunner.expand(paths.isEmpty() ? List.of(Training.DEFAULT_CORPUS) : paths),
+                        trainingOptions, inputPath == null ? null : Paths.get(inputPath));
+            } catch (IOException e) {
+                System.err.println("Error reading directory: " + e.getMessage());
             }
+            return;
+        }
 
-            // PHASE 2: Parsing
-            Parser parser = new Parser(tokens);
-            ProgramNode astRoot = parser.parse();
+        // A resident daemon serves scripts sent by org.lexor.daemon.Client; scripts given here warm it up
+        if (daemonSocket != null) {
+            if (!engine.equals("interpreter") || debugMode) {
+                System.err.println("Daemon mode runs on the interpreter engine, without --debug");
+                return;
+            }
+            try {
+                Daemon.serve(daemonSocket, limits, cache, BatchRunner.expand(paths));
+            } catch (IOException e) {
+                System.err.println("Daemon failed: " + e.getMessage());
+            }
+            return;
+        }
 
+        // Several scripts, or a directory of them, run together in batch mode
+        if (paths.size() > 1 || Files.isDirectory(Paths.get(filePath))) {
+            if (!BatchRunner.supports(engine)) {
+                System.err.println("Batch mode runs on the interpreter or closures engine, not '" + engine + "'");
+                return;
+            }
             if (debugMode) {
-                System.out.println("\n=== PHASE 2: Abstract Syntax Tree (AST) ===");
-                // TODO: ASTPrinter is already implemented — wire it in here.
-                org.lexor.ast.visitor.ASTPrinter printer = new org.lexor.ast.visitor.ASTPrinter();
-                System.out.println(printer.print(astRoot));
+                System.err.println("--debug is not available in batch mode");
+                return;
+            }
+            try {
+                BatchRunner.run(BatchRunner.expand(paths), engine, optimize, limits, cache,
+                        inputPath == null ? null : Paths.get(inputPath));
+            } catch (IOException e) {
+                System.err.println("Error reading directory: " + e.getMessage());
             }
+            return;
+        }
 
-            // PHASE 3: Semantic Analysis
-            SemanticAnalyzer analyzer = new SemanticAnalyzer();
-            analyzer.analyze(astRoot);
+        try {
+            String sourceCode = new String(Files.readAllBytes(Paths.get(filePath)));
 
-            if (debugMode) {
-                System.out.println("\n=== PHASE 3: SEMANTIC ANALYSIS PASSED ===");
-                System.out.println(analyzer.getSymbolTable().dump());
+            // A cached program skips PHASES 1-3 and the optimizer; --debug always shows them
+            ProgramNode astRoot = (cache != null && !debugMode) ? cache.load(sourceCode, optimize) : null;
+            if (astRoot == null) {
+                astRoot = compile(sourceCode, optimize, debugMode);
+                if (cache != null) cache.store(sourceCode, optimize, astRoot);
             }
 
             // PHASE 4: Execution
-            if (!debugMode) System.out.println("\n--- LEXOR OUTPUT ---");
-            Interpreter interpreter = new Interpreter();
-            interpreter.interpret(astRoot);
+            if (engine.equals("vm")) {
+                Chunk chunk = new BytecodeCompiler().compile(astRoot);
+
+                if (debugMode) {
+                    System.out.println("\n=== PHASE 4: BYTECODE (" + chunk.size() + " ints) ===");
+                    System.out.print(chunk.disassemble());
+                }
+
+                if (!debugMode) System.out.println("\n--- LEXOR OUTPUT ---");
+                new VirtualMachine().run(chunk);
+            } else if (engine.equals("nodes")) {
+                if (!debugMode) System.out.println("\n--- LEXOR OUTPUT ---");
+                new NodeBuilder().build(astRoot).execute();
+            } else if (engine.equals("closures")) {
+                if (!debugMode) System.out.println("\n--- LEXOR OUTPUT ---");
+                new ClosureCompiler().compile(astRoot).run();
+            } else if (engine.equals("jvm")) {
+                // Programs the JVM backend cannot hold run on the Interpreter instead
+                JvmProgram compiled = null;
+                try {
+                    compiled = JvmProgram.compile(astRoot);
+                    if (debugMode) System.out.println("\n=== PHASE 4: JVM CLASS (" + compiled.classSize() + " bytes) ===");
+                } catch (IllegalStateException e) {
+                    if (debugMode) System.out.println("\n=== PHASE 4: JVM BACKEND SKIPPED, USING INTERPRETER (" + e.getMessage() + ") ===");
+                }
+
+                if (!debugMode) System.out.println("\n--- LEXOR OUTPUT ---");
+                if (compiled != null) {
+                    compiled.run();
+                } else {
+                    new Interpreter().interpret(astRoot);
+                }
+            } else {
+                if (!debugMode) System.out.println("\n--- LEXOR OUTPUT ---");
+                Interpreter interpreter = new Interpreter(InputReader.stdin(), OutputSink.stdout(), limits);
+                interpreter.interpret(astRoot);
+            }
 
             // In Main.java, update the catch blocks at the bottom:
         } catch (IOException e) {
@@ -81,4 +203,49 @@ public class Main {
             System.err.println("An unexpected internal error occurred: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private static ProgramNode compile(String sourceCode, boolean optimize, boolean debugMode) {
+        // PHASE 1: Lexical Analysis
+        Lexer lexer = new Lexer(sourceCode);
+        List<Token> tokens = lexer.scanTokens();
+
+        if (debugMode) {
+            System.out.println("=== PHASE 1: TOKENS ===");
+            for (Token t : tokens) {
+                System.out.printf("  %-20s | %-15s | Line %d%n",
+                        t.type, t.lexeme(), t.line);
+            }
+        }
+
+        // PHASE 2: Parsing
+        Parser parser = new Parser(tokens);
+        ProgramNode astRoot = parser.parse();
+
+        if (debugMode) {
+            System.out.println("\n=== PHASE 2: Abstract Syntax Tree (AST) ===");
+            // TODO: ASTPrinter is already implemented — wire it in here.
+            org.lexor.ast.visitor.ASTPrinter printer = new org.lexor.ast.visitor.ASTPrinter();
+            System.out.println(printer.print(astRoot));
+        }
+
+        // PHASE 3: Semantic Analysis
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        analyzer.analyze(astRoot);
+
+        if (debugMode) {
+            System.out.println("\n=== PHASE 3: SEMANTIC ANALYSIS PASSED ===");
+            System.out.println(analyzer.getSymbolTable().dump());
+        }
+
+        // Constant folding and dead-branch removal over the analyzed AST
+        if (optimize) {
+            astRoot = new Optimizer().optimize(astRoot);
+
+            if (debugMode) {
+                System.out.println("\n=== OPTIMIZED AST ===");
+                System.out.println(new org.lexor.ast.visitor.ASTPrinter().print(astRoot));
+            }
+        }
+        return astRoot;
+    }
+}
@@ -0,0 +1,50 @@
+package org.lexor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+
+// Training mode (--train): runs a corpus through the same one-shot path as `java -jar lexor.jar script.lxr`,
+// one script after another with its output discarded, so that a JVM dumping a class archive at exit records
+// every class a single run loads. bin/lexor starts it under -XX:ArchiveClassesAtExit (AppCDS) or
+// -XX:AOTCacheOutput (the JDK 25+ AOT cache) and then launches every run with the archive. Every other option
+// given with --train (e.g. --engine=vm, --no-optimize) is passed on to each run, so the archive matches the
+// runs it is meant for. Scripts read their sibling <name>.in, the --input= file, or no input at all, and
+// must finish: there is no timeout.
+final class Training {
+    static final String DEFAULT_CORPUS = "test_cases/pass";
+
+    private Training() {
+    }
+
+    static void run(List<Path> scripts, List<String> options, Path sharedInput) {
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        InputStream in = System.in;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        long start = System.nanoTime();
+        try {
+            System.setOut(discard);
+            System.setErr(discard);
+            for (Path script : scripts) {
+                try {
+                    System.setIn(new ByteArrayInputStream(BatchRunner.input(script, sharedInput)));
+                    String[] args = options.toArray(new String[options.size() + 1]);
+                    args[options.size()] = script.toString();
+                    Main.main(args);
+                } catch (Exception | StackOverflowError e) {
+                    // Main reports a script's own errors itself; anything that still escapes ends only that
+                    // script, which has loaded the classes of the phases it reached
+                }
+            }
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+            System.setIn(in);
+        }
+        out.printf("Trained on %d scripts in %.1f s%n", scripts.size(), (System.nanoTime() - start) / 1e9);
+    }
+}
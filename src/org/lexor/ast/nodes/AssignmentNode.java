@@ -2,11 +2,17 @@ package org.lexor.ast.nodes;
 
 import org.lexor.lexer.Token;
 import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.semantic.symbol.Type;
 
 public class AssignmentNode extends StatementNode {
     public final Token identifier;
     public final ASTNode value;
 
+    // Resolved by the SemanticAnalyzer: scope depth, frame slot and declared type of the target variable
+    public int depth = -1;
+    public int slot = -1;
+    public Type type = Type.UNKNOWN;
+
     public AssignmentNode(Token identifier, ASTNode value) {
         this.identifier = identifier;
         this.value = value;
@@ -5,6 +5,9 @@ import java.util.List;
 public class BlockNode extends StatementNode{
     public final List<StatementNode> statements;
 
+    // Number of variables declared in this block's scope (size of its runtime frame)
+    public int localCount = 0;
+
     public BlockNode(List<StatementNode> statements) {
         this.statements = statements;
     }
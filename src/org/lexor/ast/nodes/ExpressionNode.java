@@ -1,8 +1,12 @@
 package org.lexor.ast.nodes;
 
 import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.semantic.symbol.Type;
 
 // An expression always evaluates to a value
 public abstract class ExpressionNode implements ASTNode {
+    // Static type computed by the SemanticAnalyzer
+    public Type type = Type.UNKNOWN;
+
     public abstract <T> T accept(ASTVisitor<T> visitor);
 }
\ No newline at end of file
@@ -6,6 +6,10 @@ import org.lexor.ast.visitor.ASTVisitor;
 public class IdentifierNode extends ExpressionNode {
     public final Token name;
 
+    // Resolved by the SemanticAnalyzer: scope depth and frame slot of the referenced variable
+    public int depth = -1;
+    public int slot = -1;
+
     public IdentifierNode(Token name) {
         this.name = name;
     }
@@ -2,9 +2,11 @@ package org.lexor.ast.nodes;
 
 import org.lexor.lexer.Token;
 import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.runtime.values.RuntimeValue;
 
 public class LiteralNode extends ExpressionNode {
     public final Token valueToken;
+    public RuntimeValue value; // Decoded once by the SemanticAnalyzer and shared by every evaluation
 
     public LiteralNode(Token valueToken) {
         this.valueToken = valueToken;
@@ -7,6 +7,9 @@ public class ProgramNode extends StatementNode {
     public final List<VarDeclNode> declarations;
     public final List<StatementNode> statements;
 
+    // Number of variables declared in the global scope (size of the global runtime frame)
+    public int localCount = 0;
+
     public ProgramNode(List<VarDeclNode> declarations, List<StatementNode> statements) {
         this.declarations = declarations;
         this.statements = statements;
@@ -2,13 +2,22 @@ package org.lexor.ast.nodes;
 
 import org.lexor.ast.visitor.ASTVisitor;
 import org.lexor.lexer.Token;
+import org.lexor.semantic.symbol.Type;
 import java.util.List;
 
 public class ScanNode extends StatementNode{
     public final List<Token> identifiers;
 
+    // Resolved by the SemanticAnalyzer: scope depth, frame slot and declared type of each target, parallel to identifiers
+    public final int[] depths;
+    public final int[] slots;
+    public final Type[] types;
+
     public ScanNode(List<Token> identifiers) {
         this.identifiers = identifiers;
+        this.depths = new int[identifiers.size()];
+        this.slots = new int[identifiers.size()];
+        this.types = new Type[identifiers.size()];
     }
 
     @Override
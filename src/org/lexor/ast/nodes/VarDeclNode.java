@@ -8,6 +8,9 @@ public class VarDeclNode extends StatementNode {
     public final Token identifier;    // The variable name
     public final ASTNode initializer; // The value assigned (can be null if uninitialized)
 
+    // Assigned by the SemanticAnalyzer: frame slot of the declared variable
+    public int slot = -1;
+
     public VarDeclNode(Token dataType, Token identifier, ASTNode initializer) {
         this.dataType = dataType;
         this.identifier = identifier;
@@ -30,32 +30,32 @@ public class ASTPrinter implements ASTVisitor<String> {
     public String visitVarDeclNode(VarDeclNode node) {
         String initStr = (node.initializer != null) ? node.initializer.accept(this) : "null";
         return String.format("(Declare %s %s = %s)",
-                node.dataType.lexeme, node.identifier.lexeme, initStr);
+                node.dataType.lexeme(), node.identifier.lexeme(), initStr);
     }
 
     @Override
     public String visitAssignmentNode(AssignmentNode node) {
         return String.format("(Assign %s = %s)",
-                node.identifier.lexeme, node.value.accept(this));
+                node.identifier.lexeme(), node.value.accept(this));
     }
 
     @Override
     public String visitBinaryExprNode(BinaryExprNode node) {
         return String.format("(%s %s %s)",
-                node.operator.lexeme, node.left.accept(this), node.right.accept(this));
+                node.operator.lexeme(), node.left.accept(this), node.right.accept(this));
     }
 
     @Override
     public String visitLiteralNode(LiteralNode node) {
         return String.format("(%s: %s)",
                 node.valueToken.type,
-                node.valueToken.lexeme);
+                node.valueToken.lexeme());
     }
 
     @Override
     public String visitIdentifierNode(IdentifierNode node) {
         return String.format("(Id: %s)",
-                node.name.lexeme);
+                node.name.lexeme());
     }
 
     @Override
@@ -80,7 +80,7 @@ public class ASTPrinter implements ASTVisitor<String> {
     @Override
     public String visitUnaryExprNode(UnaryExprNode node) {
         return String.format("(%s %s)",
-                node.operator.lexeme,
+                node.operator.lexeme(),
                 node.right.accept(this));
     }
 
@@ -133,7 +133,7 @@ public class ASTPrinter implements ASTVisitor<String> {
         builder.append("(Scan ");
 
         for (int i = 0; i < node.identifiers.size(); i++) {
-            builder.append(node.identifiers.get(i).lexeme);
+            builder.append(node.identifiers.get(i).lexeme());
 
             if (i < node.identifiers.size() - 1) {
                 builder.append(", ");
@@ -161,7 +161,7 @@ public class ASTPrinter implements ASTVisitor<String> {
     @Override
     public String visitLogicalExprNode(LogicalExprNode node) {
         return String.format("(%s %s %s)",
-                node.operator.lexeme,
+                node.operator.lexeme(),
                 node.left.accept(this),
                 node.right.accept(this));
     }
@@ -0,0 +1,573 @@
+package org.lexor.cache;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.lexer.Token;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.BoolValue;
+import org.lexor.runtime.values.CharValue;
+import org.lexor.runtime.values.FloatValue;
+import org.lexor.runtime.values.IntValue;
+import org.lexor.runtime.values.RuntimeValue;
+import org.lexor.runtime.values.StringValue;
+import org.lexor.semantic.symbol.Type;
+
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary form of an analyzed (and possibly optimized) AST. Every node keeps what any engine reads from it: its
+// tokens, the SemanticAnalyzer's annotations (types, scope depths, frame slots, frame sizes, the SCAN target
+// arrays) and the decoded literal values, so a decoded tree runs without lexing, parsing or analysis. Nothing
+// else of the SymbolTable is needed at run time.
+//
+// A node is a tag byte followed by its fields in declaration order. Integers are LEB128 varints (zigzag for
+// the signed annotations, which use -1 for unresolved), a token's line is the difference from the line of the
+// token before it, enums are ordinal + 1 with 0 for null, and a string is written once and then referred to by
+// its index. Enum ordinals are part of the format; ScriptCache keys every entry by the enum constants as well,
+// so reordering TokenType or Type invalidates old entries.
+public final class AstCodec {
+    // Node tags
+    private static final int NULL = 0;
+    private static final int PROGRAM = 1;
+    private static final int VAR_DECL = 2;
+    private static final int ASSIGNMENT = 3;
+    private static final int BINARY = 4;
+    private static final int LITERAL = 5;
+    private static final int IDENTIFIER = 6;
+    private static final int PRINT = 7;
+    private static final int UNARY = 8;
+    private static final int BLOCK = 9;
+    private static final int GROUPING = 10;
+    private static final int IF = 11;
+    private static final int REPEAT = 12;
+    private static final int SCAN = 13;
+    private static final int FOR = 14;
+    private static final int LOGICAL = 15;
+    private static final int NEWLINE = 16;
+    private static final int BREAK = 17;
+    private static final int CONTINUE = 18;
+
+    // Literal value tags
+    private static final int NO_VALUE = 0;
+    private static final int INT_VALUE = 1;
+    private static final int FLOAT_VALUE = 2;
+    private static final int BOOL_VALUE = 3;
+    private static final int CHAR_VALUE = 4;
+    private static final int STRING_VALUE = 5;
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    private static final Type[] TYPES = Type.values();
+
+    private AstCodec() {
+    }
+
+    public static byte[] encode(ProgramNode program) {
+        Writer writer = new Writer();
+        writer.node(program);
+        return writer.toByteArray();
+    }
+
+    // Decodes data[offset, offset + length); anything that is not a well-formed program of this format is
+    // reported as corrupt
+    public static ProgramNode decode(byte[] data, int offset, int length) throws StreamCorruptedException {
+        Reader reader = new Reader(data, offset, offset + length);
+        try {
+            ProgramNode program = (ProgramNode) reader.node();
+            if (reader.position != reader.end) {
+                throw new StreamCorruptedException((reader.end - reader.position) + " bytes after the program");
+            }
+            return program;
+        } catch (RuntimeException | StackOverflowError e) {
+            StreamCorruptedException corrupt = new StreamCorruptedException("Malformed AST at byte " + reader.position);
+            corrupt.initCause(e);
+            throw corrupt;
+        }
+    }
+
+    // =========================================================================
+    // ENCODING
+    // =========================================================================
+
+    private static final class Writer implements ASTVisitor<Void> {
+        private byte[] buffer = new byte[4096];
+        private int size = 0;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private int line = 0;
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        void node(ASTNode node) {
+            if (node == null) {
+                write(NULL);
+            } else {
+                node.accept(this);
+            }
+        }
+
+        private void nodes(List<? extends ASTNode> nodes) {
+            varint(nodes.size());
+            for (ASTNode node : nodes) node(node);
+        }
+
+        // The tag and the annotation every expression carries
+        private void expression(int tag, ExpressionNode node) {
+            write(tag);
+            enumeration(node.type);
+        }
+
+        @Override
+        public Void visitProgramNode(ProgramNode node) {
+            write(PROGRAM);
+            nodes(node.declarations);
+            nodes(node.statements);
+            varint(node.localCount);
+            return null;
+        }
+
+        @Override
+        public Void visitVarDeclNode(VarDeclNode node) {
+            write(VAR_DECL);
+            token(node.dataType);
+            token(node.identifier);
+            node(node.initializer);
+            signed(node.slot);
+            return null;
+        }
+
+        @Override
+        public Void visitAssignmentNode(AssignmentNode node) {
+            write(ASSIGNMENT);
+            token(node.identifier);
+            node(node.value);
+            signed(node.depth);
+            signed(node.slot);
+            enumeration(node.type);
+            return null;
+        }
+
+        @Override
+        public Void visitBinaryExprNode(BinaryExprNode node) {
+            expression(BINARY, node);
+            node(node.left);
+            token(node.operator);
+            node(node.right);
+            return null;
+        }
+
+        @Override
+        public Void visitLiteralNode(LiteralNode node) {
+            expression(LITERAL, node);
+            token(node.valueToken);
+            value(node.value);
+            return null;
+        }
+
+        @Override
+        public Void visitIdentifierNode(IdentifierNode node) {
+            expression(IDENTIFIER, node);
+            token(node.name);
+            signed(node.depth);
+            signed(node.slot);
+            return null;
+        }
+
+        @Override
+        public Void visitPrintNode(PrintNode node) {
+            write(PRINT);
+            nodes(node.expressions);
+            return null;
+        }
+
+        @Override
+        public Void visitUnaryExprNode(UnaryExprNode node) {
+            expression(UNARY, node);
+            token(node.operator);
+            node(node.right);
+            return null;
+        }
+
+        @Override
+        public Void visitBlockNode(BlockNode node) {
+            write(BLOCK);
+            nodes(node.statements);
+            varint(node.localCount);
+            return null;
+        }
+
+        @Override
+        public Void visitGroupingNode(GroupingNode node) {
+            expression(GROUPING, node);
+            node(node.expression);
+            return null;
+        }
+
+        @Override
+        public Void visitIfNode(IfNode node) {
+            write(IF);
+            node(node.condition);
+            node(node.thenBranch);
+            varint(node.elseIfParts.size());
+            for (IfNode.ElseIfPart part : node.elseIfParts) {
+                node(part.condition);
+                node(part.body);
+            }
+            node(node.elseBranch);
+            return null;
+        }
+
+        @Override
+        public Void visitRepeatNode(RepeatNode node) {
+            write(REPEAT);
+            node(node.condition);
+            node(node.body);
+            return null;
+        }
+
+        @Override
+        public Void visitScanNode(ScanNode node) {
+            write(SCAN);
+            varint(node.identifiers.size());
+            for (int i = 0; i < node.identifiers.size(); i++) {
+                token(node.identifiers.get(i));
+                signed(node.depths[i]);
+                signed(node.slots[i]);
+                enumeration(node.types[i]);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitForNode(ForNode node) {
+            write(FOR);
+            node(node.initialization);
+            node(node.condition);
+            node(node.update);
+            node(node.body);
+            return null;
+        }
+
+        @Override
+        public Void visitLogicalExprNode(LogicalExprNode node) {
+            expression(LOGICAL, node);
+            node(node.left);
+            token(node.operator);
+            node(node.right);
+            return null;
+        }
+
+        @Override
+        public Void visitNewlineNode(NewlineNode node) {
+            expression(NEWLINE, node);
+            return null;
+        }
+
+        @Override
+        public Void visitBreakNode(BreakNode node) {
+            write(BREAK);
+            return null;
+        }
+
+        @Override
+        public Void visitContinueNode(ContinueNode node) {
+            write(CONTINUE);
+            return null;
+        }
+
+        private void token(Token token) {
+            if (token == null) {
+                write(0);
+                return;
+            }
+            enumeration(token.type);
+            string(token.lexeme());
+            signed(token.line - line);
+            line = token.line;
+        }
+
+        private void value(RuntimeValue value) {
+            if (value == null) {
+                write(NO_VALUE);
+            } else if (value instanceof IntValue i) {
+                write(INT_VALUE);
+                signed(i.intValue());
+            } else if (value instanceof FloatValue f) {
+                write(FLOAT_VALUE);
+                int bits = Float.floatToRawIntBits(f.floatValue());
+                write(bits >>> 24);
+                write(bits >>> 16);
+                write(bits >>> 8);
+                write(bits);
+            } else if (value instanceof BoolValue b) {
+                write(BOOL_VALUE);
+                write(b.booleanValue() ? 1 : 0);
+            } else if (value instanceof CharValue c) {
+                write(CHAR_VALUE);
+                varint(c.charValue());
+            } else if (value instanceof StringValue s) {
+                write(STRING_VALUE);
+                string(s.asString());
+            } else {
+                throw new IllegalStateException("Cannot encode a literal of " + value.getClass().getSimpleName());
+            }
+        }
+
+        private void enumeration(Enum<?> constant) {
+            write(constant == null ? 0 : constant.ordinal() + 1);
+        }
+
+        // A new string is its index (the current table size) followed by its length and chars
+        private void string(String string) {
+            Integer index = strings.get(string);
+            if (index != null) {
+                varint(index);
+                return;
+            }
+            varint(strings.size());
+            strings.put(string, strings.size());
+            varint(string.length());
+            for (int i = 0; i < string.length(); i++) {
+                varint(string.charAt(i));
+            }
+        }
+
+        private void signed(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        private void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        private void write(int b) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = (byte) b;
+        }
+    }
+
+    // =========================================================================
+    // DECODING
+    // =========================================================================
+
+    private static final class Reader {
+        private final byte[] data;
+        private final int end;
+        private int position;
+        private final List<String> strings = new ArrayList<>();
+        private int line = 0;
+
+        Reader(byte[] data, int start, int end) {
+            this.data = data;
+            this.position = start;
+            this.end = end;
+        }
+
+        ASTNode node() {
+            int tag = read();
+            return switch (tag) {
+                case NULL -> null;
+                case PROGRAM -> {
+                    List<VarDeclNode> declarations = nodes(VarDeclNode.class);
+                    ProgramNode node = new ProgramNode(declarations, nodes(StatementNode.class));
+                    node.localCount = varint();
+                    yield node;
+                }
+                case VAR_DECL -> {
+                    Token dataType = token();
+                    Token identifier = token();
+                    VarDeclNode node = new VarDeclNode(dataType, identifier, node());
+                    node.slot = signed();
+                    yield node;
+                }
+                case ASSIGNMENT -> {
+                    Token identifier = token();
+                    AssignmentNode node = new AssignmentNode(identifier, node());
+                    node.depth = signed();
+                    node.slot = signed();
+                    node.type = enumeration(TYPES);
+                    yield node;
+                }
+                case BLOCK -> {
+                    BlockNode node = new BlockNode(nodes(StatementNode.class));
+                    node.localCount = varint();
+                    yield node;
+                }
+                case PRINT -> new PrintNode(nodes(ExpressionNode.class));
+                case IF -> {
+                    ExpressionNode condition = node(ExpressionNode.class);
+                    StatementNode thenBranch = node(StatementNode.class);
+                    int parts = count();
+                    List<IfNode.ElseIfPart> elseIfParts = new ArrayList<>(parts);
+                    for (int i = 0; i < parts; i++) {
+                        ExpressionNode partCondition = node(ExpressionNode.class);
+                        elseIfParts.add(new IfNode.ElseIfPart(partCondition, node(BlockNode.class)));
+                    }
+                    yield new IfNode(condition, thenBranch, elseIfParts, node(StatementNode.class));
+                }
+                case REPEAT -> {
+                    ExpressionNode condition = node(ExpressionNode.class);
+                    yield new RepeatNode(condition, node(BlockNode.class));
+                }
+                case SCAN -> {
+                    int count = count();
+                    List<Token> identifiers = new ArrayList<>(count);
+                    int[] depths = new int[count];
+                    int[] slots = new int[count];
+                    Type[] types = new Type[count];
+                    for (int i = 0; i < count; i++) {
+                        identifiers.add(token());
+                        depths[i] = signed();
+                        slots[i] = signed();
+                        types[i] = enumeration(TYPES);
+                    }
+                    ScanNode node = new ScanNode(identifiers);
+                    System.arraycopy(depths, 0, node.depths, 0, count);
+                    System.arraycopy(slots, 0, node.slots, 0, count);
+                    System.arraycopy(types, 0, node.types, 0, count);
+                    yield node;
+                }
+                case FOR -> {
+                    StatementNode initialization = node(StatementNode.class);
+                    ExpressionNode condition = node(ExpressionNode.class);
+                    StatementNode update = node(StatementNode.class);
+                    yield new ForNode(initialization, condition, update, node(BlockNode.class));
+                }
+                case BREAK -> new BreakNode();
+                case CONTINUE -> new ContinueNode();
+                default -> expression(tag);
+            };
+        }
+
+        private ExpressionNode expression(int tag) {
+            Type type = enumeration(TYPES);
+            ExpressionNode node = switch (tag) {
+                case BINARY, LOGICAL -> {
+                    ExpressionNode left = node(ExpressionNode.class);
+                    Token operator = token();
+                    ExpressionNode right = node(ExpressionNode.class);
+                    yield tag == BINARY ? new BinaryExprNode(left, operator, right) : new LogicalExprNode(left, operator, right);
+                }
+                case LITERAL -> {
+                    LiteralNode literal = new LiteralNode(token());
+                    literal.value = value();
+                    yield literal;
+                }
+                case IDENTIFIER -> {
+                    IdentifierNode identifier = new IdentifierNode(token());
+                    identifier.depth = signed();
+                    identifier.slot = signed();
+                    yield identifier;
+                }
+                case UNARY -> {
+                    Token operator = token();
+                    yield new UnaryExprNode(operator, node(ExpressionNode.class));
+                }
+                case GROUPING -> new GroupingNode(node(ExpressionNode.class));
+                case NEWLINE -> new NewlineNode();
+                default -> throw new IllegalStateException("Unknown node tag " + tag);
+            };
+            node.type = type;
+            return node;
+        }
+
+        private <T extends ASTNode> T node(Class<T> kind) {
+            return kind.cast(node());
+        }
+
+        private <T extends ASTNode> List<T> nodes(Class<T> kind) {
+            int count = count();
+            List<T> nodes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                nodes.add(node(kind));
+            }
+            return nodes;
+        }
+
+        private Token token() {
+            TokenType type = enumeration(TOKEN_TYPES);
+            if (type == null) return null;
+            String lexeme = string();
+            line += signed();
+            return new Token(type, lexeme, line);
+        }
+
+        private RuntimeValue value() {
+            return switch (read()) {
+                case NO_VALUE -> null;
+                case INT_VALUE -> new IntValue(signed());
+                case FLOAT_VALUE -> new FloatValue(Float.intBitsToFloat(
+                        read() << 24 | read() << 16 | read() << 8 | read()));
+                case BOOL_VALUE -> BoolValue.of(read() != 0);
+                case CHAR_VALUE -> new CharValue((char) varint());
+                case STRING_VALUE -> new StringValue(string());
+                default -> throw new IllegalStateException("Unknown literal tag at byte " + (position - 1));
+            };
+        }
+
+        private <E extends Enum<E>> E enumeration(E[] constants) {
+            int index = read();
+            return index == 0 ? null : constants[index - 1];
+        }
+
+        private String string() {
+            int index = varint();
+            if (index < strings.size()) {
+                return strings.get(index);
+            }
+            if (index != strings.size()) {
+                throw new IllegalStateException("String index " + index + " is ahead of the table");
+            }
+            int length = count();
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) varint();
+            }
+            String string = new String(chars);
+            strings.add(string);
+            return string;
+        }
+
+        // The size of a list, array or string; every element takes at least one byte, so a size beyond the
+        // remaining data is corrupt, and checking it first keeps a bad size from allocating a huge array
+        private int count() {
+            int count = varint();
+            if (count < 0 || count > end - position) {
+                throw new IllegalStateException("Count " + count + " exceeds the remaining " + (end - position) + " bytes");
+            }
+            return count;
+        }
+
+        private int signed() {
+            int value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = read();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalStateException("Varint longer than 5 bytes");
+        }
+
+        private int read() {
+            if (position >= end) {
+                throw new IllegalStateException("Unexpected end of data");
+            }
+            return data[position++] & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.lexor.cache;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.lexer.TokenType;
+import org.lexor.semantic.symbol.Type;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// An on-disk cache of compiled scripts: the analyzed (and, unless --no-optimize, optimized) AST in AstCodec
+// form, so a later run of the same source skips lexing, parsing, analysis and optimization. An entry is named
+// by the SHA-256 of the interpreter version, the optimize flag and the source, so editing the script, switching
+// --no-optimize or installing another interpreter build simply misses.
+//
+// Entry layout, all big-endian:
+//   int     MAGIC ("LXRC")
+//   short   FORMAT_VERSION
+//   UTF     interpreter version (see version())
+//   byte[]  SHA-256 of the source (32 bytes)
+//   boolean optimize
+//   int     payload length, then the AstCodec payload
+//   int     CRC32C of everything before it
+// The header is checked against the request as well, so a hash collision cannot load another script. An entry
+// that fails the checksum or does not decode is deleted and reported as a miss; the caller compiles and stores
+// it again. The cache is best effort throughout: a directory that cannot be read or written only costs the
+// compile it would have saved. Entries are written to a temporary file and moved into place, so concurrent
+// runs never see a half-written entry.
+public final class ScriptCache {
+    private static final int MAGIC = 0x4C585243;
+    // Bump whenever the entry layout or the AstCodec format changes
+    private static final short FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".lxrc";
+
+    private static String version;
+
+    private final Path directory;
+
+    public ScriptCache(Path directory) {
+        this.directory = directory;
+    }
+
+    // $XDG_CACHE_HOME/lexor, or ~/.cache/lexor
+    public static Path defaultDirectory() {
+        String base = System.getenv("XDG_CACHE_HOME");
+        return (base != null && !base.isEmpty())
+                ? Path.of(base, "lexor")
+                : Path.of(System.getProperty("user.home"), ".cache", "lexor");
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    // The cached program for this source, or null when there is none (or only a corrupt one)
+    public ProgramNode load(String source, boolean optimize) {
+        byte[] sourceHash = sha256(source.getBytes(StandardCharsets.UTF_8));
+        Path entry = entry(sourceHash, optimize);
+        byte[] data;
+        try {
+            data = Files.readAllBytes(entry);
+        } catch (IOException e) {
+            return null;
+        }
+        try {
+            return decode(data, sourceHash, optimize);
+        } catch (IOException e) {
+            delete(entry);
+            return null;
+        }
+    }
+
+    public void store(String source, boolean optimize, ProgramNode program) {
+        byte[] sourceHash = sha256(source.getBytes(StandardCharsets.UTF_8));
+        Path entry = entry(sourceHash, optimize);
+        Path temporary = null;
+        try {
+            byte[] data = encode(program, sourceHash, optimize);
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+            Files.write(temporary, data);
+            try {
+                Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            if (temporary != null) delete(temporary);
+        }
+    }
+
+    // =========================================================================
+    // ENTRIES
+    // =========================================================================
+
+    private Path entry(byte[] sourceHash, boolean optimize) {
+        MessageDigest digest = sha256();
+        digest.update(version().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) (optimize ? 1 : 0));
+        digest.update(sourceHash);
+        return directory.resolve(HexFormat.of().formatHex(digest.digest()) + SUFFIX);
+    }
+
+    private static byte[] encode(ProgramNode program, byte[] sourceHash, boolean optimize) throws IOException {
+        byte[] payload = AstCodec.encode(program);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeUTF(version());
+        out.write(sourceHash);
+        out.writeBoolean(optimize);
+        out.writeInt(payload.length);
+        out.write(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    private static ProgramNode decode(byte[] data, byte[] sourceHash, boolean optimize) throws IOException {
+        if (data.length < 4) {
+            throw new StreamCorruptedException("Truncated cache entry");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data, 0, data.length - 4);
+        if (ByteBuffer.wrap(data, data.length - 4, 4).getInt() != (int) crc.getValue()) {
+            throw new StreamCorruptedException("Cache entry checksum mismatch");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - 4));
+        byte[] storedHash = new byte[sourceHash.length];
+        if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION || !in.readUTF().equals(version())) {
+            throw new StreamCorruptedException("Cache entry from another interpreter version");
+        }
+        in.readFully(storedHash);
+        if (!Arrays.equals(storedHash, sourceHash) || in.readBoolean() != optimize) {
+            throw new StreamCorruptedException("Cache entry for another script");
+        }
+        int length = in.readInt();
+        int offset = data.length - 4 - in.available();
+        if (length != in.available()) {
+            throw new StreamCorruptedException("Cache entry payload length mismatch");
+        }
+        return AstCodec.decode(data, offset, length);
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Another run may have replaced or removed it; either way it is no longer ours to clean up
+        }
+    }
+
+    // =========================================================================
+    // INTERPRETER VERSION
+    // =========================================================================
+
+    // Identifies the interpreter build that wrote an entry: the format version, the enum constants whose
+    // ordinals AstCodec writes, the jar's implementation version, and a stamp of the code itself. A rebuilt
+    // interpreter may analyze differently, so it never reads the entries of another build.
+    static synchronized String version() {
+        if (version == null) {
+            version = "format " + FORMAT_VERSION
+                    + ", schema " + Integer.toHexString((Arrays.toString(TokenType.values()) + Arrays.toString(Type.values())).hashCode())
+                    + ", release " + ScriptCache.class.getPackage().getImplementationVersion()
+                    + ", build " + codeStamp();
+        }
+        return version;
+    }
+
+    // The build.stamp resource that the Maven build writes next to this class. Classes compiled without it
+    // (e.g. by an IDE) fall back to the size and modification time of the code: the jar, or the newest class
+    // file under the class directory, which costs a walk of the whole tree on every run.
+    private static String codeStamp() {
+        try {
+            try (InputStream stamp = ScriptCache.class.getResourceAsStream("build.stamp")) {
+                if (stamp != null) return new String(stamp.readAllBytes(), StandardCharsets.UTF_8).strip();
+            }
+            ProtectionDomain domain = ScriptCache.class.getProtectionDomain();
+            Path code = Path.of(domain.getCodeSource().getLocation().toURI());
+            if (Files.isDirectory(code)) {
+                try (Stream<Path> files = Files.walk(code)) {
+                    return Long.toString(files.filter(Files::isRegularFile)
+                            .mapToLong(ScriptCache::modified).max().orElse(0));
+                }
+            }
+            return Files.size(code) + "@" + modified(code);
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // Without a stamp every build would share entries; a per-process value disables reuse instead
+            return "unknown-" + ProcessHandle.current().pid() + "-" + System.nanoTime();
+        }
+    }
+
+    private static long modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        return sha256().digest(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
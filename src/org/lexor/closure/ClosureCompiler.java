@@ -0,0 +1,549 @@
+package org.lexor.closure;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.closure.Evaluators.*;
+import org.lexor.error.RuntimeError;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.*;
+import org.lexor.semantic.symbol.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Compiles a verified AST (after SemanticAnalyzer.analyze) into a tree of pre-bound lambdas.
+// Every operator, type conversion and variable slot is resolved here, once, so running the program is
+// a chain of direct calls: no accept() double dispatch and no switch on the operator per evaluation.
+// Statement visitors return an Action; expression visitors return a Compiled evaluator of a static type.
+public class ClosureCompiler implements ASTVisitor<Object> {
+
+    // An expression's evaluator: an IntEval (INT, CHAR), FloatEval, BoolEval or StringEval, by type
+    private record Compiled(Type type, Object eval) {
+    }
+
+    public ClosureProgram compile(ProgramNode program) {
+        return new ClosureProgram((Action) program.accept(this), program.localCount);
+    }
+
+    // =========================================================================
+    // STATEMENTS
+    // =========================================================================
+
+    @Override
+    public Object visitProgramNode(ProgramNode node) {
+        List<Action> actions = new ArrayList<>();
+        for (VarDeclNode decl : node.declarations) {
+            actions.add((Action) decl.accept(this));
+        }
+        for (StatementNode stmt : node.statements) {
+            actions.add((Action) stmt.accept(this));
+        }
+        return sequence(actions);
+    }
+
+    @Override
+    public Object visitVarDeclNode(VarDeclNode node) {
+        Type declared = declaredType(node.dataType.type);
+        if (node.initializer != null) {
+            return discard(store(declared, node.slot, value(node.initializer)));
+        }
+        int slot = node.slot;
+        return switch (declared) {
+            case INT, CHAR -> (Action) frame -> {
+                frame.ints[slot] = 0;
+                return Action.NORMAL;
+            };
+            case FLOAT -> (Action) frame -> {
+                frame.floats[slot] = 0;
+                return Action.NORMAL;
+            };
+            case BOOL -> (Action) frame -> {
+                frame.bools[slot] = false;
+                return Action.NORMAL;
+            };
+            default -> (Action) frame -> {
+                frame.strings[slot] = "";
+                return Action.NORMAL;
+            };
+        };
+    }
+
+    @Override
+    public Object visitAssignmentNode(AssignmentNode node) {
+        return discard(assign(node));
+    }
+
+    @Override
+    public Object visitPrintNode(PrintNode node) {
+        StringEval[] parts = new StringEval[node.expressions.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = asString(expression(node.expressions.get(i)));
+        }
+        if (parts.length == 1) {
+            StringEval part = parts[0];
+            return (Action) frame -> {
+                frame.output.print(part.eval(frame));
+                return Action.NORMAL;
+            };
+        }
+        return (Action) frame -> {
+            for (StringEval part : parts) {
+                frame.output.print(part.eval(frame));
+            }
+            return Action.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitScanNode(ScanNode node) {
+        int count = node.identifiers.size();
+        int[] slots = new int[count];
+        Type[] types = new Type[count];
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            checkGlobal(node.depths[i]);
+            slots[i] = node.slots[i];
+            types[i] = node.types[i];
+            names[i] = node.identifiers.get(i).lexeme();
+        }
+        return (Action) frame -> {
+            // Show everything printed so far (e.g. a prompt) before blocking on input
+            frame.output.flush();
+            frame.input.readLine();
+            for (int i = 0; i < count; i++) {
+                switch (types[i]) {
+                    case INT -> frame.ints[slots[i]] = frame.input.parseInt(i, names[i]);
+                    case FLOAT -> frame.floats[slots[i]] = frame.input.parseFloat(i, names[i]);
+                    case BOOL -> frame.bools[slots[i]] = frame.input.parseBool(i, names[i]);
+                    case CHAR -> frame.ints[slots[i]] = frame.input.parseChar(i, names[i]);
+                    default -> frame.strings[slots[i]] = frame.input.parseString(i, names[i]);
+                }
+            }
+            frame.input.checkCount(count);
+            return Action.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitIfNode(IfNode node) {
+        int branches = 1 + node.elseIfParts.size();
+        BoolEval[] conditions = new BoolEval[branches];
+        Action[] bodies = new Action[branches];
+        conditions[0] = condition(node.condition);
+        bodies[0] = (Action) node.thenBranch.accept(this);
+        for (int i = 1; i < branches; i++) {
+            IfNode.ElseIfPart part = node.elseIfParts.get(i - 1);
+            conditions[i] = condition(part.condition);
+            bodies[i] = (Action) part.body.accept(this);
+        }
+        Action otherwise = node.elseBranch != null ? (Action) node.elseBranch.accept(this) : null;
+
+        if (branches == 1) {
+            BoolEval test = conditions[0];
+            Action then = bodies[0];
+            if (otherwise == null) {
+                return (Action) frame -> test.eval(frame) ? then.run(frame) : Action.NORMAL;
+            }
+            return (Action) frame -> test.eval(frame) ? then.run(frame) : otherwise.run(frame);
+        }
+        return (Action) frame -> {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].eval(frame)) return bodies[i].run(frame);
+            }
+            return otherwise != null ? otherwise.run(frame) : Action.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitRepeatNode(RepeatNode node) {
+        BoolEval test = condition(node.condition);
+        Action body = (Action) node.body.accept(this);
+        return (Action) frame -> {
+            // CONTINUE just ends this pass of the body; the condition is re-checked
+            while (test.eval(frame)) {
+                if (body.run(frame) == Action.BREAK) break;
+            }
+            return Action.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitForNode(ForNode node) {
+        Action init = (Action) node.initialization.accept(this);
+        BoolEval test = condition(node.condition);
+        Action update = (Action) node.update.accept(this);
+        Action body = (Action) node.body.accept(this);
+        return (Action) frame -> {
+            // CONTINUE still runs the update before the next condition check
+            for (init.run(frame); test.eval(frame); update.run(frame)) {
+                if (body.run(frame) == Action.BREAK) break;
+            }
+            return Action.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitBreakNode(BreakNode node) {
+        return (Action) frame -> Action.BREAK;
+    }
+
+    @Override
+    public Object visitContinueNode(ContinueNode node) {
+        return (Action) frame -> Action.CONTINUE;
+    }
+
+    @Override
+    public Object visitBlockNode(BlockNode node) {
+        if (node.localCount != 0) {
+            throw new IllegalStateException("The closure compiler only supports variables declared in the global scope.");
+        }
+        List<Action> actions = new ArrayList<>();
+        for (StatementNode stmt : node.statements) {
+            actions.add((Action) stmt.accept(this));
+        }
+        return sequence(actions);
+    }
+
+    // =========================================================================
+    // EXPRESSIONS
+    // =========================================================================
+
+    @Override
+    public Object visitLiteralNode(LiteralNode node) {
+        return switch (node.value) {
+            case IntValue i -> {
+                int value = i.intValue();
+                yield new Compiled(Type.INT, (IntEval) frame -> value);
+            }
+            case FloatValue f -> {
+                float value = f.floatValue();
+                yield new Compiled(Type.FLOAT, (FloatEval) frame -> value);
+            }
+            case BoolValue b -> new Compiled(Type.BOOL, b.booleanValue()
+                    ? (BoolEval) frame -> true : (BoolEval) frame -> false);
+            case CharValue c -> {
+                int value = c.charValue();
+                yield new Compiled(Type.CHAR, (IntEval) frame -> value);
+            }
+            default -> {
+                String value = node.value.asString();
+                yield new Compiled(Type.STRING, (StringEval) frame -> value);
+            }
+        };
+    }
+
+    @Override
+    public Object visitIdentifierNode(IdentifierNode node) {
+        checkGlobal(node.depth);
+        int slot = node.slot;
+        return switch (node.type) {
+            case INT -> new Compiled(Type.INT, (IntEval) frame -> frame.ints[slot]);
+            case CHAR -> new Compiled(Type.CHAR, (IntEval) frame -> frame.ints[slot]);
+            case FLOAT -> new Compiled(Type.FLOAT, (FloatEval) frame -> frame.floats[slot]);
+            case BOOL -> new Compiled(Type.BOOL, (BoolEval) frame -> frame.bools[slot]);
+            default -> new Compiled(Type.STRING, (StringEval) frame -> frame.strings[slot]);
+        };
+    }
+
+    @Override
+    public Object visitBinaryExprNode(BinaryExprNode node) {
+        TokenType op = node.operator.type;
+        Compiled left = expression(node.left);
+        Compiled right = expression(node.right);
+
+        if (op == TokenType.AMPERSAND) {
+            StringEval l = asString(left);
+            StringEval r = asString(right);
+            return new Compiled(Type.STRING, (StringEval) frame -> l.eval(frame).concat(r.eval(frame)));
+        }
+
+        boolean numeric = isNumeric(left.type) && isNumeric(right.type);
+        if ((op == TokenType.EQUAL_EQUAL || op == TokenType.NOT_EQUAL) && !numeric) {
+            return new Compiled(Type.BOOL, equality(left, right, op == TokenType.EQUAL_EQUAL));
+        }
+        if (!numeric) {
+            throw new IllegalStateException("Operator '" + node.operator.lexeme() + "' on " + left.type + " and " + right.type);
+        }
+
+        // Numeric from here: INT x INT stays integral, anything involving a FLOAT is widened first
+        if (left.type == Type.FLOAT || right.type == Type.FLOAT) {
+            FloatEval l = asFloat(left);
+            FloatEval r = asFloat(right);
+            return switch (op) {
+                case PLUS -> new Compiled(Type.FLOAT, (FloatEval) frame -> l.eval(frame) + r.eval(frame));
+                case MINUS -> new Compiled(Type.FLOAT, (FloatEval) frame -> l.eval(frame) - r.eval(frame));
+                case STAR -> new Compiled(Type.FLOAT, (FloatEval) frame -> l.eval(frame) * r.eval(frame));
+                case SLASH -> new Compiled(Type.FLOAT, (FloatEval) frame -> {
+                    float a = l.eval(frame);
+                    float b = r.eval(frame);
+                    if (b == 0) throw new RuntimeError("Division by zero.");
+                    return a / b;
+                });
+                case MODULO -> new Compiled(Type.FLOAT, (FloatEval) frame -> l.eval(frame) % r.eval(frame));
+                case EQUAL_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) == r.eval(frame));
+                case NOT_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) != r.eval(frame));
+                case LESS -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) < r.eval(frame));
+                case LESS_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) <= r.eval(frame));
+                case GREATER -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) > r.eval(frame));
+                case GREATER_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) >= r.eval(frame));
+                default -> throw new IllegalStateException("Unknown binary operator: " + node.operator.lexeme());
+            };
+        }
+
+        IntEval l = asInt(left);
+        IntEval r = asInt(right);
+        return switch (op) {
+            case PLUS -> new Compiled(Type.INT, (IntEval) frame -> l.eval(frame) + r.eval(frame));
+            case MINUS -> new Compiled(Type.INT, (IntEval) frame -> l.eval(frame) - r.eval(frame));
+            case STAR -> new Compiled(Type.INT, (IntEval) frame -> l.eval(frame) * r.eval(frame));
+            case SLASH -> new Compiled(Type.INT, (IntEval) frame -> {
+                int a = l.eval(frame);
+                int b = r.eval(frame);
+                if (b == 0) throw new RuntimeError("Division by zero.");
+                return a / b;
+            });
+            case MODULO -> new Compiled(Type.INT, (IntEval) frame -> {
+                int a = l.eval(frame);
+                int b = r.eval(frame);
+                if (b == 0) throw new RuntimeError("Division by zero.");
+                return a % b;
+            });
+            case EQUAL_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) == r.eval(frame));
+            case NOT_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) != r.eval(frame));
+            case LESS -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) < r.eval(frame));
+            case LESS_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) <= r.eval(frame));
+            case GREATER -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) > r.eval(frame));
+            case GREATER_EQUAL -> new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) >= r.eval(frame));
+            default -> throw new IllegalStateException("Unknown binary operator: " + node.operator.lexeme());
+        };
+    }
+
+    // Short-circuits: the right operand only runs when the left one does not decide the result
+    @Override
+    public Object visitLogicalExprNode(LogicalExprNode node) {
+        BoolEval l = condition(node.left);
+        BoolEval r = condition(node.right);
+        if (node.operator.type == TokenType.AND) {
+            return new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) && r.eval(frame));
+        }
+        return new Compiled(Type.BOOL, (BoolEval) frame -> l.eval(frame) || r.eval(frame));
+    }
+
+    @Override
+    public Object visitUnaryExprNode(UnaryExprNode node) {
+        Compiled operand = expression(node.right);
+        if (node.operator.type == TokenType.NOT) {
+            BoolEval b = condition(node.right, operand);
+            return new Compiled(Type.BOOL, (BoolEval) frame -> !b.eval(frame));
+        }
+        if (node.operator.type == TokenType.UNARY_MINUS) {
+            if (operand.type == Type.FLOAT) {
+                FloatEval f = asFloat(operand);
+                return new Compiled(Type.FLOAT, (FloatEval) frame -> -f.eval(frame));
+            }
+            IntEval i = asInt(operand);
+            return new Compiled(Type.INT, (IntEval) frame -> -i.eval(frame));
+        }
+        return operand; // Handles PLUS (no-op)
+    }
+
+    @Override
+    public Object visitGroupingNode(GroupingNode node) {
+        return node.expression.accept(this);
+    }
+
+    @Override
+    public Object visitNewlineNode(NewlineNode node) {
+        return new Compiled(Type.CHAR, (IntEval) frame -> '\n');
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private Compiled expression(ExpressionNode node) {
+        return (Compiled) node.accept(this);
+    }
+
+    // The right-hand side of a declaration or assignment, which may itself be a chained assignment
+    private Compiled value(ASTNode node) {
+        if (node instanceof AssignmentNode assignment) {
+            return assign(assignment);
+        }
+        return expression((ExpressionNode) node);
+    }
+
+    // Stores the converted value and yields it, so a chained assignment can pass it on
+    private Compiled assign(AssignmentNode node) {
+        checkGlobal(node.depth);
+        return store(node.type, node.slot, value(node.value));
+    }
+
+    private Compiled store(Type type, int slot, Compiled value) {
+        return switch (type) {
+            case INT, CHAR -> {
+                IntEval v = asInt(value);
+                yield new Compiled(type, (IntEval) frame -> frame.ints[slot] = v.eval(frame));
+            }
+            case FLOAT -> {
+                FloatEval v = asFloat(value);
+                yield new Compiled(type, (FloatEval) frame -> frame.floats[slot] = v.eval(frame));
+            }
+            case BOOL -> {
+                BoolEval v = asBool(value);
+                yield new Compiled(type, (BoolEval) frame -> frame.bools[slot] = v.eval(frame));
+            }
+            default -> {
+                StringEval v = asString(value);
+                yield new Compiled(type, (StringEval) frame -> frame.strings[slot] = v.eval(frame));
+            }
+        };
+    }
+
+    // Runs an evaluator as a statement, dropping its value
+    private static Action discard(Compiled compiled) {
+        return switch (compiled.eval) {
+            case IntEval e -> frame -> {
+                e.eval(frame);
+                return Action.NORMAL;
+            };
+            case FloatEval e -> frame -> {
+                e.eval(frame);
+                return Action.NORMAL;
+            };
+            case BoolEval e -> frame -> {
+                e.eval(frame);
+                return Action.NORMAL;
+            };
+            case StringEval e -> frame -> {
+                e.eval(frame);
+                return Action.NORMAL;
+            };
+            default -> throw new IllegalStateException("Unknown evaluator: " + compiled.eval);
+        };
+    }
+
+    // Runs the actions in order, stopping at the first BREAK or CONTINUE
+    private static Action sequence(List<Action> actions) {
+        if (actions.size() == 1) {
+            return actions.get(0);
+        }
+        Action[] steps = actions.toArray(new Action[0]);
+        return frame -> {
+            for (Action step : steps) {
+                int completion = step.run(frame);
+                if (completion != Action.NORMAL) return completion;
+            }
+            return Action.NORMAL;
+        };
+    }
+
+    // == and <> on BOOL, CHAR and STRING operands; values of different types are never equal
+    private static BoolEval equality(Compiled left, Compiled right, boolean eq) {
+        if (left.type != right.type) {
+            StringEval l = asString(left);
+            StringEval r = asString(right);
+            return frame -> {
+                l.eval(frame);
+                r.eval(frame);
+                return !eq;
+            };
+        }
+        return switch (left.type) {
+            case BOOL -> {
+                BoolEval l = asBool(left);
+                BoolEval r = asBool(right);
+                yield eq ? frame -> l.eval(frame) == r.eval(frame) : frame -> l.eval(frame) != r.eval(frame);
+            }
+            case STRING -> {
+                StringEval l = asString(left);
+                StringEval r = asString(right);
+                yield eq ? frame -> l.eval(frame).equals(r.eval(frame)) : frame -> !l.eval(frame).equals(r.eval(frame));
+            }
+            default -> {
+                IntEval l = asInt(left);
+                IntEval r = asInt(right);
+                yield eq ? frame -> l.eval(frame) == r.eval(frame) : frame -> l.eval(frame) != r.eval(frame);
+            }
+        };
+    }
+
+    private BoolEval condition(ExpressionNode node) {
+        return condition(node, expression(node));
+    }
+
+    // A BOOL condition, or one that fails with the interpreter's message when the value is of another type
+    private static BoolEval condition(ExpressionNode node, Compiled compiled) {
+        if (compiled.type == Type.BOOL) {
+            return (BoolEval) compiled.eval;
+        }
+        StringEval text = asString(compiled);
+        return frame -> {
+            throw new RuntimeError("Expected a BOOL condition but got: " + text.eval(frame));
+        };
+    }
+
+    private static IntEval asInt(Compiled compiled) {
+        if (compiled.eval instanceof IntEval e) return e;
+        throw new IllegalStateException("Expected an INT or CHAR but got " + compiled.type);
+    }
+
+    // Widens INT to FLOAT
+    private static FloatEval asFloat(Compiled compiled) {
+        if (compiled.eval instanceof FloatEval e) return e;
+        if (compiled.type == Type.INT) {
+            IntEval e = (IntEval) compiled.eval;
+            return frame -> e.eval(frame);
+        }
+        throw new IllegalStateException("Expected a FLOAT but got " + compiled.type);
+    }
+
+    private static BoolEval asBool(Compiled compiled) {
+        if (compiled.eval instanceof BoolEval e) return e;
+        throw new IllegalStateException("Expected a BOOL but got " + compiled.type);
+    }
+
+    // LEXOR's textual form of any value, as printed by PRINT and joined by '&'
+    private static StringEval asString(Compiled compiled) {
+        return switch (compiled.type) {
+            case INT -> {
+                IntEval e = (IntEval) compiled.eval;
+                yield frame -> Integer.toString(e.eval(frame));
+            }
+            case CHAR -> {
+                IntEval e = (IntEval) compiled.eval;
+                yield frame -> String.valueOf((char) e.eval(frame));
+            }
+            case FLOAT -> {
+                FloatEval e = (FloatEval) compiled.eval;
+                yield frame -> FloatValue.format(e.eval(frame));
+            }
+            case BOOL -> {
+                BoolEval e = (BoolEval) compiled.eval;
+                yield frame -> e.eval(frame) ? "TRUE" : "FALSE";
+            }
+            default -> (StringEval) compiled.eval;
+        };
+    }
+
+    private static boolean isNumeric(Type type) {
+        return type == Type.INT || type == Type.FLOAT;
+    }
+
+    private static Type declaredType(TokenType tokenType) {
+        return switch (tokenType) {
+            case INT -> Type.INT;
+            case FLOAT -> Type.FLOAT;
+            case CHAR -> Type.CHAR;
+            case BOOL -> Type.BOOL;
+            case STRING -> Type.STRING;
+            default -> throw new IllegalStateException("Unknown data type declaration.");
+        };
+    }
+
+    private static void checkGlobal(int depth) {
+        if (depth != 0) {
+            throw new IllegalStateException("The closure compiler only supports variables declared in the global scope.");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.lexor.closure;
+
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.OutputSink;
+
+// A program compiled to closures. It holds no execution state, so it can be run any number of times.
+public final class ClosureProgram {
+    private final Evaluators.Action body;
+    private final int localCount;
+
+    ClosureProgram(Evaluators.Action body, int localCount) {
+        this.body = body;
+        this.localCount = localCount;
+    }
+
+    public void run() {
+        run(InputReader.stdin(), OutputSink.stdout());
+    }
+
+    // Buffered output is flushed even if the program fails
+    public void run(InputReader input, OutputSink output) {
+        try {
+            body.run(new Frame(localCount, input, output));
+        } finally {
+            output.flush();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.lexor.closure;
+
+// The closure shapes the ClosureCompiler builds: one evaluator per static type, each reading and writing
+// variables through the Frame, and statements that report how they completed.
+final class Evaluators {
+
+    private Evaluators() {
+    }
+
+    // INT values, and CHAR values as their char code
+    @FunctionalInterface
+    interface IntEval {
+        int eval(Frame frame);
+    }
+
+    @FunctionalInterface
+    interface FloatEval {
+        float eval(Frame frame);
+    }
+
+    @FunctionalInterface
+    interface BoolEval {
+        boolean eval(Frame frame);
+    }
+
+    @FunctionalInterface
+    interface StringEval {
+        String eval(Frame frame);
+    }
+
+    @FunctionalInterface
+    interface Action {
+        int NORMAL = 0;
+        int BREAK = 1;
+        int CONTINUE = 2;
+
+        // Returns NORMAL, or BREAK/CONTINUE for the innermost enclosing loop to act on
+        int run(Frame frame);
+    }
+}
@@ -0,0 +1,24 @@
+package org.lexor.closure;
+
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.OutputSink;
+
+// Variable storage and I/O for one execution. Each variable lives in the array of its type, indexed by
+// its frame slot: INT and CHAR in ints, FLOAT in floats, BOOL in bools and STRING in strings.
+final class Frame {
+    final int[] ints;
+    final float[] floats;
+    final boolean[] bools;
+    final String[] strings;
+    final InputReader input;
+    final OutputSink output;
+
+    Frame(int size, InputReader input, OutputSink output) {
+        this.ints = new int[size];
+        this.floats = new float[size];
+        this.bools = new boolean[size];
+        this.strings = new String[size];
+        this.input = input;
+        this.output = output;
+    }
+}
@@ -0,0 +1,164 @@
+package org.lexor.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// The thin client for daemon mode: sends one script to a running Daemon and streams this process's stdin to
+// the script's SCAN and the script's output back to stdout and stderr. It loads only this package's protocol
+// classes and java.base, so it starts far faster than the interpreter.
+//
+//   java -cp lexor.jar org.lexor.daemon.Client [--socket=PATH] [--no-optimize] script.lxr
+//   java -cp lexor.jar org.lexor.daemon.Client [--socket=PATH] --stats | --shutdown
+//
+// Exits with 0 when the script ran to the end, 1 when it failed, and 2 when no daemon answered.
+public final class Client {
+
+    private Client() {
+    }
+
+    public static void main(String[] args) {
+        Path socket = Frames.defaultSocket();
+        boolean optimize = true;
+        byte request = Frames.RUN;
+        String file = null;
+        for (String arg : args) {
+            if (arg.startsWith("--socket=")) {
+                socket = Path.of(arg.substring("--socket=".length()));
+            } else if (arg.equals("--no-optimize")) {
+                optimize = false;
+            } else if (arg.equals("--stats")) {
+                request = Frames.STATS;
+            } else if (arg.equals("--shutdown")) {
+                request = Frames.SHUTDOWN;
+            } else {
+                file = arg;
+            }
+        }
+        if (request == Frames.RUN && file == null) {
+            System.err.println("Usage: Client [--socket=PATH] [--no-optimize] script.lxr | --stats | --shutdown");
+            System.exit(2);
+        }
+
+        byte[] payload = new byte[0];
+        if (request == Frames.RUN) {
+            try {
+                payload = runRequest(Files.readAllBytes(Path.of(file)), optimize);
+            } catch (IOException e) {
+                System.err.println("Error reading file: Could not find or open '" + file + "'");
+                System.exit(1);
+            }
+        }
+
+        int status;
+        try {
+            status = session(socket, request, payload, System.in, System.out, System.err);
+        } catch (ConnectException e) {
+            System.err.println(e.getMessage() + "; start one with: java -jar lexor.jar --daemon");
+            status = 2;
+        } catch (IOException e) {
+            System.err.println("Lost the connection to the daemon: " + e.getMessage());
+            status = 2;
+        }
+        System.exit(status);
+    }
+
+    // Runs source on the daemon with stdin as its input; returns the exit status
+    public static int run(Path socket, String source, boolean optimize, InputStream stdin, OutputStream stdout,
+                          OutputStream stderr) throws IOException {
+        byte[] payload = runRequest(source.getBytes(StandardCharsets.UTF_8), optimize);
+        return session(socket, Frames.RUN, payload, stdin, stdout, stderr);
+    }
+
+    // The daemon's request count, latency percentiles and cache counters
+    public static String stats(Path socket) throws IOException {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        session(socket, Frames.STATS, new byte[0], InputStream.nullInputStream(), report, OutputStream.nullOutputStream());
+        return report.toString(StandardCharsets.UTF_8);
+    }
+
+    // Asks the daemon to stop accepting sessions; the ones in progress still finish
+    public static void shutdown(Path socket) throws IOException {
+        session(socket, Frames.SHUTDOWN, new byte[0], InputStream.nullInputStream(), OutputStream.nullOutputStream(),
+                OutputStream.nullOutputStream());
+    }
+
+    private static byte[] runRequest(byte[] source, boolean optimize) {
+        byte[] payload = new byte[source.length + 1];
+        payload[0] = (byte) (optimize ? Frames.OPTIMIZE : 0);
+        System.arraycopy(source, 0, payload, 1, source.length);
+        return payload;
+    }
+
+    private static int session(Path socket, byte request, byte[] payload, InputStream stdin, OutputStream stdout,
+                               OutputStream stderr) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socket));
+            } catch (IOException e) {
+                throw new ConnectException("No LEXOR daemon is listening on " + socket + " (" + e.getMessage() + ")");
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            Frames.write(out, request, payload);
+            out.flush();
+            if (request == Frames.RUN) {
+                Thread pump = new Thread(() -> pump(stdin, out), "lexor-client-input");
+                pump.setDaemon(true);
+                pump.start();
+            }
+
+            while (true) {
+                Frames.Frame frame = Frames.read(in);
+                if (frame == null) {
+                    throw new IOException("The daemon closed the session before the script finished");
+                }
+                switch (frame.kind()) {
+                    case Frames.STDOUT -> {
+                        stdout.write(frame.payload());
+                        stdout.flush();
+                    }
+                    case Frames.STDERR -> {
+                        stdout.flush();
+                        stderr.write(frame.payload());
+                        stderr.flush();
+                    }
+                    case Frames.EXIT -> {
+                        return ByteBuffer.wrap(frame.payload()).getInt();
+                    }
+                    default -> throw new IOException("Unexpected frame '" + (char) frame.kind() + "' from the daemon");
+                }
+            }
+        }
+    }
+
+    // Copies stdin to the daemon as it arrives (a line at a time from a terminal), then ends the input
+    private static void pump(InputStream stdin, DataOutputStream out) {
+        byte[] buffer = new byte[8192];
+        try {
+            int read;
+            while ((read = stdin.read(buffer)) > 0) {
+                Frames.write(out, Frames.INPUT, buffer, 0, read);
+                out.flush();
+            }
+            Frames.write(out, Frames.INPUT, new byte[0]);
+            out.flush();
+        } catch (IOException e) {
+            // The script finished and the daemon closed the session; input it never read is dropped
+        }
+    }
+}
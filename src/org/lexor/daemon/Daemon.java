@@ -0,0 +1,235 @@
+package org.lexor.daemon;
+
+import org.lexor.cache.ScriptCache;
+import org.lexor.engine.CompiledScript;
+import org.lexor.engine.CompiledScriptCache;
+import org.lexor.engine.LexorEngine;
+import org.lexor.error.LexorException;
+import org.lexor.runtime.ExecutionLimits;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Daemon mode (--daemon): a resident interpreter that runs scripts sent by Client over a Unix-domain socket, so
+// a run pays neither JVM startup nor a cold JIT. Every session runs on its own virtual thread, and compiled
+// scripts are shared through a CompiledScriptCache (backed by the on-disk ScriptCache with --cache). A session
+// prints what Main prints: the output header, the script's output and the same error messages; see Frames for
+// the protocol. Latency is measured from the RUN request to the EXIT frame, so it includes any time a script
+// waits for input; percentiles are reported on request (Client --stats) and when the daemon shuts down.
+// Scripts given on the command line are run WARMUP_ROUNDS times at startup to warm the JIT.
+public final class Daemon {
+    static final long CACHE_BYTES = 64L << 20;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final byte[] OUTPUT_HEADER = "\n--- LEXOR OUTPUT ---\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ServerSocketChannel server;
+    private final ExecutionLimits limits;
+    private final CompiledScriptCache scripts;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+
+    private Daemon(ServerSocketChannel server, ExecutionLimits limits, CompiledScriptCache scripts) {
+        this.server = server;
+        this.limits = limits;
+        this.scripts = scripts;
+    }
+
+    // Where the daemon listens and the client connects unless told otherwise
+    public static Path defaultSocket() {
+        return Frames.defaultSocket();
+    }
+
+    // Serves until a client sends SHUTDOWN, then waits for the sessions in progress
+    public static void serve(Path socket, ExecutionLimits limits, ScriptCache disk, List<Path> warmUp) throws IOException {
+        Daemon daemon = new Daemon(bind(socket), limits, new CompiledScriptCache(CACHE_BYTES, disk));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(socket)));
+        try {
+            daemon.warmUp(warmUp);
+            System.out.println("LEXOR daemon listening on " + socket);
+            daemon.accept();
+        } finally {
+            delete(socket);
+        }
+        System.out.print(daemon.report());
+    }
+
+    // A socket file nobody answers on is left over from a daemon that died, and is replaced
+    private static ServerSocketChannel bind(Path socket) throws IOException {
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(socket);
+        if (Files.exists(socket)) {
+            if (answers(address)) {
+                throw new IOException("A daemon is already listening on " + socket);
+            }
+            Files.delete(socket);
+        }
+        return ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(address);
+    }
+
+    private static boolean answers(UnixDomainSocketAddress address) {
+        SocketChannel probe;
+        try {
+            probe = SocketChannel.open(address);
+        } catch (IOException e) {
+            return false;
+        }
+        try {
+            probe.close();
+        } catch (IOException ignored) {
+            // It answered; whether the probe closes cleanly does not matter
+        }
+        return true;
+    }
+
+    private void accept() throws IOException {
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                SocketChannel channel;
+                try {
+                    channel = server.accept();
+                } catch (ClosedChannelException e) {
+                    return;
+                }
+                sessions.submit(() -> session(channel));
+            }
+        }
+    }
+
+    private void warmUp(List<Path> warmUp) {
+        ExecutionLimits bounded = ExecutionLimits.NONE.withTimeout(Duration.ofSeconds(1));
+        for (int round = 0; round < WARMUP_ROUNDS && !warmUp.isEmpty(); round++) {
+            for (Path script : warmUp) {
+                try {
+                    LexorEngine.compile(Files.readString(script))
+                            .run(new ByteArrayInputStream(new byte[0]), OutputStream.nullOutputStream(), bounded);
+                } catch (IOException | RuntimeException e) {
+                    // A script that fails has still exercised the phases it reached
+                }
+            }
+        }
+    }
+
+    // =========================================================================
+    // SESSIONS
+    // =========================================================================
+
+    private Void session(SocketChannel channel) {
+        try (channel) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            Frames.Frame request = Frames.read(in);
+            if (request == null) return null;
+            switch (request.kind()) {
+                case Frames.RUN -> run(request.payload(), in, out);
+                case Frames.STATS -> {
+                    Frames.write(out, Frames.STDOUT, report().getBytes(StandardCharsets.UTF_8));
+                    exit(out, 0);
+                }
+                case Frames.SHUTDOWN -> {
+                    exit(out, 0);
+                    server.close();
+                }
+                default -> {
+                    Frames.write(out, Frames.STDERR, ("Unknown request '" + (char) request.kind() + "'\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                    exit(out, 2);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The client went away mid-session; there is no one left to report to
+        }
+        return null;
+    }
+
+    private void run(byte[] request, DataInputStream in, DataOutputStream out) throws IOException {
+        long start = System.nanoTime();
+        running.incrementAndGet();
+        try {
+            boolean optimize = request.length > 0 && (request[0] & Frames.OPTIMIZE) != 0;
+            String source = new String(request, Math.min(1, request.length), Math.max(0, request.length - 1),
+                    StandardCharsets.UTF_8);
+            String error = execute(source, optimize, in, out);
+            if (error != null) {
+                failed.increment();
+                Frames.write(out, Frames.STDERR, error.getBytes(StandardCharsets.UTF_8));
+            }
+            exit(out, error == null ? 0 : 1);
+        } finally {
+            running.decrementAndGet();
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    // Runs the script with the session's streams; returns the error text Main would print, or null
+    private String execute(String source, boolean optimize, DataInputStream in, DataOutputStream out) throws IOException {
+        FrameStreams.Output stdout = new FrameStreams.Output(out, Frames.STDOUT);
+        try {
+            CompiledScript script = scripts.compile(source, optimize);
+            stdout.write(OUTPUT_HEADER);
+            script.run(new FrameStreams.Input(in), stdout, limits);
+            return null;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (org.lexor.error.RuntimeError e) {
+            return "\n[EXECUTION FAILED]\n" + e.getMessage() + "\n";
+        } catch (LexorException e) {
+            return "\n[COMPILATION FAILED]\n" + e.getMessage() + "\n";
+        } catch (RuntimeException | StackOverflowError e) {
+            return "An unexpected internal error occurred: " + e.getMessage() + "\n";
+        }
+    }
+
+    private static void exit(DataOutputStream out, int status) throws IOException {
+        Frames.write(out, Frames.EXIT, ByteBuffer.allocate(4).putInt(status).array());
+        out.flush();
+    }
+
+    // =========================================================================
+    // REPORTING
+    // =========================================================================
+
+    private String report() {
+        CompiledScriptCache.Stats cache = scripts.stats();
+        return String.format("""
+                        === DAEMON STATS ===
+                          requests   %d (%d failed, %d running)
+                          latency    p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms
+                          cache      %d hits, %d collapsed, %d misses, %d evictions; %d scripts, %d KB of %d KB
+                        """,
+                latencies.count(), failed.sum(), running.get(),
+                latencies.percentile(50) / 1e6, latencies.percentile(90) / 1e6, latencies.percentile(99) / 1e6,
+                latencies.percentile(99.9) / 1e6, latencies.max() / 1e6,
+                cache.hits(), cache.collapsed(), cache.misses(), cache.evictions(), cache.entries(),
+                cache.weightBytes() / 1024, cache.maxBytes() / 1024);
+    }
+
+    private static void delete(Path socket) {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException ignored) {
+            // Already gone, or not ours; the next daemon replaces a stale socket anyway
+        }
+    }
+}
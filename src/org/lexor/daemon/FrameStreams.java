@@ -0,0 +1,89 @@
+package org.lexor.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+
+// Adapts a session's frames to the streams a CompiledScript runs on: SCAN reads the client's INPUT frames,
+// PRINT writes STDOUT (or STDERR) frames.
+final class FrameStreams {
+
+    private FrameStreams() {
+    }
+
+    // The client's stdin. A frame is only read when SCAN needs more input, and end of input is the empty frame
+    // (or the client closing the connection).
+    static final class Input extends InputStream {
+        private final DataInputStream in;
+        private byte[] chunk = new byte[0];
+        private int position = 0;
+        private boolean ended = false;
+
+        Input(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) return -1;
+            return chunk[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) return 0;
+            if (!fill()) return -1;
+            int count = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean fill() throws IOException {
+            while (position == chunk.length) {
+                if (ended) return false;
+                Frames.Frame frame = Frames.read(in);
+                if (frame == null || frame.payload().length == 0) {
+                    ended = true;
+                    return false;
+                }
+                if (frame.kind() != Frames.INPUT) {
+                    throw new StreamCorruptedException("Expected an INPUT frame, got '" + (char) frame.kind() + "'");
+                }
+                chunk = frame.payload();
+                position = 0;
+            }
+            return true;
+        }
+    }
+
+    // Every write becomes one frame of the given kind; the OutputSink in front of it already writes in
+    // buffer-sized chunks. Flushing reaches the socket.
+    static final class Output extends OutputStream {
+        private final DataOutputStream out;
+        private final byte kind;
+
+        Output(DataOutputStream out, byte kind) {
+            this.out = out;
+            this.kind = kind;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length > 0) Frames.write(out, kind, bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
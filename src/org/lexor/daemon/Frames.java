@@ -0,0 +1,76 @@
+package org.lexor.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Path;
+
+// The wire format between Client and Daemon over a Unix-domain socket. Everything is a frame: a kind byte, a
+// 4-byte big-endian payload length and the payload. A session is one connection:
+//
+//   client -> daemon   RUN (flags byte, then the UTF-8 source), then any number of INPUT frames carrying the
+//                      client's stdin as SCAN reads it; an empty INPUT frame is end of input
+//                      or a single STATS or SHUTDOWN frame with no payload
+//   daemon -> client   STDOUT and STDERR frames as the script prints, then EXIT (4-byte status) last
+//
+// Output is streamed as the script flushes it (before every SCAN and at the end), and input is only read
+// when a SCAN needs it, so interactive scripts work over the connection.
+final class Frames {
+    static final byte RUN = 'R';
+    static final byte INPUT = 'I';
+    static final byte STATS = 'T';
+    static final byte SHUTDOWN = 'Q';
+    static final byte STDOUT = 'O';
+    static final byte STDERR = 'E';
+    static final byte EXIT = 'X';
+
+    // RUN flags
+    static final int OPTIMIZE = 1;
+
+    // Larger payloads are taken as a corrupt stream rather than allocated
+    static final int MAX_PAYLOAD = 64 << 20;
+
+    record Frame(byte kind, byte[] payload) {
+    }
+
+    private Frames() {
+    }
+
+    // $XDG_RUNTIME_DIR/lexor.sock, or lexor-<user>.sock in the temporary directory
+    static Path defaultSocket() {
+        String runtime = System.getenv("XDG_RUNTIME_DIR");
+        return (runtime != null && !runtime.isEmpty())
+                ? Path.of(runtime, "lexor.sock")
+                : Path.of(System.getProperty("java.io.tmpdir"), "lexor-" + System.getProperty("user.name") + ".sock");
+    }
+
+    static void write(DataOutputStream out, byte kind, byte[] payload, int offset, int length) throws IOException {
+        out.writeByte(kind);
+        out.writeInt(length);
+        out.write(payload, offset, length);
+    }
+
+    static void write(DataOutputStream out, byte kind, byte[] payload) throws IOException {
+        write(out, kind, payload, 0, payload.length);
+    }
+
+    // The next frame, or null when the peer closed the connection between frames
+    static Frame read(DataInputStream in) throws IOException {
+        int kind = in.read();
+        if (kind < 0) return null;
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            throw new StreamCorruptedException("Connection closed inside a frame header");
+        }
+        if (length < 0 || length > MAX_PAYLOAD) {
+            throw new StreamCorruptedException("Frame payload of " + length + " bytes");
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame((byte) kind, payload);
+    }
+}
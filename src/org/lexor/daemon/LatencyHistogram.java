@@ -0,0 +1,59 @@
+package org.lexor.daemon;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Request latencies in log-linear buckets: each power of two of nanoseconds is split into SUB sub-buckets, so
+// a percentile is within 1/SUB (about 6%) of the true value. Memory stays constant however long the daemon
+// runs, and recording is lock-free.
+final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos)));
+        count.incrementAndGet();
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    long count() {
+        return count.get();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    // The latency at or below which percent of the requests finished, as the upper bound of its bucket
+    long percentile(double percent) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(lowerBound(i + 1) - 1, max.get());
+        }
+        return max.get();
+    }
+
+    // Values below SUB have a bucket each; above, the bucket is the exponent and the next SUB_BITS bits
+    private static int index(long value) {
+        if (value < SUB) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return (exponent - SUB_BITS + 1) * SUB + mantissa;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < SUB) return index;
+        int exponent = index / SUB + SUB_BITS - 1;
+        if (exponent > 62) return Long.MAX_VALUE;
+        return (long) (SUB + index % SUB) << (exponent - SUB_BITS);
+    }
+}
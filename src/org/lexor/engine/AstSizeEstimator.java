@@ -0,0 +1,207 @@
+package org.lexor.engine;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.lexer.Token;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.RuntimeValue;
+import org.lexor.runtime.values.StringValue;
+
+import java.util.List;
+
+// Estimates the heap an analyzed AST occupies, for weighing CompiledScriptCache entries. The sizes are those of
+// a 64-bit JVM with compressed oops and compact strings: an object is a 12-byte header plus its fields, rounded
+// up to 8 bytes. The estimate only needs to rank and bound programs, not match a heap dump.
+final class AstSizeEstimator implements ASTVisitor<Void> {
+    private static final int NODE = 32;
+    private static final int TOKEN = 40;
+    private static final int LIST = 40;
+    private static final int ARRAY = 16;
+    private static final int STRING = 40;
+    private static final int VALUE = 16;
+
+    private long bytes = 0;
+
+    private AstSizeEstimator() {
+    }
+
+    static long estimate(ProgramNode program) {
+        AstSizeEstimator estimator = new AstSizeEstimator();
+        program.accept(estimator);
+        return estimator.bytes;
+    }
+
+    // A String of length characters, as held by a lexer source or a literal
+    static long stringBytes(int length) {
+        return STRING + length;
+    }
+
+    private void node(ASTNode node) {
+        if (node != null) node.accept(this);
+    }
+
+    private void nodes(List<? extends ASTNode> nodes) {
+        bytes += LIST + 4L * nodes.size();
+        for (ASTNode node : nodes) node(node);
+    }
+
+    // Identifier and literal tokens keep their lexeme as a String once it has been read; keywords and
+    // punctuation never do
+    private void token(Token token) {
+        if (token == null) return;
+        bytes += TOKEN;
+        if (token.type == TokenType.IDENTIFIER || token.type.name().endsWith("_LITERAL")) {
+            bytes += stringBytes(token.lexeme().length());
+        }
+    }
+
+    @Override
+    public Void visitProgramNode(ProgramNode node) {
+        bytes += NODE;
+        nodes(node.declarations);
+        nodes(node.statements);
+        return null;
+    }
+
+    @Override
+    public Void visitVarDeclNode(VarDeclNode node) {
+        bytes += NODE;
+        token(node.dataType);
+        token(node.identifier);
+        node(node.initializer);
+        return null;
+    }
+
+    @Override
+    public Void visitAssignmentNode(AssignmentNode node) {
+        bytes += NODE;
+        token(node.identifier);
+        node(node.value);
+        return null;
+    }
+
+    @Override
+    public Void visitBinaryExprNode(BinaryExprNode node) {
+        bytes += NODE;
+        node(node.left);
+        token(node.operator);
+        node(node.right);
+        return null;
+    }
+
+    @Override
+    public Void visitLiteralNode(LiteralNode node) {
+        bytes += NODE;
+        token(node.valueToken);
+        RuntimeValue value = node.value;
+        if (value != null) {
+            bytes += VALUE;
+            if (value instanceof StringValue s) bytes += stringBytes(s.length());
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitIdentifierNode(IdentifierNode node) {
+        bytes += NODE;
+        token(node.name);
+        return null;
+    }
+
+    @Override
+    public Void visitPrintNode(PrintNode node) {
+        bytes += NODE;
+        nodes(node.expressions);
+        return null;
+    }
+
+    @Override
+    public Void visitUnaryExprNode(UnaryExprNode node) {
+        bytes += NODE;
+        token(node.operator);
+        node(node.right);
+        return null;
+    }
+
+    @Override
+    public Void visitBlockNode(BlockNode node) {
+        bytes += NODE;
+        nodes(node.statements);
+        return null;
+    }
+
+    @Override
+    public Void visitGroupingNode(GroupingNode node) {
+        bytes += NODE;
+        node(node.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitIfNode(IfNode node) {
+        bytes += NODE;
+        node(node.condition);
+        node(node.thenBranch);
+        bytes += LIST + 4L * node.elseIfParts.size();
+        for (IfNode.ElseIfPart part : node.elseIfParts) {
+            bytes += NODE;
+            node(part.condition);
+            node(part.body);
+        }
+        node(node.elseBranch);
+        return null;
+    }
+
+    @Override
+    public Void visitRepeatNode(RepeatNode node) {
+        bytes += NODE;
+        node(node.condition);
+        node(node.body);
+        return null;
+    }
+
+    @Override
+    public Void visitScanNode(ScanNode node) {
+        bytes += NODE + LIST + 4L * node.identifiers.size();
+        bytes += 3 * (ARRAY + 4L * node.identifiers.size());
+        for (Token identifier : node.identifiers) token(identifier);
+        return null;
+    }
+
+    @Override
+    public Void visitForNode(ForNode node) {
+        bytes += NODE;
+        node(node.initialization);
+        node(node.condition);
+        node(node.update);
+        node(node.body);
+        return null;
+    }
+
+    @Override
+    public Void visitLogicalExprNode(LogicalExprNode node) {
+        bytes += NODE;
+        node(node.left);
+        token(node.operator);
+        node(node.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNewlineNode(NewlineNode node) {
+        bytes += NODE;
+        return null;
+    }
+
+    @Override
+    public Void visitBreakNode(BreakNode node) {
+        bytes += NODE;
+        return null;
+    }
+
+    @Override
+    public Void visitContinueNode(ContinueNode node) {
+        bytes += NODE;
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package org.lexor.engine;
+
+import org.lexor.error.RuntimeError;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Passes bytes through until limit bytes have been written, then writes what still fits and fails the run
+final class BoundedOutputStream extends FilterOutputStream {
+    private final long limit;
+    private long written = 0;
+
+    BoundedOutputStream(OutputStream out, long limit) {
+        super(out);
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        long room = limit - written;
+        if (length > room) {
+            out.write(bytes, offset, (int) room);
+            written = limit;
+            throw new RuntimeError("Output limit of " + limit + " bytes exceeded.");
+        }
+        out.write(bytes, offset, length);
+        written += length;
+    }
+}
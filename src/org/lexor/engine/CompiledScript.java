@@ -0,0 +1,39 @@
+package org.lexor.engine;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.runtime.ExecutionLimits;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// A compiled LEXOR program, ready to run. It is immutable and thread-safe: the analyzed AST is never exposed
+// and nothing writes to it after compilation, so concurrent runs share it and only read it. Every run gets its
+// own Interpreter, variables, input and output.
+public final class CompiledScript {
+    private final ProgramNode program;
+
+    CompiledScript(ProgramNode program) {
+        this.program = program;
+    }
+
+    // For CompiledScriptCache, which weighs the AST; never handed outside the package
+    ProgramNode program() {
+        return program;
+    }
+
+    public void run(InputStream input, OutputStream output) {
+        run(input, output, ExecutionLimits.NONE);
+    }
+
+    // Runs the program with SCAN reading input and PRINT writing UTF-8 to output, which is flushed but not
+    // closed. A script error, or exceeding one of the limits, ends the run with a RuntimeError.
+    public void run(InputStream input, OutputStream output, ExecutionLimits limits) {
+        OutputStream bounded = (limits.maxOutputBytes() == Long.MAX_VALUE)
+                ? output
+                : new BoundedOutputStream(output, limits.maxOutputBytes());
+        new Interpreter(new InputReader(input), new OutputSink(bounded), limits).interpret(program);
+    }
+}
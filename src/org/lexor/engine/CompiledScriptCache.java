@@ -0,0 +1,179 @@
+package org.lexor.engine;
+
+import org.lexor.cache.ScriptCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// A bounded, thread-safe in-memory cache of compiled scripts for servers that run the same sources over and
+// over: compile(source) returns the CompiledScript of an earlier compile of the same text instead of lexing,
+// parsing and analyzing it again. Entries are keyed by the SHA-256 of the source and the optimize flag and
+// weighed by the estimated heap of their AST (AstSizeEstimator), plus the source text the lexer's tokens keep
+// alive. When the total weight passes maxBytes, the least recently used entries are evicted.
+//
+// Lookups are lock-free; a hit only stamps the entry's last use. Eviction takes a lock and scans for the
+// oldest stamp, which is exact LRU at O(entries) per eviction and cheap for the hundreds of scripts a server
+// sees. Concurrent compiles of the same source collapse into one: the first caller compiles, the others wait
+// for its result. A source that fails to compile is not cached; every waiter gets the same error.
+//
+// An optional ScriptCache behind it keeps compiled scripts across restarts.
+public final class CompiledScriptCache {
+
+    // A snapshot of the counters: hits found a compiled entry, collapsed waited for a compile already in
+    // progress, misses compiled (or loaded from the ScriptCache), evictions made room
+    public record Stats(long hits, long collapsed, long misses, long evictions, int entries, long weightBytes,
+                        long maxBytes) {
+        public double hitRate() {
+            long requests = hits + collapsed + misses;
+            return requests == 0 ? 0 : (double) (hits + collapsed) / requests;
+        }
+    }
+
+    private record Key(String sha256, boolean optimize) {
+    }
+
+    private static final class Entry {
+        final CompletableFuture<CompiledScript> script = new CompletableFuture<>();
+        volatile long lastUse;
+        // Set once the compile finished; zero while it is in progress, and never evicted until then
+        volatile long weight;
+    }
+
+    private final long maxBytes;
+    private final ScriptCache disk;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CompiledScriptCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    // disk, when not null, is consulted on a miss before compiling and receives every new compile
+    public CompiledScriptCache(long maxBytes, ScriptCache disk) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive, was " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.disk = disk;
+    }
+
+    public CompiledScript compile(String source) {
+        return compile(source, true);
+    }
+
+    // As LexorEngine.compile(source, optimize), through the cache
+    public CompiledScript compile(String source, boolean optimize) {
+        Key key = new Key(sha256(source), optimize);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Entry created = new Entry();
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                misses.increment();
+                return load(key, created, source);
+            }
+        }
+        if (entry.script.isDone()) {
+            hits.increment();
+        } else {
+            collapsed.increment();
+        }
+        entry.lastUse = clock.incrementAndGet();
+        return join(entry);
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), collapsed.sum(), misses.sum(), evictions.sum(), entries.size(), weight.get(),
+                maxBytes);
+    }
+
+    // Drops every entry; compiles in progress still complete for their callers
+    public synchronized void clear() {
+        for (var candidate : entries.entrySet()) {
+            Entry entry = candidate.getValue();
+            if (entry.weight > 0 && entries.remove(candidate.getKey(), entry)) {
+                weight.addAndGet(-entry.weight);
+            }
+        }
+    }
+
+    // =========================================================================
+    // LOADING AND EVICTION
+    // =========================================================================
+
+    // Whatever fails, compiling or weighing (e.g. a StackOverflowError on a deep AST), fails every caller
+    // waiting on the entry and leaves nothing behind for later ones to block on
+    private CompiledScript load(Key key, Entry entry, String source) {
+        CompiledScript script;
+        long scriptWeight;
+        try {
+            script = (disk != null)
+                    ? LexorEngine.compile(source, key.optimize(), disk)
+                    : LexorEngine.compile(source, key.optimize());
+            scriptWeight = AstSizeEstimator.estimate(script.program()) + AstSizeEstimator.stringBytes(source.length());
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, entry);
+            entry.script.completeExceptionally(e);
+            throw e;
+        }
+        entry.lastUse = clock.incrementAndGet();
+        entry.weight = scriptWeight;
+        entry.script.complete(script);
+        weight.addAndGet(entry.weight);
+        evict();
+        return script;
+    }
+
+    // Removes the least recently used finished entries until the weight fits; an entry heavier than the
+    // whole cache is evicted right after it is returned
+    private synchronized void evict() {
+        while (weight.get() > maxBytes) {
+            Key oldestKey = null;
+            Entry oldest = null;
+            for (var candidate : entries.entrySet()) {
+                Entry entry = candidate.getValue();
+                if (entry.weight > 0 && (oldest == null || entry.lastUse < oldest.lastUse)) {
+                    oldestKey = candidate.getKey();
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) return;
+            if (entries.remove(oldestKey, oldest)) {
+                weight.addAndGet(-oldest.weight);
+                evictions.increment();
+            }
+        }
+    }
+
+    // The compiled script, or the compile error rethrown as the caller would have seen it
+    private static CompiledScript join(Entry entry) {
+        try {
+            return entry.script.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static String sha256(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.lexor.engine;
+
+import org.lexor.ast.nodes.ProgramNode;
+import org.lexor.cache.ScriptCache;
+import org.lexor.lexer.Lexer;
+import org.lexor.optimizer.Optimizer;
+import org.lexor.parser.Parser;
+import org.lexor.semantic.SemanticAnalyzer;
+
+// Entry point for embedding LEXOR: compile a source once, then run the CompiledScript as often as needed,
+// from any number of threads. Compile errors surface as the usual LexicalError, SyntaxError or SemanticError.
+public final class LexorEngine {
+
+    private LexorEngine() {
+    }
+
+    public static CompiledScript compile(String source) {
+        return compile(source, true);
+    }
+
+    // Lexes, parses and analyzes the source; optimize chooses whether the Optimizer runs as well, as
+    // --no-optimize does for Main
+    public static CompiledScript compile(String source, boolean optimize) {
+        return new CompiledScript(analyze(source, optimize));
+    }
+
+    // As compile(source, optimize), but a source compiled before (by this interpreter build) is loaded from the
+    // cache instead, and a new one is stored there
+    public static CompiledScript compile(String source, boolean optimize, ScriptCache cache) {
+        ProgramNode program = cache.load(source, optimize);
+        if (program == null) {
+            program = analyze(source, optimize);
+            cache.store(source, optimize, program);
+        }
+        return new CompiledScript(program);
+    }
+
+    private static ProgramNode analyze(String source, boolean optimize) {
+        ProgramNode program = new Parser(new Lexer(source).scanTokens()).parse();
+        new SemanticAnalyzer().analyze(program);
+        if (optimize) {
+            program = new Optimizer().optimize(program);
+        }
+        return program;
+    }
+}
@@ -0,0 +1,194 @@
+package org.lexor.exec;
+
+import org.lexor.lexer.Token;
+import org.lexor.semantic.symbol.Type;
+
+// The + - * / % operators. A node starts in the state the analyzer's operand types predict, or Uninitialized
+// when they are unknown, and rewrites itself to Generic the first time an operand produces another type.
+final class ArithmeticNodes {
+
+    private ArithmeticNodes() {
+    }
+
+    static ExprNode create(Token operator, ExprNode left, ExprNode right, Type leftType, Type rightType) {
+        if (leftType == Type.INT && rightType == Type.INT) return new IntNode(operator, left, right);
+        if (leftType == Type.FLOAT && rightType == Type.FLOAT) return new FloatNode(operator, left, right);
+        if (leftType == Type.INT && rightType == Type.FLOAT) return new MixedNode(operator, left, right, true);
+        if (leftType == Type.FLOAT && rightType == Type.INT) return new MixedNode(operator, left, right, false);
+        return new UninitializedNode(operator, left, right);
+    }
+
+    abstract static class ArithmeticNode extends BinaryNode {
+        ArithmeticNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        // The operation on generic values, used by the Generic state and while rewriting
+        final Object apply(Object l, Object r) {
+            return Operations.arithmetic(operator, l, r);
+        }
+
+        // Rewrites this node to the Generic state and completes the operation on the operands already evaluated
+        final Object generalize(Object l, Object r) {
+            return replace(new GenericNode(operator, left, right)).apply(l, r);
+        }
+    }
+
+    // Has not run yet: specializes on the first operand values it sees
+    static final class UninitializedNode extends ArithmeticNode {
+        UninitializedNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            Object l = left.executeGeneric(frame);
+            Object r = right.executeGeneric(frame);
+            ArithmeticNode specialized;
+            if (l instanceof Integer && r instanceof Integer) {
+                specialized = new IntNode(operator, left, right);
+            } else if (l instanceof Float && r instanceof Float) {
+                specialized = new FloatNode(operator, left, right);
+            } else if (l instanceof Integer && r instanceof Float) {
+                specialized = new MixedNode(operator, left, right, true);
+            } else if (l instanceof Float && r instanceof Integer) {
+                specialized = new MixedNode(operator, left, right, false);
+            } else {
+                specialized = new GenericNode(operator, left, right);
+            }
+            return replace(specialized).apply(l, r);
+        }
+    }
+
+    static final class IntNode extends ArithmeticNode {
+        IntNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public int executeInt(Frame frame) throws UnexpectedResultException {
+            int l;
+            try {
+                l = left.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return expectInt(generalize(e.getResult(), right.executeGeneric(frame)));
+            }
+            int r;
+            try {
+                r = right.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return expectInt(generalize(l, e.getResult()));
+            }
+            return Operations.intArithmetic(operator, l, r);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+    }
+
+    static final class FloatNode extends ArithmeticNode {
+        FloatNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public float executeFloat(Frame frame) throws UnexpectedResultException {
+            float l;
+            try {
+                l = left.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return expectFloat(generalize(e.getResult(), right.executeGeneric(frame)));
+            }
+            float r;
+            try {
+                r = right.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return expectFloat(generalize(l, e.getResult()));
+            }
+            return Operations.floatArithmetic(operator, l, r);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+    }
+
+    // One INT and one FLOAT operand; the INT side is widened in place
+    static final class MixedNode extends ArithmeticNode {
+        private final boolean leftIsInt;
+
+        MixedNode(Token operator, ExprNode left, ExprNode right, boolean leftIsInt) {
+            super(operator, left, right);
+            this.leftIsInt = leftIsInt;
+        }
+
+        @Override
+        public float executeFloat(Frame frame) throws UnexpectedResultException {
+            return leftIsInt ? intFloat(frame) : floatInt(frame);
+        }
+
+        private float intFloat(Frame frame) throws UnexpectedResultException {
+            int l;
+            try {
+                l = left.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return expectFloat(generalize(e.getResult(), right.executeGeneric(frame)));
+            }
+            float r;
+            try {
+                r = right.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return expectFloat(generalize(l, e.getResult()));
+            }
+            return Operations.floatArithmetic(operator, l, r);
+        }
+
+        private float floatInt(Frame frame) throws UnexpectedResultException {
+            float l;
+            try {
+                l = left.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return expectFloat(generalize(e.getResult(), right.executeGeneric(frame)));
+            }
+            int r;
+            try {
+                r = right.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return expectFloat(generalize(l, e.getResult()));
+            }
+            return Operations.floatArithmetic(operator, l, r);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+    }
+
+    // Final state: boxes both operands and dispatches on their runtime types
+    static final class GenericNode extends ArithmeticNode {
+        GenericNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return apply(left.executeGeneric(frame), right.executeGeneric(frame));
+        }
+    }
+}
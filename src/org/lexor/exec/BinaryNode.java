@@ -0,0 +1,37 @@
+package org.lexor.exec;
+
+import org.lexor.lexer.Token;
+
+// An operator node with two rewritable operands
+abstract class BinaryNode extends ExprNode {
+    protected final Token operator;
+    protected ExprNode left;
+    protected ExprNode right;
+
+    BinaryNode(Token operator, ExprNode left, ExprNode right) {
+        this.operator = operator;
+        this.left = adopt(left);
+        this.right = adopt(right);
+    }
+
+    @Override
+    protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+        if (left == oldChild) left = (ExprNode) newChild;
+        else if (right == oldChild) right = (ExprNode) newChild;
+    }
+
+    static int expectInt(Object value) throws UnexpectedResultException {
+        if (value instanceof Integer i) return i;
+        throw new UnexpectedResultException(value);
+    }
+
+    static float expectFloat(Object value) throws UnexpectedResultException {
+        if (value instanceof Float f) return f;
+        throw new UnexpectedResultException(value);
+    }
+
+    static boolean expectBoolean(Object value) throws UnexpectedResultException {
+        if (value instanceof Boolean b) return b;
+        throw new UnexpectedResultException(value);
+    }
+}
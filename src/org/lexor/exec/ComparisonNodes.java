@@ -0,0 +1,188 @@
+package org.lexor.exec;
+
+import org.lexor.lexer.Token;
+import org.lexor.semantic.symbol.Type;
+
+// The == <> < <= > >= operators, specialized like ArithmeticNodes. Equality of BOOL, CHAR and STRING
+// operands has no primitive fast path and starts in the Generic state.
+final class ComparisonNodes {
+
+    private ComparisonNodes() {
+    }
+
+    static ExprNode create(Token operator, ExprNode left, ExprNode right, Type leftType, Type rightType) {
+        if (leftType == Type.INT && rightType == Type.INT) return new IntNode(operator, left, right);
+        if (leftType == Type.FLOAT && rightType == Type.FLOAT) return new FloatNode(operator, left, right);
+        if (leftType == Type.INT && rightType == Type.FLOAT) return new MixedNode(operator, left, right, true);
+        if (leftType == Type.FLOAT && rightType == Type.INT) return new MixedNode(operator, left, right, false);
+        if (leftType != Type.UNKNOWN && rightType != Type.UNKNOWN) return new GenericNode(operator, left, right);
+        return new UninitializedNode(operator, left, right);
+    }
+
+    abstract static class ComparisonNode extends BinaryNode {
+        ComparisonNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        // The operation on generic values, used by the Generic state and while rewriting
+        final boolean apply(Object l, Object r) {
+            return Operations.compare(operator, l, r);
+        }
+
+        // Rewrites this node to the Generic state and completes the operation on the operands already evaluated
+        final boolean generalize(Object l, Object r) {
+            return replace(new GenericNode(operator, left, right)).apply(l, r);
+        }
+    }
+
+    // Has not run yet: specializes on the first operand values it sees
+    static final class UninitializedNode extends ComparisonNode {
+        UninitializedNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            Object l = left.executeGeneric(frame);
+            Object r = right.executeGeneric(frame);
+            ComparisonNode specialized;
+            if (l instanceof Integer && r instanceof Integer) {
+                specialized = new IntNode(operator, left, right);
+            } else if (l instanceof Float && r instanceof Float) {
+                specialized = new FloatNode(operator, left, right);
+            } else if (l instanceof Integer && r instanceof Float) {
+                specialized = new MixedNode(operator, left, right, true);
+            } else if (l instanceof Float && r instanceof Integer) {
+                specialized = new MixedNode(operator, left, right, false);
+            } else {
+                specialized = new GenericNode(operator, left, right);
+            }
+            return replace(specialized).apply(l, r);
+        }
+    }
+
+    static final class IntNode extends ComparisonNode {
+        IntNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            int l;
+            try {
+                l = left.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(e.getResult(), right.executeGeneric(frame));
+            }
+            int r;
+            try {
+                r = right.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(l, e.getResult());
+            }
+            return Operations.intCompare(operator, l, r);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeBoolean(frame);
+        }
+    }
+
+    static final class FloatNode extends ComparisonNode {
+        FloatNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            float l;
+            try {
+                l = left.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(e.getResult(), right.executeGeneric(frame));
+            }
+            float r;
+            try {
+                r = right.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(l, e.getResult());
+            }
+            return Operations.floatCompare(operator, l, r);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeBoolean(frame);
+        }
+    }
+
+    // One INT and one FLOAT operand; the INT side is widened in place
+    static final class MixedNode extends ComparisonNode {
+        private final boolean leftIsInt;
+
+        MixedNode(Token operator, ExprNode left, ExprNode right, boolean leftIsInt) {
+            super(operator, left, right);
+            this.leftIsInt = leftIsInt;
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            return leftIsInt ? intFloat(frame) : floatInt(frame);
+        }
+
+        private boolean intFloat(Frame frame) {
+            int l;
+            try {
+                l = left.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(e.getResult(), right.executeGeneric(frame));
+            }
+            float r;
+            try {
+                r = right.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(l, e.getResult());
+            }
+            return Operations.floatCompare(operator, l, r);
+        }
+
+        private boolean floatInt(Frame frame) {
+            float l;
+            try {
+                l = left.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(e.getResult(), right.executeGeneric(frame));
+            }
+            int r;
+            try {
+                r = right.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(l, e.getResult());
+            }
+            return Operations.floatCompare(operator, l, r);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeBoolean(frame);
+        }
+    }
+
+    // Final state: boxes both operands and dispatches on their runtime types
+    static final class GenericNode extends ComparisonNode {
+        GenericNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            return apply(left.executeGeneric(frame), right.executeGeneric(frame));
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeBoolean(frame);
+        }
+    }
+}
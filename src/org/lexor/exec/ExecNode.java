@@ -0,0 +1,25 @@
+package org.lexor.exec;
+
+// Base of the executable node tree. Nodes know their parent so a node can rewrite itself
+// in place (replace) once it has observed which operand types actually flow through it.
+public abstract class ExecNode {
+    ExecNode parent;
+
+    // Registers this node as the parent of a freshly created child and returns the child
+    protected final <T extends ExecNode> T adopt(T child) {
+        if (child != null) child.parent = this;
+        return child;
+    }
+
+    // Swaps this node for its replacement in the parent and returns the replacement
+    protected final <T extends ExecNode> T replace(T replacement) {
+        replacement.parent = parent;
+        parent.replaceChild(this, replacement);
+        return replacement;
+    }
+
+    // Nodes with rewritable children override this to swap the matching child field
+    protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+        throw new IllegalStateException(getClass().getSimpleName() + " has no rewritable children.");
+    }
+}
@@ -0,0 +1,32 @@
+package org.lexor.exec;
+
+// An executable expression. executeGeneric always works and returns a boxed Integer, Float, Boolean,
+// Character or String; the typed execute methods let specialized parents avoid boxing and throw
+// UnexpectedResultException (carrying the real value) when the child did not produce the expected type.
+public abstract class ExprNode extends ExecNode {
+
+    public abstract Object executeGeneric(Frame frame);
+
+    // Evaluates for side effects only; assignments override this to store without boxing
+    public void executeVoid(Frame frame) {
+        executeGeneric(frame);
+    }
+
+    public int executeInt(Frame frame) throws UnexpectedResultException {
+        Object value = executeGeneric(frame);
+        if (value instanceof Integer i) return i;
+        throw new UnexpectedResultException(value);
+    }
+
+    public float executeFloat(Frame frame) throws UnexpectedResultException {
+        Object value = executeGeneric(frame);
+        if (value instanceof Float f) return f;
+        throw new UnexpectedResultException(value);
+    }
+
+    public boolean executeBoolean(Frame frame) throws UnexpectedResultException {
+        Object value = executeGeneric(frame);
+        if (value instanceof Boolean b) return b;
+        throw new UnexpectedResultException(value);
+    }
+}
@@ -0,0 +1,36 @@
+package org.lexor.exec;
+
+import org.lexor.runtime.InputReader;
+import org.lexor.semantic.symbol.Type;
+
+// Variable storage for one execution. INT, FLOAT (raw bits), BOOL (0/1) and CHAR live unboxed in
+// primitives; STRING lives in references. Both arrays are indexed by the variable's frame slot.
+public final class Frame {
+    final int[] primitives;
+    final Object[] references;
+    private InputReader input;
+
+    Frame(int size) {
+        this.primitives = new int[size];
+        this.references = new Object[size];
+    }
+
+    // Stores a generic value that already has the variable's declared type
+    void store(Type type, int slot, Object value) {
+        switch (type) {
+            case INT -> primitives[slot] = (Integer) value;
+            case FLOAT -> primitives[slot] = Float.floatToRawIntBits((Float) value);
+            case BOOL -> primitives[slot] = (Boolean) value ? 1 : 0;
+            case CHAR -> primitives[slot] = (Character) value;
+            default -> references[slot] = value;
+        }
+    }
+
+    // The SCAN input, opened on first use
+    InputReader input() {
+        if (input == null) {
+            input = InputReader.stdin();
+        }
+        return input;
+    }
+}
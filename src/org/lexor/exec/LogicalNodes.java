@@ -0,0 +1,65 @@
+package org.lexor.exec;
+
+import org.lexor.lexer.Token;
+import org.lexor.lexer.TokenType;
+
+// AND, OR and NOT. Operands are always BOOL after analysis, so these only have the boolean state;
+// an operand of another type is a runtime error rather than a rewrite.
+final class LogicalNodes {
+
+    private LogicalNodes() {
+    }
+
+    static final class AndOrNode extends BinaryNode {
+        private final boolean isAnd;
+
+        AndOrNode(Token operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+            this.isAnd = operator.type == TokenType.AND;
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            // The right operand only runs when the left one does not decide the result
+            return isAnd ? condition(left, frame) && condition(right, frame)
+                    : condition(left, frame) || condition(right, frame);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeBoolean(frame);
+        }
+    }
+
+    static final class NotNode extends ExprNode {
+        private ExprNode operand;
+
+        NotNode(ExprNode operand) {
+            this.operand = adopt(operand);
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            return !condition(operand, frame);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeBoolean(frame);
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            if (operand == oldChild) operand = (ExprNode) newChild;
+        }
+    }
+
+    // Evaluates a BOOL operand or condition, failing with the interpreter's message for any other value
+    static boolean condition(ExprNode node, Frame frame) {
+        try {
+            return node.executeBoolean(frame);
+        } catch (UnexpectedResultException e) {
+            return Operations.truthy(e.getResult());
+        }
+    }
+}
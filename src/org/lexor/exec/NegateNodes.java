@@ -0,0 +1,121 @@
+package org.lexor.exec;
+
+import org.lexor.lexer.Token;
+import org.lexor.semantic.symbol.Type;
+
+// Unary minus, specialized on its operand like ArithmeticNodes
+final class NegateNodes {
+
+    private NegateNodes() {
+    }
+
+    static ExprNode create(Token operator, ExprNode operand, Type operandType) {
+        return switch (operandType) {
+            case INT -> new IntNode(operator, operand);
+            case FLOAT -> new FloatNode(operator, operand);
+            default -> new UninitializedNode(operator, operand);
+        };
+    }
+
+    abstract static class NegateNode extends ExprNode {
+        protected final Token operator;
+        protected ExprNode operand;
+
+        NegateNode(Token operator, ExprNode operand) {
+            this.operator = operator;
+            this.operand = adopt(operand);
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            if (operand == oldChild) operand = (ExprNode) newChild;
+        }
+
+        final Object generalize(Object value) {
+            return replace(new GenericNode(operator, operand)).apply(value);
+        }
+
+        final Object apply(Object value) {
+            return Operations.negate(operator, value);
+        }
+    }
+
+    static final class UninitializedNode extends NegateNode {
+        UninitializedNode(Token operator, ExprNode operand) {
+            super(operator, operand);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            Object value = operand.executeGeneric(frame);
+            NegateNode specialized;
+            if (value instanceof Integer) {
+                specialized = new IntNode(operator, operand);
+            } else if (value instanceof Float) {
+                specialized = new FloatNode(operator, operand);
+            } else {
+                specialized = new GenericNode(operator, operand);
+            }
+            return replace(specialized).apply(value);
+        }
+    }
+
+    static final class IntNode extends NegateNode {
+        IntNode(Token operator, ExprNode operand) {
+            super(operator, operand);
+        }
+
+        @Override
+        public int executeInt(Frame frame) throws UnexpectedResultException {
+            try {
+                return -operand.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return BinaryNode.expectInt(generalize(e.getResult()));
+            }
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+    }
+
+    static final class FloatNode extends NegateNode {
+        FloatNode(Token operator, ExprNode operand) {
+            super(operator, operand);
+        }
+
+        @Override
+        public float executeFloat(Frame frame) throws UnexpectedResultException {
+            try {
+                return -operand.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return BinaryNode.expectFloat(generalize(e.getResult()));
+            }
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+    }
+
+    static final class GenericNode extends NegateNode {
+        GenericNode(Token operator, ExprNode operand) {
+            super(operator, operand);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return apply(operand.executeGeneric(frame));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.lexor.exec;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.*;
+import org.lexor.semantic.symbol.Type;
+
+import java.util.List;
+
+// Builds the executable node tree from a verified AST (after SemanticAnalyzer.analyze).
+// Operators whose operand types the analyzer knows start out specialized; the rest start Uninitialized
+// and specialize on the first values they see.
+public class NodeBuilder implements ASTVisitor<ExecNode> {
+
+    public NodeProgram build(ProgramNode program) {
+        return new NodeProgram((StmtNode) program.accept(this), program.localCount);
+    }
+
+    // =========================================================================
+    // STATEMENTS
+    // =========================================================================
+
+    @Override
+    public ExecNode visitProgramNode(ProgramNode node) {
+        StmtNode[] statements = new StmtNode[node.declarations.size() + node.statements.size()];
+        int i = 0;
+        for (VarDeclNode decl : node.declarations) {
+            statements[i++] = statement(decl);
+        }
+        for (StatementNode stmt : node.statements) {
+            statements[i++] = statement(stmt);
+        }
+        return new StatementNodes.BlockNode(statements);
+    }
+
+    @Override
+    public ExecNode visitVarDeclNode(VarDeclNode node) {
+        Type declared = declaredType(node.dataType.type);
+        if (node.initializer != null) {
+            return WriteNodes.create(declared, node.slot, expression(node.initializer), staticType(node.initializer));
+        }
+        ExprNode initial = switch (declared) {
+            case INT -> new ValueNodes.IntConstantNode(0);
+            case FLOAT -> new ValueNodes.FloatConstantNode(0.0f);
+            case BOOL -> new ValueNodes.BoolConstantNode(false);
+            case CHAR -> new ValueNodes.ObjectConstantNode('\0');
+            default -> new ValueNodes.ObjectConstantNode("");
+        };
+        return WriteNodes.create(declared, node.slot, initial, declared);
+    }
+
+    @Override
+    public ExecNode visitAssignmentNode(AssignmentNode node) {
+        checkGlobal(node.depth);
+        return WriteNodes.create(node.type, node.slot, expression(node.value), staticType(node.value));
+    }
+
+    @Override
+    public ExecNode visitPrintNode(PrintNode node) {
+        return new StatementNodes.PrintNode(expressions(node.expressions));
+    }
+
+    @Override
+    public ExecNode visitScanNode(ScanNode node) {
+        int count = node.identifiers.size();
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            checkGlobal(node.depths[i]);
+            names[i] = node.identifiers.get(i).lexeme();
+        }
+        return new StatementNodes.ScanNode(node.slots.clone(), node.types.clone(), names);
+    }
+
+    @Override
+    public ExecNode visitIfNode(IfNode node) {
+        int count = 1 + node.elseIfParts.size();
+        ExprNode[] conditions = new ExprNode[count];
+        StmtNode[] branches = new StmtNode[count];
+        conditions[0] = expression(node.condition);
+        branches[0] = statement(node.thenBranch);
+        for (int i = 1; i < count; i++) {
+            IfNode.ElseIfPart part = node.elseIfParts.get(i - 1);
+            conditions[i] = expression(part.condition);
+            branches[i] = statement(part.body);
+        }
+        StmtNode elseBranch = node.elseBranch != null ? statement(node.elseBranch) : null;
+        return new StatementNodes.IfNode(conditions, branches, elseBranch);
+    }
+
+    @Override
+    public ExecNode visitRepeatNode(RepeatNode node) {
+        return new StatementNodes.RepeatNode(expression(node.condition), statement(node.body));
+    }
+
+    @Override
+    public ExecNode visitForNode(ForNode node) {
+        return new StatementNodes.ForNode(statement(node.initialization), expression(node.condition),
+                statement(node.update), statement(node.body));
+    }
+
+    @Override
+    public ExecNode visitBreakNode(BreakNode node) {
+        return new StatementNodes.BreakNode();
+    }
+
+    @Override
+    public ExecNode visitContinueNode(ContinueNode node) {
+        return new StatementNodes.ContinueNode();
+    }
+
+    @Override
+    public ExecNode visitBlockNode(BlockNode node) {
+        StmtNode[] statements = new StmtNode[node.statements.size()];
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = statement(node.statements.get(i));
+        }
+        return new StatementNodes.BlockNode(statements);
+    }
+
+    // =========================================================================
+    // EXPRESSIONS
+    // =========================================================================
+
+    @Override
+    public ExecNode visitLiteralNode(LiteralNode node) {
+        return switch (node.value) {
+            case IntValue i -> new ValueNodes.IntConstantNode(i.intValue());
+            case FloatValue f -> new ValueNodes.FloatConstantNode(f.floatValue());
+            case BoolValue b -> new ValueNodes.BoolConstantNode(b.booleanValue());
+            case CharValue c -> new ValueNodes.ObjectConstantNode(c.charValue());
+            default -> new ValueNodes.ObjectConstantNode(node.value.asString());
+        };
+    }
+
+    @Override
+    public ExecNode visitIdentifierNode(IdentifierNode node) {
+        checkGlobal(node.depth);
+        return switch (node.type) {
+            case INT -> new ValueNodes.ReadIntNode(node.slot);
+            case FLOAT -> new ValueNodes.ReadFloatNode(node.slot);
+            case BOOL -> new ValueNodes.ReadBoolNode(node.slot);
+            case CHAR -> new ValueNodes.ReadCharNode(node.slot);
+            default -> new ValueNodes.ReadStringNode(node.slot);
+        };
+    }
+
+    @Override
+    public ExecNode visitBinaryExprNode(BinaryExprNode node) {
+        ExprNode left = expression(node.left);
+        ExprNode right = expression(node.right);
+        return switch (node.operator.type) {
+            case AMPERSAND -> new ValueNodes.ConcatNode(left, right);
+            case PLUS, MINUS, STAR, SLASH, MODULO ->
+                    ArithmeticNodes.create(node.operator, left, right, staticType(node.left), staticType(node.right));
+            default -> ComparisonNodes.create(node.operator, left, right, staticType(node.left), staticType(node.right));
+        };
+    }
+
+    @Override
+    public ExecNode visitLogicalExprNode(LogicalExprNode node) {
+        return new LogicalNodes.AndOrNode(node.operator, expression(node.left), expression(node.right));
+    }
+
+    @Override
+    public ExecNode visitUnaryExprNode(UnaryExprNode node) {
+        ExprNode operand = expression(node.right);
+        return switch (node.operator.type) {
+            case NOT -> new LogicalNodes.NotNode(operand);
+            case UNARY_MINUS -> NegateNodes.create(node.operator, operand, staticType(node.right));
+            default -> operand;
+        };
+    }
+
+    @Override
+    public ExecNode visitGroupingNode(GroupingNode node) {
+        return node.expression.accept(this);
+    }
+
+    @Override
+    public ExecNode visitNewlineNode(NewlineNode node) {
+        return new ValueNodes.ObjectConstantNode('\n');
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    // Assignments and declarations build to write expressions; as statements they are wrapped
+    private StmtNode statement(ASTNode node) {
+        ExecNode built = node.accept(this);
+        if (built instanceof ExprNode expression) {
+            return new StatementNodes.ExpressionStatementNode(expression);
+        }
+        return (StmtNode) built;
+    }
+
+    private ExprNode expression(ASTNode node) {
+        return (ExprNode) node.accept(this);
+    }
+
+    private ExprNode[] expressions(List<ExpressionNode> nodes) {
+        ExprNode[] built = new ExprNode[nodes.size()];
+        for (int i = 0; i < built.length; i++) {
+            built[i] = expression(nodes.get(i));
+        }
+        return built;
+    }
+
+    // The analyzer's type of an expression or chained assignment; escape literals are CHARs it leaves untyped
+    private static Type staticType(ASTNode node) {
+        if (node instanceof AssignmentNode assignment) return assignment.type;
+        if (node instanceof LiteralNode literal && literal.valueToken.type == TokenType.ESCAPE_LITERAL) {
+            return Type.CHAR;
+        }
+        return node instanceof ExpressionNode expr ? expr.type : Type.UNKNOWN;
+    }
+
+    private static Type declaredType(TokenType tokenType) {
+        return switch (tokenType) {
+            case INT -> Type.INT;
+            case FLOAT -> Type.FLOAT;
+            case CHAR -> Type.CHAR;
+            case BOOL -> Type.BOOL;
+            case STRING -> Type.STRING;
+            default -> throw new IllegalStateException("Unknown data type declaration.");
+        };
+    }
+
+    private static void checkGlobal(int depth) {
+        if (depth != 0) {
+            throw new IllegalStateException("The node engine only supports variables declared in the global scope.");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.lexor.exec;
+
+// The root of a built node tree. Specializations persist in the tree, so running the same
+// NodeProgram again starts from the already-specialized nodes.
+public final class NodeProgram {
+    private final StmtNode body;
+    private final int localCount;
+
+    NodeProgram(StmtNode body, int localCount) {
+        this.body = body;
+        this.localCount = localCount;
+    }
+
+    public void execute() {
+        body.execute(new Frame(localCount));
+    }
+}
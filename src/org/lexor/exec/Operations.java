@@ -0,0 +1,119 @@
+package org.lexor.exec;
+
+import org.lexor.error.RuntimeError;
+import org.lexor.lexer.Token;
+import org.lexor.runtime.values.FloatValue;
+
+// The operator semantics shared by the specialized and generic nodes.
+// Generic values are the boxed Integer, Float, Boolean, Character and String produced by executeGeneric.
+final class Operations {
+
+    private Operations() {
+    }
+
+    static int intArithmetic(Token operator, int l, int r) {
+        return switch (operator.type) {
+            case PLUS -> l + r;
+            case MINUS -> l - r;
+            case STAR -> l * r;
+            case SLASH -> {
+                if (r == 0) throw new RuntimeError("Division by zero.");
+                yield l / r;
+            }
+            case MODULO -> {
+                if (r == 0) throw new RuntimeError("Division by zero.");
+                yield l % r;
+            }
+            default -> throw new RuntimeError("Unknown binary operator: " + operator.lexeme());
+        };
+    }
+
+    static float floatArithmetic(Token operator, float l, float r) {
+        return switch (operator.type) {
+            case PLUS -> l + r;
+            case MINUS -> l - r;
+            case STAR -> l * r;
+            case SLASH -> {
+                if (r == 0) throw new RuntimeError("Division by zero.");
+                yield l / r;
+            }
+            case MODULO -> l % r;
+            default -> throw new RuntimeError("Unknown binary operator: " + operator.lexeme());
+        };
+    }
+
+    static boolean intCompare(Token operator, int l, int r) {
+        return switch (operator.type) {
+            case EQUAL_EQUAL -> l == r;
+            case NOT_EQUAL -> l != r;
+            case LESS -> l < r;
+            case LESS_EQUAL -> l <= r;
+            case GREATER -> l > r;
+            case GREATER_EQUAL -> l >= r;
+            default -> throw new RuntimeError("Unknown binary operator: " + operator.lexeme());
+        };
+    }
+
+    static boolean floatCompare(Token operator, float l, float r) {
+        return switch (operator.type) {
+            case EQUAL_EQUAL -> l == r;
+            case NOT_EQUAL -> l != r;
+            case LESS -> l < r;
+            case LESS_EQUAL -> l <= r;
+            case GREATER -> l > r;
+            case GREATER_EQUAL -> l >= r;
+            default -> throw new RuntimeError("Unknown binary operator: " + operator.lexeme());
+        };
+    }
+
+    static Object arithmetic(Token operator, Object l, Object r) {
+        if (l instanceof Integer li && r instanceof Integer ri) {
+            return intArithmetic(operator, li, ri);
+        }
+        return floatArithmetic(operator, toFloat(operator, l), toFloat(operator, r));
+    }
+
+    static boolean compare(Token operator, Object l, Object r) {
+        if (l instanceof Integer li && r instanceof Integer ri) {
+            return intCompare(operator, li, ri);
+        }
+        if (isNumeric(l) && isNumeric(r)) {
+            return floatCompare(operator, toFloat(operator, l), toFloat(operator, r));
+        }
+        return switch (operator.type) {
+            case EQUAL_EQUAL -> l.equals(r);
+            case NOT_EQUAL -> !l.equals(r);
+            default -> throw new RuntimeError("Arithmetic operator '" + operator.lexeme() +
+                    "' cannot be applied to non-numeric values.");
+        };
+    }
+
+    static Object negate(Token operator, Object value) {
+        if (value instanceof Integer i) return -i;
+        if (value instanceof Float f) return -f;
+        throw new RuntimeError("Unary operator '" + operator.lexeme() + "' cannot be applied to non-numeric values.");
+    }
+
+    static boolean truthy(Object value) {
+        if (value instanceof Boolean b) return b;
+        throw new RuntimeError("Expected a BOOL condition but got: " + text(value));
+    }
+
+    // LEXOR's textual form of a generic value, as printed by PRINT and joined by '&'
+    static String text(Object value) {
+        if (value instanceof Float f) return FloatValue.format(f);
+        if (value instanceof Boolean b) return b ? "TRUE" : "FALSE";
+        return value.toString();
+    }
+
+    static boolean isNumeric(Object value) {
+        return value instanceof Integer || value instanceof Float;
+    }
+
+    private static float toFloat(Token operator, Object value) {
+        if (value instanceof Float f) return f;
+        if (value instanceof Integer i) return i;
+        throw new RuntimeError("Arithmetic operator '" + operator.lexeme() +
+                "' cannot be applied to non-numeric values.");
+    }
+}
@@ -0,0 +1,195 @@
+package org.lexor.exec;
+
+import org.lexor.runtime.InputReader;
+import org.lexor.semantic.symbol.Type;
+
+// Statements. Each returns NORMAL, BREAK or CONTINUE; blocks and IF pass a non-NORMAL status up to the
+// nearest loop, which consumes it.
+final class StatementNodes {
+
+    private StatementNodes() {
+    }
+
+    static final class BlockNode extends StmtNode {
+        private final StmtNode[] statements;
+
+        BlockNode(StmtNode[] statements) {
+            this.statements = statements;
+            for (StmtNode statement : statements) adopt(statement);
+        }
+
+        @Override
+        public int execute(Frame frame) {
+            for (StmtNode statement : statements) {
+                int status = statement.execute(frame);
+                if (status != NORMAL) return status;
+            }
+            return NORMAL;
+        }
+    }
+
+    // An assignment or initialized declaration used as a statement
+    static final class ExpressionStatementNode extends StmtNode {
+        private ExprNode expression;
+
+        ExpressionStatementNode(ExprNode expression) {
+            this.expression = adopt(expression);
+        }
+
+        @Override
+        public int execute(Frame frame) {
+            expression.executeVoid(frame);
+            return NORMAL;
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            if (expression == oldChild) expression = (ExprNode) newChild;
+        }
+    }
+
+    // IF with its ELSE IF parts flattened into parallel condition/branch arrays
+    static final class IfNode extends StmtNode {
+        private final ExprNode[] conditions;
+        private final StmtNode[] branches;
+        private final StmtNode elseBranch;
+
+        IfNode(ExprNode[] conditions, StmtNode[] branches, StmtNode elseBranch) {
+            this.conditions = conditions;
+            this.branches = branches;
+            this.elseBranch = adopt(elseBranch);
+            for (ExprNode condition : conditions) adopt(condition);
+            for (StmtNode branch : branches) adopt(branch);
+        }
+
+        @Override
+        public int execute(Frame frame) {
+            for (int i = 0; i < conditions.length; i++) {
+                if (LogicalNodes.condition(conditions[i], frame)) {
+                    return branches[i].execute(frame);
+                }
+            }
+            return elseBranch != null ? elseBranch.execute(frame) : NORMAL;
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i] == oldChild) conditions[i] = (ExprNode) newChild;
+            }
+        }
+    }
+
+    static final class RepeatNode extends StmtNode {
+        private ExprNode condition;
+        private final StmtNode body;
+
+        RepeatNode(ExprNode condition, StmtNode body) {
+            this.condition = adopt(condition);
+            this.body = adopt(body);
+        }
+
+        @Override
+        public int execute(Frame frame) {
+            while (LogicalNodes.condition(condition, frame)) {
+                if (body.execute(frame) == BREAK) break;
+            }
+            return NORMAL;
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            if (condition == oldChild) condition = (ExprNode) newChild;
+        }
+    }
+
+    static final class ForNode extends StmtNode {
+        private final StmtNode initialization;
+        private ExprNode condition;
+        private final StmtNode update;
+        private final StmtNode body;
+
+        ForNode(StmtNode initialization, ExprNode condition, StmtNode update, StmtNode body) {
+            this.initialization = adopt(initialization);
+            this.condition = adopt(condition);
+            this.update = adopt(update);
+            this.body = adopt(body);
+        }
+
+        @Override
+        public int execute(Frame frame) {
+            for (initialization.execute(frame); LogicalNodes.condition(condition, frame); update.execute(frame)) {
+                if (body.execute(frame) == BREAK) break;
+            }
+            return NORMAL;
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            if (condition == oldChild) condition = (ExprNode) newChild;
+        }
+    }
+
+    static final class BreakNode extends StmtNode {
+        @Override
+        public int execute(Frame frame) {
+            return BREAK;
+        }
+    }
+
+    static final class ContinueNode extends StmtNode {
+        @Override
+        public int execute(Frame frame) {
+            return CONTINUE;
+        }
+    }
+
+    static final class PrintNode extends StmtNode {
+        private final ExprNode[] expressions;
+
+        PrintNode(ExprNode[] expressions) {
+            this.expressions = expressions;
+            for (ExprNode expression : expressions) adopt(expression);
+        }
+
+        @Override
+        public int execute(Frame frame) {
+            for (ExprNode expression : expressions) {
+                System.out.print(Operations.text(expression.executeGeneric(frame)));
+            }
+            return NORMAL;
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            for (int i = 0; i < expressions.length; i++) {
+                if (expressions[i] == oldChild) expressions[i] = (ExprNode) newChild;
+            }
+        }
+    }
+
+    static final class ScanNode extends StmtNode {
+        private final int[] slots;
+        private final Type[] types;
+        private final String[] names;
+
+        ScanNode(int[] slots, Type[] types, String[] names) {
+            this.slots = slots;
+            this.types = types;
+            this.names = names;
+        }
+
+        @Override
+        public int execute(Frame frame) {
+            InputReader input = frame.input();
+            input.readLine();
+
+            for (int i = 0; i < slots.length; i++) {
+                frame.store(types[i], slots[i], input.parse(types[i], i, names[i]).getValue());
+            }
+
+            input.checkCount(slots.length);
+            return NORMAL;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.lexor.exec;
+
+// An executable statement. execute returns how control leaves the statement,
+// so BREAK and CONTINUE propagate as plain return values instead of exceptions.
+public abstract class StmtNode extends ExecNode {
+    public static final int NORMAL = 0;
+    public static final int BREAK = 1;
+    public static final int CONTINUE = 2;
+
+    public abstract int execute(Frame frame);
+}
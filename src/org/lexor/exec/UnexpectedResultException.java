@@ -0,0 +1,16 @@
+package org.lexor.exec;
+
+// Thrown by a typed execute method when the value has a different type than the caller speculated on.
+// Carries the value so the caller can rewrite itself to a more general node without re-evaluating.
+public final class UnexpectedResultException extends Exception {
+    private final Object result;
+
+    public UnexpectedResultException(Object result) {
+        super(null, null, false, false);
+        this.result = result;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,178 @@
+package org.lexor.exec;
+
+// Constants, variable reads and '&' concatenation
+final class ValueNodes {
+
+    private ValueNodes() {
+    }
+
+    static final class IntConstantNode extends ExprNode {
+        private final int value;
+
+        IntConstantNode(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int executeInt(Frame frame) {
+            return value;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return value;
+        }
+    }
+
+    static final class FloatConstantNode extends ExprNode {
+        private final float value;
+
+        FloatConstantNode(float value) {
+            this.value = value;
+        }
+
+        @Override
+        public float executeFloat(Frame frame) {
+            return value;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return value;
+        }
+    }
+
+    static final class BoolConstantNode extends ExprNode {
+        private final boolean value;
+
+        BoolConstantNode(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            return value;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return value;
+        }
+    }
+
+    // A CHAR or STRING constant
+    static final class ObjectConstantNode extends ExprNode {
+        private final Object value;
+
+        ObjectConstantNode(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return value;
+        }
+    }
+
+    static final class ReadIntNode extends ExprNode {
+        private final int slot;
+
+        ReadIntNode(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public int executeInt(Frame frame) {
+            return frame.primitives[slot];
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return frame.primitives[slot];
+        }
+    }
+
+    static final class ReadFloatNode extends ExprNode {
+        private final int slot;
+
+        ReadFloatNode(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public float executeFloat(Frame frame) {
+            return Float.intBitsToFloat(frame.primitives[slot]);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeFloat(frame);
+        }
+    }
+
+    static final class ReadBoolNode extends ExprNode {
+        private final int slot;
+
+        ReadBoolNode(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) {
+            return frame.primitives[slot] != 0;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return executeBoolean(frame);
+        }
+    }
+
+    static final class ReadCharNode extends ExprNode {
+        private final int slot;
+
+        ReadCharNode(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return (char) frame.primitives[slot];
+        }
+    }
+
+    static final class ReadStringNode extends ExprNode {
+        private final int slot;
+
+        ReadStringNode(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return frame.references[slot];
+        }
+    }
+
+    static final class ConcatNode extends ExprNode {
+        private ExprNode left;
+        private ExprNode right;
+
+        ConcatNode(ExprNode left, ExprNode right) {
+            this.left = adopt(left);
+            this.right = adopt(right);
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            String l = Operations.text(left.executeGeneric(frame));
+            return l + Operations.text(right.executeGeneric(frame));
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            if (left == oldChild) left = (ExprNode) newChild;
+            else if (right == oldChild) right = (ExprNode) newChild;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.lexor.exec;
+
+import org.lexor.semantic.symbol.Type;
+
+// Assignments and initialized declarations. A write is an expression so chained assignments (x = y = 1)
+// pass the stored value on; as a statement it runs through executeVoid and never boxes.
+final class WriteNodes {
+
+    private WriteNodes() {
+    }
+
+    static ExprNode create(Type type, int slot, ExprNode value, Type valueType) {
+        return switch (type) {
+            case INT -> new IntWriteNode(slot, value);
+            case FLOAT -> new FloatWriteNode(slot, value, valueType == Type.INT);
+            case BOOL -> new BoolWriteNode(slot, value);
+            default -> new GenericWriteNode(type, slot, value);
+        };
+    }
+
+    abstract static class WriteNode extends ExprNode {
+        protected final int slot;
+        protected ExprNode value;
+
+        WriteNode(int slot, ExprNode value) {
+            this.slot = slot;
+            this.value = adopt(value);
+        }
+
+        @Override
+        protected void replaceChild(ExecNode oldChild, ExecNode newChild) {
+            if (value == oldChild) value = (ExprNode) newChild;
+        }
+
+        // Rewrites this node to the Generic state and stores a value that was already evaluated
+        final Object generalize(Type type, Frame frame, Object result) {
+            return replace(new GenericWriteNode(type, slot, value)).store(frame, result);
+        }
+    }
+
+    static final class IntWriteNode extends WriteNode {
+        IntWriteNode(int slot, ExprNode value) {
+            super(slot, value);
+        }
+
+        @Override
+        public int executeInt(Frame frame) throws UnexpectedResultException {
+            int result;
+            try {
+                result = value.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return BinaryNode.expectInt(generalize(Type.INT, frame, e.getResult()));
+            }
+            frame.primitives[slot] = result;
+            return result;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+
+        @Override
+        public void executeVoid(Frame frame) {
+            try {
+                executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                // already stored by the Generic state
+            }
+        }
+
+    }
+
+    // Stores into a FLOAT variable; an INT value is widened without going through a box
+    static final class FloatWriteNode extends WriteNode {
+        private final boolean widen;
+
+        FloatWriteNode(int slot, ExprNode value, boolean widen) {
+            super(slot, value);
+            this.widen = widen;
+        }
+
+        @Override
+        public float executeFloat(Frame frame) throws UnexpectedResultException {
+            float result;
+            try {
+                result = widen ? value.executeInt(frame) : value.executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return BinaryNode.expectFloat(generalize(Type.FLOAT, frame, e.getResult()));
+            }
+            frame.primitives[slot] = Float.floatToRawIntBits(result);
+            return result;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+
+        @Override
+        public void executeVoid(Frame frame) {
+            try {
+                executeFloat(frame);
+            } catch (UnexpectedResultException e) {
+                // already stored by the Generic state
+            }
+        }
+    }
+
+    static final class BoolWriteNode extends WriteNode {
+        BoolWriteNode(int slot, ExprNode value) {
+            super(slot, value);
+        }
+
+        @Override
+        public boolean executeBoolean(Frame frame) throws UnexpectedResultException {
+            boolean result;
+            try {
+                result = value.executeBoolean(frame);
+            } catch (UnexpectedResultException e) {
+                return BinaryNode.expectBoolean(generalize(Type.BOOL, frame, e.getResult()));
+            }
+            frame.primitives[slot] = result ? 1 : 0;
+            return result;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            try {
+                return executeBoolean(frame);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+
+        @Override
+        public void executeVoid(Frame frame) {
+            try {
+                executeBoolean(frame);
+            } catch (UnexpectedResultException e) {
+                // already stored by the Generic state
+            }
+        }
+    }
+
+    // CHAR and STRING variables, and the fallback for the typed writes
+    static final class GenericWriteNode extends WriteNode {
+        private final Type type;
+
+        GenericWriteNode(Type type, int slot, ExprNode value) {
+            super(slot, value);
+            this.type = type;
+        }
+
+        @Override
+        public Object executeGeneric(Frame frame) {
+            return store(frame, value.executeGeneric(frame));
+        }
+
+        // Widens the value to the variable's type, stores it and returns the stored value
+        Object store(Frame frame, Object result) {
+            if (type == Type.FLOAT && result instanceof Integer i) result = (float) i;
+            else if (type == Type.STRING && result instanceof Character c) result = c.toString();
+            frame.store(type, slot, result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.lexor.jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// The constant pool of the generated class. Entries are deduplicated by their tag and contents.
+final class ConstantPool {
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int FLOAT = 4;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELDREF = 9;
+    private static final int METHODREF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private final Map<String, Integer> entries = new HashMap<>();
+    private int count = 1;
+
+    int utf8(String value) {
+        return entry(UTF8 + ":" + value, () -> {
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+        });
+    }
+
+    int integer(int value) {
+        return entry(INTEGER + ":" + value, () -> {
+            out.writeByte(INTEGER);
+            out.writeInt(value);
+        });
+    }
+
+    int floating(float value) {
+        return entry(FLOAT + ":" + Float.floatToRawIntBits(value), () -> {
+            out.writeByte(FLOAT);
+            out.writeFloat(value);
+        });
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return entry(CLASS + ":" + internalName, () -> {
+            out.writeByte(CLASS);
+            out.writeShort(name);
+        });
+    }
+
+    int string(String value) {
+        int utf = utf8(value);
+        return entry(STRING + ":" + value, () -> {
+            out.writeByte(STRING);
+            out.writeShort(utf);
+        });
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(FIELDREF, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(METHODREF, owner, name, descriptor);
+    }
+
+    int size() {
+        return count;
+    }
+
+    void writeTo(DataOutputStream target) throws IOException {
+        target.writeShort(count);
+        bytes.writeTo(target);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = entry(NAME_AND_TYPE + ":" + name + ":" + descriptor, () -> {
+            out.writeByte(NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+        return entry(tag + ":" + owner + "." + name + ":" + descriptor, () -> {
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    private interface Writer {
+        void write() throws IOException;
+    }
+
+    private int entry(String key, Writer writer) {
+        Integer existing = entries.get(key);
+        if (existing != null) return existing;
+        if (count >= 0xFFFF) {
+            throw new IllegalStateException("The program needs more than 65535 constant pool entries.");
+        }
+        try {
+            writer.write();
+        } catch (IOException e) {
+            // writeUTF rejects strings longer than 65535 encoded bytes
+            throw new IllegalStateException("Constant too large for a class file: " + e.getMessage());
+        }
+        entries.put(key, count);
+        return count++;
+    }
+}
@@ -0,0 +1,662 @@
+package org.lexor.jvm;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.*;
+import org.lexor.semantic.symbol.Type;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static org.lexor.jvm.JvmOpcodes.*;
+
+// Translates a verified AST (after SemanticAnalyzer.analyze) into a class file with a single method
+//   public static void run(JvmRuntime runtime)
+// Every DECLAREd variable becomes a typed JVM local (int for INT/BOOL/CHAR, float for FLOAT, String for STRING),
+// loops become goto/if jumps and PRINT calls the PrintStream captured from System.out at entry.
+// Expression visitors return the Type of the value they leave on the operand stack.
+// Throws IllegalStateException for programs the class file format cannot hold; callers then fall back.
+public class JvmCompiler implements ASTVisitor<Type> {
+    static final String CLASS_NAME = "org/lexor/jvm/LexorScript";
+    static final String RUN_DESCRIPTOR = "(L" + JvmRuntime.INTERNAL_NAME + ";)V";
+
+    // Class file version 49 (Java 5) is verified by type inference and needs no StackMapTable
+    private static final int MAJOR_VERSION = 49;
+    private static final int RUNTIME_LOCAL = 0;
+    private static final int OUT_LOCAL = 1;
+    private static final int FIRST_VARIABLE_LOCAL = 2;
+
+    private final ConstantPool pool = new ConstantPool();
+    private byte[] code = new byte[1024];
+    private int size = 0;
+    private int depth = 0, maxDepth = 0;
+    private final Deque<LoopContext> loops = new ArrayDeque<>();
+
+    // Jump sites of BREAK/CONTINUE statements that are patched once the loop's exit/continue target is known
+    private static class LoopContext {
+        final List<Integer> breaks = new ArrayList<>();
+        final List<Integer> continues = new ArrayList<>();
+    }
+
+    public byte[] compile(ProgramNode program) {
+        emitGetStatic("java/lang/System", "out", "Ljava/io/PrintStream;");
+        emitLocal(ASTORE, OUT_LOCAL);
+        pop(1);
+
+        program.accept(this);
+        emit(RETURN);
+
+        if (size > 0xFFFF) {
+            throw new IllegalStateException("The program does not fit in a single JVM method.");
+        }
+        return classFile(FIRST_VARIABLE_LOCAL + program.localCount);
+    }
+
+    // =========================================================================
+    // STATEMENTS
+    // =========================================================================
+
+    @Override
+    public Type visitProgramNode(ProgramNode node) {
+        for (VarDeclNode decl : node.declarations) {
+            decl.accept(this);
+        }
+        for (StatementNode stmt : node.statements) {
+            stmt.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Type visitVarDeclNode(VarDeclNode node) {
+        Type declared = declaredType(node.dataType.type);
+        if (node.initializer != null) {
+            widen(value(node.initializer), declared);
+        } else if (declared == Type.STRING) {
+            emitLdc(pool.string(""));
+        } else if (declared == Type.FLOAT) {
+            emit(FCONST_0);
+            push(1);
+        } else {
+            emitInt(0);
+        }
+        store(declared, node.slot);
+        return null;
+    }
+
+    @Override
+    public Type visitAssignmentNode(AssignmentNode node) {
+        assign(node, false);
+        return null;
+    }
+
+    @Override
+    public Type visitPrintNode(PrintNode node) {
+        for (ExpressionNode expr : node.expressions) {
+            emitLocal(ALOAD, OUT_LOCAL);
+            push(1);
+            Type type = expr.accept(this);
+            String descriptor = switch (type) {
+                case INT -> "(I)V";
+                case CHAR -> "(C)V";
+                default -> {
+                    stringify(type);
+                    yield "(Ljava/lang/String;)V";
+                }
+            };
+            emitInvoke(INVOKEVIRTUAL, "java/io/PrintStream", "print", descriptor, 2, 0);
+        }
+        return null;
+    }
+
+    @Override
+    public Type visitScanNode(ScanNode node) {
+        emitLocal(ALOAD, RUNTIME_LOCAL);
+        push(1);
+        emitInvoke(INVOKEVIRTUAL, JvmRuntime.INTERNAL_NAME, "beginScan", "()V", 1, 0);
+
+        for (int i = 0; i < node.identifiers.size(); i++) {
+            checkGlobal(node.depths[i]);
+            Type type = node.types[i];
+            emitLocal(ALOAD, RUNTIME_LOCAL);
+            push(1);
+            emitInt(i);
+            emitLdc(pool.string(node.identifiers.get(i).lexeme()));
+            switch (type) {
+                case INT -> emitInvoke(INVOKEVIRTUAL, JvmRuntime.INTERNAL_NAME, "scanInt", "(ILjava/lang/String;)I", 3, 1);
+                case FLOAT -> emitInvoke(INVOKEVIRTUAL, JvmRuntime.INTERNAL_NAME, "scanFloat", "(ILjava/lang/String;)F", 3, 1);
+                case BOOL -> emitInvoke(INVOKEVIRTUAL, JvmRuntime.INTERNAL_NAME, "scanBool", "(ILjava/lang/String;)Z", 3, 1);
+                case CHAR -> emitInvoke(INVOKEVIRTUAL, JvmRuntime.INTERNAL_NAME, "scanChar", "(ILjava/lang/String;)C", 3, 1);
+                default -> emitInvoke(INVOKEVIRTUAL, JvmRuntime.INTERNAL_NAME, "scanString",
+                        "(ILjava/lang/String;)Ljava/lang/String;", 3, 1);
+            }
+            store(type, node.slots[i]);
+        }
+
+        emitLocal(ALOAD, RUNTIME_LOCAL);
+        push(1);
+        emitInt(node.identifiers.size());
+        emitInvoke(INVOKEVIRTUAL, JvmRuntime.INTERNAL_NAME, "endScan", "(I)V", 2, 0);
+        return null;
+    }
+
+    @Override
+    public Type visitIfNode(IfNode node) {
+        List<Integer> exits = new ArrayList<>();
+
+        condition(node.condition);
+        int next = emitJump(IFEQ);
+        node.thenBranch.accept(this);
+        exits.add(emitJump(GOTO));
+        patch(next, size);
+
+        for (IfNode.ElseIfPart part : node.elseIfParts) {
+            condition(part.condition);
+            next = emitJump(IFEQ);
+            part.body.accept(this);
+            exits.add(emitJump(GOTO));
+            patch(next, size);
+        }
+
+        if (node.elseBranch != null) {
+            node.elseBranch.accept(this);
+        }
+        patchAll(exits, size);
+        return null;
+    }
+
+    @Override
+    public Type visitRepeatNode(RepeatNode node) {
+        int top = size;
+        condition(node.condition);
+        int exit = emitJump(IFEQ);
+
+        LoopContext loop = new LoopContext();
+        loops.push(loop);
+        node.body.accept(this);
+        loops.pop();
+
+        patch(emitJump(GOTO), top);
+        patch(exit, size);
+        patchAll(loop.breaks, size);
+        patchAll(loop.continues, top);
+        return null;
+    }
+
+    @Override
+    public Type visitForNode(ForNode node) {
+        node.initialization.accept(this);
+        int top = size;
+        condition(node.condition);
+        int exit = emitJump(IFEQ);
+
+        LoopContext loop = new LoopContext();
+        loops.push(loop);
+        node.body.accept(this);
+        loops.pop();
+
+        int update = size;
+        node.update.accept(this);
+        patch(emitJump(GOTO), top);
+        patch(exit, size);
+        patchAll(loop.breaks, size);
+        patchAll(loop.continues, update);
+        return null;
+    }
+
+    @Override
+    public Type visitBreakNode(BreakNode node) {
+        loops.peek().breaks.add(emitJump(GOTO));
+        return null;
+    }
+
+    @Override
+    public Type visitContinueNode(ContinueNode node) {
+        loops.peek().continues.add(emitJump(GOTO));
+        return null;
+    }
+
+    @Override
+    public Type visitBlockNode(BlockNode node) {
+        for (StatementNode stmt : node.statements) {
+            stmt.accept(this);
+        }
+        return null;
+    }
+
+    // =========================================================================
+    // EXPRESSIONS
+    // =========================================================================
+
+    @Override
+    public Type visitLiteralNode(LiteralNode node) {
+        switch (node.value) {
+            case IntValue i -> {
+                emitInt(i.intValue());
+                return Type.INT;
+            }
+            case FloatValue f -> {
+                emitLdc(pool.floating(f.floatValue()));
+                return Type.FLOAT;
+            }
+            case BoolValue b -> {
+                emitInt(b.booleanValue() ? 1 : 0);
+                return Type.BOOL;
+            }
+            case CharValue c -> {
+                emitInt(c.charValue());
+                return Type.CHAR;
+            }
+            default -> {
+                emitLdc(pool.string(node.value.asString()));
+                return Type.STRING;
+            }
+        }
+    }
+
+    @Override
+    public Type visitIdentifierNode(IdentifierNode node) {
+        checkGlobal(node.depth);
+        emitLocal(switch (node.type) {
+            case FLOAT -> FLOAD;
+            case STRING -> ALOAD;
+            default -> ILOAD;
+        }, local(node.slot));
+        push(1);
+        return node.type;
+    }
+
+    @Override
+    public Type visitBinaryExprNode(BinaryExprNode node) {
+        TokenType op = node.operator.type;
+
+        if (op == TokenType.AMPERSAND) {
+            stringify(node.left.accept(this));
+            stringify(node.right.accept(this));
+            emitInvoke(INVOKEVIRTUAL, "java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;", 2, 1);
+            return Type.STRING;
+        }
+
+        Type leftType = staticType(node.left);
+        Type rightType = staticType(node.right);
+        boolean numeric = isNumeric(leftType) && isNumeric(rightType);
+
+        if ((op == TokenType.EQUAL_EQUAL || op == TokenType.NOT_EQUAL) && !numeric) {
+            equality(node, leftType, rightType);
+            return Type.BOOL;
+        }
+
+        // Numeric from here: INT x INT stays integral, anything involving a FLOAT is widened first
+        boolean isFloat = leftType == Type.FLOAT || rightType == Type.FLOAT;
+        widen(node.left.accept(this), isFloat ? Type.FLOAT : Type.INT);
+        widen(node.right.accept(this), isFloat ? Type.FLOAT : Type.INT);
+
+        switch (op) {
+            case PLUS -> arithmetic(isFloat ? FADD : IADD);
+            case MINUS -> arithmetic(isFloat ? FSUB : ISUB);
+            case STAR -> arithmetic(isFloat ? FMUL : IMUL);
+            case SLASH -> emitInvoke(INVOKESTATIC, JvmRuntime.INTERNAL_NAME, "div", isFloat ? "(FF)F" : "(II)I", 2, 1);
+            case MODULO -> {
+                if (isFloat) arithmetic(FREM);
+                else emitInvoke(INVOKESTATIC, JvmRuntime.INTERNAL_NAME, "rem", "(II)I", 2, 1);
+            }
+            default -> {
+                if (isFloat) {
+                    // fcmpg makes NaN compare greater and fcmpl less, so every ordered comparison with NaN is FALSE
+                    switch (op) {
+                        case EQUAL_EQUAL -> floatCompare(FCMPL, IFEQ);
+                        case NOT_EQUAL -> floatCompare(FCMPL, IFNE);
+                        case LESS -> floatCompare(FCMPG, IFLT);
+                        case LESS_EQUAL -> floatCompare(FCMPG, IFLE);
+                        case GREATER -> floatCompare(FCMPL, IFGT);
+                        case GREATER_EQUAL -> floatCompare(FCMPL, IFGE);
+                        default -> throw new IllegalStateException("Unknown binary operator: " + node.operator.lexeme());
+                    }
+                } else {
+                    booleanFromJump(switch (op) {
+                        case EQUAL_EQUAL -> IF_ICMPEQ;
+                        case NOT_EQUAL -> IF_ICMPNE;
+                        case LESS -> IF_ICMPLT;
+                        case LESS_EQUAL -> IF_ICMPLE;
+                        case GREATER -> IF_ICMPGT;
+                        case GREATER_EQUAL -> IF_ICMPGE;
+                        default -> throw new IllegalStateException("Unknown binary operator: " + node.operator.lexeme());
+                    }, 2);
+                }
+                return Type.BOOL;
+            }
+        }
+        return isFloat ? Type.FLOAT : Type.INT;
+    }
+
+    @Override
+    public Type visitLogicalExprNode(LogicalExprNode node) {
+        // Short-circuits: AND yields 0 without the right operand when the left is false, OR yields 1 when it is true
+        condition(node.left);
+        int shortCircuit = emitJump(IFEQ);
+        if (node.operator.type == TokenType.AND) {
+            node.right.accept(this);
+            int end = emitJump(GOTO);
+            pop(1); // the iconst below reaches the join point with the same depth
+            patch(shortCircuit, size);
+            emitInt(0);
+            patch(end, size);
+        } else {
+            emitInt(1);
+            int end = emitJump(GOTO);
+            pop(1);
+            patch(shortCircuit, size);
+            node.right.accept(this);
+            patch(end, size);
+        }
+        return Type.BOOL;
+    }
+
+    @Override
+    public Type visitUnaryExprNode(UnaryExprNode node) {
+        Type type = node.right.accept(this);
+        if (node.operator.type == TokenType.NOT) {
+            emitInt(1);
+            arithmetic(IXOR);
+        } else if (node.operator.type == TokenType.UNARY_MINUS) {
+            emit(type == Type.FLOAT ? FNEG : INEG);
+        }
+        return type;
+    }
+
+    @Override
+    public Type visitGroupingNode(GroupingNode node) {
+        return node.expression.accept(this);
+    }
+
+    @Override
+    public Type visitNewlineNode(NewlineNode node) {
+        emitInt('\n');
+        return Type.CHAR;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    // Compiles the right-hand side of a declaration or assignment, which may itself be a chained assignment
+    private Type value(ASTNode node) {
+        if (node instanceof AssignmentNode assignment) {
+            return assign(assignment, true);
+        }
+        return node.accept(this);
+    }
+
+    private Type assign(AssignmentNode node, boolean keepValue) {
+        widen(value(node.value), node.type);
+        if (keepValue) {
+            emit(DUP);
+            push(1);
+        }
+        checkGlobal(node.depth);
+        store(node.type, node.slot);
+        return node.type;
+    }
+
+    private void store(Type type, int slot) {
+        emitLocal(switch (type) {
+            case FLOAT -> FSTORE;
+            case STRING -> ASTORE;
+            default -> ISTORE;
+        }, local(slot));
+        pop(1);
+    }
+
+    private void condition(ExpressionNode expr) {
+        expr.accept(this);
+        pop(1); // consumed by the IFEQ emitted next
+    }
+
+    // == and <> on BOOL, CHAR and STRING operands; values of different types are never equal
+    private void equality(BinaryExprNode node, Type leftType, Type rightType) {
+        boolean eq = node.operator.type == TokenType.EQUAL_EQUAL;
+        node.left.accept(this);
+        node.right.accept(this);
+        if (leftType != rightType) {
+            emit(POP);
+            emit(POP);
+            pop(2);
+            emitInt(eq ? 0 : 1);
+        } else if (leftType == Type.STRING) {
+            emitInvoke(INVOKEVIRTUAL, "java/lang/Object", "equals", "(Ljava/lang/Object;)Z", 2, 1);
+            if (!eq) {
+                emitInt(1);
+                arithmetic(IXOR);
+            }
+        } else {
+            booleanFromJump(eq ? IF_ICMPEQ : IF_ICMPNE, 2);
+        }
+    }
+
+    // Converts the value on top of the stack from one type to the (wider) target type
+    private void widen(Type from, Type to) {
+        if (from == Type.INT && to == Type.FLOAT) {
+            emit(I2F);
+        } else if (from == Type.CHAR && to == Type.STRING) {
+            stringify(from);
+        }
+    }
+
+    // Replaces the value on top of the stack with its STRING form
+    private void stringify(Type type) {
+        switch (type) {
+            case INT -> emitInvoke(INVOKESTATIC, "java/lang/String", "valueOf", "(I)Ljava/lang/String;", 1, 1);
+            case FLOAT -> emitInvoke(INVOKESTATIC, "org/lexor/runtime/values/FloatValue", "format",
+                    "(F)Ljava/lang/String;", 1, 1);
+            case BOOL -> emitInvoke(INVOKESTATIC, JvmRuntime.INTERNAL_NAME, "text", "(Z)Ljava/lang/String;", 1, 1);
+            case CHAR -> emitInvoke(INVOKESTATIC, "java/lang/String", "valueOf", "(C)Ljava/lang/String;", 1, 1);
+            default -> {
+            }
+        }
+    }
+
+    private void arithmetic(int opcode) {
+        emit(opcode);
+        pop(1);
+    }
+
+    private void floatCompare(int compare, int branch) {
+        emit(compare);
+        pop(1);
+        booleanFromJump(branch, 1);
+    }
+
+    // Turns a conditional branch consuming `operands` ints into a 0/1 BOOL on the stack
+    private void booleanFromJump(int branch, int operands) {
+        int toTrue = emitJump(branch);
+        pop(operands);
+        emitInt(0);
+        int toEnd = emitJump(GOTO);
+        pop(1); // the iconst_1 below reaches the join point with the same depth
+        patch(toTrue, size);
+        emitInt(1);
+        patch(toEnd, size);
+    }
+
+    // The static type of an expression without compiling it; escape literals are CHARs the analyzer leaves untyped
+    private Type staticType(ExpressionNode expr) {
+        if (expr instanceof LiteralNode literal && literal.valueToken.type == TokenType.ESCAPE_LITERAL) {
+            return Type.CHAR;
+        }
+        return expr.type;
+    }
+
+    private static boolean isNumeric(Type type) {
+        return type == Type.INT || type == Type.FLOAT;
+    }
+
+    private static Type declaredType(TokenType tokenType) {
+        return switch (tokenType) {
+            case INT -> Type.INT;
+            case FLOAT -> Type.FLOAT;
+            case CHAR -> Type.CHAR;
+            case BOOL -> Type.BOOL;
+            case STRING -> Type.STRING;
+            default -> throw new IllegalStateException("Unknown data type declaration.");
+        };
+    }
+
+    private static void checkGlobal(int depth) {
+        if (depth != 0) {
+            throw new IllegalStateException("The JVM backend only supports variables declared in the global scope.");
+        }
+    }
+
+    private static int local(int slot) {
+        return FIRST_VARIABLE_LOCAL + slot;
+    }
+
+    private void push(int count) {
+        depth += count;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    private void pop(int count) {
+        depth -= count;
+    }
+
+    // =========================================================================
+    // INSTRUCTION ENCODING
+    // =========================================================================
+
+    private void emit(int value) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, size * 2);
+        }
+        code[size++] = (byte) value;
+    }
+
+    private void emitShort(int value) {
+        emit(value >> 8);
+        emit(value);
+    }
+
+    private void emitInt(int value) {
+        if (value >= -1 && value <= 5) {
+            emit(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            emit(BIPUSH);
+            emit(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            emit(SIPUSH);
+            emitShort(value);
+        } else {
+            emitLdc(pool.integer(value));
+            return;
+        }
+        push(1);
+    }
+
+    private void emitLdc(int index) {
+        if (index <= 0xFF) {
+            emit(LDC);
+            emit(index);
+        } else {
+            emit(LDC_W);
+            emitShort(index);
+        }
+        push(1);
+    }
+
+    private void emitLocal(int opcode, int local) {
+        if (local <= 0xFF) {
+            emit(opcode);
+            emit(local);
+        } else {
+            emit(WIDE);
+            emit(opcode);
+            emitShort(local);
+        }
+    }
+
+    private void emitGetStatic(String owner, String name, String descriptor) {
+        emit(GETSTATIC);
+        emitShort(pool.fieldRef(owner, name, descriptor));
+        push(1);
+    }
+
+    private void emitInvoke(int opcode, String owner, String name, String descriptor, int popped, int pushed) {
+        emit(opcode);
+        emitShort(pool.methodRef(owner, name, descriptor));
+        pop(popped);
+        push(pushed);
+    }
+
+    // Emits a branch with a placeholder offset and returns the position of the instruction to patch
+    private int emitJump(int opcode) {
+        int site = size;
+        emit(opcode);
+        emitShort(0);
+        return site;
+    }
+
+    private void patch(int site, int target) {
+        int offset = target - site;
+        if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+            throw new IllegalStateException("Jump too far for a 16-bit branch offset.");
+        }
+        code[site + 1] = (byte) (offset >> 8);
+        code[site + 2] = (byte) offset;
+    }
+
+    private void patchAll(List<Integer> sites, int target) {
+        for (int site : sites) {
+            patch(site, target);
+        }
+    }
+
+    // =========================================================================
+    // CLASS FILE
+    // =========================================================================
+
+    private byte[] classFile(int maxLocals) {
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int runName = pool.utf8("run");
+        int runDescriptor = pool.utf8(RUN_DESCRIPTOR);
+        int codeName = pool.utf8("Code");
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(size + 512);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            pool.writeTo(out);
+            out.writeShort(0x0031);            // ACC_PUBLIC | ACC_FINAL | ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);                 // interfaces
+            out.writeShort(0);                 // fields
+            out.writeShort(1);                 // methods
+            out.writeShort(0x0009);            // ACC_PUBLIC | ACC_STATIC
+            out.writeShort(runName);
+            out.writeShort(runDescriptor);
+            out.writeShort(1);                 // method attributes
+            out.writeShort(codeName);
+            out.writeInt(12 + size);
+            out.writeShort(maxDepth);
+            out.writeShort(maxLocals);
+            out.writeInt(size);
+            out.write(code, 0, size);
+            out.writeShort(0);                 // exception table
+            out.writeShort(0);                 // code attributes
+            out.writeShort(0);                 // class attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.lexor.jvm;
+
+// The subset of JVM instructions emitted by the JvmCompiler (JVMS chapter 6)
+final class JvmOpcodes {
+    static final int ICONST_M1 = 0x02;
+    static final int ICONST_0 = 0x03;
+    static final int FCONST_0 = 0x0b;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC = 0x12;
+    static final int LDC_W = 0x13;
+    static final int ILOAD = 0x15;
+    static final int FLOAD = 0x17;
+    static final int ALOAD = 0x19;
+    static final int ISTORE = 0x36;
+    static final int FSTORE = 0x38;
+    static final int ASTORE = 0x3a;
+    static final int POP = 0x57;
+    static final int DUP = 0x59;
+    static final int IADD = 0x60;
+    static final int FADD = 0x62;
+    static final int ISUB = 0x64;
+    static final int FSUB = 0x66;
+    static final int IMUL = 0x68;
+    static final int FMUL = 0x6a;
+    static final int FREM = 0x72;
+    static final int INEG = 0x74;
+    static final int FNEG = 0x76;
+    static final int IAND = 0x7e;
+    static final int IOR = 0x80;
+    static final int IXOR = 0x82;
+    static final int I2F = 0x86;
+    static final int FCMPL = 0x95;
+    static final int FCMPG = 0x96;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9a;
+    static final int IFLT = 0x9b;
+    static final int IFGE = 0x9c;
+    static final int IFGT = 0x9d;
+    static final int IFLE = 0x9e;
+    static final int IF_ICMPEQ = 0x9f;
+    static final int IF_ICMPNE = 0xa0;
+    static final int IF_ICMPLT = 0xa1;
+    static final int IF_ICMPGE = 0xa2;
+    static final int IF_ICMPGT = 0xa3;
+    static final int IF_ICMPLE = 0xa4;
+    static final int GOTO = 0xa7;
+    static final int RETURN = 0xb1;
+    static final int GETSTATIC = 0xb2;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESTATIC = 0xb8;
+    static final int WIDE = 0xc4;
+
+    private JvmOpcodes() {
+    }
+}
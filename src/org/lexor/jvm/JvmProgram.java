@@ -0,0 +1,46 @@
+package org.lexor.jvm;
+
+import org.lexor.ast.nodes.ProgramNode;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// A LEXOR program compiled to a hidden class in this package. The class is unreachable by name and is
+// unloaded together with its JvmProgram, while HotSpot profiles and JIT-compiles its run method as usual.
+public final class JvmProgram {
+    private final MethodHandle run;
+    private final int classSize;
+
+    private JvmProgram(MethodHandle run, int classSize) {
+        this.run = run;
+        this.classSize = classSize;
+    }
+
+    // Compiles and loads the program, or throws IllegalStateException when it is outside what the backend handles
+    public static JvmProgram compile(ProgramNode program) {
+        byte[] bytes = new JvmCompiler().compile(program);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle run = lookup.findStatic(lookup.lookupClass(), "run",
+                    MethodType.methodType(void.class, JvmRuntime.class));
+            return new JvmProgram(run, bytes.length);
+        } catch (LinkageError | ReflectiveOperationException e) {
+            throw new IllegalStateException("The generated class was rejected: " + e, e);
+        }
+    }
+
+    public void run() {
+        try {
+            run.invokeExact(new JvmRuntime());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public int classSize() {
+        return classSize;
+    }
+}
@@ -0,0 +1,70 @@
+package org.lexor.jvm;
+
+import org.lexor.error.RuntimeError;
+import org.lexor.runtime.InputReader;
+
+// Support called from generated code: the checks that must raise LEXOR's RuntimeError rather than a JVM
+// exception, and SCAN. One instance is passed to each run of a generated class.
+final class JvmRuntime {
+    static final String INTERNAL_NAME = "org/lexor/jvm/JvmRuntime";
+
+    private InputReader input;
+
+    // =========================================================================
+    // ARITHMETIC
+    // =========================================================================
+
+    static int div(int l, int r) {
+        if (r == 0) throw new RuntimeError("Division by zero.");
+        return l / r;
+    }
+
+    static int rem(int l, int r) {
+        if (r == 0) throw new RuntimeError("Division by zero.");
+        return l % r;
+    }
+
+    static float div(float l, float r) {
+        if (r == 0) throw new RuntimeError("Division by zero.");
+        return l / r;
+    }
+
+    static String text(boolean value) {
+        return value ? "TRUE" : "FALSE";
+    }
+
+    // =========================================================================
+    // SCAN: beginScan, one scanX per target in order, then endScan
+    // =========================================================================
+
+    void beginScan() {
+        if (input == null) {
+            input = InputReader.stdin();
+        }
+        input.readLine();
+    }
+
+    int scanInt(int index, String name) {
+        return input.parseInt(index, name);
+    }
+
+    float scanFloat(int index, String name) {
+        return input.parseFloat(index, name);
+    }
+
+    boolean scanBool(int index, String name) {
+        return input.parseBool(index, name);
+    }
+
+    char scanChar(int index, String name) {
+        return input.parseChar(index, name);
+    }
+
+    String scanString(int index, String name) {
+        return input.parseString(index, name);
+    }
+
+    void endScan(int count) {
+        input.checkCount(count);
+    }
+}
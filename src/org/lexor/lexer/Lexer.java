@@ -1,62 +1,90 @@
 package org.lexor.lexer;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+// Scans the source into tokens over a char[] copy of it. Whitespace and %% comments are skipped in one tight
+// loop between tokens, keywords are recognized with a perfect hash instead of a map lookup, and tokens only
+// record offsets into the source (see Token).
 public class Lexer {
     private final String source;
-    private final List<Token> tokens = new ArrayList<>();
+    private final char[] chars;
+    private final List<Token> tokens;
     private int start = 0;
     private int current = 0;
     private int line = 1;
 
-    // Keyword Table: maps reserved words to their token types
-    private static final Map<String, TokenType> keywords;
+    // Keyword Table: every reserved word is spelled like its token type
+    private static final TokenType[] KEYWORDS = {
+            TokenType.SCRIPT, TokenType.AREA, TokenType.START, TokenType.END, TokenType.DECLARE,
+
+            // Data Types
+            TokenType.INT, TokenType.FLOAT, TokenType.CHAR, TokenType.BOOL, TokenType.STRING,
+
+            // Other statement keywords
+            TokenType.PRINT, TokenType.SCAN, TokenType.IF, TokenType.ELSE, TokenType.REPEAT, TokenType.WHEN,
+            TokenType.FOR, TokenType.BREAK, TokenType.CONTINUE, TokenType.AND, TokenType.OR, TokenType.NOT,
+    };
+
+    // keywordSlot() is collision-free over KEYWORDS, so one probe and one comparison classify a word
+    private static final int KEYWORD_TABLE_SIZE = 64;
+    private static final String[] KEYWORD_TEXT = new String[KEYWORD_TABLE_SIZE];
+    private static final TokenType[] KEYWORD_TYPE = new TokenType[KEYWORD_TABLE_SIZE];
     static {
-        keywords = new HashMap<>();
-        keywords.put("SCRIPT", TokenType.SCRIPT);
-        keywords.put("AREA", TokenType.AREA);
-        keywords.put("START", TokenType.START);
-        keywords.put("END", TokenType.END);
-        keywords.put("DECLARE", TokenType.DECLARE);
-
-        // Data Types
-        keywords.put("INT", TokenType.INT);
-        keywords.put("FLOAT", TokenType.FLOAT);
-        keywords.put("CHAR", TokenType.CHAR);
-        keywords.put("BOOL", TokenType.BOOL);
-        keywords.put("STRING", TokenType.STRING);
-
-        // Other statement keywords
-        keywords.put("PRINT", TokenType.PRINT);
-        keywords.put("SCAN", TokenType.SCAN);
-        keywords.put("IF", TokenType.IF);
-        keywords.put("ELSE", TokenType.ELSE);
-        keywords.put("REPEAT", TokenType.REPEAT);
-        keywords.put("WHEN", TokenType.WHEN);
-        keywords.put("FOR", TokenType.FOR);
-        keywords.put("BREAK", TokenType.BREAK);
-        keywords.put("CONTINUE", TokenType.CONTINUE);
-        keywords.put("AND", TokenType.AND);
-        keywords.put("OR", TokenType.OR);
-        keywords.put("NOT", TokenType.NOT);
+        for (TokenType type : KEYWORDS) {
+            String text = type.name();
+            int slot = keywordSlot(text.charAt(0), text.charAt(text.length() - 1), text.length());
+            if (KEYWORD_TEXT[slot] != null) {
+                throw new IllegalStateException("Keyword hash collision: " + text + " and " + KEYWORD_TEXT[slot]);
+            }
+            KEYWORD_TEXT[slot] = text;
+            KEYWORD_TYPE[slot] = type;
+        }
     }
 
     public Lexer(String source) {
         this.source = source;
+        this.chars = source.toCharArray();
+        // Roughly one token per six characters of typical LEXOR source
+        this.tokens = new ArrayList<>(chars.length / 6 + 16);
     }
 
     public List<Token> scanTokens() {
-        while (!isAtEnd()) {
-            start = current; 
+        while (true) {
+            skipWhitespace();
+            if (isAtEnd()) break;
+            start = current;
             scanToken();
         }
         tokens.add(new Token(TokenType.EOF, "", line));
         return tokens;
     }
 
+    // Skips a run of whitespace and %% comments, counting the newlines it passes
+    private void skipWhitespace() {
+        final char[] chars = this.chars;
+        final int length = chars.length;
+        int pos = current;
+        int lines = line;
+        while (pos < length) {
+            char c = chars[pos];
+            if (c == ' ' || c == '\t' || c == '\r') {
+                pos++;
+            } else if (c == '\n') {
+                lines++; // Track line numbers for errors
+                pos++;
+            } else if (c == '%' && pos + 1 < length && chars[pos + 1] == '%') {
+                // It's a comment '%%', ignore everything until the end of the line
+                pos += 2;
+                while (pos < length && chars[pos] != '\n') pos++;
+            } else {
+                break;
+            }
+        }
+        current = pos;
+        line = lines;
+    }
+
     private void scanToken() {
         char c = advance();
         switch (c) {
@@ -80,29 +108,12 @@ public class Lexer {
                 addToken(match('=') ? TokenType.GREATER_EQUAL : TokenType.GREATER);
                 break;
 
-            case '%':
-                if (match('%')) {
-                    // It's a comment '%%', ignore everything until the end of the line
-                    while (peek() != '\n' && !isAtEnd()) advance();
-                } else {
-                    addToken(TokenType.MODULO);
-                }
-                break;
+            case '%': addToken(TokenType.MODULO); break; // '%%' comments are consumed by skipWhitespace
 
             case '[': escape(); break;
             case '"': case '“': case '”': string(c); break;
             case '\'': case '‘': case '’': character(c); break;
 
-            // Ignore whitespace
-            case ' ':
-            case '\r':
-            case '\t':
-                break;
-
-            case '\n':
-                line++; // Track line numbers for errors
-                break;
-
             default:
                 if (isDigit(c)) {
                     number();
@@ -135,8 +146,9 @@ public class Lexer {
         if (isAtEnd()) throw new org.lexor.error.LexicalError(line, "Unterminated string.");
         advance();
 
-        String value = source.substring(start + 1, current - 1);
-        if (value.equalsIgnoreCase("TRUE") || value.equalsIgnoreCase("FALSE")) {
+        int length = current - 1 - (start + 1);
+        if ((length == 4 && source.regionMatches(true, start + 1, "TRUE", 0, 4))
+                || (length == 5 && source.regionMatches(true, start + 1, "FALSE", 0, 5))) {
             addToken(TokenType.BOOL_LITERAL);
         } else {
             addToken(TokenType.STRING_LITERAL);
@@ -154,11 +166,32 @@ public class Lexer {
 
     private void identifier() {
         // Spec: letters, underscores, or digits
-        while (isAlphaNumeric(peek())) advance();
+        final char[] chars = this.chars;
+        int pos = current;
+        while (pos < chars.length && isAlphaNumeric(chars[pos])) pos++;
+        current = pos;
+
+        addToken(keyword(start, current));
+    }
+
+    // The keyword spelled by chars[from, to), or IDENTIFIER
+    private TokenType keyword(int from, int to) {
+        char first = chars[from];
+        int length = to - from;
+        // Every keyword is upper case, which turns away most identifiers before hashing
+        if (first < 'A' || first > 'Z' || length > 8) return TokenType.IDENTIFIER;
+
+        int slot = keywordSlot(first, chars[to - 1], length);
+        String text = KEYWORD_TEXT[slot];
+        if (text == null || text.length() != length) return TokenType.IDENTIFIER;
+        for (int i = 1; i < length; i++) {
+            if (text.charAt(i) != chars[from + i]) return TokenType.IDENTIFIER;
+        }
+        return KEYWORD_TYPE[slot];
+    }
 
-        String text = source.substring(start, current);
-        TokenType type = keywords.getOrDefault(text, TokenType.IDENTIFIER);
-        addToken(type);
+    private static int keywordSlot(char first, char last, int length) {
+        return (first * 5 + last * 48 + length) & (KEYWORD_TABLE_SIZE - 1);
     }
 
     private void number() {
@@ -178,45 +211,44 @@ public class Lexer {
     // --- Helper Methods ---
 
     private boolean isAtEnd() {
-        return current >= source.length();
+        return current >= chars.length;
     }
 
     private char advance() {
-        return source.charAt(current++);
+        return chars[current++];
     }
 
     private boolean match(char expected) {
-        if (isAtEnd() || source.charAt(current) != expected) return false;
+        if (isAtEnd() || chars[current] != expected) return false;
         current++;
         return true;
     }
 
     private char peek() {
         if (isAtEnd()) return '\0';
-        return source.charAt(current);
+        return chars[current];
     }
 
     private char peekNext() {
-        if (current + 1 >= source.length()) return '\0';
-        return source.charAt(current + 1);
+        if (current + 1 >= chars.length) return '\0';
+        return chars[current + 1];
     }
 
-    private boolean isAlpha(char c) {
+    private static boolean isAlpha(char c) {
         return (c >= 'a' && c <= 'z') ||
                 (c >= 'A' && c <= 'Z') ||
                 c == '_';
     }
 
-    private boolean isDigit(char c) {
+    private static boolean isDigit(char c) {
         return c >= '0' && c <= '9';
     }
 
-    private boolean isAlphaNumeric(char c) {
+    private static boolean isAlphaNumeric(char c) {
         return isAlpha(c) || isDigit(c);
     }
 
     private void addToken(TokenType type) {
-        String text = source.substring(start, current);
-        tokens.add(new Token(type, text, line));
+        tokens.add(new Token(type, source, start, current, line));
     }
 }
\ No newline at end of file
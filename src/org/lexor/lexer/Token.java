@@ -1,18 +1,45 @@
 package org.lexor.lexer;
 
+// A token refers to its characters in the source by offset; the lexeme String is only created (and then
+// cached) the first time lexeme() is called, so keywords and punctuation never allocate one.
 public class Token {
     public final TokenType type;
-    public final String lexeme;
     public final int line;
+    private final String source;
+    private final int start;
+    private final int end;
+    private String lexeme;
 
     public Token(TokenType type, String lexeme, int line) {
-        this.type = type;
+        this(type, lexeme, 0, lexeme.length(), line);
         this.lexeme = lexeme;
+    }
+
+    // A token spanning source[start, end)
+    public Token(TokenType type, String source, int start, int end, int line) {
+        this.type = type;
+        this.source = source;
+        this.start = start;
+        this.end = end;
         this.line = line;
     }
 
+    // The same characters read as another token type, e.g. a '-' the parser finds to be unary
+    public Token withType(TokenType type) {
+        Token token = new Token(type, source, start, end, line);
+        token.lexeme = lexeme;
+        return token;
+    }
+
+    public String lexeme() {
+        if (lexeme == null) {
+            lexeme = source.substring(start, end);
+        }
+        return lexeme;
+    }
+
     @Override
     public String toString() {
-        return String.format("[%s] '%s' (Line %d)", type, lexeme, line);
+        return String.format("[%s] '%s' (Line %d)", type, lexeme(), line);
     }
-}
\ No newline at end of file
+}
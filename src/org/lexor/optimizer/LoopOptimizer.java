@@ -0,0 +1,486 @@
+package org.lexor.optimizer;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTPrinter;
+import org.lexor.lexer.Token;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.IntValue;
+import org.lexor.semantic.symbol.Type;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+// Loop pass run by the Optimizer after folding. For every FOR and REPEAT loop, innermost first:
+// - Strength reduction: an INT induction variable i, whose only assignment in the loop is i = i +/- c
+//   (the FOR update, or a statement directly in the REPEAT body), turns an i * k with an invariant k that the
+//   loop uses at least twice into a temporary that starts as i * k and is stepped by c * k right after i is.
+//   INT arithmetic wraps, so the temporary equals i * k on every iteration, overflow included.
+// - Loop-invariant code motion: maximal subexpressions whose variables are not assigned anywhere in the
+//   loop (SCAN targets included) are computed once into a temporary before the loop (after the FOR's
+//   initialization). Only expressions that cannot fail are hoisted, since a loop may run zero times or
+//   leave through BREAK before reaching them: '/' needs a non-zero literal divisor and INT '%' is never hoisted.
+//   Every variable read by a hoisted expression must also be definitely assigned where it is moved to.
+// Temporaries are extra global slots past the declared ones; ProgramNode.localCount grows to hold them.
+// This pass runs on every optimized program, so it dispatches with instanceof chains rather than pattern
+// switches: the first pattern switch executed bootstraps java.lang.runtime.SwitchBootstraps, which costs a
+// one-shot run tens of milliseconds before the script prints anything.
+public class LoopOptimizer {
+    private final ASTPrinter printer = new ASTPrinter();
+    private int nextSlot;
+    private int nextTemp;
+
+    // Slots that hold a value at the current point on every path, so hoisted reads never see an unset variable
+    private Set<Integer> assigned = new HashSet<>();
+
+    public ProgramNode optimize(ProgramNode program) {
+        nextSlot = program.localCount;
+        for (VarDeclNode decl : program.declarations) {
+            if (decl.initializer != null) assigned.add(decl.slot);
+        }
+        ProgramNode optimized = new ProgramNode(program.declarations, statements(program.statements));
+        optimized.localCount = nextSlot;
+        return optimized;
+    }
+
+    // =========================================================================
+    // STATEMENTS
+    // =========================================================================
+
+    private List<StatementNode> statements(List<StatementNode> nodes) {
+        List<StatementNode> optimized = new ArrayList<>(nodes.size());
+        for (StatementNode stmt : nodes) {
+            optimized.add(statement(stmt));
+        }
+        return optimized;
+    }
+
+    private StatementNode statement(StatementNode node) {
+        if (node instanceof AssignmentNode assignment) {
+            markAssigned(assignment);
+            return assignment;
+        }
+        if (node instanceof ScanNode scan) {
+            for (int slot : scan.slots) assigned.add(slot);
+            return scan;
+        }
+        if (node instanceof BlockNode block) return block(block, statements(block.statements));
+        if (node instanceof IfNode ifNode) {
+            // Assignments inside a branch are not definite after the IF
+            Set<Integer> before = assigned;
+            assigned = new HashSet<>(before);
+            StatementNode thenBranch = statement(ifNode.thenBranch);
+            List<IfNode.ElseIfPart> parts = new ArrayList<>();
+            for (IfNode.ElseIfPart part : ifNode.elseIfParts) {
+                assigned = new HashSet<>(before);
+                parts.add(new IfNode.ElseIfPart(part.condition, (BlockNode) statement(part.body)));
+            }
+            assigned = new HashSet<>(before);
+            StatementNode elseBranch = ifNode.elseBranch != null ? statement(ifNode.elseBranch) : null;
+            assigned = before;
+            return new IfNode(ifNode.condition, thenBranch, parts, elseBranch);
+        }
+        if (node instanceof RepeatNode repeat) return repeat(repeat);
+        if (node instanceof ForNode forNode) return forLoop(forNode);
+        return node;
+    }
+
+    private StatementNode repeat(RepeatNode node) {
+        BlockNode body = loopBody(node.body);
+        Loop loop = new Loop(node.condition, body.statements, null);
+        loop.optimize();
+        if (loop.entry.isEmpty()) {
+            return new RepeatNode(loop.condition, block(body, loop.body));
+        }
+        List<StatementNode> statements = new ArrayList<>(loop.entry);
+        statements.add(new RepeatNode(loop.condition, block(body, loop.body)));
+        return new BlockNode(statements);
+    }
+
+    private StatementNode forLoop(ForNode node) {
+        // The initialization always runs, so what it assigns is definite from here on
+        StatementNode initialization = statement(node.initialization);
+        BlockNode body = loopBody(node.body);
+        Loop loop = new Loop(node.condition, body.statements, node.update);
+        loop.optimize();
+
+        if (!loop.entry.isEmpty()) {
+            List<StatementNode> statements = new ArrayList<>();
+            statements.add(initialization);
+            statements.addAll(loop.entry);
+            initialization = new BlockNode(statements);
+        }
+        StatementNode update = loop.update;
+        if (!loop.steps.isEmpty()) {
+            List<StatementNode> statements = new ArrayList<>();
+            statements.add(update);
+            statements.addAll(loop.steps);
+            update = new BlockNode(statements);
+        }
+        return new ForNode(initialization, loop.condition, update, block(body, loop.body));
+    }
+
+    // Optimizes nested loops first; nothing the body assigns is definite after the loop, which may not run
+    private BlockNode loopBody(BlockNode body) {
+        Set<Integer> before = assigned;
+        assigned = new HashSet<>(before);
+        BlockNode optimized = block(body, statements(body.statements));
+        assigned = before;
+        return optimized;
+    }
+
+    // =========================================================================
+    // LOOP TRANSFORMATION
+    // =========================================================================
+
+    // One loop being transformed: its parts, and the statements to run on entry and after the induction step
+    private final class Loop {
+        ExpressionNode condition;
+        List<StatementNode> body;
+        StatementNode update;
+        final List<StatementNode> entry = new ArrayList<>();
+        final List<StatementNode> steps = new ArrayList<>();
+
+        // Slots written anywhere in the loop; none of them is invariant
+        final Set<Integer> written = new HashSet<>();
+
+        Loop(ExpressionNode condition, List<StatementNode> body, StatementNode update) {
+            this.condition = condition;
+            this.body = body;
+            this.update = update;
+        }
+
+        void optimize() {
+            List<AssignmentNode> writes = new ArrayList<>();
+            Map<Integer, Integer> writeCounts = new HashMap<>();
+            for (StatementNode stmt : body) collectWrites(stmt, writes, writeCounts);
+            if (update != null) collectWrites(update, writes, writeCounts);
+            written.addAll(writeCounts.keySet());
+
+            reduceStrength(writes, writeCounts);
+            hoistInvariants();
+        }
+
+        // An induction variable is written only by its own step: a second assignment or a SCAN into it anywhere
+        // in the loop would leave its temporaries stale
+        private void reduceStrength(List<AssignmentNode> writes, Map<Integer, Integer> writeCounts) {
+            Map<Integer, AssignmentNode> inductions = new HashMap<>();
+            for (AssignmentNode write : writes) {
+                boolean onItsOwn = update != null ? write == update : body.contains(write);
+                if (onItsOwn && writeCounts.get(write.slot) == 1 && assigned.contains(write.slot)
+                        && stepOf(write) != null) {
+                    inductions.put(write.slot, write);
+                }
+            }
+            if (inductions.isEmpty()) return;
+
+            // A temporary costs an extra assignment per iteration, so only products used at least twice pay off
+            Map<String, Integer> uses = new HashMap<>();
+            UnaryOperator<ExpressionNode> count = expr -> {
+                Product product = product(expr, inductions);
+                if (product != null) uses.merge(product.key, 1, Integer::sum);
+                return null;
+            };
+            rewrite(condition, count);
+            for (StatementNode stmt : body) rewrite(stmt, count);
+
+            // (induction slot, multiplier) -> temporary holding their product
+            Map<String, IdentifierNode> products = new HashMap<>();
+            Map<Integer, List<StatementNode>> stepsByInduction = new HashMap<>();
+            UnaryOperator<ExpressionNode> reduce = expr -> {
+                Product product = product(expr, inductions);
+                if (product == null || uses.get(product.key) < 2) return null;
+
+                IdentifierNode temp = products.get(product.key);
+                if (temp == null) {
+                    temp = newTemp(Type.INT);
+                    products.put(product.key, temp);
+                    written.add(temp.slot);
+                    entry.add(assignment(temp, expr));
+                    Token plus = new Token(TokenType.PLUS, "+", product.variable.name.line);
+                    stepsByInduction.computeIfAbsent(product.variable.slot, slot -> new ArrayList<>())
+                            .add(assignment(temp, binary(read(temp), plus, product.step, Type.INT)));
+                }
+                return read(temp);
+            };
+
+            condition = rewrite(condition, reduce);
+            List<StatementNode> rewritten = new ArrayList<>();
+            for (StatementNode stmt : body) rewritten.add(rewrite(stmt, reduce));
+
+            List<StatementNode> reduced = new ArrayList<>();
+            for (int i = 0; i < body.size(); i++) {
+                reduced.add(rewritten.get(i));
+                // A REPEAT body steps the temporaries right after the induction statement itself
+                if (update == null && body.get(i) instanceof AssignmentNode write && inductions.get(write.slot) == write) {
+                    reduced.addAll(stepsByInduction.getOrDefault(write.slot, List.of()));
+                }
+            }
+            body = reduced;
+            if (update != null) {
+                for (List<StatementNode> stepList : stepsByInduction.values()) steps.addAll(stepList);
+            }
+        }
+
+        private void hoistInvariants() {
+            Map<String, IdentifierNode> hoisted = new LinkedHashMap<>();
+            UnaryOperator<ExpressionNode> hoist = expr -> {
+                if (!(expr instanceof BinaryExprNode || expr instanceof LogicalExprNode || expr instanceof UnaryExprNode)
+                        || expr.type == Type.UNKNOWN || !isInvariant(expr) || !cannotFail(expr)) {
+                    return null;
+                }
+                String key = printer.print(expr);
+                IdentifierNode temp = hoisted.get(key);
+                if (temp == null) {
+                    temp = newTemp(expr.type);
+                    hoisted.put(key, temp);
+                    entry.add(assignment(temp, expr));
+                }
+                return read(temp);
+            };
+
+            condition = rewrite(condition, hoist);
+            List<StatementNode> rewritten = new ArrayList<>();
+            for (StatementNode stmt : body) rewritten.add(rewrite(stmt, hoist));
+            body = rewritten;
+            if (update != null) update = rewrite(update, hoist);
+        }
+
+        // i * k or k * i for an induction variable i and an invariant INT literal or variable k, or null
+        private Product product(ExpressionNode expr, Map<Integer, AssignmentNode> inductions) {
+            if (!(expr instanceof BinaryExprNode product) || product.operator.type != TokenType.STAR
+                    || product.type != Type.INT) {
+                return null;
+            }
+            IdentifierNode variable;
+            ExpressionNode multiplier;
+            if (product.left instanceof IdentifierNode id && inductions.containsKey(id.slot)) {
+                variable = id;
+                multiplier = product.right;
+            } else if (product.right instanceof IdentifierNode id && inductions.containsKey(id.slot)) {
+                variable = id;
+                multiplier = product.left;
+            } else {
+                return null;
+            }
+            if (multiplier.type != Type.INT || !isInvariant(multiplier)
+                    || !(multiplier instanceof LiteralNode || multiplier instanceof IdentifierNode)) {
+                return null;
+            }
+            ExpressionNode step = scaledStep(stepOf(inductions.get(variable.slot)), multiplier);
+            if (step == null) return null;
+            return new Product(variable, step, variable.slot + " " + printer.print(multiplier));
+        }
+
+        // Reads only variables the loop never writes and that already hold a value on entry
+        private boolean isInvariant(ExpressionNode expr) {
+            if (expr instanceof IdentifierNode id) return !written.contains(id.slot) && assigned.contains(id.slot);
+            if (expr instanceof BinaryExprNode binary) return isInvariant(binary.left) && isInvariant(binary.right);
+            if (expr instanceof LogicalExprNode logical) return isInvariant(logical.left) && isInvariant(logical.right);
+            if (expr instanceof UnaryExprNode unary) return isInvariant(unary.right);
+            if (expr instanceof GroupingNode grouping) return isInvariant(grouping.expression);
+            return expr instanceof LiteralNode || expr instanceof NewlineNode;
+        }
+    }
+
+    // An induction variable times an invariant, with the change of the product per induction step
+    private record Product(IdentifierNode variable, ExpressionNode step, String key) {
+    }
+
+    // c in i = i + c, i = c + i or -c in i = i - c, for an INT variable and INT literal c; otherwise null
+    private static Integer stepOf(AssignmentNode write) {
+        if (write.type != Type.INT || !(write.value instanceof BinaryExprNode sum)) return null;
+        boolean plus = sum.operator.type == TokenType.PLUS;
+        if (!plus && sum.operator.type != TokenType.MINUS) return null;
+        if (isVariable(sum.left, write.slot) && sum.right instanceof LiteralNode c && c.value instanceof IntValue v) {
+            return plus ? v.intValue() : -v.intValue();
+        }
+        if (plus && isVariable(sum.right, write.slot) && sum.left instanceof LiteralNode c && c.value instanceof IntValue v) {
+            return v.intValue();
+        }
+        return null;
+    }
+
+    // The per-step change of i * k: the folded literal c * k, or k / -k itself when c is 1 / -1
+    private ExpressionNode scaledStep(int step, ExpressionNode multiplier) {
+        if (multiplier instanceof LiteralNode literal && literal.value instanceof IntValue k) {
+            return intLiteral(step * k.intValue());
+        }
+        if (step == 1) return multiplier;
+        if (step == -1) {
+            UnaryExprNode negated = new UnaryExprNode(new Token(TokenType.UNARY_MINUS, "-", 0), multiplier);
+            negated.type = Type.INT;
+            return negated;
+        }
+        return null;
+    }
+
+    // Expressions whose evaluation never raises a RuntimeError, whatever their operands hold
+    private static boolean cannotFail(ExpressionNode expr) {
+        if (expr instanceof BinaryExprNode binary) {
+            boolean operandsSafe = cannotFail(binary.left) && cannotFail(binary.right);
+            return switch (binary.operator.type) {
+                case SLASH -> operandsSafe && isNonZeroLiteral(binary.right);
+                case MODULO -> operandsSafe && (binary.type == Type.FLOAT || isNonZeroLiteral(binary.right));
+                default -> operandsSafe;
+            };
+        }
+        if (expr instanceof LogicalExprNode logical) return cannotFail(logical.left) && cannotFail(logical.right);
+        if (expr instanceof UnaryExprNode unary) return cannotFail(unary.right);
+        if (expr instanceof GroupingNode grouping) return cannotFail(grouping.expression);
+        return true;
+    }
+
+    private static boolean isNonZeroLiteral(ExpressionNode expr) {
+        if (!(expr instanceof LiteralNode literal)) return false;
+        if (literal.value instanceof IntValue i) return i.intValue() != 0;
+        if (literal.value instanceof org.lexor.runtime.values.FloatValue f) return f.floatValue() != 0;
+        return false;
+    }
+
+    private static boolean isVariable(ExpressionNode expr, int slot) {
+        return expr instanceof IdentifierNode id && id.slot == slot;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    // Adds the targets of an assignment (and of any assignment chained in its value)
+    private void markAssigned(AssignmentNode node) {
+        assigned.add(node.slot);
+        if (node.value instanceof AssignmentNode chained) markAssigned(chained);
+    }
+
+    // Every assignment in a statement, chained ones included, and how often each slot is written by them or by SCAN
+    private static void collectWrites(StatementNode node, List<AssignmentNode> writes, Map<Integer, Integer> counts) {
+        if (node instanceof AssignmentNode assignment) {
+            writes.add(assignment);
+            counts.merge(assignment.slot, 1, Integer::sum);
+            if (assignment.value instanceof AssignmentNode chained) collectWrites(chained, writes, counts);
+        } else if (node instanceof ScanNode scan) {
+            for (int slot : scan.slots) counts.merge(slot, 1, Integer::sum);
+        } else if (node instanceof BlockNode block) {
+            for (StatementNode stmt : block.statements) collectWrites(stmt, writes, counts);
+        } else if (node instanceof IfNode ifNode) {
+            collectWrites(ifNode.thenBranch, writes, counts);
+            for (IfNode.ElseIfPart part : ifNode.elseIfParts) collectWrites(part.body, writes, counts);
+            if (ifNode.elseBranch != null) collectWrites(ifNode.elseBranch, writes, counts);
+        } else if (node instanceof RepeatNode repeat) {
+            collectWrites(repeat.body, writes, counts);
+        } else if (node instanceof ForNode forNode) {
+            collectWrites(forNode.initialization, writes, counts);
+            collectWrites(forNode.update, writes, counts);
+            collectWrites(forNode.body, writes, counts);
+        }
+    }
+
+    // Rebuilds a statement with every expression in it passed through rewrite(expr, replace)
+    private StatementNode rewrite(StatementNode node, UnaryOperator<ExpressionNode> replace) {
+        if (node instanceof AssignmentNode assignment) {
+            ASTNode value = assignment.value instanceof AssignmentNode chained
+                    ? rewrite(chained, replace) : rewrite((ExpressionNode) assignment.value, replace);
+            AssignmentNode rebuilt = new AssignmentNode(assignment.identifier, value);
+            rebuilt.depth = assignment.depth;
+            rebuilt.slot = assignment.slot;
+            rebuilt.type = assignment.type;
+            return rebuilt;
+        }
+        if (node instanceof PrintNode print) {
+            List<ExpressionNode> expressions = new ArrayList<>();
+            for (ExpressionNode expr : print.expressions) expressions.add(rewrite(expr, replace));
+            return new PrintNode(expressions);
+        }
+        if (node instanceof BlockNode block) {
+            List<StatementNode> statements = new ArrayList<>();
+            for (StatementNode stmt : block.statements) statements.add(rewrite(stmt, replace));
+            return block(block, statements);
+        }
+        if (node instanceof IfNode ifNode) {
+            List<IfNode.ElseIfPart> parts = new ArrayList<>();
+            for (IfNode.ElseIfPart part : ifNode.elseIfParts) {
+                parts.add(new IfNode.ElseIfPart(rewrite(part.condition, replace),
+                        (BlockNode) rewrite(part.body, replace)));
+            }
+            return new IfNode(rewrite(ifNode.condition, replace), rewrite(ifNode.thenBranch, replace), parts,
+                    ifNode.elseBranch != null ? rewrite(ifNode.elseBranch, replace) : null);
+        }
+        if (node instanceof RepeatNode repeat) {
+            return new RepeatNode(rewrite(repeat.condition, replace), (BlockNode) rewrite(repeat.body, replace));
+        }
+        if (node instanceof ForNode forNode) {
+            return new ForNode(rewrite(forNode.initialization, replace), rewrite(forNode.condition, replace),
+                    rewrite(forNode.update, replace), (BlockNode) rewrite(forNode.body, replace));
+        }
+        return node;
+    }
+
+    // Replaces the outermost subexpressions that `replace` maps to a non-null result
+    private static ExpressionNode rewrite(ExpressionNode node, UnaryOperator<ExpressionNode> replace) {
+        ExpressionNode replaced = replace.apply(node);
+        if (replaced != null) return replaced;
+        if (node instanceof BinaryExprNode binary) {
+            return binary(rewrite(binary.left, replace), binary.operator, rewrite(binary.right, replace), binary.type);
+        }
+        if (node instanceof LogicalExprNode logical) {
+            LogicalExprNode rebuilt = new LogicalExprNode(rewrite(logical.left, replace), logical.operator,
+                    rewrite(logical.right, replace));
+            rebuilt.type = logical.type;
+            return rebuilt;
+        }
+        if (node instanceof UnaryExprNode unary) {
+            UnaryExprNode rebuilt = new UnaryExprNode(unary.operator, rewrite(unary.right, replace));
+            rebuilt.type = unary.type;
+            return rebuilt;
+        }
+        return node;
+    }
+
+    private IdentifierNode newTemp(Type type) {
+        IdentifierNode temp = new IdentifierNode(new Token(TokenType.IDENTIFIER, "$t" + nextTemp++, 0));
+        temp.depth = 0;
+        temp.slot = nextSlot++;
+        temp.type = type;
+        return temp;
+    }
+
+    private static IdentifierNode read(IdentifierNode temp) {
+        IdentifierNode read = new IdentifierNode(temp.name);
+        read.depth = temp.depth;
+        read.slot = temp.slot;
+        read.type = temp.type;
+        return read;
+    }
+
+    private static AssignmentNode assignment(IdentifierNode target, ExpressionNode value) {
+        AssignmentNode assignment = new AssignmentNode(target.name, value);
+        assignment.depth = target.depth;
+        assignment.slot = target.slot;
+        assignment.type = target.type;
+        return assignment;
+    }
+
+    private static BinaryExprNode binary(ExpressionNode left, Token operator, ExpressionNode right, Type type) {
+        BinaryExprNode binary = new BinaryExprNode(left, operator, right);
+        binary.type = type;
+        return binary;
+    }
+
+    private static LiteralNode intLiteral(int value) {
+        LiteralNode literal = new LiteralNode(new Token(TokenType.INT_LITERAL, Integer.toString(value), 0));
+        literal.type = Type.INT;
+        literal.value = new IntValue(value);
+        return literal;
+    }
+
+    private static BlockNode block(BlockNode original, List<StatementNode> statements) {
+        BlockNode block = new BlockNode(statements);
+        block.localCount = original.localCount;
+        return block;
+    }
+}
@@ -0,0 +1,306 @@
+package org.lexor.optimizer;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.error.RuntimeError;
+import org.lexor.lexer.Token;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.Interpreter;
+import org.lexor.runtime.OutputSink;
+import org.lexor.runtime.values.*;
+import org.lexor.semantic.symbol.Type;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// AST-to-AST rewriting pass run between SemanticAnalyzer.analyze and execution.
+// - Folds operators whose operands are all constants. The folding is done by evaluating the subtree with an
+//   Interpreter, so INT/FLOAT results are exactly what execution would produce; a subtree that would fail
+//   (division by zero) is left in place to fail at runtime.
+// - Reduces AND/OR with a constant left operand to that operand or to the right one.
+// - Merges the constant tail of '&' chains: (x & "a") & "b" becomes x & "ab".
+// - Removes GroupingNode wrappers.
+// - Drops IF / ELSE IF branches whose condition is a constant FALSE, and everything after a constant TRUE one.
+// - Removes REPEAT WHEN (FALSE) and reduces FOR with a constant FALSE condition to its initialization.
+// The analyzer's annotations (types, depths, slots) are carried over to the rewritten nodes.
+// Loop-invariant code motion and strength reduction follow in LoopOptimizer.
+public class Optimizer implements ASTVisitor<ASTNode> {
+    private final Interpreter evaluator = new Interpreter(new InputReader(InputStream.nullInputStream()),
+            new OutputSink(OutputStream.nullOutputStream()));
+
+    // Folds, then runs the LoopOptimizer over the folded tree
+    public ProgramNode optimize(ProgramNode program) {
+        return new LoopOptimizer().optimize((ProgramNode) program.accept(this));
+    }
+
+    // =========================================================================
+    // STATEMENTS
+    // =========================================================================
+
+    @Override
+    public ASTNode visitProgramNode(ProgramNode node) {
+        List<VarDeclNode> declarations = new ArrayList<>();
+        for (VarDeclNode decl : node.declarations) {
+            declarations.add((VarDeclNode) decl.accept(this));
+        }
+        ProgramNode optimized = new ProgramNode(declarations, statements(node.statements));
+        optimized.localCount = node.localCount;
+        return optimized;
+    }
+
+    @Override
+    public ASTNode visitVarDeclNode(VarDeclNode node) {
+        if (node.initializer == null) return node;
+        VarDeclNode optimized = new VarDeclNode(node.dataType, node.identifier, node.initializer.accept(this));
+        optimized.slot = node.slot;
+        return optimized;
+    }
+
+    @Override
+    public ASTNode visitAssignmentNode(AssignmentNode node) {
+        AssignmentNode optimized = new AssignmentNode(node.identifier, node.value.accept(this));
+        optimized.depth = node.depth;
+        optimized.slot = node.slot;
+        optimized.type = node.type;
+        return optimized;
+    }
+
+    @Override
+    public ASTNode visitPrintNode(PrintNode node) {
+        List<ExpressionNode> expressions = new ArrayList<>();
+        for (ExpressionNode expr : node.expressions) {
+            expressions.add(expression(expr));
+        }
+        return new PrintNode(expressions);
+    }
+
+    @Override
+    public ASTNode visitScanNode(ScanNode node) {
+        return node;
+    }
+
+    // Returns the IF without its dead branches, the single branch that is statically taken, or null if none is
+    @Override
+    public ASTNode visitIfNode(IfNode node) {
+        List<ExpressionNode> conditions = new ArrayList<>();
+        List<StatementNode> branches = new ArrayList<>();
+        StatementNode elseBranch = null;
+
+        conditions.add(expression(node.condition));
+        branches.add(statement(node.thenBranch));
+        for (IfNode.ElseIfPart part : node.elseIfParts) {
+            conditions.add(expression(part.condition));
+            branches.add(statement(part.body));
+        }
+
+        List<ExpressionNode> liveConditions = new ArrayList<>();
+        List<StatementNode> liveBranches = new ArrayList<>();
+        boolean taken = false;
+        for (int i = 0; i < conditions.size(); i++) {
+            Boolean constant = booleanConstant(conditions.get(i));
+            if (constant == null) {
+                liveConditions.add(conditions.get(i));
+                liveBranches.add(branches.get(i));
+            } else if (constant) {
+                // Always taken once reached: it becomes the ELSE and nothing after it can run
+                elseBranch = branches.get(i);
+                taken = true;
+                break;
+            }
+        }
+        if (!taken && node.elseBranch != null) {
+            elseBranch = statement(node.elseBranch);
+        }
+
+        if (liveConditions.isEmpty()) {
+            return elseBranch;
+        }
+        List<IfNode.ElseIfPart> elseIfParts = new ArrayList<>();
+        for (int i = 1; i < liveConditions.size(); i++) {
+            elseIfParts.add(new IfNode.ElseIfPart(liveConditions.get(i), asBlock(liveBranches.get(i))));
+        }
+        return new IfNode(liveConditions.get(0), liveBranches.get(0), elseIfParts, elseBranch);
+    }
+
+    @Override
+    public ASTNode visitRepeatNode(RepeatNode node) {
+        ExpressionNode condition = expression(node.condition);
+        if (Boolean.FALSE.equals(booleanConstant(condition))) {
+            return null;
+        }
+        return new RepeatNode(condition, asBlock(statement(node.body)));
+    }
+
+    @Override
+    public ASTNode visitForNode(ForNode node) {
+        StatementNode initialization = statement(node.initialization);
+        ExpressionNode condition = expression(node.condition);
+        if (Boolean.FALSE.equals(booleanConstant(condition))) {
+            return initialization;
+        }
+        return new ForNode(initialization, condition, statement(node.update), asBlock(statement(node.body)));
+    }
+
+    @Override
+    public ASTNode visitBreakNode(BreakNode node) {
+        return node;
+    }
+
+    @Override
+    public ASTNode visitContinueNode(ContinueNode node) {
+        return node;
+    }
+
+    @Override
+    public ASTNode visitBlockNode(BlockNode node) {
+        BlockNode optimized = new BlockNode(statements(node.statements));
+        optimized.localCount = node.localCount;
+        return optimized;
+    }
+
+    // =========================================================================
+    // EXPRESSIONS
+    // =========================================================================
+
+    @Override
+    public ASTNode visitLiteralNode(LiteralNode node) {
+        return node;
+    }
+
+    @Override
+    public ASTNode visitIdentifierNode(IdentifierNode node) {
+        return node;
+    }
+
+    @Override
+    public ASTNode visitBinaryExprNode(BinaryExprNode node) {
+        ExpressionNode left = expression(node.left);
+        ExpressionNode right = expression(node.right);
+
+        // (x & c1) & c2  ->  x & (c1 & c2): concatenation is associative on the STRING forms
+        if (node.operator.type == TokenType.AMPERSAND && isConstant(right)
+                && left instanceof BinaryExprNode inner && inner.operator.type == TokenType.AMPERSAND
+                && isConstant(inner.right)) {
+            BinaryExprNode tail = typed(new BinaryExprNode(inner.right, node.operator, right), Type.STRING);
+            left = inner.left;
+            right = fold(tail, node.operator);
+        }
+
+        BinaryExprNode rebuilt = typed(new BinaryExprNode(left, node.operator, right), node.type);
+        return isConstant(left) && isConstant(right) ? fold(rebuilt, node.operator) : rebuilt;
+    }
+
+    @Override
+    public ASTNode visitLogicalExprNode(LogicalExprNode node) {
+        ExpressionNode left = expression(node.left);
+        ExpressionNode right = expression(node.right);
+
+        // AND/OR short-circuit, so a constant left operand either decides the result or hands it to the right
+        Boolean decided = booleanConstant(left);
+        if (decided != null) {
+            boolean isAnd = node.operator.type == TokenType.AND;
+            return decided == isAnd ? right : left;
+        }
+
+        LogicalExprNode rebuilt = typed(new LogicalExprNode(left, node.operator, right), node.type);
+        return isConstant(left) && isConstant(right) ? fold(rebuilt, node.operator) : rebuilt;
+    }
+
+    @Override
+    public ASTNode visitUnaryExprNode(UnaryExprNode node) {
+        ExpressionNode operand = expression(node.right);
+        UnaryExprNode rebuilt = typed(new UnaryExprNode(node.operator, operand), node.type);
+        return isConstant(operand) ? fold(rebuilt, node.operator) : rebuilt;
+    }
+
+    @Override
+    public ASTNode visitGroupingNode(GroupingNode node) {
+        return node.expression.accept(this);
+    }
+
+    @Override
+    public ASTNode visitNewlineNode(NewlineNode node) {
+        return node;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private List<StatementNode> statements(List<StatementNode> nodes) {
+        List<StatementNode> optimized = new ArrayList<>(nodes.size());
+        for (StatementNode stmt : nodes) {
+            StatementNode result = statement(stmt);
+            if (result != null) optimized.add(result);
+        }
+        return optimized;
+    }
+
+    private StatementNode statement(StatementNode node) {
+        return (StatementNode) node.accept(this);
+    }
+
+    private ExpressionNode expression(ExpressionNode node) {
+        return (ExpressionNode) node.accept(this);
+    }
+
+    // Loop and ELSE IF bodies must stay blocks even when a dead-branch rewrite removed or replaced them
+    private static BlockNode asBlock(StatementNode node) {
+        if (node instanceof BlockNode block) return block;
+        List<StatementNode> statements = new ArrayList<>();
+        if (node != null) statements.add(node);
+        return new BlockNode(statements);
+    }
+
+    private static <T extends ExpressionNode> T typed(T node, Type type) {
+        node.type = type;
+        return node;
+    }
+
+    // Literals and $
+    private static boolean isConstant(ExpressionNode node) {
+        return node instanceof LiteralNode || node instanceof NewlineNode;
+    }
+
+    private static Boolean booleanConstant(ExpressionNode node) {
+        if (node instanceof LiteralNode literal && literal.value instanceof BoolValue b) {
+            return b.booleanValue();
+        }
+        return null;
+    }
+
+    // Evaluates an all-constant expression and turns the value back into a literal, or keeps it if it fails
+    private ExpressionNode fold(ExpressionNode node, Token at) {
+        RuntimeValue value;
+        try {
+            value = node.accept(evaluator);
+        } catch (RuntimeError e) {
+            return node;
+        }
+        LiteralNode literal;
+        if (value instanceof IntValue i) {
+            literal = new LiteralNode(new Token(TokenType.INT_LITERAL, Integer.toString(i.intValue()), at.line));
+            literal.type = Type.INT;
+        } else if (value instanceof FloatValue f) {
+            // Float.toString round-trips exactly through Float.parseFloat
+            literal = new LiteralNode(new Token(TokenType.FLOAT_LITERAL, Float.toString(f.floatValue()), at.line));
+            literal.type = Type.FLOAT;
+        } else if (value instanceof BoolValue b) {
+            literal = new LiteralNode(new Token(TokenType.BOOL_LITERAL, b.asString(), at.line));
+            literal.type = Type.BOOL;
+        } else if (value instanceof CharValue c) {
+            literal = new LiteralNode(new Token(TokenType.CHAR_LITERAL, "'" + c.asString() + "'", at.line));
+            literal.type = Type.CHAR;
+        } else {
+            literal = new LiteralNode(new Token(TokenType.STRING_LITERAL, "\"" + value.asString() + "\"", at.line));
+            literal.type = Type.STRING;
+            // A folded '&' is backed by a builder that later runs could append to; literals must stay flat
+            value = new StringValue(value.asString());
+        }
+        literal.value = value;
+        return literal;
+    }
+}
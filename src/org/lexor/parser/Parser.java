@@ -7,8 +7,8 @@ import org.lexor.ast.nodes.BreakNode;
 import org.lexor.ast.nodes.ContinueNode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
 
 public class Parser {
     private final List<Token> tokens;
@@ -103,7 +103,7 @@ public class Parser {
         if (check(TokenType.IDENTIFIER) && peekNext().type == TokenType.EQUAL) {
             return parseAssignmentExpression();
         }
-        return parseExpressionPDA();
+        return parseExpression();
     }
 
     private AssignmentNode parseAssignmentExpression() {
@@ -118,11 +118,11 @@ public class Parser {
         List<ExpressionNode> expressions = new ArrayList<>();
 
         // Parse at least one expression
-        expressions.add(parseExpressionPDA());
+        expressions.add(parseExpression());
 
         // Handle concatenated expressions using '&'
         while (match(TokenType.AMPERSAND)) {
-            expressions.add(parseExpressionPDA());
+            expressions.add(parseExpression());
         }
         return new PrintNode(expressions);
     }
@@ -146,7 +146,7 @@ public class Parser {
         consume(TokenType.LEFT_PAREN, "Expected '(' after 'IF'.");
 
         // 2. Parse the underlying conditional expression inside
-        ExpressionNode condition = parseExpressionPDA();
+        ExpressionNode condition = parseExpression();
 
         // 3. Strictly enforce and consume the closing parenthesis AFTER the expression ends
         consume(TokenType.RIGHT_PAREN, "Expected ')' after IF condition.");
@@ -163,7 +163,7 @@ public class Parser {
             if (match(TokenType.IF)) {
                 // Enforce parentheses for ELSE IF alternatives as well!
                 consume(TokenType.LEFT_PAREN, "Expected '(' after 'ELSE IF'.");
-                ExpressionNode elseIfCond = parseExpressionPDA();
+                ExpressionNode elseIfCond = parseExpression();
                 consume(TokenType.RIGHT_PAREN, "Expected ')' after ELSE IF condition.");
 
                 consume(TokenType.START, "Expected 'START' for ELSE IF.");
@@ -182,7 +182,7 @@ public class Parser {
     private StatementNode parseRepeat() {
         consume(TokenType.WHEN, "Expected 'WHEN' after 'REPEAT'.");
         consume(TokenType.LEFT_PAREN, "Expected '(' after 'WHEN'.");
-        ExpressionNode condition = parseExpressionPDA();
+        ExpressionNode condition = parseExpression();
         consume(TokenType.RIGHT_PAREN, "Expected ')' after REPEAT condition.");
         consume(TokenType.START, "Expected 'START' before loop.");
         consume(TokenType.REPEAT, "Expected 'REPEAT' after 'START'.");
@@ -193,7 +193,7 @@ public class Parser {
         consume(TokenType.LEFT_PAREN, "Expected '(' after 'FOR'.");
         StatementNode init = parseAssignmentExpression();
         consume(TokenType.COMMA, "Expected ',' after init.");
-        ExpressionNode cond = parseExpressionPDA();
+        ExpressionNode cond = parseExpression();
         consume(TokenType.COMMA, "Expected ',' after condition.");
         StatementNode update = parseAssignmentExpression();
         consume(TokenType.RIGHT_PAREN, "Expected ')' after header.");
@@ -217,155 +217,101 @@ public class Parser {
     }
 
     // =========================================================================
-    // FULL DPDA FOR EXPRESSIONS
+    // EXPRESSIONS (PRECEDENCE CLIMBING)
     // =========================================================================
 
-    private ExpressionNode parseExpressionPDA() {
-        Stack<ExpressionNode> nodeStack = new Stack<>();
-        Stack<Token> operatorStack = new Stack<>();
-        boolean expectingOperand = true;
-
-        while (isPartOfExpression(peek().type)) {
-            if (peek().type == TokenType.RIGHT_PAREN) {
-                boolean hasMatchingLeftParen = false;
-                for (Token op : operatorStack) {
-                    if (op.type == TokenType.LEFT_PAREN) {
-                        hasMatchingLeftParen = true;
-                        break;
-                    }
-                }
-                // If this closing parenthesis doesn't belong to an expression group inside the PDA,
-                // break out and leave it for the caller (like parseIf, parseFor, parseRepeat) to consume.
-                if (!hasMatchingLeftParen) {
-                    break;
-                }
-            }
-
-            if (!expectingOperand && (isLiteralOrIdentifier(peek().type) || peek().type == TokenType.LEFT_PAREN)) {
-                break;
-            }
-            Token token = advance();
-
-            if (isLiteralOrIdentifier(token.type)) {
-                if (token.type == TokenType.IDENTIFIER) {
-                    nodeStack.push(new IdentifierNode(token));
-                } else if (token.type == TokenType.DOLLAR) {
-                    nodeStack.push(new NewlineNode());
-                } else {
-                    nodeStack.push(new LiteralNode(token));
-                }
-                expectingOperand = false;
-            }
-            else if (token.type == TokenType.LEFT_PAREN) {
-                operatorStack.push(token);
-                expectingOperand = true;
-            }
-            else if (token.type == TokenType.RIGHT_PAREN) {
-                while (!operatorStack.isEmpty() && operatorStack.peek().type != TokenType.LEFT_PAREN) {
-                    reduce(nodeStack, operatorStack);
-                }
-                if (operatorStack.isEmpty() || operatorStack.peek().type != TokenType.LEFT_PAREN) {
-                    throw new org.lexor.error.SyntaxError(token.line, "Mismatched parentheses. Extra closing ')'.");
-                }
-                operatorStack.pop();
-                expectingOperand = false;
-            } 
-            else if (isOperator(token.type)) {
-                
-                // 1. UNARY OPERATOR CHECK: If we are expecting a number and see a minus/plus, it is unary!
-                if (expectingOperand && (token.type == TokenType.MINUS || token.type == TokenType.PLUS || token.type == TokenType.NOT)) {
-                    
-                    TokenType newType = (token.type == TokenType.MINUS) ? TokenType.UNARY_MINUS : 
-                                        (token.type == TokenType.PLUS) ? TokenType.UNARY_PLUS : TokenType.NOT;
-                    
-                    Token unaryToken = new Token(newType, token.lexeme, token.line);
-                    operatorStack.push(unaryToken);
-                    
-                } 
-                // 2. BINARY OPERATOR CHECK: Otherwise, process it as normal math
-                else {
-                    while (!operatorStack.isEmpty() && precedence(operatorStack.peek().type) >= precedence(token.type)) {
-                        reduce(nodeStack, operatorStack);
-                    }
-                    operatorStack.push(token);
-                }
-                
-                expectingOperand = true; // After any operator, we expect a number next
-            }
-        }
+    // Binding power of every binary operator, indexed by TokenType ordinal, or -1 for any other token.
+    // All levels are left-associative; prefix operators (-, +, NOT) bind tighter than any of them.
+    private static final int[] BINARY_PRECEDENCE = new int[TokenType.values().length];
+    static {
+        Arrays.fill(BINARY_PRECEDENCE, -1);
+        setPrecedence(4, TokenType.STAR, TokenType.SLASH, TokenType.MODULO);
+        setPrecedence(3, TokenType.PLUS, TokenType.MINUS, TokenType.AMPERSAND);
+        setPrecedence(2, TokenType.GREATER, TokenType.GREATER_EQUAL, TokenType.LESS, TokenType.LESS_EQUAL,
+                TokenType.EQUAL_EQUAL, TokenType.NOT_EQUAL);
+        setPrecedence(1, TokenType.AND);
+        setPrecedence(0, TokenType.OR);
+    }
 
-        while (!operatorStack.isEmpty()) {
-            if (operatorStack.peek().type == TokenType.LEFT_PAREN) {
-                throw new org.lexor.error.SyntaxError(operatorStack.peek().line, "Mismatched parentheses. Missing closing ')'.");
-            }
-            reduce(nodeStack, operatorStack);
+    private static void setPrecedence(int precedence, TokenType... types) {
+        for (TokenType type : types) {
+            BINARY_PRECEDENCE[type.ordinal()] = precedence;
         }
+    }
 
-        if (nodeStack.isEmpty()) {
+    private ExpressionNode parseExpression() {
+        if (!startsOperand(peek().type)) {
             throw new org.lexor.error.SyntaxError(peek().line, "Invalid expression.");
         }
-
-        return nodeStack.pop();
+        return parseBinary(0);
     }
 
-    private void reduce(Stack<ExpressionNode> nodeStack, Stack<Token> operatorStack) {
-        if (operatorStack.isEmpty()) return;
-        Token operator = operatorStack.pop();
+    // Parses operands joined by binary operators of at least the given precedence. The expression ends at the
+    // first token that is not such an operator, e.g. the ')' or ',' of an enclosing IF or FOR header.
+    private ExpressionNode parseBinary(int minPrecedence) {
+        ExpressionNode left = parseUnary();
+        while (true) {
+            int precedence = BINARY_PRECEDENCE[peek().type.ordinal()];
+            if (precedence < minPrecedence) {
+                return left;
+            }
+            Token operator = advance();
+            if (!startsOperand(peek().type)) {
+                throw new org.lexor.error.SyntaxError(operator.line, "Missing operand for " + operator.lexeme());
+            }
+            ExpressionNode right = parseBinary(precedence + 1);
 
-        // Explicitly handle Unary Operators first
-        if (operator.type == TokenType.NOT || operator.type == TokenType.UNARY_MINUS || operator.type == TokenType.UNARY_PLUS) {
-            if (nodeStack.isEmpty()) throw new org.lexor.error.SyntaxError(operator.line, "Missing operand for unary operator.");
-            nodeStack.push(new UnaryExprNode(operator, nodeStack.pop()));
-            return;
+            if (operator.type == TokenType.AND || operator.type == TokenType.OR) {
+                left = new LogicalExprNode(left, operator, right);
+            } else {
+                left = new BinaryExprNode(left, operator, right);
+            }
         }
+    }
 
-        // Explicitly handle Binary Operators
-        if (nodeStack.size() < 2) {
-            throw new org.lexor.error.SyntaxError(operator.line, "Missing operand for " + operator.lexeme);
-        }
-        
-        ExpressionNode right = nodeStack.pop();
-        ExpressionNode left = nodeStack.pop();
-
-        if (operator.type == TokenType.AND || operator.type == TokenType.OR) {
-            nodeStack.push(new LogicalExprNode(left, operator, right));
-        } else {
-            nodeStack.push(new BinaryExprNode(left, operator, right));
+    // A primary with any number of prefix operators; '-' and '+' become UNARY_MINUS and UNARY_PLUS
+    private ExpressionNode parseUnary() {
+        Token token = advance();
+        switch (token.type) {
+            case MINUS, PLUS, NOT -> {
+                if (!startsOperand(peek().type)) {
+                    throw new org.lexor.error.SyntaxError(token.line, "Missing operand for unary operator.");
+                }
+                TokenType newType = (token.type == TokenType.MINUS) ? TokenType.UNARY_MINUS :
+                                    (token.type == TokenType.PLUS) ? TokenType.UNARY_PLUS : TokenType.NOT;
+                return new UnaryExprNode(token.withType(newType), parseUnary());
+            }
+            case LEFT_PAREN -> {
+                // Parentheses only group; they leave no node behind
+                ExpressionNode inner = parseExpression();
+                if (!check(TokenType.RIGHT_PAREN)) {
+                    throw new org.lexor.error.SyntaxError(token.line, "Mismatched parentheses. Missing closing ')'.");
+                }
+                advance();
+                return inner;
+            }
+            case IDENTIFIER -> {
+                return new IdentifierNode(token);
+            }
+            case DOLLAR -> {
+                return new NewlineNode();
+            }
+            case INT_LITERAL, FLOAT_LITERAL, CHAR_LITERAL, BOOL_LITERAL, STRING_LITERAL, ESCAPE_LITERAL -> {
+                return new LiteralNode(token);
+            }
+            default -> throw new org.lexor.error.SyntaxError(token.line, "Invalid expression.");
         }
     }
 
-    private int precedence(TokenType type) {
+    // Whether an operand (a literal, identifier, '$', '(' or prefix operator) can start at this token
+    private static boolean startsOperand(TokenType type) {
         return switch (type) {
-            case UNARY_MINUS, UNARY_PLUS, NOT -> 5;
-            case STAR, SLASH, MODULO -> 4;
-            case PLUS, MINUS, AMPERSAND -> 3;
-            case GREATER, GREATER_EQUAL, LESS, LESS_EQUAL, EQUAL_EQUAL, NOT_EQUAL -> 2;
-            case AND -> 1;
-            case OR -> 0;
-            default -> -1;
+            case INT_LITERAL, FLOAT_LITERAL, CHAR_LITERAL, BOOL_LITERAL, STRING_LITERAL, ESCAPE_LITERAL,
+                 DOLLAR, IDENTIFIER, LEFT_PAREN, MINUS, PLUS, NOT -> true;
+            default -> false;
         };
     }
 
-    private boolean isPartOfExpression(TokenType type) {
-        return isLiteralOrIdentifier(type) || isOperator(type) ||
-                type == TokenType.LEFT_PAREN || type == TokenType.RIGHT_PAREN;
-    }
-
-    private boolean isLiteralOrIdentifier(TokenType type) {
-        return type == TokenType.INT_LITERAL || type == TokenType.FLOAT_LITERAL ||
-                type == TokenType.CHAR_LITERAL || type == TokenType.BOOL_LITERAL ||
-                type == TokenType.STRING_LITERAL || type == TokenType.ESCAPE_LITERAL ||
-                type == TokenType.DOLLAR || type == TokenType.IDENTIFIER;
-    }
-
-    private boolean isOperator(TokenType type) {
-        return type == TokenType.PLUS || type == TokenType.MINUS || type == TokenType.STAR || type == TokenType.SLASH ||
-                type == TokenType.MODULO || type == TokenType.AMPERSAND || type == TokenType.GREATER ||
-                type == TokenType.GREATER_EQUAL || type == TokenType.LESS || type == TokenType.LESS_EQUAL ||
-                type == TokenType.EQUAL_EQUAL || type == TokenType.NOT_EQUAL || type == TokenType.AND ||
-                type == TokenType.OR || type == TokenType.NOT;
-    }
-
     private boolean match(TokenType... types) {
         for (TokenType type : types) {
             if (check(type)) {
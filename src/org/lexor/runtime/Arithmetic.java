@@ -0,0 +1,93 @@
+package org.lexor.runtime;
+
+import org.lexor.error.RuntimeError;
+import org.lexor.lexer.Token;
+import org.lexor.runtime.values.*;
+
+// Typed arithmetic for LEXOR's numeric operators.
+// INT x INT stays in 32-bit int arithmetic; FLOAT is only used when one of the operands is a FLOAT.
+public final class Arithmetic {
+
+    private Arithmetic() {
+    }
+
+    // Applies an arithmetic (+ - * / %) or ordering (< > <= >=) operator to two numeric values
+    public static RuntimeValue binary(Token operator, RuntimeValue left, RuntimeValue right) {
+        if (left instanceof IntValue l && right instanceof IntValue r) {
+            return intBinary(operator, l.intValue(), r.intValue());
+        }
+        return floatBinary(operator, toFloat(operator, left), toFloat(operator, right));
+    }
+
+    public static RuntimeValue intBinary(Token operator, int l, int r) {
+        return switch (operator.type) {
+            case PLUS  -> new IntValue(l + r);
+            case MINUS -> new IntValue(l - r);
+            case STAR  -> new IntValue(l * r);
+            case SLASH -> {
+                if (r == 0) throw new RuntimeError("Division by zero.");
+                yield new IntValue(l / r);
+            }
+            case MODULO -> {
+                if (r == 0) throw new RuntimeError("Division by zero.");
+                yield new IntValue(l % r);
+            }
+            case GREATER       -> BoolValue.of(l > r);
+            case LESS          -> BoolValue.of(l < r);
+            case GREATER_EQUAL -> BoolValue.of(l >= r);
+            case LESS_EQUAL    -> BoolValue.of(l <= r);
+            default -> throw new RuntimeError("Unknown binary operator: " + operator.lexeme());
+        };
+    }
+
+    public static RuntimeValue floatBinary(Token operator, float l, float r) {
+        return switch (operator.type) {
+            case PLUS  -> new FloatValue(l + r);
+            case MINUS -> new FloatValue(l - r);
+            case STAR  -> new FloatValue(l * r);
+            case SLASH -> {
+                if (r == 0) throw new RuntimeError("Division by zero.");
+                yield new FloatValue(l / r);
+            }
+            case MODULO -> new FloatValue(l % r);
+            case GREATER       -> BoolValue.of(l > r);
+            case LESS          -> BoolValue.of(l < r);
+            case GREATER_EQUAL -> BoolValue.of(l >= r);
+            case LESS_EQUAL    -> BoolValue.of(l <= r);
+            default -> throw new RuntimeError("Unknown binary operator: " + operator.lexeme());
+        };
+    }
+
+    // Unary minus keeps the operand's type; unary plus is a no-op
+    public static RuntimeValue negate(Token operator, RuntimeValue value) {
+        if (value instanceof IntValue i) return new IntValue(-i.intValue());
+        if (value instanceof FloatValue f) return new FloatValue(-f.floatValue());
+        throw new RuntimeError("Unary operator '" + operator.lexeme() + "' cannot be applied to non-numeric values.");
+    }
+
+    // LEXOR '==': numbers compare by value (INT x INT exactly, otherwise as FLOAT), everything else by equals()
+    public static boolean equal(RuntimeValue left, RuntimeValue right) {
+        if (left instanceof IntValue l && right instanceof IntValue r) {
+            return l.intValue() == r.intValue();
+        }
+        if (isNumeric(left) && isNumeric(right)) {
+            return asFloat(left) == asFloat(right);
+        }
+        return left.getValue().equals(right.getValue());
+    }
+
+    private static boolean isNumeric(RuntimeValue value) {
+        return value instanceof IntValue || value instanceof FloatValue;
+    }
+
+    private static float asFloat(RuntimeValue value) {
+        return (value instanceof IntValue i) ? i.intValue() : ((FloatValue) value).floatValue();
+    }
+
+    private static float toFloat(Token operator, RuntimeValue value) {
+        if (value instanceof FloatValue f) return f.floatValue();
+        if (value instanceof IntValue i) return i.intValue();
+        throw new RuntimeError("Arithmetic operator '" + operator.lexeme() +
+                "' cannot be applied to non-numeric values.");
+    }
+}
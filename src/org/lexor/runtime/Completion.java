@@ -0,0 +1,20 @@
+package org.lexor.runtime;
+
+import org.lexor.runtime.values.RuntimeValue;
+
+// How a statement left control when it did not complete normally. BREAK and CONTINUE visitors return
+// one of these; blocks and IF pass it up unchanged and the nearest loop consumes it. It implements RuntimeValue only so it can travel through ASTVisitor<RuntimeValue>.
+public enum Completion implements RuntimeValue {
+    BREAK,
+    CONTINUE;
+
+    @Override
+    public Object getValue() {
+        return this;
+    }
+
+    @Override
+    public String asString() {
+        return name();
+    }
+}
@@ -1,51 +1,43 @@
 package org.lexor.runtime;
 
 import org.lexor.runtime.values.RuntimeValue;
-import org.lexor.error.RuntimeError;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+// The runtime memory: one array-backed frame per active scope, indexed by the
+// (depth, slot) pairs the SemanticAnalyzer resolved for every variable reference.
 public class Environment {
-    private final Environment parent;
-    private final Map<String, RuntimeValue> values = new HashMap<>();
+    private static final RuntimeValue[] EMPTY_FRAME = new RuntimeValue[0];
 
-    // Constructor for the Global Scope
-    public Environment() {
-        this.parent = null;
+    private RuntimeValue[][] frames = new RuntimeValue[8][];
+    private int depth = -1;
+
+    // Enters a new scope whose frame holds the given number of variables
+    public void push(int size) {
+        depth++;
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+        }
+        frames[depth] = (size == 0) ? EMPTY_FRAME : new RuntimeValue[size];
     }
 
-    // Constructor for Local Scopes (Blocks)
-    public Environment(Environment parent) {
-        this.parent = parent;
+    // Leaves the innermost scope
+    public void pop() {
+        frames[depth--] = null;
     }
 
     // Defines a new variable in the CURRENT scope
-    public void define(String name, RuntimeValue value) {
-        values.put(name, value);
+    public void define(int slot, RuntimeValue value) {
+        frames[depth][slot] = value;
     }
 
-    // Assigns an existing variable (checks current scope, then climbs to parents)
-    public void assign(String name, RuntimeValue value) {
-        if (values.containsKey(name)) {
-            values.put(name, value);
-            return;
-        }
-        if (parent != null) {
-            parent.assign(name, value);
-            return;
-        }
-        throw new RuntimeError("Undefined variable '" + name + "'. It may not have been declared.");
+    // Assigns an existing variable in the scope it was declared in
+    public void assign(int depth, int slot, RuntimeValue value) {
+        frames[depth][slot] = value;
     }
 
-    // Retrieves a variable (checks current scope, then climbs to parents)
-    public RuntimeValue get(String name) {
-        if (values.containsKey(name)) {
-            return values.get(name);
-        }
-        if (parent != null) {
-            return parent.get(name);
-        }
-        throw new RuntimeError("Undefined variable '" + name + "'. It may not have been declared.");
+    // Retrieves a variable from the scope it was declared in
+    public RuntimeValue get(int depth, int slot) {
+        return frames[depth][slot];
     }
-}
\ No newline at end of file
+}
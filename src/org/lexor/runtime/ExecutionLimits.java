@@ -0,0 +1,31 @@
+package org.lexor.runtime;
+
+import java.time.Duration;
+
+// Bounds on one run of a program. Exceeding any of them ends the run with a RuntimeError. Long.MAX_VALUE
+// means no limit; NONE has no limits at all.
+//   maxLoopIterations  passes through REPEAT and FOR bodies, counted over the whole run
+//   maxOutputBytes     UTF-8 bytes of PRINT output
+//   timeoutMillis      wall time from the start of the run; checked every CHECK_INTERVAL loop passes, which is
+//                      also where an interrupt of the running thread ends the run
+public record ExecutionLimits(long maxLoopIterations, long maxOutputBytes, long timeoutMillis) {
+    public static final ExecutionLimits NONE = new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public ExecutionLimits {
+        if (maxLoopIterations < 0 || maxOutputBytes < 0 || timeoutMillis < 0) {
+            throw new IllegalArgumentException("Execution limits cannot be negative.");
+        }
+    }
+
+    public ExecutionLimits withMaxLoopIterations(long maxLoopIterations) {
+        return new ExecutionLimits(maxLoopIterations, maxOutputBytes, timeoutMillis);
+    }
+
+    public ExecutionLimits withMaxOutputBytes(long maxOutputBytes) {
+        return new ExecutionLimits(maxLoopIterations, maxOutputBytes, timeoutMillis);
+    }
+
+    public ExecutionLimits withTimeout(Duration timeout) {
+        return new ExecutionLimits(maxLoopIterations, maxOutputBytes, timeout.toMillis());
+    }
+}
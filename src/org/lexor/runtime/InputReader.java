@@ -0,0 +1,299 @@
+package org.lexor.runtime;
+
+import org.lexor.runtime.values.*;
+import org.lexor.semantic.symbol.Type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Buffered SCAN input. readLine() pulls one line into the byte buffer and records where its comma-separated
+// fields start and end, with the same field rules as String.trim().split("\\s*,\\s*") followed by a trim of
+// each field. The parse methods convert a field straight from the buffer; anything outside the fast paths
+// (non-ASCII text, exponents, long numbers, malformed values) is handed to ScanParser as a String, so
+// results and error messages are exactly those of the Scanner-based reader this replaces.
+// Lines end at \n, \r or \r\n, and input is decoded as UTF-8.
+public final class InputReader {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7};
+
+    private final InputStream stream;
+    private final ReadableByteChannel channel;
+    private final int initialSize;
+    private byte[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfInput = false;
+    private boolean skipLineFeed = false;
+
+    // Fields of the current line as [start, end) offsets into buffer
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fieldCount = 0;
+
+    public InputReader(InputStream stream) {
+        this(stream, DEFAULT_BUFFER_SIZE);
+    }
+
+    public InputReader(InputStream stream, int bufferSize) {
+        this(stream, null, bufferSize);
+    }
+
+    public InputReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public InputReader(ReadableByteChannel channel, int bufferSize) {
+        this(null, channel, bufferSize);
+    }
+
+    private InputReader(InputStream stream, ReadableByteChannel channel, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Input buffer size must be positive.");
+        }
+        this.stream = stream;
+        this.channel = channel;
+        this.initialSize = bufferSize;
+    }
+
+    // A reader over whatever System.in is at the time of the call; the buffer is allocated on first use
+    public static InputReader stdin() {
+        return new InputReader(System.in);
+    }
+
+    // =========================================================================
+    // LINES AND FIELDS
+    // =========================================================================
+
+    // Reads the next line and splits it into fields; throws NoSuchElementException at end of input like Scanner
+    public int readLine() {
+        if (buffer == null) {
+            buffer = new byte[initialSize];
+        }
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if ((position < limit || fill()) && position < limit && buffer[position] == '\n') {
+                position++;
+            }
+        }
+
+        int scan = position;
+        while (true) {
+            while (scan < limit && buffer[scan] != '\n' && buffer[scan] != '\r') {
+                scan++;
+            }
+            if (scan < limit) break;
+            int consumed = scan - position;
+            if (!fill()) {
+                if (limit == position) {
+                    throw new NoSuchElementException("No line found");
+                }
+                scan = limit;
+                break;
+            }
+            scan = position + consumed;
+        }
+
+        int lineStart = position;
+        int lineEnd = scan;
+        if (scan < limit) {
+            skipLineFeed = buffer[scan] == '\r';
+            position = scan + 1;
+        } else {
+            position = scan;
+        }
+        split(lineStart, lineEnd);
+        return fieldCount;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // Rejects a line with more fields than SCAN has targets
+    public void checkCount(int expected) {
+        ScanParser.checkCount(fieldCount, expected);
+    }
+
+    private void split(int start, int end) {
+        while (start < end && (buffer[start] & 0xFF) <= ' ') start++;
+        while (end > start && (buffer[end - 1] & 0xFF) <= ' ') end--;
+
+        fieldCount = 0;
+        int fieldStart = start;
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == ',') {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        addField(fieldStart, end);
+
+        // split() drops trailing empty fields, except that a line without any comma is always one field
+        if (fieldCount > 1) {
+            while (fieldCount > 0 && onlyRegexWhitespace(starts[fieldCount - 1], ends[fieldCount - 1])) {
+                fieldCount--;
+            }
+        }
+
+        for (int f = 0; f < fieldCount; f++) {
+            int s = starts[f], e = ends[f];
+            while (s < e && (buffer[s] & 0xFF) <= ' ') s++;
+            while (e > s && (buffer[e - 1] & 0xFF) <= ' ') e--;
+            starts[f] = s;
+            ends[f] = e;
+        }
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    // \s in java.util.regex: space, \t, \n, \u000B, \f, \r
+    private boolean onlyRegexWhitespace(int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b != ' ' && (b < '\t' || b > '\r')) return false;
+        }
+        return true;
+    }
+
+    // Moves the unread bytes to the front (growing the buffer if it is full) and reads more; false at end of input
+    private boolean fill() {
+        if (endOfInput) return false;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        try {
+            int read;
+            if (stream != null) {
+                read = stream.read(buffer, limit, buffer.length - limit);
+            } else {
+                read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit));
+            }
+            if (read < 0) {
+                endOfInput = true;
+                return false;
+            }
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // =========================================================================
+    // FIELD CONVERSION
+    // =========================================================================
+
+    public RuntimeValue parse(Type type, int field, String name) {
+        return switch (type) {
+            case INT -> new IntValue(parseInt(field, name));
+            case FLOAT -> new FloatValue(parseFloat(field, name));
+            case BOOL -> BoolValue.of(parseBool(field, name));
+            case CHAR -> new CharValue(parseChar(field, name));
+            default -> ScanParser.parse(type, text(field), name);
+        };
+    }
+
+    // Fast path: an optional sign and at most 9 ASCII digits, which cannot overflow
+    public int parseInt(int field, String name) {
+        if (field < fieldCount) {
+            int i = starts[field], end = ends[field];
+            boolean negative = i < end && buffer[i] == '-';
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) i++;
+            int digits = end - i;
+            if (digits > 0 && digits <= 9) {
+                int value = 0;
+                for (; i < end; i++) {
+                    int d = buffer[i] - '0';
+                    if (d < 0 || d > 9) break;
+                    value = value * 10 + d;
+                }
+                if (i == end) return negative ? -value : value;
+            }
+        }
+        return ((IntValue) ScanParser.parse(Type.INT, text(field), name)).intValue();
+    }
+
+    // Fast path: [sign] digits [. digits] with at most 7 digits in total. The digits form an exact integer
+    // and dividing by an exact power of ten then narrowing to float rounds correctly at this precision.
+    public float parseFloat(int field, String name) {
+        if (field < fieldCount) {
+            int i = starts[field], end = ends[field];
+            boolean negative = i < end && buffer[i] == '-';
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) i++;
+            int mantissa = 0, digits = 0, fractionDigits = 0;
+            boolean dot = false, valid = i < end;
+            for (; i < end && valid; i++) {
+                byte b = buffer[i];
+                if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (dot) fractionDigits++;
+                    valid = digits <= 7;
+                } else if (b == '.' && !dot) {
+                    dot = true;
+                } else {
+                    valid = false;
+                }
+            }
+            if (valid && digits > 0) {
+                float value = (float) (mantissa / POWERS_OF_TEN[fractionDigits]);
+                return negative ? -value : value;
+            }
+        }
+        return ((FloatValue) ScanParser.parse(Type.FLOAT, text(field), name)).floatValue();
+    }
+
+    public boolean parseBool(int field, String name) {
+        if (field < fieldCount) {
+            if (matches(field, "TRUE")) return true;
+            if (matches(field, "FALSE")) return false;
+        }
+        return ((BoolValue) ScanParser.parse(Type.BOOL, text(field), name)).booleanValue();
+    }
+
+    public char parseChar(int field, String name) {
+        if (field < fieldCount && ends[field] - starts[field] == 1 && buffer[starts[field]] >= 0) {
+            return (char) buffer[starts[field]];
+        }
+        return ((CharValue) ScanParser.parse(Type.CHAR, text(field), name)).charValue();
+    }
+
+    public String parseString(int field, String name) {
+        return text(field);
+    }
+
+    // The field as a String; a missing field reads as empty, like the old parts[i] lookup
+    public String text(int field) {
+        if (field >= fieldCount) return "";
+        return new String(buffer, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+    }
+
+    private boolean matches(int field, String word) {
+        int start = starts[field];
+        if (ends[field] - start != word.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (buffer[start + i] != word.charAt(i)) return false;
+        }
+        return true;
+    }
+}
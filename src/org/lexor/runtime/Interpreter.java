@@ -5,25 +5,75 @@ import org.lexor.ast.visitor.ASTVisitor;
 import org.lexor.error.RuntimeError;
 import org.lexor.lexer.TokenType;
 import org.lexor.runtime.values.*;
-import org.lexor.runtime.BreakSignal;
-import org.lexor.runtime.ContinueSignal;
+import org.lexor.semantic.symbol.Type;
 
-import java.util.Scanner;
-
-// Interprets the validated AST by executing its nodes sequentially
+// Interprets the validated AST by executing its nodes sequentially.
+// Statement visitors signal BREAK and CONTINUE by returning a Completion; any other result means normal completion.
 public class Interpreter implements ASTVisitor<RuntimeValue> {
 
-    private Environment environment;
-    private final Scanner inputScanner;
+    // Loop passes between checks of the time limit and of the thread's interrupt flag
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final Environment environment;
+    private final InputReader input;
+    private final OutputSink output;
+    private final ExecutionLimits limits;
+    private final long timeoutNanos;
+    private long start;
+    // Loop passes the iteration limit still allows beyond the current batch, and passes left in the batch
+    private long remaining;
+    private int untilCheck;
 
     public Interpreter() {
+        this(InputReader.stdin(), OutputSink.stdout());
+    }
+
+    public Interpreter(InputReader input, OutputSink output) {
+        this(input, output, ExecutionLimits.NONE);
+    }
+
+    // The output limit is the caller's to enforce, on the stream under the OutputSink
+    public Interpreter(InputReader input, OutputSink output, ExecutionLimits limits) {
         this.environment = new Environment();
-        this.inputScanner = new Scanner(System.in);
+        this.input = input;
+        this.output = output;
+        this.limits = limits;
+        this.timeoutNanos = java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(limits.timeoutMillis());
     }
 
-    // Main entry point for Phase 4
+    // Main entry point for Phase 4. Buffered output is flushed even if the program fails.
     public void interpret(ProgramNode program) {
-        program.accept(this);
+        start = System.nanoTime();
+        remaining = limits.maxLoopIterations();
+        untilCheck = 0;
+        try {
+            program.accept(this);
+        } finally {
+            output.flush();
+        }
+    }
+
+    // Counts one pass through a loop body; the limits are only checked once per batch of passes
+    private void tick() {
+        if (--untilCheck < 0) {
+            checkLimits();
+        }
+    }
+
+    // Starts the next batch of up to CHECK_INTERVAL passes, never more than the iteration limit has left
+    private void checkLimits() {
+        if (remaining == 0) {
+            throw new RuntimeError("Loop iteration limit of " + limits.maxLoopIterations() + " exceeded.");
+        }
+        if (System.nanoTime() - start > timeoutNanos) {
+            throw new RuntimeError("Time limit of " + limits.timeoutMillis() + " ms exceeded.");
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new RuntimeError("Interrupted.");
+        }
+        int batch = (int) Math.min(CHECK_INTERVAL, remaining);
+        remaining -= batch;
+        untilCheck = batch - 1;
     }
 
     // =========================================================================
@@ -32,6 +82,8 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
 
     @Override
     public RuntimeValue visitProgramNode(ProgramNode node) {
+        environment.push(node.localCount);
+
         // 1. Initialize variables in memory [cite: 24]
         for (VarDeclNode decl : node.declarations) {
             decl.accept(this);
@@ -52,10 +104,11 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
         if (node.initializer != null) {
             value = node.initializer.accept(this);
             
-            // Implicit casting from INT to FLOAT on declaration ---
-            if (node.dataType.type == TokenType.FLOAT && value instanceof IntValue) {
-                int rawInt = (Integer) value.getValue();
-                value = new FloatValue((float) rawInt);
+            // Implicit casting from INT to FLOAT (and CHAR to STRING) on declaration ---
+            if (node.dataType.type == TokenType.FLOAT) {
+                value = coerce(Type.FLOAT, value);
+            } else if (node.dataType.type == TokenType.STRING) {
+                value = coerce(Type.STRING, value);
             }
             // --------------------------------------------------------------
             
@@ -64,7 +117,7 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
             value = switch (node.dataType.type) {
                 case INT -> new IntValue(0);
                 case FLOAT -> new FloatValue(0.0f);
-                case BOOL -> new BoolValue(false);
+                case BOOL -> BoolValue.FALSE;
                 case CHAR -> new CharValue('\0');
                 case STRING -> new StringValue("");
                 default -> throw new RuntimeError("Unknown data type declaration.");
@@ -72,14 +125,21 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
         }
 
         // Store it in the runtime memory
-        environment.define(node.identifier.lexeme, value);
+        environment.define(node.slot, value);
         return null;
     }
 
     @Override
     public RuntimeValue visitAssignmentNode(AssignmentNode node) {
-        RuntimeValue value = node.value.accept(this);
-        environment.assign(node.identifier.lexeme, value);
+        RuntimeValue value = coerce(node.type, node.value.accept(this));
+        environment.assign(node.depth, node.slot, value);
+        return value;
+    }
+
+    // Widens a value to the declared type of the variable it is stored in, so a FLOAT variable never holds an INT
+    private RuntimeValue coerce(Type type, RuntimeValue value) {
+        if (type == Type.FLOAT && value instanceof IntValue i) return new FloatValue(i.intValue());
+        if (type == Type.STRING && value instanceof CharValue c) return new StringValue(c.asString());
         return value;
     }
 
@@ -88,53 +148,30 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
         // LEXOR prints separated by ampersands, which means we just evaluate and concatenate them seamlessly[cite: 15, 18, 31].
         for (ExpressionNode expr : node.getExpressions()) {
             RuntimeValue val = expr.accept(this);
-            System.out.print(val.asString());
+            if (val instanceof StringValue s) {
+                // Streams a built string straight from its builder instead of flattening it first
+                output.print(s.contents(), 0, s.length());
+            } else if (val instanceof FloatValue f) {
+                output.print(f.floatValue());
+            } else {
+                output.print(val.asString());
+            }
         }
         return null;
     }
 
     @Override
     public RuntimeValue visitScanNode(ScanNode node) {
-        // LEXOR spec: multiple values are separated by comma
-        String line = inputScanner.nextLine().trim();
-        String[] parts = line.split("\\s*,\\s*");
+        // Show everything printed so far (e.g. a prompt) before blocking on input
+        output.flush();
+        input.readLine();
 
         for (int i = 0; i < node.identifiers.size(); i++) {
-            String name = node.identifiers.get(i).lexeme;
-            RuntimeValue currentVal = environment.get(name);
-            String rawInput = (i < parts.length) ? parts[i].trim() : "";
-
-            try {
-                if (currentVal instanceof IntValue) {
-                    environment.assign(name, new IntValue(Integer.parseInt(rawInput)));
-                } else if (currentVal instanceof FloatValue) {
-                    environment.assign(name, new FloatValue(Float.parseFloat(rawInput)));
-                } else if (currentVal instanceof BoolValue) {
-                    if (!rawInput.equals("TRUE") && !rawInput.equals("FALSE")) {
-                        throw new RuntimeError(
-                            "Invalid BOOL input '" + rawInput + "' for variable '" + name +
-                            "'. Expected exactly TRUE or FALSE in uppercase."
-                        );
-                    }
-                    environment.assign(name, new BoolValue(rawInput.equals("TRUE")));
-                } else if (currentVal instanceof CharValue) {
-                    if (rawInput.length() != 1) {
-                        throw new RuntimeError("Invalid CHAR input. Expected a single character but got: '" + rawInput + "'.");
-                    }
-                    environment.assign(name, new CharValue(rawInput.charAt(0)));
-                } else if (currentVal instanceof StringValue) {
-                    environment.assign(name, new StringValue(rawInput));
-                }
-            } catch (NumberFormatException e) {
-                throw new RuntimeError("Invalid input '" + rawInput + "' for variable '" + name + "'.");
-            }
-        }
-
-        if (parts.length > node.identifiers.size()) {
-            throw new RuntimeError("Too many inputs provided. Expected " +
-                    node.identifiers.size() + " value(s), but got " + parts.length + ".");
+            String name = node.identifiers.get(i).lexeme();
+            environment.assign(node.depths[i], node.slots[i], input.parse(node.types[i], i, name));
         }
 
+        input.checkCount(node.identifiers.size());
         return null;
     }
 
@@ -142,88 +179,79 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
     public RuntimeValue visitIfNode(IfNode node) {
         // Check the primary IF condition [cite: 87, 93, 104]
         if (isTruthy(node.condition.accept(this))) {
-            node.thenBranch.accept(this);
-        } else {
-            boolean matched = false;
-            // Iterate through ELSE IF parts if any [cite: 109]
-            for (IfNode.ElseIfPart part : node.elseIfParts) {
-                if (isTruthy(part.condition.accept(this))) {
-                    part.body.accept(this);
-                    matched = true;
-                    break;
-                }
-            }
-            // Execute ELSE block if no previous condition was met [cite: 98, 114]
-            if (!matched && node.elseBranch != null) {
-                node.elseBranch.accept(this);
+            return node.thenBranch.accept(this);
+        }
+        // Iterate through ELSE IF parts if any [cite: 109]
+        for (IfNode.ElseIfPart part : node.elseIfParts) {
+            if (isTruthy(part.condition.accept(this))) {
+                return part.body.accept(this);
             }
         }
+        // Execute ELSE block if no previous condition was met [cite: 98, 114]
+        if (node.elseBranch != null) {
+            return node.elseBranch.accept(this);
+        }
         return null;
     }
 
     private boolean isTruthy(RuntimeValue val) {
-        Object v = val.getValue();
-        if (v instanceof Boolean b) return b;
+        if (val instanceof BoolValue b) return b.booleanValue();
         throw new RuntimeError("Expected a BOOL condition but got: " + val.asString());
     }
 
     @Override
     public RuntimeValue visitRepeatNode(RepeatNode node) {
-        try {
-            while (isTruthy(node.condition.accept(this))) {
-                try {
-                    node.body.accept(this);
-                } catch (ContinueSignal e) {
-                    // skip remainder of body, re-check condition
-                }
+        while (isTruthy(node.condition.accept(this))) {
+            tick();
+            // CONTINUE just ends this pass of the body; the condition is re-checked
+            if (node.body.accept(this) == Completion.BREAK) {
+                break;
             }
-        } catch (BreakSignal e) {
-            // exit loop
         }
         return null;
     }
 
     @Override
     public RuntimeValue visitForNode(ForNode node) {
-        try {
-            for (node.initialization.accept(this);
-                 isTruthy(node.condition.accept(this));
-                 node.update.accept(this)) {
-                try {
-                    node.body.accept(this);
-                } catch (ContinueSignal e) {
-                    // skip remainder of body; Java for-loop runs update naturally
-                }
+        for (node.initialization.accept(this);
+             isTruthy(node.condition.accept(this));
+             node.update.accept(this)) {
+            tick();
+            // CONTINUE falls through to the update like a Java for-loop
+            if (node.body.accept(this) == Completion.BREAK) {
+                break;
             }
-        } catch (BreakSignal e) {
-            // exit loop
         }
         return null;
     }
 
     @Override
     public RuntimeValue visitBreakNode(BreakNode node) {
-        throw new BreakSignal();
+        return Completion.BREAK;
     }
 
     @Override
     public RuntimeValue visitContinueNode(ContinueNode node) {
-        throw new ContinueSignal();
+        return Completion.CONTINUE;
     }
 
     @Override
     public RuntimeValue visitBlockNode(BlockNode node) {
-        Environment previous = this.environment;
-        this.environment = new Environment(previous);
+        environment.push(node.localCount);
 
-        try {
-            for (StatementNode stmt : node.statements) {
-                stmt.accept(this);
+        // A BREAK or CONTINUE skips the rest of the block; the frame is not popped if a RuntimeError
+        // escapes, but execution ends there anyway
+        RuntimeValue completion = null;
+        for (StatementNode stmt : node.statements) {
+            RuntimeValue result = stmt.accept(this);
+            if (result instanceof Completion) {
+                completion = result;
+                break;
             }
-        } finally {
-            this.environment = previous;
         }
-        return null;
+
+        environment.pop();
+        return completion;
     }
 
     // =========================================================================
@@ -232,46 +260,13 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
 
     @Override
     public RuntimeValue visitLiteralNode(LiteralNode node) {
-        String lexeme = node.valueToken.lexeme;
-        return switch (node.valueToken.type) {
-            case INT_LITERAL -> new IntValue(Integer.parseInt(lexeme));
-            case FLOAT_LITERAL -> new FloatValue(Float.parseFloat(lexeme));
-            case BOOL_LITERAL -> {
-                if (lexeme.equals("\"TRUE\"") || lexeme.equals("TRUE")) {
-                    yield new BoolValue(true);
-                } else if (lexeme.equals("\"FALSE\"") || lexeme.equals("FALSE")) {
-                    yield new BoolValue(false);
-                } else {
-                    throw new RuntimeError("Invalid BOOL literal: '" + lexeme + "'. Must be exactly \"TRUE\" or \"FALSE\" in uppercase.");
-                }
-            }
-            case CHAR_LITERAL -> {
-                // Strip the single quotes from the character literal (e.g., 'c')
-                if (lexeme.length() >= 3) yield new CharValue(lexeme.charAt(1));
-                yield new CharValue(lexeme.charAt(0));
-            }
-            case STRING_LITERAL -> {
-                // Strip the leading and trailing quotation marks
-                String rawString = lexeme.substring(1, lexeme.length() - 1);
-                yield new StringValue(rawString);
-            }
-            case ESCAPE_LITERAL -> {
-                // lexeme is 3 characters long (e.g., "[[]", "[]]", "[n]", "[#]")
-                char inner = lexeme.charAt(1);
-                char evaluated = switch (inner) {
-                    case 'n' -> '\n';
-                    case 't' -> '\t';
-                    default -> inner; // If it's '[', ']', '$', '&', '#', it returns exactly that character!
-                };
-                yield new CharValue(evaluated);
-            }
-            default -> throw new RuntimeError("Unrecognized literal format: " + node.valueToken.type);
-        };
+        // Decoded once by the SemanticAnalyzer; values are immutable, so every evaluation shares it
+        return node.value;
     }
 
     @Override
     public RuntimeValue visitIdentifierNode(IdentifierNode node) {
-        return environment.get(node.name.lexeme);
+        return environment.get(node.depth, node.slot);
     }
 
     @Override
@@ -279,60 +274,46 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
 
         // TODO (DONE by She!): Add EQUAL_EQUAL and NOT_EQUAL
 
-        RuntimeValue left = node.left.accept(this);
-        RuntimeValue right = node.right.accept(this);
-
         if (node.operator.type == TokenType.AMPERSAND) {
-            String result = left.asString() + right.asString();
-            return new StringValue(result);
+            return concatenate(node).build();
         }
 
+        RuntimeValue left = node.left.accept(this);
+        RuntimeValue right = node.right.accept(this);
+
         // Equality/inequality can compare booleans or chars directly
         if (node.operator.type == TokenType.EQUAL_EQUAL) {
-            return new BoolValue(lexorEquals(left, right));
+            return BoolValue.of(Arithmetic.equal(left, right));
         }
         if (node.operator.type == TokenType.NOT_EQUAL) {
-            return new BoolValue(!lexorEquals(left, right));
+            return BoolValue.of(!Arithmetic.equal(left, right));
         }
 
         // Numeric operations only from here
-        boolean isFloat = (left instanceof FloatValue || right instanceof FloatValue);
-        float leftF, rightF;
-        try {
-            leftF = Float.parseFloat(left.asString());
-            rightF = Float.parseFloat(right.asString());
-        } catch (NumberFormatException e) {
-            throw new RuntimeError("Arithmetic operator '" + node.operator.lexeme +
-                    "' cannot be applied to non-numeric values.");
-        }
+        return Arithmetic.binary(node.operator, left, right);
+    }
 
-        return switch (node.operator.type) {
-            case PLUS  -> isFloat ? new FloatValue(leftF + rightF) : new IntValue((int)(leftF + rightF));
-            case MINUS -> isFloat ? new FloatValue(leftF - rightF) : new IntValue((int)(leftF - rightF));
-            case STAR  -> isFloat ? new FloatValue(leftF * rightF) : new IntValue((int)(leftF * rightF));
-            case SLASH -> {
-                if (rightF == 0) throw new RuntimeError("Division by zero.");
-                yield isFloat ? new FloatValue(leftF / rightF) : new IntValue((int)(leftF / rightF));
-            }
-            case MODULO -> isFloat ? new FloatValue(leftF % rightF) : new IntValue((int)(leftF % rightF));
-            case GREATER       -> new BoolValue(leftF > rightF);
-            case LESS          -> new BoolValue(leftF < rightF);
-            case GREATER_EQUAL -> new BoolValue(leftF >= rightF);
-            case LESS_EQUAL    -> new BoolValue(leftF <= rightF);
-            default -> throw new RuntimeError("Unknown binary operator: " + node.operator.lexeme);
-        };
+    // Appends a whole left-nested '&' chain into one builder, evaluating its operands left to right,
+    // instead of producing a string per '&'
+    private StringValue.Builder concatenate(ExpressionNode node) {
+        if (node instanceof BinaryExprNode binary && binary.operator.type == TokenType.AMPERSAND) {
+            return concatenate(binary.left).append(binary.right.accept(this));
+        }
+        if (node instanceof GroupingNode grouping) {
+            return concatenate(grouping.expression);
+        }
+        return StringValue.builder(node.accept(this));
     }
 
     @Override
     public RuntimeValue visitLogicalExprNode(LogicalExprNode node) {
-        // TODO: Use isTruthy() instead of raw cast for safe, consistent boolean evaluation.
-        boolean leftVal  = isTruthy(node.left.accept(this));
-        boolean rightVal = isTruthy(node.right.accept(this));
+        // Short-circuits: the right operand is only evaluated when the left one does not decide the result
+        boolean leftVal = isTruthy(node.left.accept(this));
 
         return switch (node.operator.type) {
-            case AND -> new BoolValue(leftVal && rightVal);
-            case OR  -> new BoolValue(leftVal || rightVal);
-            default  -> throw new RuntimeError("Unknown logical operator: " + node.operator.lexeme);
+            case AND -> BoolValue.of(leftVal && isTruthy(node.right.accept(this)));
+            case OR  -> BoolValue.of(leftVal || isTruthy(node.right.accept(this)));
+            default  -> throw new RuntimeError("Unknown logical operator: " + node.operator.lexeme());
         };
     }
 
@@ -341,14 +322,11 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
         RuntimeValue right = node.right.accept(this);
 
         if (node.operator.type == TokenType.NOT) {
-            return new BoolValue(!isTruthy(right));
+            return BoolValue.of(!isTruthy(right));
         }
 
-        float value = Float.parseFloat(right.asString());
-        boolean isFloat = right instanceof FloatValue;
-
         if (node.operator.type == TokenType.UNARY_MINUS) {
-            return isFloat ? new FloatValue(-value) : new IntValue((int) -value);
+            return Arithmetic.negate(node.operator, right);
         }
 
         return right; // Handles PLUS (no-op)
@@ -364,16 +342,4 @@ public class Interpreter implements ASTVisitor<RuntimeValue> {
         // The $ token produces a carriage return/newline character [cite: 30]
         return new CharValue('\n');
     }
-
-    private boolean lexorEquals(RuntimeValue left, RuntimeValue right) {
-        // Both numeric: promote to float for comparison
-        if ((left instanceof IntValue || left instanceof FloatValue) &&
-                (right instanceof IntValue || right instanceof FloatValue)) {
-            float l = Float.parseFloat(left.asString());
-            float r = Float.parseFloat(right.asString());
-            return l == r;
-        }
-        // Same type: use normal equals
-        return left.getValue().equals(right.getValue());
-    }
 }
\ No newline at end of file
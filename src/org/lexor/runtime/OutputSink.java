@@ -0,0 +1,142 @@
+package org.lexor.runtime;
+
+import org.lexor.runtime.values.FloatFormat;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+// Buffered UTF-8 destination for PRINT. Text is encoded straight into a byte buffer and only reaches the
+// underlying stream or channel when the buffer fills or flush() is called; the Interpreter flushes before
+// every SCAN and when the program ends, normally or with an error.
+public final class OutputSink implements Flushable {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // Room for the longest UTF-8 sequence, so one code point never straddles a drain
+    private static final int MIN_BUFFER_SIZE = 4;
+
+    private final OutputStream stream;
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final char[] digits = new char[FloatFormat.MAX_LENGTH];
+    private int count = 0;
+
+    public OutputSink(OutputStream stream) {
+        this(stream, DEFAULT_BUFFER_SIZE);
+    }
+
+    public OutputSink(OutputStream stream, int bufferSize) {
+        this(stream, null, bufferSize);
+    }
+
+    public OutputSink(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public OutputSink(WritableByteChannel channel, int bufferSize) {
+        this(null, channel, bufferSize);
+    }
+
+    private OutputSink(OutputStream stream, WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Output buffer size must be at least " + MIN_BUFFER_SIZE + " bytes.");
+        }
+        this.stream = stream;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+    }
+
+    // A sink over whatever System.out is at the time of the call
+    public static OutputSink stdout() {
+        return new OutputSink(System.out);
+    }
+
+    public void print(String text) {
+        print(text, 0, text.length());
+    }
+
+    // Prints text[start, end) without first copying it into a String
+    public void print(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (count == buffer.length) drain();
+                buffer[count++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                encode(Character.toCodePoint(c, text.charAt(++i)));
+            } else {
+                encode(c);
+            }
+        }
+    }
+
+    // Formats a FLOAT straight into the output without an intermediate String
+    public void print(float value) {
+        int end = FloatFormat.format(value, digits, 0);
+        for (int i = 0; i < end; i++) {
+            print(digits[i]);
+        }
+    }
+
+    public void print(char c) {
+        if (c < 0x80) {
+            if (count == buffer.length) drain();
+            buffer[count++] = (byte) c;
+        } else {
+            encode(c);
+        }
+    }
+
+    // Writes out the buffered bytes and flushes the underlying stream
+    @Override
+    public void flush() {
+        drain();
+        if (stream != null) {
+            try {
+                stream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Encodes one non-ASCII code point; unpaired surrogates become '?' as in String.getBytes
+    private void encode(int codePoint) {
+        if (buffer.length - count < MIN_BUFFER_SIZE) drain();
+        if (codePoint <= 0xFFFF && Character.isSurrogate((char) codePoint)) {
+            buffer[count++] = '?';
+        } else if (codePoint < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buffer[count++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void drain() {
+        if (count == 0) return;
+        try {
+            if (stream != null) {
+                stream.write(buffer, 0, count);
+            } else {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, count);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package org.lexor.runtime;
+
+import org.lexor.error.RuntimeError;
+import org.lexor.runtime.values.*;
+import org.lexor.semantic.symbol.Type;
+
+// Converts a SCAN input field to the declared type of its target variable and owns the SCAN error messages.
+// InputReader splits the lines and calls this for every field outside its fast paths.
+public final class ScanParser {
+
+    private ScanParser() {
+    }
+
+    public static RuntimeValue parse(Type type, String rawInput, String name) {
+        try {
+            return switch (type) {
+                case INT -> new IntValue(Integer.parseInt(rawInput));
+                case FLOAT -> new FloatValue(Float.parseFloat(rawInput));
+                case BOOL -> {
+                    if (!rawInput.equals("TRUE") && !rawInput.equals("FALSE")) {
+                        throw new RuntimeError(
+                            "Invalid BOOL input '" + rawInput + "' for variable '" + name +
+                            "'. Expected exactly TRUE or FALSE in uppercase."
+                        );
+                    }
+                    yield BoolValue.of(rawInput.equals("TRUE"));
+                }
+                case CHAR -> {
+                    if (rawInput.length() != 1) {
+                        throw new RuntimeError("Invalid CHAR input. Expected a single character but got: '" + rawInput + "'.");
+                    }
+                    yield new CharValue(rawInput.charAt(0));
+                }
+                case STRING -> new StringValue(rawInput);
+                default -> throw new RuntimeError("Unknown data type declaration.");
+            };
+        } catch (NumberFormatException e) {
+            throw new RuntimeError("Invalid input '" + rawInput + "' for variable '" + name + "'.");
+        }
+    }
+
+    // LEXOR spec: multiple values are separated by comma, and a line may not hold more values than targets
+    public static void checkCount(int count, int expected) {
+        if (count > expected) {
+            throw new RuntimeError("Too many inputs provided. Expected " +
+                    expected + " value(s), but got " + count + ".");
+        }
+    }
+}
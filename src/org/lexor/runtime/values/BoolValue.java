@@ -1,9 +1,15 @@
 package org.lexor.runtime.values;
 
 public class BoolValue implements RuntimeValue {
+    // Shared instances so comparisons and logical operators don't allocate
+    public static final BoolValue TRUE = new BoolValue(true);
+    public static final BoolValue FALSE = new BoolValue(false);
+
     private final boolean value;
     public BoolValue(boolean value) { this.value = value; }
+    public static BoolValue of(boolean value) { return value ? TRUE : FALSE; }
+    public boolean booleanValue() { return value; }
     @Override public Object getValue() { return value; }
     @Override public String asString() { return value ? "TRUE" : "FALSE"; }
     @Override public String toString() { return asString(); }
-}
\ No newline at end of file
+}
@@ -3,7 +3,8 @@ package org.lexor.runtime.values;
 public class CharValue implements RuntimeValue {
     private final char value;
     public CharValue(char value) { this.value = value; }
+    public char charValue() { return value; }
     @Override public Object getValue() { return value; }
     @Override public String asString() { return String.valueOf(value); }
     @Override public String toString() { return asString(); }
-}
\ No newline at end of file
+}
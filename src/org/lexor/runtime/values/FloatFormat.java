@@ -0,0 +1,120 @@
+package org.lexor.runtime.values;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+// LEXOR's textual form of a FLOAT: at least one and at most two decimals, rounded HALF_EVEN on the float's
+// exact binary value, which is what DecimalFormat("0.0#") prints. Finite values below 2^FAST_EXPONENT are
+// rounded with long arithmetic and written straight into the caller's buffer without allocating; larger
+// values and NaN/infinity go to a DecimalFormat under a lock. Keeps no other state, so any thread may use it.
+public final class FloatFormat {
+    // Enough for any output: sign, 39 integer digits, point and decimal, or the NaN/infinity symbols
+    public static final int MAX_LENGTH = 48;
+
+    // Below 2^24 a float may have a fraction; up to here its integer digits are printed exactly by both paths
+    private static final int FAST_EXPONENT = 24;
+
+    private FloatFormat() {
+    }
+
+    // Writes value into buffer at offset, which must have MAX_LENGTH chars of room; returns the end offset
+    public static int format(float value, char[] buffer, int offset) {
+        long hundredths = hundredths(value);
+        if (hundredths < 0) {
+            String text = slowFormat(value);
+            text.getChars(0, text.length(), buffer, offset);
+            return offset + text.length();
+        }
+
+        int pos = offset;
+        if (Float.floatToRawIntBits(value) < 0) {
+            buffer[pos++] = '-';
+        }
+        long whole = hundredths / 100;
+        int cents = (int) (hundredths % 100);
+        int digits = 1;
+        for (long rest = whole / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + whole % 10);
+            whole /= 10;
+        }
+        pos += digits;
+        buffer[pos++] = '.';
+        buffer[pos++] = (char) ('0' + cents / 10);
+        if (cents % 10 != 0) {
+            buffer[pos++] = (char) ('0' + cents % 10);
+        }
+        return pos;
+    }
+
+    // Appends value to out without an intermediate String
+    public static void append(float value, StringBuilder out) {
+        long hundredths = hundredths(value);
+        if (hundredths < 0) {
+            out.append(slowFormat(value));
+            return;
+        }
+        if (Float.floatToRawIntBits(value) < 0) {
+            out.append('-');
+        }
+        int cents = (int) (hundredths % 100);
+        out.append(hundredths / 100).append('.').append((char) ('0' + cents / 10));
+        if (cents % 10 != 0) {
+            out.append((char) ('0' + cents % 10));
+        }
+    }
+
+    public static String toString(float value) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(value, buffer, 0));
+    }
+
+    // |value| * 100 rounded HALF_EVEN to an integer, or -1 when value is not finite or not below 2^FAST_EXPONENT.
+    // |value| is exactly mantissa * 2^shift, so the remainder decides the rounding without any error.
+    private static long hundredths(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int exponent = (bits >>> 23) & 0xFF;
+        long mantissa = bits & 0x7FFFFF;
+        if (exponent == 0) {
+            exponent = 1;
+        } else {
+            mantissa |= 1 << 23;
+        }
+        int shift = exponent - 150;
+        if (shift >= FAST_EXPONENT - 23) {
+            return -1;
+        }
+
+        long scaled = mantissa * 100;
+        if (shift >= 0) {
+            return scaled << shift;
+        }
+        int drop = -shift;
+        if (drop > 62) {
+            // scaled < 2^31, so the result is below a quarter and rounds to zero
+            return 0;
+        }
+        long quotient = scaled >>> drop;
+        long remainder = scaled & ((1L << drop) - 1);
+        long half = 1L << (drop - 1);
+        if (remainder > half || (remainder == half && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    private static String slowFormat(float value) {
+        synchronized (Slow.FORMAT) {
+            return Slow.FORMAT.format(value);
+        }
+    }
+
+    // Created on the first slow-path value: building a DecimalFormat loads the locale data, which costs a
+    // one-shot run tens of milliseconds, and most scripts never print a float this large
+    private static final class Slow {
+        static final DecimalFormat FORMAT = new DecimalFormat("0.0#", DecimalFormatSymbols.getInstance(Locale.ROOT));
+    }
+}
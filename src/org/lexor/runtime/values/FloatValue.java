@@ -1,16 +1,20 @@
 package org.lexor.runtime.values;
 
-import java.text.DecimalFormat;
-
 public class FloatValue implements RuntimeValue {
     private final float value;
-    private static final DecimalFormat FORMAT = new DecimalFormat("0.0#");
 
     public FloatValue(float value) {
         this.value = value;
     }
 
+    public float floatValue() {return value;}
+
+    // LEXOR's textual form of a FLOAT: at least one and at most two decimals (see FloatFormat)
+    public static String format(float value) {
+        return FloatFormat.toString(value);
+    }
+
     @Override public Object getValue() {return value;}
-    @Override public String asString() {return FORMAT.format(value);}
+    @Override public String asString() {return format(value);}
     @Override public String toString() {return asString(); }
 }
\ No newline at end of file
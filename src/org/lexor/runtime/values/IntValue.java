@@ -3,7 +3,8 @@ package org.lexor.runtime.values;
 public class IntValue implements RuntimeValue {
     private final int value;
     public IntValue(int value) { this.value = value; }
+    public int intValue() { return value; }
     @Override public Object getValue() { return value; }
     @Override public String asString() { return String.valueOf(value); }
     @Override public String toString() { return asString(); }
-}
\ No newline at end of file
+}
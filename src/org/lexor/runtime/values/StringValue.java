@@ -1,9 +1,109 @@
 package org.lexor.runtime.values;
 
-public class StringValue implements RuntimeValue {
-    private final String value;
-    public StringValue(String value) { this.value = value; }
-    @Override public Object getValue() { return value; }
-    @Override public String asString() { return value; }
+// A LEXOR STRING. Values produced by '&' are prefixes of a shared, growing StringBuilder: appending to the
+// value that ends at the builder's tip (s = s & x) extends the builder in place, so building a string piece
+// by piece is linear instead of quadratic. Any other append copies first, which keeps every value immutable.
+// The flat String is only materialized on demand and then cached.
+//
+// The in-place append is not synchronized: builder-backed values are created while a program runs and stay
+// within that run; values stored in the AST (literals) are always flat.
+public final class StringValue implements RuntimeValue {
+    private final StringBuilder buffer;
+    private final int length;
+    private String value;
+
+    public StringValue(String value) {
+        this.buffer = null;
+        this.length = value.length();
+        this.value = value;
+    }
+
+    private StringValue(StringBuilder buffer) {
+        this.buffer = buffer;
+        this.length = buffer.length();
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // The characters of this value are contents()[0, length()); lets PRINT stream them without flattening
+    public CharSequence contents() {
+        return (value != null) ? value : buffer;
+    }
+
+    // Starts concatenating a '&' chain at its first part, extending that part's builder in place when the
+    // part is at its tip
+    public static Builder builder(RuntimeValue first) {
+        if (first instanceof StringValue s && s.buffer != null && s.buffer.length() == s.length) {
+            return new Builder(s.buffer);
+        }
+        StringBuilder buffer;
+        if (first instanceof StringValue s) {
+            buffer = new StringBuilder(Math.max(16, s.length * 2));
+            buffer.append(s.contents(), 0, s.length);
+        } else {
+            buffer = new StringBuilder();
+            new Builder(buffer).append(first);
+        }
+        return new Builder(buffer);
+    }
+
+    @Override public Object getValue() { return asString(); }
+
+    @Override
+    public String asString() {
+        if (value == null) {
+            value = buffer.substring(0, length);
+        }
+        return value;
+    }
+
     @Override public String toString() { return asString(); }
-}
\ No newline at end of file
+
+    // Appends the remaining parts of a '&' chain; build() returns the value ending at the new tip. Evaluating
+    // a later part may itself extend the shared buffer (t = s & (s & "x")), so every append first checks that
+    // the buffer still ends where this chain left it, and copies this chain's prefix out when it does not.
+    public static final class Builder {
+        private StringBuilder buffer;
+        private int tip;
+
+        private Builder(StringBuilder buffer) {
+            this.buffer = buffer;
+            this.tip = buffer.length();
+        }
+
+        public Builder append(RuntimeValue part) {
+            if (buffer.length() != tip) {
+                StringBuilder copy = new StringBuilder(Math.max(16, tip * 2));
+                copy.append(buffer, 0, tip);
+                buffer = copy;
+            }
+            if (part instanceof StringValue s) {
+                if (s.buffer == buffer) {
+                    // s & s: copy the prefix out before the builder grows under it
+                    buffer.append(s.asString());
+                } else {
+                    buffer.append(s.contents(), 0, s.length);
+                }
+            } else if (part instanceof CharValue c) {
+                buffer.append(c.charValue());
+            } else if (part instanceof IntValue i) {
+                buffer.append(i.intValue());
+            } else if (part instanceof FloatValue f) {
+                FloatFormat.append(f.floatValue(), buffer);
+            } else {
+                buffer.append(part.asString());
+            }
+            tip = buffer.length();
+            return this;
+        }
+
+        public StringValue build() {
+            if (buffer.length() != tip) {
+                return new StringValue(buffer.substring(0, tip));
+            }
+            return new StringValue(buffer);
+        }
+    }
+}
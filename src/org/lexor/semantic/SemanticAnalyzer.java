@@ -3,6 +3,7 @@ package org.lexor.semantic;
 import org.lexor.ast.nodes.*;
 import org.lexor.ast.visitor.ASTVisitor;
 import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.*;
 import org.lexor.semantic.symbol.Symbol;
 import org.lexor.semantic.symbol.SymbolTable;
 import org.lexor.semantic.symbol.Type;
@@ -43,6 +44,7 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
         for (VarDeclNode decl : node.declarations) {
             decl.accept(this);
         }
+        node.localCount = currentScope.getSymbolCount();
 
         for (StatementNode stmt : node.statements) {
             stmt.accept(this);
@@ -53,11 +55,12 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
     // Registers the variable in the symbol table and strictly type-checks its optional initial value.
     @Override
     public Type visitVarDeclNode(VarDeclNode decl) {
-        String varName = decl.identifier.lexeme;
+        String varName = decl.identifier.lexeme();
         Type type = determineType(decl.dataType.type);
 
         boolean hasInit = decl.initializer != null;
-        currentScope.define(varName, type, decl.identifier.line, hasInit);
+        Symbol sym = currentScope.define(varName, type, decl.identifier.line, hasInit);
+        decl.slot = sym.getSlot();
 
         if (hasInit) {
             Type initializerType = decl.initializer.accept(this);
@@ -76,13 +79,16 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
     // Evaluates and returns the data type of the expression enclosed in parentheses.
     @Override
     public Type visitGroupingNode(GroupingNode node) {
-        return node.expression.accept(this);
+        node.type = node.expression.accept(this);
+        return node.type;
     }
 
     // Verifies the variable exists and ensures the assigned value strictly matches its declared type.
     @Override
     public Type visitAssignmentNode(AssignmentNode node) {
-        Symbol sym = currentScope.resolve(node.identifier.lexeme, node.identifier.line);
+        Symbol sym = currentScope.resolve(node.identifier.lexeme(), node.identifier.line);
+        node.depth = sym.getDepth();
+        node.slot = sym.getSlot();
         Type varType = sym.getType();
         Type valueType = node.value.accept(this);
 
@@ -95,6 +101,7 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
         }
 
         sym.markInitialized();
+        node.type = varType;
         return varType;
     }
 
@@ -110,8 +117,12 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
     // Verifies that all variables targeted for input have been previously declared.
     @Override
     public Type visitScanNode(ScanNode node) {
-        for (org.lexor.lexer.Token id : node.identifiers) {
-            Symbol sym = currentScope.resolve(id.lexeme, id.line);
+        for (int i = 0; i < node.identifiers.size(); i++) {
+            org.lexor.lexer.Token id = node.identifiers.get(i);
+            Symbol sym = currentScope.resolve(id.lexeme(), id.line);
+            node.depths[i] = sym.getDepth();
+            node.slots[i] = sym.getSlot();
+            node.types[i] = sym.getType();
             sym.markInitialized();
         }
         return null;
@@ -193,6 +204,7 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
         for (StatementNode stmt : node.statements) {
             stmt.accept(this);
         }
+        node.localCount = currentScope.getSymbolCount();
 
         // Pop the local scope when the block ends
         this.currentScope = previousScope;
@@ -208,7 +220,8 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
     // Maps a literal token to its corresponding semantic data type for type checking.
     @Override
     public Type visitLiteralNode(LiteralNode node) {
-        return switch (node.valueToken.type) {
+        node.value = decodeLiteral(node);
+        node.type = switch (node.valueToken.type) {
             case INT_LITERAL -> Type.INT;
             case FLOAT_LITERAL -> Type.FLOAT;
             case CHAR_LITERAL -> Type.CHAR;
@@ -216,27 +229,85 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
             case STRING_LITERAL -> Type.STRING;
             default -> Type.UNKNOWN;
         };
+        return node.type;
+    }
+
+    // Turns a literal's lexeme into its immutable runtime value, rejecting malformed BOOL literals and numbers
+    // too large for their type here instead of when the literal is first evaluated.
+    private RuntimeValue decodeLiteral(LiteralNode node) {
+        String lexeme = node.valueToken.lexeme();
+        return switch (node.valueToken.type) {
+            case INT_LITERAL -> {
+                try {
+                    yield new IntValue(Integer.parseInt(lexeme));
+                } catch (NumberFormatException e) {
+                    throw new org.lexor.error.SemanticError(node.valueToken.line,
+                            "Invalid INT literal: '" + lexeme + "' does not fit in an INT (at most " + Integer.MAX_VALUE + ").");
+                }
+            }
+            case FLOAT_LITERAL -> {
+                float value;
+                try {
+                    value = Float.parseFloat(lexeme);
+                } catch (NumberFormatException e) {
+                    value = Float.POSITIVE_INFINITY;
+                }
+                if (Float.isInfinite(value)) {
+                    throw new org.lexor.error.SemanticError(node.valueToken.line,
+                            "Invalid FLOAT literal: '" + lexeme + "' does not fit in a FLOAT.");
+                }
+                yield new FloatValue(value);
+            }
+            case BOOL_LITERAL -> {
+                if (lexeme.equals("\"TRUE\"") || lexeme.equals("TRUE")) {
+                    yield BoolValue.TRUE;
+                } else if (lexeme.equals("\"FALSE\"") || lexeme.equals("FALSE")) {
+                    yield BoolValue.FALSE;
+                }
+                throw new org.lexor.error.SemanticError(node.valueToken.line,
+                        "Invalid BOOL literal: '" + lexeme + "'. Must be exactly \"TRUE\" or \"FALSE\" in uppercase.");
+            }
+            // Strip the single quotes from the character literal (e.g., 'c')
+            case CHAR_LITERAL -> new CharValue(lexeme.length() >= 3 ? lexeme.charAt(1) : lexeme.charAt(0));
+            // Strip the leading and trailing quotation marks
+            case STRING_LITERAL -> new StringValue(lexeme.substring(1, lexeme.length() - 1));
+            // lexeme is 3 characters long (e.g., "[[]", "[]]", "[n]", "[#]")
+            case ESCAPE_LITERAL -> new CharValue(switch (lexeme.charAt(1)) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                default -> lexeme.charAt(1);
+            });
+            default -> throw new org.lexor.error.SemanticError(node.valueToken.line, "Unrecognized literal format: " + lexeme);
+        };
     }
 
     // Retrieves the variable's declared type from the symbol table, verifying its existence.
 
     @Override
     public Type visitIdentifierNode(IdentifierNode node) {
-        Symbol sym = currentScope.resolve(node.name.lexeme, node.name.line);
+        Symbol sym = currentScope.resolve(node.name.lexeme(), node.name.line);
+        node.depth = sym.getDepth();
+        node.slot = sym.getSlot();
 
         // TODO: Warn (or error) when a variable is read before being assigned any value.
         //       This catches bugs like: DECLARE INT x  then  PRINT: x  with no assignment.
         if (!sym.isInitialized()) {
             throw new org.lexor.error.SemanticError(node.name.line,
-                    "Variable '" + node.name.lexeme + "' is used before being initialized.");
+                    "Variable '" + node.name.lexeme() + "' is used before being initialized.");
         }
 
-        return sym.getType();
+        node.type = sym.getType();
+        return node.type;
     }
 
     // Evaluates both operands to determine the resulting data type based on the specific binary operator.
     @Override
     public Type visitBinaryExprNode(BinaryExprNode node) {
+        node.type = binaryType(node);
+        return node.type;
+    }
+
+    private Type binaryType(BinaryExprNode node) {
         Type leftType = node.left.accept(this);
         Type rightType = node.right.accept(this);
 
@@ -270,7 +341,7 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
         if (!leftNumeric || !rightNumeric) {
             throw new org.lexor.error.SemanticError(
                     node.operator.line,
-                    "Operator '" + node.operator.lexeme + "' requires numeric (INT or FLOAT) operands, " +
+                    "Operator '" + node.operator.lexeme() + "' requires numeric (INT or FLOAT) operands, " +
                             "but got " + leftType + " and " + rightType + "."
             );
         }
@@ -290,12 +361,18 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
         if (leftType != Type.BOOL || rightType != Type.BOOL) {
             throw new org.lexor.error.SemanticError(node.operator.line, "Logical operators AND/OR require BOOL operands.");
         }
-        return Type.BOOL;
+        node.type = Type.BOOL;
+        return node.type;
     }
 
     // Validates the operand type for unary operators, enforcing BOOL for NOT and numeric types for signs.
     @Override
     public Type visitUnaryExprNode(UnaryExprNode node) {
+        node.type = unaryType(node);
+        return node.type;
+    }
+
+    private Type unaryType(UnaryExprNode node) {
         Type rightType = node.right.accept(this);
 
         if (node.operator.type == TokenType.NOT) {
@@ -312,7 +389,8 @@ public class SemanticAnalyzer implements ASTVisitor<Type> {
     // Evaluates the newline symbol as a CHAR type to facilitate concatenation and printing.
     @Override
     public Type visitNewlineNode(NewlineNode node) {
-        return Type.CHAR;
+        node.type = Type.CHAR;
+        return node.type;
     }
 
     // Identifies whether a given token type is a relational operator used for boolean comparisons.
@@ -4,19 +4,25 @@ public class Symbol {
     private final String name;
     private final Type type;
     private final int line;
+    private final int depth;   // Nesting level of the declaring scope (0 = global)
+    private final int slot;    // Index of the variable inside its scope's runtime frame
 
     private boolean initialized;
 
-    public Symbol(String name, Type type, int line, boolean initialized) {
+    public Symbol(String name, Type type, int line, boolean initialized, int depth, int slot) {
         this.name = name;
         this.type = type;
         this.line = line;
         this.initialized = initialized;
+        this.depth = depth;
+        this.slot = slot;
     }
 
     public String getName()  { return name; }
     public Type getType()    { return type; }
     public int getLine()     { return line; }
+    public int getDepth()    { return depth; }
+    public int getSlot()     { return slot; }
 
     public boolean isInitialized() { return initialized; }
     public void markInitialized()  { this.initialized = true; }
@@ -7,22 +7,28 @@ import java.util.Collections;
 
 public class SymbolTable {
     private final SymbolTable parent;
+    private final int depth;
     private final Map<String, Symbol> symbols = new HashMap<>();
 
     public SymbolTable() {
         this.parent = null;
+        this.depth = 0;
     }
 
     public SymbolTable(SymbolTable parent) {
         this.parent = parent;
+        this.depth = parent.depth + 1;
     }
 
-    public void define(String name, Type type, int line, boolean initialized) {
+    // Slots are handed out in declaration order, so a scope's frame is simply an array of getSymbolCount() values.
+    public Symbol define(String name, Type type, int line, boolean initialized) {
         if (symbols.containsKey(name)) {
             throw new org.lexor.error.SemanticError(line,
                     "Variable '" + name + "' is already declared in this scope.");
         }
-        symbols.put(name, new Symbol(name, type, line, initialized));
+        Symbol symbol = new Symbol(name, type, line, initialized, depth, symbols.size());
+        symbols.put(name, symbol);
+        return symbol;
     }
 
     public Symbol resolve(String name, int line) {
@@ -35,6 +41,10 @@ public class SymbolTable {
         throw new org.lexor.error.SemanticError(line, "Undeclared or out-of-scope variable '" + name + "'.");
     }
 
+    public int getDepth() {
+        return depth;
+    }
+
     public int getSymbolCount() {
         return symbols.size();
     }
@@ -50,10 +60,12 @@ public class SymbolTable {
        StringBuilder sb = new StringBuilder();
        sb.append("=== Symbol Table Dump ===\n");
        for (Symbol sym : symbols.values()) {
-           sb.append(String.format("  %-15s | Type: %-6s | Line: %d | Init: %s\n",
+           sb.append(String.format("  %-15s | Type: %-6s | Line: %d | Slot: %d:%d | Init: %s\n",
                    sym.getName(),
                    sym.getType(),
                    sym.getLine(),
+                   sym.getDepth(),
+                   sym.getSlot(),
                    sym.isInitialized() ? "YES" : "NO"));
        }
        if (parent != null) {
@@ -0,0 +1,512 @@
+package org.lexor.vm;
+
+import org.lexor.ast.nodes.*;
+import org.lexor.ast.visitor.ASTVisitor;
+import org.lexor.lexer.TokenType;
+import org.lexor.runtime.values.*;
+import org.lexor.semantic.symbol.Type;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lowers a verified AST (after SemanticAnalyzer.analyze) into a Chunk for the VirtualMachine.
+// Expression visitors return the Type of the value they leave on the stack, which selects the typed opcodes.
+public class BytecodeCompiler implements ASTVisitor<Type> {
+    private int[] code = new int[256];
+    private int size = 0;
+    private final List<Object> constants = new ArrayList<>();
+    private final Map<Object, Integer> constantIndex = new HashMap<>();
+    private final Deque<LoopContext> loops = new ArrayDeque<>();
+
+    // Current and maximum depth of the two operand stacks
+    private int intDepth = 0, maxIntDepth = 0;
+    private int objectDepth = 0, maxObjectDepth = 0;
+
+    // Jump sites of BREAK/CONTINUE statements that are patched once the loop's exit/continue target is known
+    private static class LoopContext {
+        final List<Integer> breaks = new ArrayList<>();
+        final List<Integer> continues = new ArrayList<>();
+    }
+
+    public Chunk compile(ProgramNode program) {
+        program.accept(this);
+        emit(Opcode.HALT);
+        return new Chunk(Arrays.copyOf(code, size), constants.toArray(), program.localCount,
+                maxIntDepth, maxObjectDepth);
+    }
+
+    // =========================================================================
+    // STATEMENTS
+    // =========================================================================
+
+    @Override
+    public Type visitProgramNode(ProgramNode node) {
+        for (VarDeclNode decl : node.declarations) {
+            decl.accept(this);
+        }
+        for (StatementNode stmt : node.statements) {
+            stmt.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Type visitVarDeclNode(VarDeclNode node) {
+        Type declared = declaredType(node.dataType.type);
+        if (node.initializer != null) {
+            widen(value(node.initializer), declared);
+        } else if (declared == Type.STRING) {
+            emitConstant("");
+        } else {
+            emitIntConstant(0); // 0, 0.0, FALSE and '\0' all share the zero bit pattern
+        }
+        store(declared, node.slot);
+        return null;
+    }
+
+    @Override
+    public Type visitAssignmentNode(AssignmentNode node) {
+        assign(node, false);
+        return null;
+    }
+
+    @Override
+    public Type visitPrintNode(PrintNode node) {
+        for (ExpressionNode expr : node.expressions) {
+            Type type = expr.accept(this);
+            switch (type) {
+                case INT -> emit(Opcode.PRINTI);
+                case FLOAT -> emit(Opcode.PRINTF);
+                case BOOL -> emit(Opcode.PRINTB);
+                case CHAR -> emit(Opcode.PRINTC);
+                default -> emit(Opcode.PRINTS);
+            }
+            pop(type);
+        }
+        return null;
+    }
+
+    @Override
+    public Type visitScanNode(ScanNode node) {
+        emit(Opcode.SCAN);
+        emit(node.identifiers.size());
+        for (int i = 0; i < node.identifiers.size(); i++) {
+            checkGlobal(node.depths[i]);
+            emit(node.slots[i]);
+            emit(node.types[i].ordinal());
+            emit(constant(node.identifiers.get(i).lexeme()));
+        }
+        return null;
+    }
+
+    @Override
+    public Type visitIfNode(IfNode node) {
+        List<Integer> exits = new ArrayList<>();
+
+        condition(node.condition);
+        int next = emitJump(Opcode.JMP_IF_FALSE);
+        node.thenBranch.accept(this);
+        exits.add(emitJump(Opcode.JMP));
+        patch(next);
+
+        for (IfNode.ElseIfPart part : node.elseIfParts) {
+            condition(part.condition);
+            next = emitJump(Opcode.JMP_IF_FALSE);
+            part.body.accept(this);
+            exits.add(emitJump(Opcode.JMP));
+            patch(next);
+        }
+
+        if (node.elseBranch != null) {
+            node.elseBranch.accept(this);
+        }
+        for (int site : exits) {
+            patch(site);
+        }
+        return null;
+    }
+
+    @Override
+    public Type visitRepeatNode(RepeatNode node) {
+        int top = size;
+        condition(node.condition);
+        int exit = emitJump(Opcode.JMP_IF_FALSE);
+
+        LoopContext loop = new LoopContext();
+        loops.push(loop);
+        node.body.accept(this);
+        loops.pop();
+
+        emitJumpTo(Opcode.JMP, top);
+        patch(exit);
+        patchAll(loop.breaks, size);
+        patchAll(loop.continues, top);
+        return null;
+    }
+
+    @Override
+    public Type visitForNode(ForNode node) {
+        node.initialization.accept(this);
+        int top = size;
+        condition(node.condition);
+        int exit = emitJump(Opcode.JMP_IF_FALSE);
+
+        LoopContext loop = new LoopContext();
+        loops.push(loop);
+        node.body.accept(this);
+        loops.pop();
+
+        int update = size;
+        node.update.accept(this);
+        emitJumpTo(Opcode.JMP, top);
+        patch(exit);
+        patchAll(loop.breaks, size);
+        patchAll(loop.continues, update);
+        return null;
+    }
+
+    @Override
+    public Type visitBreakNode(BreakNode node) {
+        loops.peek().breaks.add(emitJump(Opcode.JMP));
+        return null;
+    }
+
+    @Override
+    public Type visitContinueNode(ContinueNode node) {
+        loops.peek().continues.add(emitJump(Opcode.JMP));
+        return null;
+    }
+
+    @Override
+    public Type visitBlockNode(BlockNode node) {
+        if (node.localCount != 0) {
+            throw new IllegalStateException("The bytecode compiler only supports variables declared in the global scope.");
+        }
+        for (StatementNode stmt : node.statements) {
+            stmt.accept(this);
+        }
+        return null;
+    }
+
+    // =========================================================================
+    // EXPRESSIONS
+    // =========================================================================
+
+    @Override
+    public Type visitLiteralNode(LiteralNode node) {
+        switch (node.value) {
+            case IntValue i -> {
+                emitIntConstant(i.intValue());
+                return Type.INT;
+            }
+            case FloatValue f -> {
+                emitIntConstant(Float.floatToRawIntBits(f.floatValue()));
+                return Type.FLOAT;
+            }
+            case BoolValue b -> {
+                emitIntConstant(b.booleanValue() ? 1 : 0);
+                return Type.BOOL;
+            }
+            case CharValue c -> {
+                emitIntConstant(c.charValue());
+                return Type.CHAR;
+            }
+            default -> {
+                emitConstant(node.value.asString());
+                return Type.STRING;
+            }
+        }
+    }
+
+    @Override
+    public Type visitIdentifierNode(IdentifierNode node) {
+        checkGlobal(node.depth);
+        if (node.type == Type.STRING) {
+            emit(Opcode.SLOAD);
+            pushObject();
+        } else {
+            emit(Opcode.ILOAD);
+            pushInt();
+        }
+        emit(node.slot);
+        return node.type;
+    }
+
+    @Override
+    public Type visitBinaryExprNode(BinaryExprNode node) {
+        TokenType op = node.operator.type;
+
+        if (op == TokenType.AMPERSAND) {
+            stringify(node.left.accept(this));
+            stringify(node.right.accept(this));
+            emit(Opcode.CONCAT);
+            popObject();
+            return Type.STRING;
+        }
+
+        Type leftType = staticType(node.left);
+        Type rightType = staticType(node.right);
+        boolean numeric = isNumeric(leftType) && isNumeric(rightType);
+
+        if ((op == TokenType.EQUAL_EQUAL || op == TokenType.NOT_EQUAL) && !numeric) {
+            node.left.accept(this);
+            node.right.accept(this);
+            boolean eq = op == TokenType.EQUAL_EQUAL;
+            if (leftType == Type.STRING) {
+                emit(eq ? Opcode.SCMPEQ : Opcode.SCMPNE);
+                popObject();
+                popObject();
+                pushInt();
+            } else {
+                emit(eq ? Opcode.ICMPEQ : Opcode.ICMPNE);
+                popInt();
+            }
+            return Type.BOOL;
+        }
+
+        // Numeric from here: INT x INT stays integral, anything involving a FLOAT is widened first
+        boolean isFloat = leftType == Type.FLOAT || rightType == Type.FLOAT;
+        widen(node.left.accept(this), isFloat ? Type.FLOAT : Type.INT);
+        widen(node.right.accept(this), isFloat ? Type.FLOAT : Type.INT);
+        popInt();
+
+        Type result = isFloat ? Type.FLOAT : Type.INT;
+        int opcode = switch (op) {
+            case PLUS -> isFloat ? Opcode.FADD : Opcode.IADD;
+            case MINUS -> isFloat ? Opcode.FSUB : Opcode.ISUB;
+            case STAR -> isFloat ? Opcode.FMUL : Opcode.IMUL;
+            case SLASH -> isFloat ? Opcode.FDIV : Opcode.IDIV;
+            case MODULO -> isFloat ? Opcode.FMOD : Opcode.IMOD;
+            default -> {
+                result = Type.BOOL;
+                yield switch (op) {
+                    case EQUAL_EQUAL -> isFloat ? Opcode.FCMPEQ : Opcode.ICMPEQ;
+                    case NOT_EQUAL -> isFloat ? Opcode.FCMPNE : Opcode.ICMPNE;
+                    case LESS -> isFloat ? Opcode.FCMPLT : Opcode.ICMPLT;
+                    case LESS_EQUAL -> isFloat ? Opcode.FCMPLE : Opcode.ICMPLE;
+                    case GREATER -> isFloat ? Opcode.FCMPGT : Opcode.ICMPGT;
+                    case GREATER_EQUAL -> isFloat ? Opcode.FCMPGE : Opcode.ICMPGE;
+                    default -> throw new IllegalStateException("Unknown binary operator: " + node.operator.lexeme());
+                };
+            }
+        };
+        emit(opcode);
+        return result;
+    }
+
+    @Override
+    public Type visitLogicalExprNode(LogicalExprNode node) {
+        // Short-circuits: AND yields 0 without the right operand when the left is false, OR yields 1 when it is true
+        condition(node.left);
+        int shortCircuit = emitJump(Opcode.JMP_IF_FALSE);
+        if (node.operator.type == TokenType.AND) {
+            node.right.accept(this);
+            int end = emitJump(Opcode.JMP);
+            popInt(); // the ICONST below reaches the join point with the same depth
+            patch(shortCircuit);
+            emitIntConstant(0);
+            patch(end);
+        } else {
+            emitIntConstant(1);
+            int end = emitJump(Opcode.JMP);
+            popInt();
+            patch(shortCircuit);
+            node.right.accept(this);
+            patch(end);
+        }
+        return Type.BOOL;
+    }
+
+    @Override
+    public Type visitUnaryExprNode(UnaryExprNode node) {
+        Type type = node.right.accept(this);
+        if (node.operator.type == TokenType.NOT) {
+            emit(Opcode.NOT);
+        } else if (node.operator.type == TokenType.UNARY_MINUS) {
+            emit(type == Type.FLOAT ? Opcode.FNEG : Opcode.INEG);
+        }
+        return type;
+    }
+
+    @Override
+    public Type visitGroupingNode(GroupingNode node) {
+        return node.expression.accept(this);
+    }
+
+    @Override
+    public Type visitNewlineNode(NewlineNode node) {
+        emitIntConstant('\n');
+        return Type.CHAR;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    // Compiles the right-hand side of a declaration or assignment, which may itself be a chained assignment
+    private Type value(ASTNode node) {
+        if (node instanceof AssignmentNode assignment) {
+            return assign(assignment, true);
+        }
+        return node.accept(this);
+    }
+
+    private Type assign(AssignmentNode node, boolean keepValue) {
+        widen(value(node.value), node.type);
+        if (keepValue) {
+            if (node.type == Type.STRING) {
+                emit(Opcode.SDUP);
+                pushObject();
+            } else {
+                emit(Opcode.IDUP);
+                pushInt();
+            }
+        }
+        checkGlobal(node.depth);
+        store(node.type, node.slot);
+        return node.type;
+    }
+
+    private void store(Type type, int slot) {
+        if (type == Type.STRING) {
+            emit(Opcode.SSTORE);
+            popObject();
+        } else {
+            emit(Opcode.ISTORE);
+            popInt();
+        }
+        emit(slot);
+    }
+
+    private void condition(ExpressionNode expr) {
+        expr.accept(this);
+        popInt(); // consumed by the JMP_IF_FALSE emitted next
+    }
+
+    // Converts the value on top of the stack from one type to the (wider) target type
+    private void widen(Type from, Type to) {
+        if (from == Type.INT && to == Type.FLOAT) {
+            emit(Opcode.I2F);
+        } else if (from == Type.CHAR && to == Type.STRING) {
+            stringify(from);
+        }
+    }
+
+    // Replaces the value on top of the stack with its STRING form
+    private void stringify(Type type) {
+        int opcode = switch (type) {
+            case INT -> Opcode.I2S;
+            case FLOAT -> Opcode.F2S;
+            case BOOL -> Opcode.B2S;
+            case CHAR -> Opcode.C2S;
+            default -> -1;
+        };
+        if (opcode != -1) {
+            emit(opcode);
+            popInt();
+            pushObject();
+        }
+    }
+
+    // The static type of an expression without compiling it; escape literals are CHARs the analyzer leaves untyped
+    private Type staticType(ExpressionNode expr) {
+        if (expr instanceof LiteralNode literal && literal.valueToken.type == TokenType.ESCAPE_LITERAL) {
+            return Type.CHAR;
+        }
+        return expr.type;
+    }
+
+    private static boolean isNumeric(Type type) {
+        return type == Type.INT || type == Type.FLOAT;
+    }
+
+    private static Type declaredType(TokenType tokenType) {
+        return switch (tokenType) {
+            case INT -> Type.INT;
+            case FLOAT -> Type.FLOAT;
+            case CHAR -> Type.CHAR;
+            case BOOL -> Type.BOOL;
+            case STRING -> Type.STRING;
+            default -> throw new IllegalStateException("Unknown data type declaration.");
+        };
+    }
+
+    private static void checkGlobal(int depth) {
+        if (depth != 0) {
+            throw new IllegalStateException("The bytecode compiler only supports variables declared in the global scope.");
+        }
+    }
+
+    private void pop(Type type) {
+        if (type == Type.STRING) popObject(); else popInt();
+    }
+
+    private void pushInt() {
+        maxIntDepth = Math.max(maxIntDepth, ++intDepth);
+    }
+
+    private void popInt() {
+        intDepth--;
+    }
+
+    private void pushObject() {
+        maxObjectDepth = Math.max(maxObjectDepth, ++objectDepth);
+    }
+
+    private void popObject() {
+        objectDepth--;
+    }
+
+    private void emit(int value) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, size * 2);
+        }
+        code[size++] = value;
+    }
+
+    private void emitIntConstant(int value) {
+        emit(Opcode.ICONST);
+        emit(value);
+        pushInt();
+    }
+
+    private void emitConstant(String value) {
+        emit(Opcode.SCONST);
+        emit(constant(value));
+        pushObject();
+    }
+
+    private int constant(Object value) {
+        return constantIndex.computeIfAbsent(value, v -> {
+            constants.add(v);
+            return constants.size() - 1;
+        });
+    }
+
+    // Emits a jump with a placeholder target and returns the position of the operand to patch
+    private int emitJump(int opcode) {
+        emit(opcode);
+        emit(-1);
+        return size - 1;
+    }
+
+    private void emitJumpTo(int opcode, int target) {
+        emit(opcode);
+        emit(target);
+    }
+
+    private void patch(int site) {
+        code[site] = size;
+    }
+
+    private void patchAll(List<Integer> sites, int target) {
+        for (int site : sites) {
+            code[site] = target;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.lexor.vm;
+
+import java.util.Arrays;
+
+// A compiled LEXOR program: the instruction stream, its constant pool and the sizes the VM has to allocate.
+public final class Chunk {
+    private final int[] code;
+    private final Object[] constants;
+    private final int localCount;
+    private final int maxIntStack;
+    private final int maxObjectStack;
+
+    Chunk(int[] code, Object[] constants, int localCount, int maxIntStack, int maxObjectStack) {
+        this.code = code;
+        this.constants = constants;
+        this.localCount = localCount;
+        this.maxIntStack = maxIntStack;
+        this.maxObjectStack = maxObjectStack;
+    }
+
+    int[] code()             { return code; }
+    Object[] constants()     { return constants; }
+    int localCount()         { return localCount; }
+    int maxIntStack()        { return maxIntStack; }
+    int maxObjectStack()     { return maxObjectStack; }
+
+    public int size() {
+        return code.length;
+    }
+
+    // Human-readable listing of the instruction stream, used by --debug
+    public String disassemble() {
+        StringBuilder sb = new StringBuilder();
+        int pc = 0;
+        while (pc < code.length) {
+            int operands = Opcode.operandCount(code, pc);
+            sb.append(String.format("  %04d  %-13s", pc, Opcode.name(code[pc])));
+            if (code[pc] == Opcode.SCONST || code[pc] == Opcode.FAIL) {
+                sb.append('"').append(constants[code[pc + 1]]).append('"');
+            } else if (operands > 0) {
+                sb.append(Arrays.toString(Arrays.copyOfRange(code, pc + 1, pc + 1 + operands)));
+            }
+            sb.append('\n');
+            pc += 1 + operands;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package org.lexor.vm;
+
+// Instruction set of the LEXOR stack VM.
+// INT, FLOAT (as raw float bits), BOOL (0/1) and CHAR live on the int stack; STRING lives on the object stack.
+// Operands follow the opcode inline in the int[] code stream.
+public final class Opcode {
+    // Constants and variables
+    public static final int ICONST = 0;        // value      push an int-stack constant (INT, FLOAT bits, BOOL, CHAR)
+    public static final int SCONST = 1;        // index      push a STRING from the constant pool
+    public static final int ILOAD = 2;         // slot
+    public static final int SLOAD = 3;         // slot
+    public static final int ISTORE = 4;        // slot       pops the value
+    public static final int SSTORE = 5;        // slot       pops the value
+    public static final int IDUP = 6;
+    public static final int SDUP = 7;
+
+    // INT arithmetic
+    public static final int IADD = 8;
+    public static final int ISUB = 9;
+    public static final int IMUL = 10;
+    public static final int IDIV = 11;
+    public static final int IMOD = 12;
+    public static final int INEG = 13;
+
+    // FLOAT arithmetic
+    public static final int FADD = 14;
+    public static final int FSUB = 15;
+    public static final int FMUL = 16;
+    public static final int FDIV = 17;
+    public static final int FMOD = 18;
+    public static final int FNEG = 19;
+    public static final int I2F = 20;
+
+    // Comparisons (push a BOOL)
+    public static final int ICMPEQ = 21;
+    public static final int ICMPNE = 22;
+    public static final int ICMPLT = 23;
+    public static final int ICMPLE = 24;
+    public static final int ICMPGT = 25;
+    public static final int ICMPGE = 26;
+    public static final int FCMPEQ = 27;
+    public static final int FCMPNE = 28;
+    public static final int FCMPLT = 29;
+    public static final int FCMPLE = 30;
+    public static final int FCMPGT = 31;
+    public static final int FCMPGE = 32;
+    public static final int SCMPEQ = 33;
+    public static final int SCMPNE = 34;
+
+    // BOOL logic
+    public static final int NOT = 35;
+    public static final int AND = 36;
+    public static final int OR = 37;
+
+    // Conversion to STRING and concatenation
+    public static final int I2S = 38;
+    public static final int F2S = 39;
+    public static final int B2S = 40;
+    public static final int C2S = 41;
+    public static final int CONCAT = 42;
+
+    // Output and input
+    public static final int PRINTI = 43;
+    public static final int PRINTF = 44;
+    public static final int PRINTB = 45;
+    public static final int PRINTC = 46;
+    public static final int PRINTS = 47;
+    public static final int SCAN = 48;         // count, then (slot, type ordinal, name index) per target
+
+    // Control flow
+    public static final int JMP = 49;          // target
+    public static final int JMP_IF_FALSE = 50; // target     pops a BOOL
+    public static final int FAIL = 51;         // index      raises a RuntimeError with the pooled message
+    public static final int HALT = 52;
+
+    private static final String[] NAMES = {
+            "ICONST", "SCONST", "ILOAD", "SLOAD", "ISTORE", "SSTORE", "IDUP", "SDUP",
+            "IADD", "ISUB", "IMUL", "IDIV", "IMOD", "INEG",
+            "FADD", "FSUB", "FMUL", "FDIV", "FMOD", "FNEG", "I2F",
+            "ICMPEQ", "ICMPNE", "ICMPLT", "ICMPLE", "ICMPGT", "ICMPGE",
+            "FCMPEQ", "FCMPNE", "FCMPLT", "FCMPLE", "FCMPGT", "FCMPGE",
+            "SCMPEQ", "SCMPNE",
+            "NOT", "AND", "OR",
+            "I2S", "F2S", "B2S", "C2S", "CONCAT",
+            "PRINTI", "PRINTF", "PRINTB", "PRINTC", "PRINTS", "SCAN",
+            "JMP", "JMP_IF_FALSE", "FAIL", "HALT"
+    };
+
+    private Opcode() {
+    }
+
+    public static String name(int opcode) {
+        return NAMES[opcode];
+    }
+
+    // Number of inline operands following the opcode at code[pc]
+    public static int operandCount(int[] code, int pc) {
+        return switch (code[pc]) {
+            case ICONST, SCONST, ILOAD, SLOAD, ISTORE, SSTORE, JMP, JMP_IF_FALSE, FAIL -> 1;
+            case SCAN -> 1 + 3 * code[pc + 1];
+            default -> 0;
+        };
+    }
+}
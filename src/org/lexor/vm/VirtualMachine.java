@@ -0,0 +1,162 @@
+package org.lexor.vm;
+
+import org.lexor.error.RuntimeError;
+import org.lexor.runtime.InputReader;
+import org.lexor.runtime.values.FloatValue;
+import org.lexor.semantic.symbol.Type;
+
+// Executes a Chunk with a single dispatch loop over the int[] instruction stream.
+// Primitive values never leave the int stack/locals, so no RuntimeValue is allocated per operation.
+public class VirtualMachine {
+    private static final Type[] TYPES = Type.values();
+
+    private InputReader input;
+
+    public void run(Chunk chunk) {
+        final int[] code = chunk.code();
+        final Object[] constants = chunk.constants();
+        final int[] istack = new int[chunk.maxIntStack()];
+        final Object[] ostack = new Object[chunk.maxObjectStack()];
+        final int[] ilocals = new int[chunk.localCount()];
+        final Object[] olocals = new Object[chunk.localCount()];
+        int isp = 0;
+        int osp = 0;
+        int pc = 0;
+
+        while (true) {
+            switch (code[pc++]) {
+                case Opcode.ICONST -> istack[isp++] = code[pc++];
+                case Opcode.SCONST -> ostack[osp++] = constants[code[pc++]];
+                case Opcode.ILOAD -> istack[isp++] = ilocals[code[pc++]];
+                case Opcode.SLOAD -> ostack[osp++] = olocals[code[pc++]];
+                case Opcode.ISTORE -> ilocals[code[pc++]] = istack[--isp];
+                case Opcode.SSTORE -> olocals[code[pc++]] = ostack[--osp];
+                case Opcode.IDUP -> {
+                    istack[isp] = istack[isp - 1];
+                    isp++;
+                }
+                case Opcode.SDUP -> {
+                    ostack[osp] = ostack[osp - 1];
+                    osp++;
+                }
+
+                case Opcode.IADD -> { isp--; istack[isp - 1] += istack[isp]; }
+                case Opcode.ISUB -> { isp--; istack[isp - 1] -= istack[isp]; }
+                case Opcode.IMUL -> { isp--; istack[isp - 1] *= istack[isp]; }
+                case Opcode.IDIV -> {
+                    int r = istack[--isp];
+                    if (r == 0) throw new RuntimeError("Division by zero.");
+                    istack[isp - 1] /= r;
+                }
+                case Opcode.IMOD -> {
+                    int r = istack[--isp];
+                    if (r == 0) throw new RuntimeError("Division by zero.");
+                    istack[isp - 1] %= r;
+                }
+                case Opcode.INEG -> istack[isp - 1] = -istack[isp - 1];
+
+                case Opcode.FADD -> { isp--; istack[isp - 1] = bits(f(istack[isp - 1]) + f(istack[isp])); }
+                case Opcode.FSUB -> { isp--; istack[isp - 1] = bits(f(istack[isp - 1]) - f(istack[isp])); }
+                case Opcode.FMUL -> { isp--; istack[isp - 1] = bits(f(istack[isp - 1]) * f(istack[isp])); }
+                case Opcode.FDIV -> {
+                    float r = f(istack[--isp]);
+                    if (r == 0) throw new RuntimeError("Division by zero.");
+                    istack[isp - 1] = bits(f(istack[isp - 1]) / r);
+                }
+                case Opcode.FMOD -> { isp--; istack[isp - 1] = bits(f(istack[isp - 1]) % f(istack[isp])); }
+                case Opcode.FNEG -> istack[isp - 1] = bits(-f(istack[isp - 1]));
+                case Opcode.I2F -> istack[isp - 1] = bits((float) istack[isp - 1]);
+
+                case Opcode.ICMPEQ -> { isp--; istack[isp - 1] = b(istack[isp - 1] == istack[isp]); }
+                case Opcode.ICMPNE -> { isp--; istack[isp - 1] = b(istack[isp - 1] != istack[isp]); }
+                case Opcode.ICMPLT -> { isp--; istack[isp - 1] = b(istack[isp - 1] < istack[isp]); }
+                case Opcode.ICMPLE -> { isp--; istack[isp - 1] = b(istack[isp - 1] <= istack[isp]); }
+                case Opcode.ICMPGT -> { isp--; istack[isp - 1] = b(istack[isp - 1] > istack[isp]); }
+                case Opcode.ICMPGE -> { isp--; istack[isp - 1] = b(istack[isp - 1] >= istack[isp]); }
+                case Opcode.FCMPEQ -> { isp--; istack[isp - 1] = b(f(istack[isp - 1]) == f(istack[isp])); }
+                case Opcode.FCMPNE -> { isp--; istack[isp - 1] = b(f(istack[isp - 1]) != f(istack[isp])); }
+                case Opcode.FCMPLT -> { isp--; istack[isp - 1] = b(f(istack[isp - 1]) < f(istack[isp])); }
+                case Opcode.FCMPLE -> { isp--; istack[isp - 1] = b(f(istack[isp - 1]) <= f(istack[isp])); }
+                case Opcode.FCMPGT -> { isp--; istack[isp - 1] = b(f(istack[isp - 1]) > f(istack[isp])); }
+                case Opcode.FCMPGE -> { isp--; istack[isp - 1] = b(f(istack[isp - 1]) >= f(istack[isp])); }
+                case Opcode.SCMPEQ -> {
+                    osp -= 2;
+                    istack[isp++] = b(ostack[osp].equals(ostack[osp + 1]));
+                }
+                case Opcode.SCMPNE -> {
+                    osp -= 2;
+                    istack[isp++] = b(!ostack[osp].equals(ostack[osp + 1]));
+                }
+
+                case Opcode.NOT -> istack[isp - 1] ^= 1;
+                case Opcode.AND -> { isp--; istack[isp - 1] &= istack[isp]; }
+                case Opcode.OR -> { isp--; istack[isp - 1] |= istack[isp]; }
+
+                case Opcode.I2S -> ostack[osp++] = String.valueOf(istack[--isp]);
+                case Opcode.F2S -> ostack[osp++] = FloatValue.format(f(istack[--isp]));
+                case Opcode.B2S -> ostack[osp++] = istack[--isp] != 0 ? "TRUE" : "FALSE";
+                case Opcode.C2S -> ostack[osp++] = String.valueOf((char) istack[--isp]);
+                case Opcode.CONCAT -> {
+                    osp--;
+                    ostack[osp - 1] = (String) ostack[osp - 1] + ostack[osp];
+                    ostack[osp] = null;
+                }
+
+                case Opcode.PRINTI -> System.out.print(istack[--isp]);
+                case Opcode.PRINTF -> System.out.print(FloatValue.format(f(istack[--isp])));
+                case Opcode.PRINTB -> System.out.print(istack[--isp] != 0 ? "TRUE" : "FALSE");
+                case Opcode.PRINTC -> System.out.print((char) istack[--isp]);
+                case Opcode.PRINTS -> {
+                    System.out.print((String) ostack[--osp]);
+                    ostack[osp] = null;
+                }
+                case Opcode.SCAN -> pc = scan(code, constants, pc, ilocals, olocals);
+
+                case Opcode.JMP -> pc = code[pc];
+                case Opcode.JMP_IF_FALSE -> pc = (istack[--isp] == 0) ? code[pc] : pc + 1;
+                case Opcode.FAIL -> throw new RuntimeError((String) constants[code[pc]]);
+                case Opcode.HALT -> {
+                    return;
+                }
+                default -> throw new IllegalStateException("Unknown opcode " + code[pc - 1] + " at " + (pc - 1));
+            }
+        }
+    }
+
+    // Reads one input line into the SCAN targets and returns the pc after the instruction's operands
+    private int scan(int[] code, Object[] constants, int pc, int[] ilocals, Object[] olocals) {
+        if (input == null) {
+            input = InputReader.stdin();
+        }
+        int count = code[pc++];
+        input.readLine();
+
+        for (int i = 0; i < count; i++) {
+            int slot = code[pc++];
+            Type type = TYPES[code[pc++]];
+            String name = (String) constants[code[pc++]];
+            switch (type) {
+                case INT -> ilocals[slot] = input.parseInt(i, name);
+                case FLOAT -> ilocals[slot] = bits(input.parseFloat(i, name));
+                case BOOL -> ilocals[slot] = b(input.parseBool(i, name));
+                case CHAR -> ilocals[slot] = input.parseChar(i, name);
+                default -> olocals[slot] = input.parseString(i, name);
+            }
+        }
+
+        input.checkCount(count);
+        return pc;
+    }
+
+    private static float f(int bits) {
+        return Float.intBitsToFloat(bits);
+    }
+
+    private static int bits(float value) {
+        return Float.floatToRawIntBits(value);
+    }
+
+    private static int b(boolean value) {
+        return value ? 1 : 0;
+    }
+}